@@ -0,0 +1,46 @@
+package com.postitapplications.person.benchmark;
+
+import com.postitapplications.person.utility.DateOfBirthFormat;
+import java.text.ParseException;
+import java.text.SimpleDateFormat;
+import java.util.concurrent.TimeUnit;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class DateOfBirthValidationBenchmark {
+
+    @Param({"10/10/2000", "31/02/2000"})
+    private String dateOfBirth;
+
+    @Benchmark
+    public boolean simpleDateFormat() {
+        SimpleDateFormat simpleDateFormat = new SimpleDateFormat("dd/MM/yyyy");
+        simpleDateFormat.setLenient(false);
+
+        try {
+            simpleDateFormat.parse(dateOfBirth);
+            return true;
+        } catch (ParseException exception) {
+            return false;
+        }
+    }
+
+    @Benchmark
+    public boolean dateOfBirthFormat() {
+        return DateOfBirthFormat.isValid(dateOfBirth);
+    }
+}
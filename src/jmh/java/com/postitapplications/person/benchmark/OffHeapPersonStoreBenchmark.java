@@ -0,0 +1,66 @@
+package com.postitapplications.person.benchmark;
+
+import com.postitapplications.person.document.Person;
+import com.postitapplications.person.document.Person.Gender;
+import com.postitapplications.person.repository.OffHeapPersonStore;
+import java.util.UUID;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Threads;
+import org.openjdk.jmh.annotations.Warmup;
+
+/**
+ * Measures lookups and overwrites against a populated {@link OffHeapPersonStore} from several
+ * threads, so stripe contention shows up as the stripe count changes. Run with the gc profiler to
+ * confirm that only the returned person is allocated per lookup.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Threads(4)
+@Fork(1)
+public class OffHeapPersonStoreBenchmark {
+
+    private static final int PEOPLE = 1_000_000;
+
+    @Param({"1", "16"})
+    private int stripes;
+
+    private OffHeapPersonStore store;
+    private UUID[] ids;
+
+    @Setup
+    public void setUp() {
+        store = new OffHeapPersonStore(stripes, PEOPLE);
+        ids = new UUID[PEOPLE];
+
+        for (int i = 0; i < PEOPLE; i++) {
+            ids[i] = UUID.randomUUID();
+            store.put(new Person(ids[i], "John Smith " + i, 70.5f, 180f, "10/10/2000",
+                Gender.MALE, 0L));
+        }
+    }
+
+    @Benchmark
+    public Person get() {
+        return store.get(ids[ThreadLocalRandom.current().nextInt(PEOPLE)]);
+    }
+
+    @Benchmark
+    public void put() {
+        UUID id = ids[ThreadLocalRandom.current().nextInt(PEOPLE)];
+        store.put(new Person(id, "Jane Smith", 60f, 170f, "11/11/2001", Gender.FEMALE, 1L));
+    }
+}
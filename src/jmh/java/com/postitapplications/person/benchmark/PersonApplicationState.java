@@ -0,0 +1,31 @@
+package com.postitapplications.person.benchmark;
+
+import com.postitapplications.person.PersonApplication;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.springframework.boot.builder.SpringApplicationBuilder;
+import org.springframework.context.ConfigurableApplicationContext;
+
+@State(Scope.Benchmark)
+public class PersonApplicationState {
+
+    private ConfigurableApplicationContext applicationContext;
+
+    @Setup(Level.Trial)
+    public void startApplication() {
+        applicationContext = new SpringApplicationBuilder(PersonApplication.class)
+            .properties("server.port=0", "eureka.client.enabled=false").run();
+    }
+
+    @TearDown(Level.Trial)
+    public void stopApplication() {
+        applicationContext.close();
+    }
+
+    public ConfigurableApplicationContext getApplicationContext() {
+        return applicationContext;
+    }
+}
@@ -0,0 +1,62 @@
+package com.postitapplications.person.benchmark;
+
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.post;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.postitapplications.person.document.Person;
+import com.postitapplications.person.document.Person.Gender;
+import com.postitapplications.person.repository.PersonRepo;
+import java.util.UUID;
+import java.util.concurrent.TimeUnit;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.springframework.http.MediaType;
+import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.MvcResult;
+import org.springframework.test.web.servlet.setup.MockMvcBuilders;
+import org.springframework.web.context.WebApplicationContext;
+
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class PersonControllerBenchmark {
+
+    private MockMvc mockMvc;
+    private String personJson;
+    private UUID savedPersonId;
+
+    @Setup(Level.Trial)
+    public void setUp(PersonApplicationState applicationState) throws Exception {
+        WebApplicationContext webApplicationContext = (WebApplicationContext) applicationState
+            .getApplicationContext();
+        mockMvc = MockMvcBuilders.webAppContextSetup(webApplicationContext).build();
+        personJson = new ObjectMapper().writeValueAsString(
+            new Person(null, "John Smith", 1f, 1f, "10/10/2000", Gender.MALE));
+        savedPersonId = webApplicationContext.getBean("MongoDBRepo", PersonRepo.class).save(
+            new Person(null, "John Smith", 1f, 1f, "10/10/2000", Gender.MALE)).getId();
+    }
+
+    @Benchmark
+    public MvcResult savePerson() throws Exception {
+        return mockMvc.perform(post("/person").contentType(MediaType.APPLICATION_JSON)
+                                              .content(personJson)).andReturn();
+    }
+
+    @Benchmark
+    public MvcResult getPersonById() throws Exception {
+        return mockMvc.perform(get("/person/" + savedPersonId)).andReturn();
+    }
+}
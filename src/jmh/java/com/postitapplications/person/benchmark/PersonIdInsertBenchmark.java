@@ -0,0 +1,81 @@
+package com.postitapplications.person.benchmark;
+
+import com.mongodb.bulk.BulkWriteResult;
+import com.postitapplications.person.document.Person;
+import com.postitapplications.person.document.Person.Gender;
+import com.postitapplications.person.id.PersonIdGenerator;
+import com.postitapplications.person.id.TimeOrderedPersonIdGenerator;
+import com.postitapplications.person.repository.PersonRepo;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OperationsPerInvocation;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.springframework.data.mongodb.core.MongoTemplate;
+
+/**
+ * Measures bulk inserts into a people collection that already holds ten million documents, with
+ * random ids against time-ordered ones. Once the id index no longer fits in the WiredTiger cache,
+ * random ids have to read a different index page for almost every insert, while time-ordered ids
+ * keep appending to the same few. Filling the collection takes a while, so run this against a
+ * real Mongo rather than the embedded one, and watch the cache eviction statistics alongside.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 2, time = 10)
+@Measurement(iterations = 5, time = 10)
+@Fork(1)
+public class PersonIdInsertBenchmark {
+
+    private static final int PRELOADED_PEOPLE = 10_000_000;
+    private static final int BATCH_SIZE = 1000;
+
+    @Param({"random", "time-ordered"})
+    private String generator;
+
+    private PersonRepo personRepo;
+    private PersonIdGenerator personIdGenerator;
+
+    @Setup(Level.Trial)
+    public void setUp(PersonApplicationState applicationState) {
+        applicationState.getApplicationContext().getBean(MongoTemplate.class)
+                        .dropCollection(Person.class);
+        personRepo = applicationState.getApplicationContext()
+                                     .getBean("MongoDBRepo", PersonRepo.class);
+        personIdGenerator = "random".equals(generator) ? PersonIdGenerator.random()
+            : new TimeOrderedPersonIdGenerator();
+
+        for (int i = 0; i < PRELOADED_PEOPLE; i += BATCH_SIZE) {
+            insertBatch();
+        }
+    }
+
+    @Benchmark
+    @OperationsPerInvocation(BATCH_SIZE)
+    public BulkWriteResult insertAll() {
+        return insertBatch();
+    }
+
+    private BulkWriteResult insertBatch() {
+        List<Person> people = new ArrayList<>(BATCH_SIZE);
+
+        for (int i = 0; i < BATCH_SIZE; i++) {
+            people.add(new Person(personIdGenerator.nextId(), "John Smith", 70.5f, 180f,
+                "10/10/2000", Gender.MALE, 0L));
+        }
+
+        return personRepo.insertAll(people);
+    }
+}
@@ -0,0 +1,84 @@
+package com.postitapplications.person.benchmark;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.ObjectReader;
+import com.fasterxml.jackson.databind.ObjectWriter;
+import com.fasterxml.jackson.module.blackbird.BlackbirdModule;
+import com.postitapplications.person.document.Person;
+import com.postitapplications.person.document.Person.Gender;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.UUID;
+import java.util.concurrent.TimeUnit;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class PersonJsonBenchmark {
+
+    private static final int LIST_SIZE = 1000;
+
+    @Param({"false", "true"})
+    private boolean blackbird;
+
+    private ObjectReader personReader;
+    private ObjectWriter personWriter;
+    private Person person;
+    private String personJson;
+    private ObjectWriter personListWriter;
+    private List<Person> people;
+
+    @Setup
+    public void setUp() throws JsonProcessingException {
+        ObjectMapper objectMapper = new ObjectMapper();
+
+        if (blackbird) {
+            objectMapper.registerModule(new BlackbirdModule());
+        }
+
+        personReader = objectMapper.readerFor(Person.class);
+        personWriter = objectMapper.writerFor(Person.class);
+        person = new Person(UUID.randomUUID(), "John Smith", 1f, 1f, "10/10/2000", Gender.MALE);
+        personJson = personWriter.writeValueAsString(person);
+        personListWriter = objectMapper.writerFor(
+            objectMapper.getTypeFactory().constructCollectionType(List.class, Person.class));
+        people = new ArrayList<>(LIST_SIZE);
+
+        for (int i = 0; i < LIST_SIZE; i++) {
+            people.add(
+                new Person(UUID.randomUUID(), "John Smith", 1f, 1f, "10/10/2000", Gender.MALE));
+        }
+    }
+
+    @Benchmark
+    public String serializePerson() throws JsonProcessingException {
+        return personWriter.writeValueAsString(person);
+    }
+
+    @Benchmark
+    public Person deserializePerson() throws JsonProcessingException {
+        return personReader.readValue(personJson);
+    }
+
+    @Benchmark
+    public void serializePeople() throws IOException {
+        personListWriter.writeValue(OutputStream.nullOutputStream(), people);
+    }
+}
@@ -0,0 +1,81 @@
+package com.postitapplications.person.benchmark;
+
+import com.postitapplications.person.document.Person;
+import com.postitapplications.person.document.Person.Gender;
+import com.postitapplications.person.repository.OffHeapPersonRepository;
+import com.postitapplications.person.repository.OffHeapPersonStore;
+import com.postitapplications.person.repository.PersonLog;
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.Duration;
+import java.util.Comparator;
+import java.util.UUID;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.Stream;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Threads;
+import org.openjdk.jmh.annotations.Warmup;
+
+/**
+ * Measures durable saves through the off-heap repository with a {@link PersonLog} from several
+ * threads, so the effect of sharing fsyncs shows up as the group-commit window changes. Compare
+ * against fsync disabled for the cost of durability itself.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Threads(8)
+@Fork(1)
+public class PersonLogBenchmark {
+
+    @Param({"true", "false"})
+    private boolean fsync;
+
+    @Param({"0", "1"})
+    private int groupCommitWindowMillis;
+
+    private Path directory;
+    private PersonLog personLog;
+    private OffHeapPersonRepository offHeapPersonRepository;
+    private Person person;
+
+    @Setup(Level.Trial)
+    public void setUp() throws IOException {
+        directory = Files.createTempDirectory("person-log-benchmark");
+        personLog = new PersonLog(directory, 64 << 20, fsync,
+            Duration.ofMillis(groupCommitWindowMillis), Duration.ZERO, 4);
+        offHeapPersonRepository = new OffHeapPersonRepository(
+            new OffHeapPersonStore(16, 1_000_000), personLog);
+        person = new Person(null, "John Smith", 70.5f, 180f, "10/10/2000", Gender.MALE);
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() throws IOException {
+        personLog.close();
+
+        try (Stream<Path> files = Files.walk(directory)) {
+            for (Path file : (Iterable<Path>) files.sorted(Comparator.reverseOrder())::iterator) {
+                Files.delete(file);
+            }
+        }
+    }
+
+    @Benchmark
+    public Person save() {
+        return offHeapPersonRepository.save(UUID.randomUUID(), person);
+    }
+}
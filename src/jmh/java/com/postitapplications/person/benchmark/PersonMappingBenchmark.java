@@ -0,0 +1,133 @@
+package com.postitapplications.person.benchmark;
+
+import com.mongodb.MongoClientSettings;
+import com.postitapplications.person.converter.PersonCodec;
+import com.postitapplications.person.converter.PersonReadConverter;
+import com.postitapplications.person.converter.PersonWriteConverter;
+import com.postitapplications.person.document.Person;
+import com.postitapplications.person.document.Person.Gender;
+import java.nio.ByteBuffer;
+import java.util.UUID;
+import java.util.concurrent.TimeUnit;
+import org.bson.BsonBinaryReader;
+import org.bson.BsonBinaryWriter;
+import org.bson.Document;
+import org.bson.RawBsonDocument;
+import org.bson.UuidRepresentation;
+import org.bson.codecs.DecoderContext;
+import org.bson.codecs.DocumentCodec;
+import org.bson.codecs.EncoderContext;
+import org.bson.codecs.UuidCodec;
+import org.bson.codecs.configuration.CodecRegistries;
+import org.bson.io.BasicOutputBuffer;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.springframework.data.mongodb.core.convert.MappingMongoConverter;
+import org.springframework.data.mongodb.core.convert.NoOpDbRefResolver;
+import org.springframework.data.mongodb.core.mapping.MongoMappingContext;
+
+/**
+ * Compares the hand-written Person converters and {@link PersonCodec} with Spring Data's
+ * reflective mapping. The decode benchmarks start from raw BSON bytes, as a cursor does. Run with
+ * the gc profiler (the profile default) to compare allocation per operation, or add
+ * -jvmArgsAppend -Xlog:gc for GC logs.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class PersonMappingBenchmark {
+
+    private MappingMongoConverter reflectiveConverter;
+    private PersonReadConverter personReadConverter;
+    private PersonWriteConverter personWriteConverter;
+    private Person person;
+    private Document document;
+    private PersonCodec personCodec;
+    private DocumentCodec documentCodec;
+    private byte[] bson;
+
+    @Setup
+    public void setUp() {
+        MongoMappingContext mappingContext = new MongoMappingContext();
+        reflectiveConverter = new MappingMongoConverter(NoOpDbRefResolver.INSTANCE,
+            mappingContext);
+        reflectiveConverter.afterPropertiesSet();
+        personReadConverter = new PersonReadConverter();
+        personWriteConverter = new PersonWriteConverter();
+        person = new Person(UUID.randomUUID(), "John Smith", 70.5f, 180f, "10/10/2000",
+            Gender.MALE, 1L);
+        document = personWriteConverter.convert(person);
+        UuidCodec uuidCodec = new UuidCodec(UuidRepresentation.STANDARD);
+        personCodec = new PersonCodec(uuidCodec);
+        documentCodec = new DocumentCodec(CodecRegistries.fromRegistries(
+            CodecRegistries.fromCodecs(uuidCodec), MongoClientSettings.getDefaultCodecRegistry()));
+        bson = new RawBsonDocument(document, documentCodec).getByteBuffer().array();
+    }
+
+    @Benchmark
+    public Person readReflective() {
+        return reflectiveConverter.read(Person.class, document);
+    }
+
+    @Benchmark
+    public Person readConverter() {
+        return personReadConverter.convert(document);
+    }
+
+    @Benchmark
+    public Document writeReflective() {
+        Document target = new Document();
+        reflectiveConverter.write(person, target);
+        return target;
+    }
+
+    @Benchmark
+    public Document writeConverter() {
+        return personWriteConverter.convert(person);
+    }
+
+    @Benchmark
+    public Person decodeReflective() {
+        return reflectiveConverter.read(Person.class, decodeDocument());
+    }
+
+    @Benchmark
+    public Person decodeConverter() {
+        return personReadConverter.convert(decodeDocument());
+    }
+
+    @Benchmark
+    public Person decodeCodec() {
+        try (BsonBinaryReader reader = new BsonBinaryReader(ByteBuffer.wrap(bson))) {
+            return personCodec.decode(reader, DecoderContext.builder().build());
+        }
+    }
+
+    @Benchmark
+    public int encodeCodec() {
+        BasicOutputBuffer buffer = new BasicOutputBuffer(128);
+
+        try (BsonBinaryWriter writer = new BsonBinaryWriter(buffer)) {
+            personCodec.encode(writer, person, EncoderContext.builder().build());
+        }
+
+        return buffer.getPosition();
+    }
+
+    private Document decodeDocument() {
+        try (BsonBinaryReader reader = new BsonBinaryReader(ByteBuffer.wrap(bson))) {
+            return documentCodec.decode(reader, DecoderContext.builder().build());
+        }
+    }
+}
@@ -0,0 +1,66 @@
+package com.postitapplications.person.benchmark;
+
+import com.mongodb.client.result.DeleteResult;
+import com.mongodb.client.result.UpdateResult;
+import com.postitapplications.person.document.Person;
+import com.postitapplications.person.document.Person.Gender;
+import com.postitapplications.person.repository.PersonRepo;
+import java.util.UUID;
+import java.util.concurrent.TimeUnit;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.springframework.data.mongodb.core.MongoTemplate;
+
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class PersonRepositoryBenchmark {
+
+    private PersonRepo personRepo;
+    private UUID savedPersonId;
+    private Person savedPerson;
+
+    @Setup(Level.Trial)
+    public void setUp(PersonApplicationState applicationState) {
+        MongoTemplate mongoTemplate = applicationState.getApplicationContext()
+                                                      .getBean(MongoTemplate.class);
+        mongoTemplate.dropCollection(Person.class);
+        personRepo = applicationState.getApplicationContext()
+                                     .getBean("MongoDBRepo", PersonRepo.class);
+        savedPersonId = UUID.randomUUID();
+        savedPerson = personRepo.save(savedPersonId,
+            new Person(null, "John Smith", 1f, 1f, "10/10/2000", Gender.MALE));
+    }
+
+    @Benchmark
+    public Person save() {
+        return personRepo.save(new Person(null, "Jane Smith", 1f, 1f, "10/10/2000", Gender.FEMALE));
+    }
+
+    @Benchmark
+    public Person findById() {
+        return personRepo.findById(savedPersonId);
+    }
+
+    @Benchmark
+    public UpdateResult update() {
+        return personRepo.update(savedPerson);
+    }
+
+    @Benchmark
+    public DeleteResult removeById() {
+        return personRepo.removeById(UUID.randomUUID());
+    }
+}
@@ -0,0 +1,58 @@
+package com.postitapplications.person.benchmark;
+
+import com.postitapplications.person.document.Person;
+import com.postitapplications.person.document.Person.Gender;
+import com.postitapplications.person.document.PersonStats;
+import com.postitapplications.person.document.PersonStatsAccumulator;
+import java.time.LocalDate;
+import java.util.UUID;
+import java.util.concurrent.TimeUnit;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Threads;
+import org.openjdk.jmh.annotations.Warmup;
+
+/**
+ * Measures recording a write in {@link PersonStatsAccumulator} from several threads, and taking a
+ * snapshot while they do. Compare against one thread to see how much the striped adders cost
+ * under contention.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Threads(8)
+@Fork(1)
+public class PersonStatsAccumulatorBenchmark {
+
+    private PersonStatsAccumulator accumulator;
+    private Person previousPerson;
+    private Person currentPerson;
+
+    @Setup
+    public void setUp() {
+        accumulator = new PersonStatsAccumulator(LocalDate.now());
+        UUID id = UUID.randomUUID();
+        previousPerson = new Person(id, "John Smith", 70.5f, 180f, "10/10/2000", Gender.MALE, 0L);
+        currentPerson = new Person(id, "John Smith", 72f, 180f, "10/10/2000", Gender.MALE, 1L);
+    }
+
+    @Benchmark
+    public void replace() {
+        accumulator.remove(previousPerson);
+        accumulator.add(currentPerson);
+    }
+
+    @Benchmark
+    public PersonStats snapshot() {
+        return accumulator.toPersonStats();
+    }
+}
@@ -0,0 +1,76 @@
+package com.postitapplications.person.benchmark;
+
+import com.postitapplications.person.PersonApplication;
+import com.postitapplications.person.document.Person;
+import com.postitapplications.person.document.Person.Gender;
+import java.io.IOException;
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.net.http.HttpResponse.BodyHandlers;
+import java.util.UUID;
+import java.util.concurrent.TimeUnit;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Threads;
+import org.openjdk.jmh.annotations.Warmup;
+import org.springframework.boot.builder.SpringApplicationBuilder;
+import org.springframework.context.ConfigurableApplicationContext;
+import org.springframework.data.mongodb.core.MongoTemplate;
+
+/**
+ * Load test comparing the servlet stack with the reactive stack over real HTTP. Both runs use
+ * the same number of concurrent client threads against GET /person/{id}.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode({Mode.Throughput, Mode.SampleTime})
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3, time = 5)
+@Measurement(iterations = 5, time = 5)
+@Threads(256)
+@Fork(1)
+public class PersonWebStackBenchmark {
+
+    @Param({"default", "reactive"})
+    private String profile;
+
+    private ConfigurableApplicationContext applicationContext;
+    private HttpClient httpClient;
+    private HttpRequest getPersonRequest;
+
+    @Setup(Level.Trial)
+    public void setUp() {
+        applicationContext = new SpringApplicationBuilder(PersonApplication.class)
+            .profiles(profile).properties("server.port=0", "eureka.client.enabled=false").run();
+        UUID savedPersonId = UUID.randomUUID();
+        applicationContext.getBean(MongoTemplate.class).save(
+            new Person(savedPersonId, "John Smith", 1f, 1f, "10/10/2000", Gender.MALE));
+        String port = applicationContext.getEnvironment().getProperty("local.server.port");
+
+        httpClient = HttpClient.newHttpClient();
+        getPersonRequest = HttpRequest
+            .newBuilder(URI.create("http://localhost:" + port + "/person/" + savedPersonId))
+            .GET().build();
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() {
+        applicationContext.close();
+    }
+
+    @Benchmark
+    public HttpResponse<String> getPersonById() throws IOException, InterruptedException {
+        return httpClient.send(getPersonRequest, BodyHandlers.ofString());
+    }
+}
@@ -0,0 +1,129 @@
+package com.postitapplications.person.benchmark;
+
+import com.fasterxml.jackson.core.JsonFactory;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.ObjectReader;
+import com.fasterxml.jackson.databind.ObjectWriter;
+import com.fasterxml.jackson.dataformat.cbor.CBORFactory;
+import com.fasterxml.jackson.dataformat.smile.SmileFactory;
+import com.fasterxml.jackson.module.blackbird.BlackbirdModule;
+import com.postitapplications.person.document.Person;
+import com.postitapplications.person.document.Person.Gender;
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.UUID;
+import java.util.concurrent.TimeUnit;
+import org.openjdk.jmh.annotations.AuxCounters;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+/**
+ * Compares JSON with the Smile and CBOR wire formats for a single person and for a list of
+ * people. Serialization cost shows up in the scores and the gc profiler; payload sizes are
+ * reported as the singleBytes and listBytes secondary results.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class PersonWireFormatBenchmark {
+
+    private static final int LIST_SIZE = 1000;
+
+    @Param({"json", "smile", "cbor"})
+    private String format;
+
+    private ObjectWriter personWriter;
+    private ObjectReader personReader;
+    private ObjectWriter personListWriter;
+    private ObjectReader personListReader;
+    private Person person;
+    private List<Person> people;
+    private byte[] personBytes;
+    private byte[] peopleBytes;
+
+    @Setup
+    public void setUp() throws IOException {
+        ObjectMapper objectMapper = new ObjectMapper(factory(format))
+            .registerModule(new BlackbirdModule());
+        personWriter = objectMapper.writerFor(Person.class);
+        personReader = objectMapper.readerFor(Person.class);
+        personListWriter = objectMapper.writerFor(
+            objectMapper.getTypeFactory().constructCollectionType(List.class, Person.class));
+        personListReader = objectMapper.readerFor(
+            objectMapper.getTypeFactory().constructCollectionType(List.class, Person.class));
+        person = new Person(UUID.randomUUID(), "John Smith", 70.5f, 180f, "10/10/2000",
+            Gender.MALE, 1L);
+        people = new ArrayList<>(LIST_SIZE);
+
+        for (int i = 0; i < LIST_SIZE; i++) {
+            people.add(new Person(UUID.randomUUID(), "John Smith " + i, 70.5f, 180f, "10/10/2000",
+                Gender.MALE, 1L));
+        }
+
+        personBytes = personWriter.writeValueAsBytes(person);
+        peopleBytes = personListWriter.writeValueAsBytes(people);
+    }
+
+    @Benchmark
+    public byte[] serializePerson(PayloadSize payloadSize) throws IOException {
+        byte[] bytes = personWriter.writeValueAsBytes(person);
+        payloadSize.singleBytes = bytes.length;
+        return bytes;
+    }
+
+    @Benchmark
+    public Person deserializePerson() throws IOException {
+        return personReader.readValue(personBytes);
+    }
+
+    @Benchmark
+    public byte[] serializePeople(PayloadSize payloadSize) throws IOException {
+        byte[] bytes = personListWriter.writeValueAsBytes(people);
+        payloadSize.listBytes = bytes.length;
+        return bytes;
+    }
+
+    @Benchmark
+    public List<Person> deserializePeople() throws IOException {
+        return personListReader.readValue(peopleBytes);
+    }
+
+    private static JsonFactory factory(String format) {
+        switch (format) {
+            case "smile":
+                return new SmileFactory();
+            case "cbor":
+                return new CBORFactory();
+            default:
+                return new JsonFactory();
+        }
+    }
+
+    @State(Scope.Thread)
+    @AuxCounters(AuxCounters.Type.EVENTS)
+    public static class PayloadSize {
+
+        public long singleBytes;
+        public long listBytes;
+
+        @Setup(Level.Iteration)
+        public void reset() {
+            singleBytes = 0;
+            listBytes = 0;
+        }
+    }
+}
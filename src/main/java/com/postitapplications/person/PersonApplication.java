@@ -4,6 +4,8 @@ import org.springframework.boot.SpringApplication;
 import org.springframework.boot.autoconfigure.SpringBootApplication;
 import org.springframework.cloud.client.discovery.EnableDiscoveryClient;
 import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Profile;
+import org.springframework.web.reactive.config.WebFluxConfigurer;
 import org.springframework.web.servlet.config.annotation.CorsRegistry;
 import org.springframework.web.servlet.config.annotation.WebMvcConfigurer;
 
@@ -11,16 +13,32 @@ import org.springframework.web.servlet.config.annotation.WebMvcConfigurer;
 @SpringBootApplication
 public class PersonApplication {
 
+    private static final String PERSON_PATHS = "/person/**";
+    private static final String ALLOWED_ORIGIN = "http://localhost:8081";
+
     public static void main(String[] args) {
         SpringApplication.run(PersonApplication.class, args);
     }
 
     @Bean
+    @Profile("!reactive")
     public WebMvcConfigurer corsConfigurer() {
         return new WebMvcConfigurer() {
             @Override
             public void addCorsMappings(CorsRegistry registry) {
-                registry.addMapping("/person/**").allowedOrigins("http://localhost:8081");
+                registry.addMapping(PERSON_PATHS).allowedOrigins(ALLOWED_ORIGIN);
+            }
+        };
+    }
+
+    @Bean
+    @Profile("reactive")
+    public WebFluxConfigurer reactiveCorsConfigurer() {
+        return new WebFluxConfigurer() {
+            @Override
+            public void addCorsMappings(
+                org.springframework.web.reactive.config.CorsRegistry registry) {
+                registry.addMapping(PERSON_PATHS).allowedOrigins(ALLOWED_ORIGIN);
             }
         };
     }
@@ -0,0 +1,196 @@
+package com.postitapplications.person.changestream;
+
+import com.mongodb.MongoCommandException;
+import com.mongodb.MongoException;
+import com.mongodb.client.ChangeStreamIterable;
+import com.mongodb.client.MongoChangeStreamCursor;
+import com.mongodb.client.MongoCollection;
+import com.mongodb.client.model.changestream.ChangeStreamDocument;
+import com.mongodb.client.model.changestream.FullDocument;
+import com.postitapplications.person.changestream.PersonChangedEvent.Type;
+import com.postitapplications.person.document.Person;
+import java.time.Duration;
+import java.util.UUID;
+import java.util.concurrent.TimeUnit;
+import javax.annotation.PreDestroy;
+import org.bson.BsonDocument;
+import org.bson.BsonDocumentReader;
+import org.bson.Document;
+import org.bson.codecs.DecoderContext;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.context.annotation.Profile;
+import org.springframework.context.event.EventListener;
+import org.springframework.dao.DataAccessException;
+import org.springframework.data.mongodb.core.MongoTemplate;
+import org.springframework.stereotype.Component;
+
+/**
+ * Watches the people collection with a change stream and republishes every insert, update and
+ * delete as a {@link PersonChangedEvent}, so caches and derived views on every instance can follow
+ * writes made by the others. The resume token is saved after each quiet period and every
+ * token-save-interval events, so a restart resumes from the last saved position. Events after that
+ * position may be published again, so listeners must be idempotent. Change streams need a replica
+ * set or sharded cluster.
+ *
+ * <p>Every instance needs every event, so each saves its own resume token under a consumer name
+ * that defaults to its Eureka instance id. Updates carry the stored person only when
+ * person.change-stream.full-document is set, as looking it up costs a read per update.
+ */
+@Profile("!reactive")
+@Component
+@ConditionalOnProperty(value = "person.change-stream.enabled", havingValue = "true")
+public class PersonChangeStreamListener {
+
+    private static final Logger LOGGER = LoggerFactory
+        .getLogger(PersonChangeStreamListener.class);
+    private static final int CHANGE_STREAM_HISTORY_LOST = 286;
+
+    private final MongoTemplate mongoTemplate;
+    private final MongoCollection<Document> people;
+    private final ResumeTokenStore resumeTokenStore;
+    private final ApplicationEventPublisher eventPublisher;
+    private final String consumerName;
+    private final int tokenSaveInterval;
+    private final FullDocument fullDocument;
+    private final Duration retryDelay;
+    private volatile boolean running;
+    private Thread listenerThread;
+
+    @Autowired
+    public PersonChangeStreamListener(MongoTemplate mongoTemplate,
+        ApplicationEventPublisher eventPublisher,
+        @Value("${person.change-stream.consumer-name:${eureka.instance.instance-id:"
+            + "${spring.cloud.client.hostname}:${spring.application.name}:${server.port}}}")
+            String consumerName,
+        @Value("${person.change-stream.token-save-interval:100}") int tokenSaveInterval,
+        @Value("${person.change-stream.full-document:false}") boolean fullDocument,
+        @Value("${person.change-stream.retry-delay:5s}") Duration retryDelay) {
+        this.mongoTemplate = mongoTemplate;
+        this.people = mongoTemplate.getCollection(mongoTemplate.getCollectionName(Person.class));
+        this.resumeTokenStore = new ResumeTokenStore(mongoTemplate);
+        this.eventPublisher = eventPublisher;
+        this.consumerName = consumerName;
+        this.tokenSaveInterval = tokenSaveInterval;
+        this.fullDocument = fullDocument ? FullDocument.UPDATE_LOOKUP : FullDocument.DEFAULT;
+        this.retryDelay = retryDelay;
+    }
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void startInBackground() {
+        running = true;
+        listenerThread = new Thread(this::listen, "person-change-stream");
+        listenerThread.setDaemon(true);
+        listenerThread.start();
+    }
+
+    @PreDestroy
+    public void stop() throws InterruptedException {
+        running = false;
+
+        if (listenerThread != null) {
+            listenerThread.join(retryDelay.toMillis() + TimeUnit.SECONDS.toMillis(1));
+        }
+    }
+
+    private void listen() {
+        while (running) {
+            try {
+                consume();
+            } catch (MongoCommandException exception) {
+                if (exception.getErrorCode() != CHANGE_STREAM_HISTORY_LOST) {
+                    retryLater(exception);
+                    continue;
+                }
+
+                LOGGER.warn("Saved resume token for {} is no longer in the oplog, starting over",
+                    consumerName);
+                resumeTokenStore.clear(consumerName);
+                eventPublisher.publishEvent(new PersonChangedEvent(Type.INVALIDATE, null, null));
+            } catch (MongoException | DataAccessException exception) {
+                retryLater(exception);
+            }
+        }
+    }
+
+    private void consume() {
+        BsonDocument resumeToken = resumeTokenStore.load(consumerName);
+        ChangeStreamIterable<Document> changeStream = people.watch().fullDocument(fullDocument)
+                                                            .maxAwaitTime(1, TimeUnit.SECONDS);
+
+        if (resumeToken != null) {
+            changeStream.resumeAfter(resumeToken);
+        }
+
+        try (MongoChangeStreamCursor<ChangeStreamDocument<Document>> cursor = changeStream
+            .cursor()) {
+            int unsavedEvents = 0;
+
+            while (running) {
+                ChangeStreamDocument<Document> change = cursor.tryNext();
+
+                if (change != null) {
+                    PersonChangedEvent event = toEvent(change);
+                    eventPublisher.publishEvent(event);
+                    unsavedEvents++;
+
+                    if (event.getType() == Type.INVALIDATE) {
+                        resumeTokenStore.clear(consumerName);
+                        return;
+                    }
+                }
+
+                if (unsavedEvents >= tokenSaveInterval || (change == null && unsavedEvents > 0)) {
+                    resumeTokenStore.save(consumerName, cursor.getResumeToken());
+                    unsavedEvents = 0;
+                }
+            }
+
+            if (unsavedEvents > 0) {
+                resumeTokenStore.save(consumerName, cursor.getResumeToken());
+            }
+        }
+    }
+
+    PersonChangedEvent toEvent(ChangeStreamDocument<Document> change) {
+        switch (change.getOperationType()) {
+            case INSERT:
+                return new PersonChangedEvent(Type.INSERT, id(change), person(change));
+            case UPDATE:
+            case REPLACE:
+                return new PersonChangedEvent(Type.UPDATE, id(change), person(change));
+            case DELETE:
+                return new PersonChangedEvent(Type.DELETE, id(change), null);
+            default:
+                return new PersonChangedEvent(Type.INVALIDATE, null, null);
+        }
+    }
+
+    private UUID id(ChangeStreamDocument<Document> change) {
+        Document documentKey = people.getCodecRegistry().get(Document.class).decode(
+            new BsonDocumentReader(change.getDocumentKey()), DecoderContext.builder().build());
+        return documentKey.get("_id", UUID.class);
+    }
+
+    private Person person(ChangeStreamDocument<Document> change) {
+        Document fullDocument = change.getFullDocument();
+        return fullDocument == null ? null
+            : mongoTemplate.getConverter().read(Person.class, fullDocument);
+    }
+
+    private void retryLater(RuntimeException exception) {
+        LOGGER.warn("Person change stream failed, retrying in {}", retryDelay, exception);
+
+        try {
+            Thread.sleep(retryDelay.toMillis());
+        } catch (InterruptedException interruptedException) {
+            Thread.currentThread().interrupt();
+            running = false;
+        }
+    }
+}
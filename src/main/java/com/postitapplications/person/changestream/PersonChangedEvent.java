@@ -0,0 +1,47 @@
+package com.postitapplications.person.changestream;
+
+import com.postitapplications.person.document.Person;
+import java.util.UUID;
+
+/**
+ * Published for every change to the people collection, whichever instance made it.
+ */
+public class PersonChangedEvent {
+
+    private final Type type;
+    private final UUID id;
+    private final Person person;
+
+    /**
+     * @param id     the id of the changed person, or null for {@link Type#INVALIDATE}
+     * @param person the person as stored after the change, or null for deletes and invalidations.
+     *               Updates only carry it when person.change-stream.full-document is set, and
+     *               not when the person has since been deleted
+     */
+    public PersonChangedEvent(Type type, UUID id, Person person) {
+        this.type = type;
+        this.id = id;
+        this.person = person;
+    }
+
+    public Type getType() {
+        return type;
+    }
+
+    public UUID getId() {
+        return id;
+    }
+
+    public Person getPerson() {
+        return person;
+    }
+
+    public enum Type {
+        INSERT, UPDATE, DELETE,
+        /**
+         * Changes may have been missed, for example because the collection was dropped or the
+         * stream could not resume, so anything derived from the collection must be rebuilt.
+         */
+        INVALIDATE
+    }
+}
@@ -0,0 +1,42 @@
+package com.postitapplications.person.changestream;
+
+import com.mongodb.client.MongoCollection;
+import com.mongodb.client.model.Filters;
+import com.mongodb.client.model.ReplaceOptions;
+import org.bson.BsonDateTime;
+import org.bson.BsonDocument;
+import org.bson.BsonString;
+import org.springframework.data.mongodb.core.MongoTemplate;
+
+/**
+ * Keeps the last processed change stream resume token per consumer, so a restarted consumer
+ * carries on from where it stopped instead of missing or replaying changes.
+ */
+public class ResumeTokenStore {
+
+    static final String RESUME_TOKENS = "changeStreamResumeTokens";
+
+    private final MongoCollection<BsonDocument> resumeTokens;
+
+    public ResumeTokenStore(MongoTemplate mongoTemplate) {
+        this.resumeTokens = mongoTemplate.getCollection(RESUME_TOKENS)
+                                         .withDocumentClass(BsonDocument.class);
+    }
+
+    public BsonDocument load(String consumer) {
+        BsonDocument saved = resumeTokens.find(Filters.eq("_id", consumer)).first();
+        return saved == null ? null : saved.getDocument("token");
+    }
+
+    public void save(String consumer, BsonDocument token) {
+        BsonDocument saved = new BsonDocument("_id", new BsonString(consumer))
+            .append("token", token)
+            .append("savedAt", new BsonDateTime(System.currentTimeMillis()));
+        resumeTokens.replaceOne(Filters.eq("_id", consumer), saved,
+            new ReplaceOptions().upsert(true));
+    }
+
+    public void clear(String consumer) {
+        resumeTokens.deleteOne(Filters.eq("_id", consumer));
+    }
+}
@@ -1,44 +1,199 @@
 package com.postitapplications.person.controller;
 
+import com.fasterxml.jackson.core.JsonGenerator;
+import com.fasterxml.jackson.databind.MappingIterator;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.ObjectReader;
+import com.fasterxml.jackson.databind.ObjectWriter;
+import com.fasterxml.jackson.databind.SerializationFeature;
 import com.mongodb.client.result.DeleteResult;
 import com.mongodb.client.result.UpdateResult;
 import com.postitapplications.exception.exceptions.PersonNotFoundException;
+import com.postitapplications.exception.exceptions.ValidationException;
 import com.postitapplications.person.document.Person;
+import com.postitapplications.person.document.Person.Gender;
+import com.postitapplications.person.document.PersonBatchResult;
+import com.postitapplications.person.document.PersonFields;
+import com.postitapplications.person.document.PersonLookupResult;
+import com.postitapplications.person.document.PersonStats;
+import com.postitapplications.person.json.PersonBinaryFormatConfiguration;
+import com.postitapplications.person.json.PersonFieldFilter;
+import com.postitapplications.person.service.PersonBatchService;
 import com.postitapplications.person.service.PersonService;
+import java.io.IOException;
+import java.io.InputStream;
+import java.util.Iterator;
 import java.util.List;
+import java.util.Map;
 import java.util.UUID;
+import java.util.stream.Stream;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.context.annotation.Profile;
+import org.springframework.http.HttpHeaders;
 import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
+import org.springframework.http.converter.json.Jackson2ObjectMapperBuilder;
+import org.springframework.http.converter.json.MappingJacksonValue;
 import org.springframework.web.bind.annotation.DeleteMapping;
 import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.PatchMapping;
 import org.springframework.web.bind.annotation.PathVariable;
 import org.springframework.web.bind.annotation.PostMapping;
 import org.springframework.web.bind.annotation.PutMapping;
 import org.springframework.web.bind.annotation.RequestBody;
 import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RequestHeader;
+import org.springframework.web.bind.annotation.RequestParam;
 import org.springframework.web.bind.annotation.RestController;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
+import org.springframework.web.servlet.support.ServletUriComponentsBuilder;
 
+@Profile("!reactive")
 @RestController
 @RequestMapping("/person")
 public class PersonController {
 
+    private static final String APPLICATION_NDJSON_VALUE = "application/x-ndjson";
+    private static final int STREAM_FLUSH_INTERVAL = 100;
+    private static final String RETURN_REPRESENTATION = "return=representation";
+    private static final int DEFAULT_PAGE_LIMIT = 100;
+
     private final PersonService personService;
+    private final PersonBatchService personBatchService;
+    private final ObjectReader personReader;
+    private final ObjectWriter personWriter;
+    private final Map<MediaType, ObjectReader> batchReaders;
 
     @Autowired
-    public PersonController(PersonService personService) {
+    public PersonController(PersonService personService, PersonBatchService personBatchService,
+        ObjectMapper objectMapper, Jackson2ObjectMapperBuilder objectMapperBuilder) {
         this.personService = personService;
+        this.personBatchService = personBatchService;
+        this.personReader = objectMapper.readerFor(Person.class);
+        this.batchReaders = Map.of(MediaType.APPLICATION_JSON, personReader,
+            PersonBinaryFormatConfiguration.APPLICATION_SMILE,
+            PersonBinaryFormatConfiguration.smileMapper(objectMapperBuilder)
+                                           .readerFor(Person.class),
+            MediaType.APPLICATION_CBOR,
+            PersonBinaryFormatConfiguration.cborMapper(objectMapperBuilder)
+                                           .readerFor(Person.class));
+        this.personWriter = objectMapper.writerFor(Person.class)
+                                        .without(SerializationFeature.FLUSH_AFTER_WRITE_VALUE);
     }
 
+    /**
+     * Answers 202 Accepted rather than 201 Created when write-behind is enabled, as the person has
+     * only been queued and reads may not find them until the queue is next flushed.
+     */
     @PostMapping
     public ResponseEntity<Person> savePerson(@RequestBody Person person) {
         Person savedPerson = personService.savePerson(person);
-        return new ResponseEntity<>(savedPerson, HttpStatus.CREATED);
+        return new ResponseEntity<>(savedPerson,
+            personService.isSaveDeferred() ? HttpStatus.ACCEPTED : HttpStatus.CREATED);
     }
 
+    /**
+     * Reads the array one person at a time as the batch is saved, like the NDJSON variant, so the
+     * whole batch is never held in memory.
+     */
+    @PostMapping(value = "batch", consumes = {MediaType.APPLICATION_JSON_VALUE,
+        PersonBinaryFormatConfiguration.APPLICATION_SMILE_VALUE,
+        MediaType.APPLICATION_CBOR_VALUE})
+    public PersonBatchResult savePeople(
+        @RequestHeader(HttpHeaders.CONTENT_TYPE) MediaType contentType, InputStream inputStream)
+        throws IOException {
+        try (MappingIterator<Person> people = batchReader(contentType).readValues(inputStream)) {
+            if (!people.getParser().getParsingContext().inArray()) {
+                throw new ValidationException("People must be sent as an array");
+            }
+
+            return personBatchService.savePeople(people);
+        }
+    }
+
+    @PostMapping(value = "batch", consumes = APPLICATION_NDJSON_VALUE)
+    public PersonBatchResult streamSavePeople(InputStream inputStream) throws IOException {
+        try (MappingIterator<Person> people = personReader.readValues(inputStream)) {
+            return personBatchService.savePeople(people);
+        }
+    }
+
+    /**
+     * Returns the first page of people rather than the whole collection. When the page is full a
+     * {@code Link} header with {@code rel="next"} points at the next one; use the NDJSON endpoint
+     * to read everyone in one response.
+     */
     @GetMapping
-    public List<Person> getPeople() {
-        return personService.getAllPeople();
+    public ResponseEntity<List<Person>> getPeople() {
+        return getPeoplePage(DEFAULT_PAGE_LIMIT, null);
+    }
+
+    @GetMapping(params = {"limit", "!fields"})
+    public ResponseEntity<List<Person>> getPeoplePage(@RequestParam("limit") int limit,
+        @RequestParam(value = "after", required = false) UUID after) {
+        List<Person> people = personService.getPeople(after, limit);
+        return withNextPageLink(ResponseEntity.ok(), people, limit).body(people);
+    }
+
+    @GetMapping(params = "fields")
+    public ResponseEntity<MappingJacksonValue> getPeopleFields(
+        @RequestParam("fields") List<String> fields,
+        @RequestParam(value = "limit", required = false) Integer limit,
+        @RequestParam(value = "after", required = false) UUID after) {
+        int pageLimit = limit == null ? DEFAULT_PAGE_LIMIT : limit;
+        List<Person> people = personService.getPeople(after, pageLimit, fields);
+        return withNextPageLink(ResponseEntity.ok(), people, pageLimit)
+            .body(PersonFieldFilter.filter(people, new PersonFields(fields)));
+    }
+
+    @GetMapping(produces = APPLICATION_NDJSON_VALUE)
+    public ResponseEntity<StreamingResponseBody> streamPeople() {
+        StreamingResponseBody responseBody = outputStream -> {
+            try (Stream<Person> people = personService.streamAllPeople();
+                JsonGenerator generator = personWriter.getFactory().createGenerator(outputStream)) {
+                Iterator<Person> iterator = people.iterator();
+                int written = 0;
+
+                while (iterator.hasNext()) {
+                    personWriter.writeValue(generator, iterator.next());
+                    generator.writeRaw('\n');
+
+                    if (++written % STREAM_FLUSH_INTERVAL == 0) {
+                        generator.flush();
+                    }
+                }
+            }
+        };
+
+        return ResponseEntity.ok().contentType(MediaType.parseMediaType(APPLICATION_NDJSON_VALUE))
+                             .body(responseBody);
+    }
+
+    @GetMapping("search")
+    public List<Person> searchPeople(@RequestParam(value = "name", required = false) String name,
+        @RequestParam(value = "gender", required = false) Gender gender,
+        @RequestParam(value = "dateOfBirth", required = false) String dateOfBirth,
+        @RequestParam(value = "birthYear", required = false) Integer birthYear,
+        @RequestParam(value = "minAge", required = false) Integer minAge,
+        @RequestParam(value = "maxAge", required = false) Integer maxAge,
+        @RequestParam(value = "sort", defaultValue = "id") String sort,
+        @RequestParam(value = "page", defaultValue = "0") int page,
+        @RequestParam(value = "limit", defaultValue = "100") int limit) {
+        return personService
+            .searchPeople(name, gender, dateOfBirth, birthYear, minAge, maxAge, sort, page,
+                limit);
+    }
+
+    @GetMapping("stats")
+    public PersonStats getPersonStats(
+        @RequestParam(value = "allowDiskUse", defaultValue = "false") boolean allowDiskUse) {
+        return personService.getPersonStats(allowDiskUse);
+    }
+
+    @PostMapping("lookup")
+    public PersonLookupResult getPeopleByIds(@RequestBody List<UUID> ids) {
+        return personService.getPeopleByIds(ids);
     }
 
     @GetMapping("{id}")
@@ -53,6 +208,43 @@ public class PersonController {
         return foundPerson;
     }
 
+    @GetMapping(value = "{id}", params = "fields")
+    public MappingJacksonValue getPersonFieldsById(@PathVariable("id") UUID id,
+        @RequestParam("fields") List<String> fields) {
+        Person foundPerson = personService.getPersonById(id, fields);
+
+        if (foundPerson == null) {
+            throw new PersonNotFoundException(
+                String.format("Person with id: %s was not found", id));
+        }
+
+        return PersonFieldFilter.filter(foundPerson, new PersonFields(fields));
+    }
+
+    @PutMapping(headers = "Prefer=" + RETURN_REPRESENTATION)
+    public Person updatePersonAndReturn(@RequestBody Person person) {
+        Person updatedPerson = personService.updatePersonAndReturn(person);
+
+        if (updatedPerson == null) {
+            throw new PersonNotFoundException(
+                String.format("Person with id: %s was not found", person.getId()));
+        }
+
+        return updatedPerson;
+    }
+
+    @PatchMapping("{id}")
+    public Person patchPerson(@PathVariable("id") UUID id, @RequestBody Person person) {
+        Person patchedPerson = personService.patchPerson(id, person);
+
+        if (patchedPerson == null) {
+            throw new PersonNotFoundException(
+                String.format("Person with id: %s was not found", id));
+        }
+
+        return patchedPerson;
+    }
+
     @PutMapping
     public ResponseEntity<Person> updatePerson(@RequestBody Person person) {
         UpdateResult updateResult = personService.updatePerson(person);
@@ -76,4 +268,24 @@ public class PersonController {
 
         return new ResponseEntity<>(id, HttpStatus.OK);
     }
+
+    private ObjectReader batchReader(MediaType contentType) {
+        return batchReaders.entrySet().stream()
+                           .filter(reader -> reader.getKey().isCompatibleWith(contentType))
+                           .map(Map.Entry::getValue).findFirst().orElse(personReader);
+    }
+
+    private static ResponseEntity.BodyBuilder withNextPageLink(ResponseEntity.BodyBuilder response,
+        List<Person> people, int limit) {
+        if (people.size() < limit) {
+            return response;
+        }
+
+        UUID lastId = people.get(people.size() - 1).getId();
+        String nextPage = ServletUriComponentsBuilder.fromCurrentRequest()
+                                                     .replaceQueryParam("limit", limit)
+                                                     .replaceQueryParam("after", lastId)
+                                                     .toUriString();
+        return response.header(HttpHeaders.LINK, "<" + nextPage + ">; rel=\"next\"");
+    }
 }
@@ -0,0 +1,89 @@
+package com.postitapplications.person.controller;
+
+import com.postitapplications.exception.exceptions.PersonNotFoundException;
+import com.postitapplications.person.document.Person;
+import com.postitapplications.person.service.ReactivePersonService;
+import java.util.UUID;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.context.annotation.Profile;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.DeleteMapping;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.PathVariable;
+import org.springframework.web.bind.annotation.PostMapping;
+import org.springframework.web.bind.annotation.PutMapping;
+import org.springframework.web.bind.annotation.RequestBody;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RequestParam;
+import org.springframework.web.bind.annotation.RestController;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+
+@Profile("reactive")
+@RestController
+@RequestMapping("/person")
+public class ReactivePersonController {
+
+    private final ReactivePersonService personService;
+
+    @Autowired
+    public ReactivePersonController(ReactivePersonService personService) {
+        this.personService = personService;
+    }
+
+    @PostMapping
+    public Mono<ResponseEntity<Person>> savePerson(@RequestBody Person person) {
+        return personService.savePerson(person)
+                            .map(savedPerson -> new ResponseEntity<>(savedPerson,
+                                HttpStatus.CREATED));
+    }
+
+    @GetMapping
+    public Flux<Person> getPeople() {
+        return personService.getAllPeople();
+    }
+
+    @GetMapping(params = "limit")
+    public Flux<Person> getPeoplePage(@RequestParam("limit") int limit,
+        @RequestParam(value = "after", required = false) UUID after) {
+        return personService.getPeople(after, limit);
+    }
+
+    @GetMapping(produces = MediaType.APPLICATION_NDJSON_VALUE)
+    public Flux<Person> streamPeople() {
+        return personService.getAllPeople();
+    }
+
+    @GetMapping("{id}")
+    public Mono<Person> getPersonById(@PathVariable("id") UUID id) {
+        return personService.getPersonById(id).switchIfEmpty(Mono.error(
+            () -> new PersonNotFoundException(
+                String.format("Person with id: %s was not found", id))));
+    }
+
+    @PutMapping
+    public Mono<ResponseEntity<Person>> updatePerson(@RequestBody Person person) {
+        return personService.updatePerson(person).map(updateResult -> {
+            if (updateResult.getMatchedCount() == 0) {
+                throw new PersonNotFoundException(
+                    String.format("Person with id: %s was not found", person.getId()));
+            }
+
+            return new ResponseEntity<>(person, HttpStatus.OK);
+        });
+    }
+
+    @DeleteMapping("{id}")
+    public Mono<ResponseEntity<UUID>> deletePersonById(@PathVariable("id") UUID id) {
+        return personService.deletePersonById(id).map(deleteResult -> {
+            if (deleteResult.getDeletedCount() == 0) {
+                throw new PersonNotFoundException(
+                    String.format("Person with id: %s was not found", id));
+            }
+
+            return new ResponseEntity<>(id, HttpStatus.OK);
+        });
+    }
+}
@@ -0,0 +1,138 @@
+package com.postitapplications.person.converter;
+
+import com.postitapplications.person.document.Person;
+import com.postitapplications.person.document.Person.Gender;
+import java.util.UUID;
+import org.bson.BsonReader;
+import org.bson.BsonType;
+import org.bson.BsonWriter;
+import org.bson.codecs.Codec;
+import org.bson.codecs.DecoderContext;
+import org.bson.codecs.EncoderContext;
+
+/**
+ * Writes a person straight to and from the BSON stream, skipping both reflective entity mapping
+ * and the intermediate {@link org.bson.Document}. Uses the same field layout as
+ * {@link PersonWriteConverter}, so documents written by either path can be read by the other.
+ */
+public class PersonCodec implements Codec<Person> {
+
+    private final Codec<UUID> uuidCodec;
+
+    /**
+     * @param uuidCodec the codec for ids, taken from the client's registry so it uses the
+     *                  configured UUID representation
+     */
+    public PersonCodec(Codec<UUID> uuidCodec) {
+        this.uuidCodec = uuidCodec;
+    }
+
+    @Override
+    public void encode(BsonWriter writer, Person person, EncoderContext encoderContext) {
+        writer.writeStartDocument();
+
+        if (person.getId() != null) {
+            writer.writeName("_id");
+            encoderContext.encodeWithChildContext(uuidCodec, writer, person.getId());
+        }
+
+        if (person.getName() != null) {
+            writer.writeString("name", person.getName());
+        }
+
+        if (person.hasWeight()) {
+            writer.writeDouble("weight", person.getWeight());
+        }
+
+        if (person.hasHeight()) {
+            writer.writeDouble("height", person.getHeight());
+        }
+
+        if (person.getBirthDay() != null) {
+            writer.writeInt32("birthDay", person.getBirthDay());
+        }
+
+        if (person.getGender() != null) {
+            writer.writeString("gender", person.getGender().name());
+        }
+
+        if (person.getVersion() != null) {
+            writer.writeInt64("version", person.getVersion());
+        }
+
+        writer.writeEndDocument();
+    }
+
+    @Override
+    public Person decode(BsonReader reader, DecoderContext decoderContext) {
+        UUID id = null;
+        String name = null;
+        float weight = Person.ABSENT;
+        float height = Person.ABSENT;
+        Integer birthDay = null;
+        String legacyDateOfBirth = null;
+        Gender gender = null;
+        Long version = null;
+
+        reader.readStartDocument();
+
+        while (reader.readBsonType() != BsonType.END_OF_DOCUMENT) {
+            String fieldName = reader.readName();
+
+            if (reader.getCurrentBsonType() == BsonType.NULL) {
+                reader.readNull();
+                continue;
+            }
+
+            switch (fieldName) {
+                case "_id":
+                    id = uuidCodec.decode(reader, decoderContext);
+                    break;
+                case "name":
+                    name = reader.readString();
+                    break;
+                case "weight":
+                    weight = (float) readNumber(reader);
+                    break;
+                case "height":
+                    height = (float) readNumber(reader);
+                    break;
+                case "birthDay":
+                    birthDay = (int) readNumber(reader);
+                    break;
+                case "dateOfBirth":
+                    legacyDateOfBirth = reader.readString();
+                    break;
+                case "gender":
+                    gender = Gender.valueOf(reader.readString());
+                    break;
+                case "version":
+                    version = (long) readNumber(reader);
+                    break;
+                default:
+                    reader.skipValue();
+            }
+        }
+
+        reader.readEndDocument();
+
+        return Person.fromStorage(id, name, weight, height, birthDay, legacyDateOfBirth, gender,
+            version);
+    }
+
+    @Override
+    public Class<Person> getEncoderClass() {
+        return Person.class;
+    }
+
+    private static double readNumber(BsonReader reader) {
+        switch (reader.getCurrentBsonType()) {
+            case INT32:
+                return reader.readInt32();
+            case INT64:
+                return reader.readInt64();
+            default:
+                return reader.readDouble();
+        }
+    }
+}
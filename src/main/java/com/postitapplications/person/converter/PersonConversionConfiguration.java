@@ -0,0 +1,16 @@
+package com.postitapplications.person.converter;
+
+import java.util.List;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.data.mongodb.core.convert.MongoCustomConversions;
+
+@Configuration
+public class PersonConversionConfiguration {
+
+    @Bean
+    public MongoCustomConversions mongoCustomConversions() {
+        return new MongoCustomConversions(
+            List.of(new PersonReadConverter(), new PersonWriteConverter()));
+    }
+}
@@ -0,0 +1,36 @@
+package com.postitapplications.person.converter;
+
+import com.postitapplications.person.document.Person;
+import com.postitapplications.person.document.Person.Gender;
+import java.util.UUID;
+import org.bson.Document;
+import org.springframework.core.convert.converter.Converter;
+import org.springframework.data.convert.ReadingConverter;
+
+/**
+ * Reads a stored person field by field instead of through reflective entity mapping. This only
+ * saves the mapping work: the driver has already decoded the {@link Document}, boxing every number
+ * in it. {@link PersonCodec} decodes straight from the BSON stream, for person.repository.mode
+ * codec.
+ */
+@ReadingConverter
+public class PersonReadConverter implements Converter<Document, Person> {
+
+    @Override
+    public Person convert(Document document) {
+        String gender = document.getString("gender");
+
+        return Person.fromStorage(document.get("_id", UUID.class), document.getString("name"),
+            readFloat(document.get("weight")), readFloat(document.get("height")),
+            document.getInteger("birthDay"), document.getString("dateOfBirth"),
+            gender == null ? null : Gender.valueOf(gender), readLong(document.get("version")));
+    }
+
+    private static float readFloat(Object value) {
+        return value instanceof Number ? ((Number) value).floatValue() : Person.ABSENT;
+    }
+
+    private static Long readLong(Object value) {
+        return value instanceof Number ? ((Number) value).longValue() : null;
+    }
+}
@@ -0,0 +1,45 @@
+package com.postitapplications.person.converter;
+
+import com.postitapplications.person.document.Person;
+import org.bson.Document;
+import org.springframework.core.convert.converter.Converter;
+import org.springframework.data.convert.WritingConverter;
+
+@WritingConverter
+public class PersonWriteConverter implements Converter<Person, Document> {
+
+    @Override
+    public Document convert(Person person) {
+        Document document = new Document();
+
+        if (person.getId() != null) {
+            document.put("_id", person.getId());
+        }
+
+        putIfPresent(document, "name", person.getName());
+
+        if (person.hasWeight()) {
+            document.put("weight", (double) person.getWeight());
+        }
+
+        if (person.hasHeight()) {
+            document.put("height", (double) person.getHeight());
+        }
+
+        putIfPresent(document, "birthDay", person.getBirthDay());
+
+        if (person.getGender() != null) {
+            document.put("gender", person.getGender().name());
+        }
+
+        putIfPresent(document, "version", person.getVersion());
+
+        return document;
+    }
+
+    private static void putIfPresent(Document document, String key, Object value) {
+        if (value != null) {
+            document.put(key, value);
+        }
+    }
+}
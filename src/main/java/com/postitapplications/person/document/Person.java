@@ -1,36 +1,132 @@
 package com.postitapplications.person.document;
 
+import com.fasterxml.jackson.annotation.JsonCreator;
+import com.fasterxml.jackson.annotation.JsonIgnore;
 import com.fasterxml.jackson.annotation.JsonProperty;
+import com.postitapplications.person.utility.DateOfBirthFormat;
 import java.util.UUID;
 import javax.validation.constraints.NotBlank;
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.data.annotation.Id;
+import org.springframework.data.annotation.PersistenceCreator;
+import org.springframework.data.annotation.Transient;
+import org.springframework.data.annotation.Version;
+import org.springframework.data.mongodb.core.index.CompoundIndex;
+import org.springframework.data.mongodb.core.index.CompoundIndexes;
+import org.springframework.data.mongodb.core.index.Indexed;
 import org.springframework.data.mongodb.core.mapping.Document;
 
+/**
+ * A person in the people collection. Its indexes cover every filter a search takes followed by
+ * every order it can sort in, so a page is read in index order rather than sorted in memory. The
+ * one exception is a birth day range sorted by id or name. The case-insensitive name indexes need
+ * a collation, which index annotations cannot declare, so {@code PersonRepository} creates them.
+ */
 @Document(collection = "people")
+@CompoundIndexes({
+    @CompoundIndex(name = "gender_id", def = "{ 'gender': 1, '_id': 1 }"),
+    @CompoundIndex(name = "gender_birthDay", def = "{ 'gender': 1, 'birthDay': 1 }")
+})
 public class Person {
 
+    /**
+     * Marks a weight or height that was not provided, so both can be held as primitives.
+     */
+    public static final float ABSENT = Float.NaN;
+
     @Id
     private final UUID id;
     @NotBlank
     private final String name;
     @NotBlank
-    private final Float weight;
+    private final float weight;
     @NotBlank
-    private final Float height;
+    private final float height;
     @NotBlank
+    @Transient
     private final String dateOfBirth;
+    @Indexed(name = "birthDay")
+    private final Integer birthDay;
     @NotBlank
     private final Gender gender;
+    @Version
+    private final Long version;
+
+    public Person(UUID id, String name, Float weight, Float height, String dateOfBirth,
+        Gender gender) {
+        this(id, name, weight, height, dateOfBirth, gender, null);
+    }
 
+    @JsonCreator
     public Person(@JsonProperty("id") UUID id, @JsonProperty("name") String name,
         @JsonProperty("weight") Float weight, @JsonProperty("height") Float height,
-        @JsonProperty("dateOfBirth") String dateOfBirth, @JsonProperty("gender") Gender gender) {
+        @JsonProperty("dateOfBirth") String dateOfBirth, @JsonProperty("gender") Gender gender,
+        @JsonProperty("version") Long version) {
+        this.id = id;
+        this.name = name;
+        this.weight = weight == null ? ABSENT : weight;
+        this.height = height == null ? ABSENT : height;
+        this.dateOfBirth = dateOfBirth;
+        this.birthDay = toBirthDay(dateOfBirth);
+        this.gender = gender;
+        this.version = version;
+    }
+
+    /**
+     * Used when Spring Data maps a person reflectively, i.e. without the converters in
+     * {@code PersonConversionConfiguration}.
+     */
+    @PersistenceCreator
+    Person(UUID id, String name, Float weight, Float height,
+        @Value("#root.dateOfBirth") String legacyDateOfBirth, Integer birthDay, Gender gender,
+        Long version) {
+        this(id, name, weight == null ? ABSENT : weight, height == null ? ABSENT : height,
+            storedDateOfBirth(birthDay, legacyDateOfBirth),
+            storedBirthDay(birthDay, legacyDateOfBirth), gender, version);
+    }
+
+    private Person(UUID id, String name, float weight, float height, String dateOfBirth,
+        Integer birthDay, Gender gender, Long version) {
         this.id = id;
         this.name = name;
         this.weight = weight;
         this.height = height;
         this.dateOfBirth = dateOfBirth;
+        this.birthDay = birthDay;
         this.gender = gender;
+        this.version = version;
+    }
+
+    /**
+     * Builds a person from its stored fields. Documents written before the move to epoch days
+     * still hold dateOfBirth as a dd/MM/yyyy string and no birthDay, so both are accepted until
+     * the migration has rewritten them.
+     */
+    public static Person fromStorage(UUID id, String name, float weight, float height,
+        Integer birthDay, String legacyDateOfBirth, Gender gender, Long version) {
+        return new Person(id, name, weight, height, storedDateOfBirth(birthDay, legacyDateOfBirth),
+            storedBirthDay(birthDay, legacyDateOfBirth), gender, version);
+    }
+
+    /**
+     * The stored birthDay wins over a legacy dateOfBirth string, which is only there on people
+     * the migration has not rewritten yet.
+     */
+    private static String storedDateOfBirth(Integer birthDay, String legacyDateOfBirth) {
+        return birthDay != null ? DateOfBirthFormat.fromEpochDay(birthDay) : legacyDateOfBirth;
+    }
+
+    private static Integer storedBirthDay(Integer birthDay, String legacyDateOfBirth) {
+        return birthDay != null ? birthDay : toBirthDay(legacyDateOfBirth);
+    }
+
+    private static Integer toBirthDay(String dateOfBirth) {
+        return DateOfBirthFormat.isValid(dateOfBirth) ? DateOfBirthFormat.toEpochDay(dateOfBirth)
+            : null;
+    }
+
+    public Person withVersion(Long version) {
+        return new Person(id, name, weight, height, dateOfBirth, birthDay, gender, version);
     }
 
     public UUID getId() {
@@ -41,22 +137,51 @@ public class Person {
         return name;
     }
 
-    public Float getWeight() {
+    @JsonIgnore
+    public float getWeight() {
         return weight;
     }
 
-    public Float getHeight() {
+    public boolean hasWeight() {
+        return !Float.isNaN(weight);
+    }
+
+    @JsonIgnore
+    public float getHeight() {
         return height;
     }
 
+    public boolean hasHeight() {
+        return !Float.isNaN(height);
+    }
+
     public String getDateOfBirth() {
         return dateOfBirth;
     }
 
+    @JsonIgnore
+    public Integer getBirthDay() {
+        return birthDay;
+    }
+
     public Gender getGender() {
         return gender;
     }
 
+    public Long getVersion() {
+        return version;
+    }
+
+    @JsonProperty("weight")
+    private Float getWeightOrNull() {
+        return hasWeight() ? weight : null;
+    }
+
+    @JsonProperty("height")
+    private Float getHeightOrNull() {
+        return hasHeight() ? height : null;
+    }
+
     public enum Gender {
         MALE, FEMALE
     }
@@ -0,0 +1,69 @@
+package com.postitapplications.person.document;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.UUID;
+
+public class PersonBatchResult {
+
+    private final List<ItemResult> items = new ArrayList<>();
+    private int savedCount;
+    private int failedCount;
+
+    public void addSaved(int index, UUID id) {
+        items.add(new ItemResult(index, id, Status.SAVED, null));
+        savedCount++;
+    }
+
+    public void addFailed(int index, String error) {
+        items.add(new ItemResult(index, null, Status.FAILED, error));
+        failedCount++;
+    }
+
+    public List<ItemResult> getItems() {
+        return items;
+    }
+
+    public int getSavedCount() {
+        return savedCount;
+    }
+
+    public int getFailedCount() {
+        return failedCount;
+    }
+
+    public static class ItemResult {
+
+        private final int index;
+        private final UUID id;
+        private final Status status;
+        private final String error;
+
+        public ItemResult(int index, UUID id, Status status, String error) {
+            this.index = index;
+            this.id = id;
+            this.status = status;
+            this.error = error;
+        }
+
+        public int getIndex() {
+            return index;
+        }
+
+        public UUID getId() {
+            return id;
+        }
+
+        public Status getStatus() {
+            return status;
+        }
+
+        public String getError() {
+            return error;
+        }
+    }
+
+    public enum Status {
+        SAVED, FAILED
+    }
+}
@@ -0,0 +1,53 @@
+package com.postitapplications.person.document;
+
+public class PersonChange {
+
+    private final Person previous;
+    private final Person current;
+
+    /**
+     * @param previous the person as stored before the change
+     * @param current  the person as stored after it
+     */
+    public PersonChange(Person previous, Person current) {
+        this.previous = previous;
+        this.current = current;
+    }
+
+    /**
+     * Works out the change an update makes to a stored person, replacing every value and moving
+     * the version on.
+     */
+    public static PersonChange updated(Person storedPerson, Person update) {
+        return new PersonChange(storedPerson, new Person(storedPerson.getId(), update.getName(),
+            update.getWeight(), update.getHeight(), update.getDateOfBirth(), update.getGender(),
+            nextVersion(storedPerson)));
+    }
+
+    /**
+     * Works out the change a patch makes to a stored person, replacing only the values the patch
+     * holds and moving the version on.
+     */
+    public static PersonChange patched(Person storedPerson, Person patch) {
+        return new PersonChange(storedPerson, new Person(storedPerson.getId(),
+            patch.getName() != null ? patch.getName() : storedPerson.getName(),
+            patch.hasWeight() ? patch.getWeight() : storedPerson.getWeight(),
+            patch.hasHeight() ? patch.getHeight() : storedPerson.getHeight(),
+            patch.getDateOfBirth() != null ? patch.getDateOfBirth()
+                : storedPerson.getDateOfBirth(),
+            patch.getGender() != null ? patch.getGender() : storedPerson.getGender(),
+            nextVersion(storedPerson)));
+    }
+
+    public Person getPrevious() {
+        return previous;
+    }
+
+    public Person getCurrent() {
+        return current;
+    }
+
+    private static Long nextVersion(Person storedPerson) {
+        return storedPerson.getVersion() == null ? 1L : storedPerson.getVersion() + 1;
+    }
+}
@@ -0,0 +1,55 @@
+package com.postitapplications.person.document;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Set;
+
+/**
+ * The fields of a person a caller asked for, by their JSON names. The id is always included so
+ * every result can still be told apart.
+ */
+public class PersonFields {
+
+    public static final List<String> NAMES = List
+        .of("id", "name", "weight", "height", "dateOfBirth", "gender", "version");
+
+    private final Set<String> names;
+
+    public PersonFields(Collection<String> names) {
+        Set<String> requestedNames = new LinkedHashSet<>();
+        requestedNames.add("id");
+        requestedNames.addAll(names);
+        this.names = Collections.unmodifiableSet(requestedNames);
+    }
+
+    public Set<String> getNames() {
+        return names;
+    }
+
+    /**
+     * Returns the stored field names to project. A date of birth is read from birthDay, or from
+     * the legacy dateOfBirth string on documents that have not been migrated yet.
+     */
+    public String[] getStoredNames() {
+        List<String> storedNames = new ArrayList<>(names.size() + 1);
+
+        for (String name : names) {
+            switch (name) {
+                case "id":
+                    storedNames.add("_id");
+                    break;
+                case "dateOfBirth":
+                    storedNames.add("birthDay");
+                    storedNames.add("dateOfBirth");
+                    break;
+                default:
+                    storedNames.add(name);
+            }
+        }
+
+        return storedNames.toArray(new String[0]);
+    }
+}
@@ -0,0 +1,27 @@
+package com.postitapplications.person.document;
+
+import java.util.List;
+import java.util.UUID;
+
+public class PersonLookupResult {
+
+    private final List<Person> people;
+    private final List<UUID> missingIds;
+
+    /**
+     * @param people     the people found, in the order their ids were requested
+     * @param missingIds the requested ids with no person, in the order they were requested
+     */
+    public PersonLookupResult(List<Person> people, List<UUID> missingIds) {
+        this.people = people;
+        this.missingIds = missingIds;
+    }
+
+    public List<Person> getPeople() {
+        return people;
+    }
+
+    public List<UUID> getMissingIds() {
+        return missingIds;
+    }
+}
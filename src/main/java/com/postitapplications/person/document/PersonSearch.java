@@ -0,0 +1,60 @@
+package com.postitapplications.person.document;
+
+import com.postitapplications.person.document.Person.Gender;
+
+public class PersonSearch {
+
+    private final String name;
+    private final Gender gender;
+    private final Integer bornFrom;
+    private final Integer bornBefore;
+    private final String sort;
+    private final int page;
+    private final int limit;
+
+    /**
+     * Pages are found by skipping the matches before them, which the database still has to walk,
+     * so searches only page through the first 10000 matches.
+     *
+     * @param bornFrom   first epoch day of the birth range, inclusive, or null for no lower bound
+     * @param bornBefore epoch day the birth range ends on, exclusive, or null for no upper bound
+     */
+    public PersonSearch(String name, Gender gender, Integer bornFrom, Integer bornBefore,
+        String sort, int page, int limit) {
+        this.name = name;
+        this.gender = gender;
+        this.bornFrom = bornFrom;
+        this.bornBefore = bornBefore;
+        this.sort = sort;
+        this.page = page;
+        this.limit = limit;
+    }
+
+    public String getName() {
+        return name;
+    }
+
+    public Gender getGender() {
+        return gender;
+    }
+
+    public Integer getBornFrom() {
+        return bornFrom;
+    }
+
+    public Integer getBornBefore() {
+        return bornBefore;
+    }
+
+    public String getSort() {
+        return sort;
+    }
+
+    public int getPage() {
+        return page;
+    }
+
+    public int getLimit() {
+        return limit;
+    }
+}
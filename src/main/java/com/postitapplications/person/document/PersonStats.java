@@ -0,0 +1,241 @@
+package com.postitapplications.person.document;
+
+import com.fasterxml.jackson.annotation.JsonIgnore;
+import com.postitapplications.person.document.Person.Gender;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.EnumMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Summarises every person for reporting, so dashboards no longer have to fetch everyone to work
+ * out averages and distributions themselves. Weights are taken to be in kilograms and heights in
+ * centimetres when working out BMI.
+ */
+public class PersonStats {
+
+    /**
+     * Lower bounds of the BMI buckets. The last bucket has no upper bound.
+     */
+    public static final double[] BMI_BOUNDARIES = {0, 18.5, 25, 30};
+
+    /**
+     * Lower bounds of the age buckets, in whole years. The last bucket has no upper bound.
+     */
+    public static final int[] AGE_BOUNDARIES = {0, 10, 20, 30, 40, 50, 60, 70, 80, 90, 100};
+
+    private final long count;
+    private final long weightCount;
+    private final double weightSum;
+    private final double weightSumOfSquares;
+    private final long heightCount;
+    private final double heightSum;
+    private final double heightSumOfSquares;
+    private final Map<Gender, Long> countByGender;
+    private final List<Bucket> bmiDistribution;
+    private final List<Bucket> ageDistribution;
+
+    /**
+     * Weights and heights are given as the count, sum and sum of squares of the known values, so
+     * that stats kept from different sources can be added together and corrected.
+     *
+     * @param bmiCounts people with a weight and height in each BMI bucket
+     * @param ageCounts people with a date of birth in each age bucket
+     */
+    public PersonStats(long count, long weightCount, double weightSum, double weightSumOfSquares,
+        long heightCount, double heightSum, double heightSumOfSquares,
+        Map<Gender, Long> countByGender, long[] bmiCounts, long[] ageCounts) {
+        this.count = count;
+        this.weightCount = weightCount;
+        this.weightSum = weightSum;
+        this.weightSumOfSquares = weightSumOfSquares;
+        this.heightCount = heightCount;
+        this.heightSum = heightSum;
+        this.heightSumOfSquares = heightSumOfSquares;
+        this.countByGender = new EnumMap<>(Gender.class);
+        this.bmiDistribution = new ArrayList<>(BMI_BOUNDARIES.length);
+        this.ageDistribution = new ArrayList<>(AGE_BOUNDARIES.length);
+
+        for (Gender gender : Gender.values()) {
+            this.countByGender.put(gender, countByGender.getOrDefault(gender, 0L));
+        }
+
+        for (int i = 0; i < BMI_BOUNDARIES.length; i++) {
+            bmiDistribution.add(new Bucket(BMI_BOUNDARIES[i],
+                i + 1 < BMI_BOUNDARIES.length ? BMI_BOUNDARIES[i + 1] : null, bmiCounts[i]));
+        }
+
+        for (int i = 0; i < AGE_BOUNDARIES.length; i++) {
+            ageDistribution.add(new Bucket(AGE_BOUNDARIES[i],
+                i + 1 < AGE_BOUNDARIES.length ? AGE_BOUNDARIES[i + 1] : null, ageCounts[i]));
+        }
+    }
+
+    /**
+     * Returns the index of the BMI bucket holding the given BMI.
+     */
+    public static int bmiBucket(double bmi) {
+        int bucket = 0;
+
+        while (bucket + 1 < BMI_BOUNDARIES.length && bmi >= BMI_BOUNDARIES[bucket + 1]) {
+            bucket++;
+        }
+
+        return bucket;
+    }
+
+    /**
+     * Returns the index of the age bucket holding someone born on the given epoch day, or -1 if
+     * they are not born yet.
+     *
+     * @param birthDayBoundaries the result of {@link #birthDayBoundaries} for today
+     */
+    public static int ageBucket(int birthDay, int[] birthDayBoundaries) {
+        if (birthDay >= birthDayBoundaries[birthDayBoundaries.length - 1]) {
+            return -1;
+        }
+
+        int bucket = AGE_BOUNDARIES.length - 1;
+
+        for (int i = 0; i < birthDayBoundaries.length - 1 && birthDay >= birthDayBoundaries[i];
+            i++) {
+            bucket--;
+        }
+
+        return bucket;
+    }
+
+    /**
+     * Returns the epoch days the age buckets start and end on, in ascending order, so that the
+     * people in the age bucket at index {@code AGE_BOUNDARIES.length - 1 - i} were born on or
+     * after element {@code i - 1} and before element {@code i}. Anyone born before the first
+     * element is in the oldest bucket, and the last element is tomorrow.
+     */
+    public static int[] birthDayBoundaries(LocalDate today) {
+        int[] birthDayBoundaries = new int[AGE_BOUNDARIES.length];
+
+        for (int i = 0; i < AGE_BOUNDARIES.length; i++) {
+            birthDayBoundaries[AGE_BOUNDARIES.length - 1 - i] = (int) today
+                .minusYears(AGE_BOUNDARIES[i]).toEpochDay() + 1;
+        }
+
+        return birthDayBoundaries;
+    }
+
+    public long getCount() {
+        return count;
+    }
+
+    /**
+     * Returns the average of every known weight, or null if there are none.
+     */
+    public Double getAverageWeight() {
+        return average(weightCount, weightSum);
+    }
+
+    /**
+     * Returns the population standard deviation of every known weight, or null if there are none.
+     */
+    public Double getWeightStandardDeviation() {
+        return standardDeviation(weightCount, weightSum, weightSumOfSquares);
+    }
+
+    /**
+     * Returns the average of every known height, or null if there are none.
+     */
+    public Double getAverageHeight() {
+        return average(heightCount, heightSum);
+    }
+
+    /**
+     * Returns the population standard deviation of every known height, or null if there are none.
+     */
+    public Double getHeightStandardDeviation() {
+        return standardDeviation(heightCount, heightSum, heightSumOfSquares);
+    }
+
+    @JsonIgnore
+    public long getWeightCount() {
+        return weightCount;
+    }
+
+    @JsonIgnore
+    public double getWeightSum() {
+        return weightSum;
+    }
+
+    @JsonIgnore
+    public double getWeightSumOfSquares() {
+        return weightSumOfSquares;
+    }
+
+    @JsonIgnore
+    public long getHeightCount() {
+        return heightCount;
+    }
+
+    @JsonIgnore
+    public double getHeightSum() {
+        return heightSum;
+    }
+
+    @JsonIgnore
+    public double getHeightSumOfSquares() {
+        return heightSumOfSquares;
+    }
+
+    public Map<Gender, Long> getCountByGender() {
+        return countByGender;
+    }
+
+    public List<Bucket> getBmiDistribution() {
+        return bmiDistribution;
+    }
+
+    public List<Bucket> getAgeDistribution() {
+        return ageDistribution;
+    }
+
+    private static Double average(long count, double sum) {
+        return count == 0 ? null : sum / count;
+    }
+
+    private static Double standardDeviation(long count, double sum, double sumOfSquares) {
+        if (count == 0) {
+            return null;
+        }
+
+        double mean = sum / count;
+        return Math.sqrt(Math.max(0, sumOfSquares / count - mean * mean));
+    }
+
+    public static class Bucket {
+
+        private final Number from;
+        private final Number to;
+        private final long count;
+
+        /**
+         * @param from the bucket's inclusive lower bound
+         * @param to   the bucket's exclusive upper bound, or null if it has none
+         */
+        public Bucket(Number from, Number to, long count) {
+            this.from = from;
+            this.to = to;
+            this.count = count;
+        }
+
+        public Number getFrom() {
+            return from;
+        }
+
+        public Number getTo() {
+            return to;
+        }
+
+        public long getCount() {
+            return count;
+        }
+    }
+}
@@ -0,0 +1,140 @@
+package com.postitapplications.person.document;
+
+import com.postitapplications.person.document.Person.Gender;
+import java.time.LocalDate;
+import java.util.EnumMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.atomic.DoubleAdder;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Builds {@link PersonStats} one person at a time. Every figure is kept in a striped
+ * {@link LongAdder} or {@link DoubleAdder}, so concurrent writers add and remove people without
+ * contending on a shared counter, and a snapshot costs the same however many people are counted.
+ *
+ * <p>Ages are bucketed as of the day the accumulator was created. A snapshot is not atomic, so
+ * one taken while people are being added may count a person in some figures and not others.
+ */
+public class PersonStatsAccumulator {
+
+    private final LocalDate today;
+    private final int[] birthDayBoundaries;
+    private final LongAdder count = new LongAdder();
+    private final LongAdder weightCount = new LongAdder();
+    private final DoubleAdder weightSum = new DoubleAdder();
+    private final DoubleAdder weightSumOfSquares = new DoubleAdder();
+    private final LongAdder heightCount = new LongAdder();
+    private final DoubleAdder heightSum = new DoubleAdder();
+    private final DoubleAdder heightSumOfSquares = new DoubleAdder();
+    private final LongAdder[] countByGender = adders(Gender.values().length);
+    private final LongAdder[] bmiCounts = adders(PersonStats.BMI_BOUNDARIES.length);
+    private final LongAdder[] ageCounts = adders(PersonStats.AGE_BOUNDARIES.length);
+
+    public PersonStatsAccumulator(LocalDate today) {
+        this.today = today;
+        this.birthDayBoundaries = PersonStats.birthDayBoundaries(today);
+    }
+
+    /**
+     * Starts from stats worked out elsewhere, which must have bucketed ages as of the same day.
+     */
+    public PersonStatsAccumulator(LocalDate today, PersonStats personStats) {
+        this(today);
+        count.add(personStats.getCount());
+        weightCount.add(personStats.getWeightCount());
+        weightSum.add(personStats.getWeightSum());
+        weightSumOfSquares.add(personStats.getWeightSumOfSquares());
+        heightCount.add(personStats.getHeightCount());
+        heightSum.add(personStats.getHeightSum());
+        heightSumOfSquares.add(personStats.getHeightSumOfSquares());
+        personStats.getCountByGender()
+                   .forEach((gender, genderCount) -> countByGender[gender.ordinal()]
+                       .add(genderCount));
+        addAll(bmiCounts, personStats.getBmiDistribution());
+        addAll(ageCounts, personStats.getAgeDistribution());
+    }
+
+    public LocalDate getToday() {
+        return today;
+    }
+
+    public void add(Person person) {
+        apply(person, 1);
+    }
+
+    public void remove(Person person) {
+        apply(person, -1);
+    }
+
+    public PersonStats toPersonStats() {
+        Map<Gender, Long> genderCounts = new EnumMap<>(Gender.class);
+
+        for (Gender gender : Gender.values()) {
+            genderCounts.put(gender, countByGender[gender.ordinal()].sum());
+        }
+
+        return new PersonStats(count.sum(), weightCount.sum(), weightSum.sum(),
+            weightSumOfSquares.sum(), heightCount.sum(), heightSum.sum(),
+            heightSumOfSquares.sum(), genderCounts, sums(bmiCounts), sums(ageCounts));
+    }
+
+    private void apply(Person person, int sign) {
+        count.add(sign);
+
+        if (person.hasWeight()) {
+            weightCount.add(sign);
+            weightSum.add(sign * (double) person.getWeight());
+            weightSumOfSquares.add(sign * (double) person.getWeight() * person.getWeight());
+        }
+
+        if (person.hasHeight()) {
+            heightCount.add(sign);
+            heightSum.add(sign * (double) person.getHeight());
+            heightSumOfSquares.add(sign * (double) person.getHeight() * person.getHeight());
+        }
+
+        if (person.getGender() != null) {
+            countByGender[person.getGender().ordinal()].add(sign);
+        }
+
+        if (person.getWeight() > 0 && person.getHeight() > 0) {
+            bmiCounts[PersonStats.bmiBucket(10_000.0 * person.getWeight()
+                / ((double) person.getHeight() * person.getHeight()))].add(sign);
+        }
+
+        if (person.getBirthDay() != null) {
+            int ageBucket = PersonStats.ageBucket(person.getBirthDay(), birthDayBoundaries);
+
+            if (ageBucket >= 0) {
+                ageCounts[ageBucket].add(sign);
+            }
+        }
+    }
+
+    private static LongAdder[] adders(int length) {
+        LongAdder[] adders = new LongAdder[length];
+
+        for (int i = 0; i < length; i++) {
+            adders[i] = new LongAdder();
+        }
+
+        return adders;
+    }
+
+    private static void addAll(LongAdder[] adders, List<PersonStats.Bucket> buckets) {
+        for (int i = 0; i < adders.length; i++) {
+            adders[i].add(buckets.get(i).getCount());
+        }
+    }
+
+    private static long[] sums(LongAdder[] adders) {
+        long[] sums = new long[adders.length];
+
+        for (int i = 0; i < adders.length; i++) {
+            sums[i] = adders[i].sum();
+        }
+
+        return sums;
+    }
+}
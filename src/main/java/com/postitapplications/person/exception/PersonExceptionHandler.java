@@ -1,23 +1,62 @@
 package com.postitapplications.person.exception;
 
+import com.fasterxml.jackson.databind.RuntimeJsonMappingException;
 import com.postitapplications.exception.exceptions.NullOrEmptyException;
 import com.postitapplications.exception.exceptions.PersonNotFoundException;
 import com.postitapplications.exception.exceptions.ValidationException;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.springframework.beans.TypeMismatchException;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.context.annotation.Profile;
+import org.springframework.dao.OptimisticLockingFailureException;
+import org.springframework.http.HttpHeaders;
 import org.springframework.http.HttpStatus;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.ExceptionHandler;
 import org.springframework.web.bind.annotation.RestControllerAdvice;
+import org.springframework.web.context.request.WebRequest;
 import org.springframework.web.servlet.mvc.method.annotation.ResponseEntityExceptionHandler;
 import com.postitapplications.exception.ExceptionResponseBody;
 
+@Profile("!reactive")
 @RestControllerAdvice
 public class PersonExceptionHandler extends ResponseEntityExceptionHandler {
 
-    @ExceptionHandler(value = ValidationException.class)
+    private final MeterRegistry meterRegistry;
+
+    @Autowired
+    public PersonExceptionHandler(MeterRegistry meterRegistry) {
+        this.meterRegistry = meterRegistry;
+    }
+
+    @ExceptionHandler(value = {ValidationException.class, RuntimeJsonMappingException.class})
     public ResponseEntity<Object> handleBadRequestException(Exception exception) {
+        return badRequest(exception.getClass().getSimpleName(), exception.getMessage());
+    }
+
+    /**
+     * Answers a path variable or parameter that cannot be converted, such as a malformed UUID,
+     * with the same body as any other bad request instead of an empty one.
+     */
+    @Override
+    protected ResponseEntity<Object> handleTypeMismatch(TypeMismatchException exception,
+        HttpHeaders headers, HttpStatus status, WebRequest request) {
+        return badRequest(TypeMismatchException.class.getSimpleName(),
+            typeMismatchMessage(exception));
+    }
+
+    static String typeMismatchMessage(TypeMismatchException exception) {
+        Class<?> requiredType = exception.getRequiredType();
+        return String.format("%s is not a valid %s", exception.getValue(),
+            requiredType == null ? "value" : requiredType.getSimpleName());
+    }
+
+    private ResponseEntity<Object> badRequest(String exceptionName, String message) {
+        meterRegistry.counter("person.validation.failures", "exception", exceptionName)
+                     .increment();
         HttpStatus badRequest = HttpStatus.BAD_REQUEST;
         ExceptionResponseBody exceptionResponseBody = new ExceptionResponseBody(badRequest,
-            exception.getMessage());
+            message);
 
         return new ResponseEntity<>(exceptionResponseBody, badRequest);
     }
@@ -30,4 +69,25 @@ public class PersonExceptionHandler extends ResponseEntityExceptionHandler {
 
         return new ResponseEntity<>(exceptionResponseBody, notFound);
     }
+
+    @ExceptionHandler(value = {OptimisticLockingFailureException.class})
+    public ResponseEntity<Object> handleOptimisticLockingFailureException(
+        OptimisticLockingFailureException exception) {
+        HttpStatus conflict = HttpStatus.CONFLICT;
+        ExceptionResponseBody exceptionResponseBody = new ExceptionResponseBody(conflict,
+            exception.getMessage());
+
+        return new ResponseEntity<>(exceptionResponseBody, conflict);
+    }
+
+    @ExceptionHandler(value = {PersonWriteQueueFullException.class})
+    public ResponseEntity<Object> handlePersonWriteQueueFullException(
+        PersonWriteQueueFullException exception) {
+        HttpStatus tooManyRequests = HttpStatus.TOO_MANY_REQUESTS;
+        ExceptionResponseBody exceptionResponseBody = new ExceptionResponseBody(tooManyRequests,
+            exception.getMessage());
+
+        return ResponseEntity.status(tooManyRequests).header(HttpHeaders.RETRY_AFTER, "1")
+                             .body(exceptionResponseBody);
+    }
 }
@@ -0,0 +1,14 @@
+package com.postitapplications.person.exception;
+
+import com.postitapplications.exception.exceptions.ValidationException;
+
+/**
+ * Thrown when a name does not fit the fixed-size records of the off-heap store. It is a
+ * {@link ValidationException}, so it is reported to the client as a bad request.
+ */
+public class PersonNameTooLongException extends ValidationException {
+
+    public PersonNameTooLongException(String message) {
+        super(message);
+    }
+}
@@ -0,0 +1,8 @@
+package com.postitapplications.person.exception;
+
+public class PersonWriteQueueFullException extends RuntimeException {
+
+    public PersonWriteQueueFullException(String message) {
+        super(message);
+    }
+}
@@ -0,0 +1,65 @@
+package com.postitapplications.person.exception;
+
+import com.postitapplications.exception.ExceptionResponseBody;
+import com.postitapplications.exception.exceptions.PersonNotFoundException;
+import com.postitapplications.exception.exceptions.ValidationException;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.springframework.beans.TypeMismatchException;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.context.annotation.Profile;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.ExceptionHandler;
+import org.springframework.web.bind.annotation.RestControllerAdvice;
+import org.springframework.web.server.ServerWebInputException;
+
+@Profile("reactive")
+@RestControllerAdvice
+public class ReactivePersonExceptionHandler {
+
+    private final MeterRegistry meterRegistry;
+
+    @Autowired
+    public ReactivePersonExceptionHandler(MeterRegistry meterRegistry) {
+        this.meterRegistry = meterRegistry;
+    }
+
+    @ExceptionHandler(value = ValidationException.class)
+    public ResponseEntity<Object> handleBadRequestException(Exception exception) {
+        return badRequest(exception.getClass().getSimpleName(), exception.getMessage());
+    }
+
+    /**
+     * Gives unreadable input, such as a malformed UUID in the path, the same body the servlet
+     * stack returns instead of WebFlux's default error attributes.
+     */
+    @ExceptionHandler(value = ServerWebInputException.class)
+    public ResponseEntity<Object> handleServerWebInputException(
+        ServerWebInputException exception) {
+        if (exception.getCause() instanceof TypeMismatchException) {
+            return badRequest(TypeMismatchException.class.getSimpleName(), PersonExceptionHandler
+                .typeMismatchMessage((TypeMismatchException) exception.getCause()));
+        }
+
+        return badRequest(exception.getClass().getSimpleName(), exception.getReason());
+    }
+
+    private ResponseEntity<Object> badRequest(String exceptionName, String message) {
+        meterRegistry.counter("person.validation.failures", "exception", exceptionName)
+                     .increment();
+        HttpStatus badRequest = HttpStatus.BAD_REQUEST;
+        ExceptionResponseBody exceptionResponseBody = new ExceptionResponseBody(badRequest,
+            message);
+
+        return new ResponseEntity<>(exceptionResponseBody, badRequest);
+    }
+
+    @ExceptionHandler(value = {PersonNotFoundException.class})
+    public ResponseEntity<Object> handlePersonNotFoundException(PersonNotFoundException exception) {
+        HttpStatus notFound = HttpStatus.NOT_FOUND;
+        ExceptionResponseBody exceptionResponseBody = new ExceptionResponseBody(notFound,
+            exception.getMessage());
+
+        return new ResponseEntity<>(exceptionResponseBody, notFound);
+    }
+}
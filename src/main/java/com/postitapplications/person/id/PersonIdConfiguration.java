@@ -0,0 +1,22 @@
+package com.postitapplications.person.id;
+
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+@Configuration
+public class PersonIdConfiguration {
+
+    @Bean
+    @ConditionalOnProperty(value = "person.id.generator", havingValue = "time-ordered",
+        matchIfMissing = true)
+    public PersonIdGenerator timeOrderedPersonIdGenerator() {
+        return new TimeOrderedPersonIdGenerator();
+    }
+
+    @Bean
+    @ConditionalOnProperty(value = "person.id.generator", havingValue = "random")
+    public PersonIdGenerator randomPersonIdGenerator() {
+        return PersonIdGenerator.random();
+    }
+}
@@ -0,0 +1,20 @@
+package com.postitapplications.person.id;
+
+import java.util.UUID;
+
+/**
+ * Chooses the id of each new person. Set with {@code person.id.generator}, either
+ * {@code time-ordered} or {@code random}.
+ */
+@FunctionalInterface
+public interface PersonIdGenerator {
+
+    UUID nextId();
+
+    /**
+     * Returns random version 4 ids, which spread inserts evenly across the id index.
+     */
+    static PersonIdGenerator random() {
+        return UUID::randomUUID;
+    }
+}
@@ -0,0 +1,71 @@
+package com.postitapplications.person.id;
+
+import java.util.UUID;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.LongSupplier;
+
+/**
+ * Generates version 7 UUIDs, which start with the Unix time in milliseconds, so new people are
+ * inserted at the right-hand edge of the id index instead of at random pages across it. Ids come
+ * out strictly increasing from any one generator: within a millisecond the 12-bit counter after
+ * the timestamp is incremented, starting from a random value in its lower half, and if it runs
+ * out the timestamp is moved on a millisecond early rather than repeating. Both the timestamp
+ * and counter are advanced together with a single compare-and-set, so concurrent callers never
+ * block each other.
+ *
+ * <p>The remaining 62 bits are random but come from {@link ThreadLocalRandom}, so unlike
+ * {@link UUID#randomUUID} the ids are unique but not unguessable.
+ */
+public class TimeOrderedPersonIdGenerator implements PersonIdGenerator {
+
+    private static final int COUNTER_BITS = 12;
+    private static final long COUNTER_MASK = (1L << COUNTER_BITS) - 1;
+    private static final long VERSION_7 = 0x7000L;
+    private static final long VARIANT_MASK = 0x3FFFFFFFFFFFFFFFL;
+    private static final long VARIANT_RFC_4122 = 0x8000000000000000L;
+
+    private final LongSupplier clock;
+    private final AtomicLong lastTimestampAndCounter = new AtomicLong();
+
+    public TimeOrderedPersonIdGenerator() {
+        this(System::currentTimeMillis);
+    }
+
+    /**
+     * @param clock supplies the current Unix time in milliseconds
+     */
+    public TimeOrderedPersonIdGenerator(LongSupplier clock) {
+        this.clock = clock;
+    }
+
+    @Override
+    public UUID nextId() {
+        ThreadLocalRandom random = ThreadLocalRandom.current();
+        long timestampAndCounter;
+
+        while (true) {
+            long last = lastTimestampAndCounter.get();
+            long now = clock.getAsLong() << COUNTER_BITS;
+            timestampAndCounter = now > last ? now | random.nextLong(COUNTER_MASK >>> 1)
+                : last + 1;
+
+            if (lastTimestampAndCounter.compareAndSet(last, timestampAndCounter)) {
+                break;
+            }
+        }
+
+        long mostSignificantBits = (timestampAndCounter >>> COUNTER_BITS) << 16 | VERSION_7
+            | timestampAndCounter & COUNTER_MASK;
+        long leastSignificantBits = random.nextLong() & VARIANT_MASK | VARIANT_RFC_4122;
+
+        return new UUID(mostSignificantBits, leastSignificantBits);
+    }
+
+    /**
+     * Returns the Unix time in milliseconds embedded in a version 7 id.
+     */
+    public static long getTimestamp(UUID id) {
+        return id.getMostSignificantBits() >>> 16;
+    }
+}
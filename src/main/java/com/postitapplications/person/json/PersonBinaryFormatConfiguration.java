@@ -0,0 +1,95 @@
+package com.postitapplications.person.json;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.dataformat.cbor.CBORFactory;
+import com.fasterxml.jackson.dataformat.smile.SmileFactory;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnWebApplication;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnWebApplication.Type;
+import org.springframework.boot.web.codec.CodecCustomizer;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.http.MediaType;
+import org.springframework.http.codec.json.Jackson2SmileDecoder;
+import org.springframework.http.codec.json.Jackson2SmileEncoder;
+import org.springframework.http.converter.cbor.MappingJackson2CborHttpMessageConverter;
+import org.springframework.http.converter.json.Jackson2ObjectMapperBuilder;
+import org.springframework.http.converter.smile.MappingJackson2SmileHttpMessageConverter;
+
+/**
+ * Lets callers exchange people as Smile or CBOR instead of JSON text, picked by the usual
+ * Content-Type and Accept negotiation. The binary mappers come from Boot's
+ * {@link Jackson2ObjectMapperBuilder}, so they share the JSON mapper's modules and settings, and
+ * error bodies are negotiated the same way as any other response.
+ */
+@Configuration
+public class PersonBinaryFormatConfiguration {
+
+    public static final String APPLICATION_SMILE_VALUE = "application/x-jackson-smile";
+    public static final MediaType APPLICATION_SMILE = MediaType.valueOf(APPLICATION_SMILE_VALUE);
+
+    @Configuration
+    @ConditionalOnWebApplication(type = Type.SERVLET)
+    static class ServletBinaryFormatConfiguration {
+
+        /**
+         * Replaces Spring MVC's default Smile converter, which is built without Boot's settings.
+         */
+        @Bean
+        public MappingJackson2SmileHttpMessageConverter smileHttpMessageConverter(
+            Jackson2ObjectMapperBuilder objectMapperBuilder) {
+            return new MappingJackson2SmileHttpMessageConverter(
+                smileMapper(objectMapperBuilder));
+        }
+
+        @Bean
+        public MappingJackson2CborHttpMessageConverter cborHttpMessageConverter(
+            Jackson2ObjectMapperBuilder objectMapperBuilder) {
+            return new MappingJackson2CborHttpMessageConverter(cborMapper(objectMapperBuilder));
+        }
+
+        @Bean
+        public PersonCollectionHttpMessageConverter smilePersonCollectionHttpMessageConverter(
+            Jackson2ObjectMapperBuilder objectMapperBuilder) {
+            return new PersonCollectionHttpMessageConverter(smileMapper(objectMapperBuilder),
+                APPLICATION_SMILE);
+        }
+
+        @Bean
+        public PersonCollectionHttpMessageConverter cborPersonCollectionHttpMessageConverter(
+            Jackson2ObjectMapperBuilder objectMapperBuilder) {
+            return new PersonCollectionHttpMessageConverter(cborMapper(objectMapperBuilder),
+                MediaType.APPLICATION_CBOR);
+        }
+    }
+
+    /**
+     * WebFlux already registers Smile by default, so only its mapper is swapped for Boot's. CBOR
+     * is left out because Spring's CBOR encoder cannot write the Flux responses the reactive
+     * controller returns.
+     */
+    @Configuration
+    @ConditionalOnWebApplication(type = Type.REACTIVE)
+    static class ReactiveBinaryFormatConfiguration {
+
+        @Bean
+        public CodecCustomizer smileCodecCustomizer(
+            Jackson2ObjectMapperBuilder objectMapperBuilder) {
+            ObjectMapper smileMapper = smileMapper(objectMapperBuilder);
+
+            return configurer -> {
+                configurer.defaultCodecs().jackson2SmileDecoder(
+                    new Jackson2SmileDecoder(smileMapper));
+                configurer.defaultCodecs().jackson2SmileEncoder(
+                    new Jackson2SmileEncoder(smileMapper));
+            };
+        }
+    }
+
+    public static ObjectMapper smileMapper(Jackson2ObjectMapperBuilder objectMapperBuilder) {
+        return objectMapperBuilder.factory(new SmileFactory()).build();
+    }
+
+    public static ObjectMapper cborMapper(Jackson2ObjectMapperBuilder objectMapperBuilder) {
+        return objectMapperBuilder.factory(new CBORFactory()).build();
+    }
+}
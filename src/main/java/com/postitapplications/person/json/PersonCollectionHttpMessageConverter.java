@@ -0,0 +1,104 @@
+package com.postitapplications.person.json;
+
+import com.fasterxml.jackson.core.JsonEncoding;
+import com.fasterxml.jackson.core.JsonGenerator;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.ObjectWriter;
+import com.fasterxml.jackson.databind.SerializationFeature;
+import com.postitapplications.person.document.Person;
+import java.io.IOException;
+import java.lang.reflect.Type;
+import java.util.Collection;
+import org.springframework.core.ResolvableType;
+import org.springframework.http.HttpInputMessage;
+import org.springframework.http.HttpOutputMessage;
+import org.springframework.http.MediaType;
+import org.springframework.http.converter.AbstractGenericHttpMessageConverter;
+import org.springframework.http.converter.HttpMessageNotReadableException;
+
+/**
+ * Writes collections of people as an array straight onto the response stream with a
+ * {@link JsonGenerator}, in JSON or in whichever binary format the given mapper's factory
+ * produces. The stream is flushed after the first person and then every
+ * {@value #FLUSH_INTERVAL} people, so the response is committed with chunked transfer encoding
+ * and the client starts receiving data before the whole array is serialized. Only writes; request
+ * bodies are still read by the default Jackson converter.
+ */
+public class PersonCollectionHttpMessageConverter extends
+    AbstractGenericHttpMessageConverter<Collection<Person>> {
+
+    private static final int FLUSH_INTERVAL = 100;
+
+    private final ObjectMapper objectMapper;
+    private final ObjectWriter personWriter;
+
+    public PersonCollectionHttpMessageConverter(ObjectMapper objectMapper,
+        MediaType... supportedMediaTypes) {
+        super(supportedMediaTypes);
+        this.objectMapper = objectMapper;
+        this.personWriter = objectMapper.writerFor(Person.class)
+                                        .without(SerializationFeature.FLUSH_AFTER_WRITE_VALUE);
+    }
+
+    /**
+     * The raw class alone cannot tell a collection of people from any other collection, so only
+     * the generic {@link #canWrite(Type, Class, MediaType)} check can select this converter.
+     */
+    @Override
+    protected boolean supports(Class<?> clazz) {
+        return false;
+    }
+
+    @Override
+    public boolean canRead(Type type, Class<?> contextClass, MediaType mediaType) {
+        return false;
+    }
+
+    @Override
+    public boolean canWrite(Type type, Class<?> clazz, MediaType mediaType) {
+        if (!canWrite(mediaType)) {
+            return false;
+        }
+
+        ResolvableType collectionType = ResolvableType.forType(type != null ? type : clazz)
+                                                      .asCollection();
+
+        return collectionType != ResolvableType.NONE
+            && collectionType.resolveGeneric(0) == Person.class;
+    }
+
+    @Override
+    protected void writeInternal(Collection<Person> people, Type type,
+        HttpOutputMessage outputMessage) throws IOException {
+        try (JsonGenerator generator = objectMapper.getFactory()
+                                                   .createGenerator(outputMessage.getBody(),
+                                                       JsonEncoding.UTF8)) {
+            generator.writeStartArray();
+            int written = 0;
+
+            for (Person person : people) {
+                personWriter.writeValue(generator, person);
+
+                if (++written % FLUSH_INTERVAL == 1) {
+                    generator.flush();
+                }
+            }
+
+            generator.writeEndArray();
+        }
+    }
+
+    @Override
+    public Collection<Person> read(Type type, Class<?> contextClass,
+        HttpInputMessage inputMessage) {
+        throw new HttpMessageNotReadableException("Person collections are write-only",
+            inputMessage);
+    }
+
+    @Override
+    protected Collection<Person> readInternal(Class<? extends Collection<Person>> clazz,
+        HttpInputMessage inputMessage) {
+        throw new HttpMessageNotReadableException("Person collections are write-only",
+            inputMessage);
+    }
+}
@@ -0,0 +1,35 @@
+package com.postitapplications.person.json;
+
+import com.fasterxml.jackson.annotation.JsonFilter;
+import com.fasterxml.jackson.databind.ser.impl.SimpleBeanPropertyFilter;
+import com.fasterxml.jackson.databind.ser.impl.SimpleFilterProvider;
+import com.postitapplications.person.document.PersonFields;
+import org.springframework.http.converter.json.MappingJacksonValue;
+
+/**
+ * Writes only the requested fields of a person. The filter is attached to {@code Person} through
+ * a mix-in registered by {@link PersonJsonConfiguration}, so people written without a filter keep
+ * every field.
+ */
+public final class PersonFieldFilter {
+
+    static final String FILTER_ID = "personFields";
+
+    private PersonFieldFilter() {
+    }
+
+    /**
+     * Wraps a person, or a collection of people, so that only the given fields are written.
+     */
+    public static MappingJacksonValue filter(Object value, PersonFields fields) {
+        MappingJacksonValue filteredValue = new MappingJacksonValue(value);
+        filteredValue.setFilters(new SimpleFilterProvider().addFilter(FILTER_ID,
+            SimpleBeanPropertyFilter.filterOutAllExcept(fields.getNames())));
+        return filteredValue;
+    }
+
+    @JsonFilter(FILTER_ID)
+    abstract static class PersonMixIn {
+
+    }
+}
@@ -0,0 +1,20 @@
+package com.postitapplications.person.metrics;
+
+import io.micrometer.core.aop.TimedAspect;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+@Configuration
+public class PersonMetricsConfiguration {
+
+    @Bean
+    public TimedAspect timedAspect(MeterRegistry meterRegistry) {
+        return new TimedAspect(meterRegistry, TimedStreamAspect::returnsStream);
+    }
+
+    @Bean
+    public TimedStreamAspect timedStreamAspect(MeterRegistry meterRegistry) {
+        return new TimedStreamAspect(meterRegistry);
+    }
+}
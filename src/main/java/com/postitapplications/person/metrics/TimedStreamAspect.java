@@ -0,0 +1,63 @@
+package com.postitapplications.person.metrics;
+
+import io.micrometer.core.annotation.Timed;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import java.lang.reflect.Method;
+import java.util.stream.Stream;
+import org.aspectj.lang.ProceedingJoinPoint;
+import org.aspectj.lang.annotation.Around;
+import org.aspectj.lang.annotation.Aspect;
+import org.aspectj.lang.reflect.MethodSignature;
+
+/**
+ * Times methods of a {@link Timed} bean that return a {@link Stream} until the stream is closed,
+ * rather than until it is returned, which for a Mongo cursor is only the time taken to open it.
+ * The timer carries the same name and tags {@code TimedAspect} would give it, and
+ * {@code TimedAspect} is told to skip these methods.
+ */
+@Aspect
+public class TimedStreamAspect {
+
+    private final MeterRegistry meterRegistry;
+
+    public TimedStreamAspect(MeterRegistry meterRegistry) {
+        this.meterRegistry = meterRegistry;
+    }
+
+    static boolean returnsStream(ProceedingJoinPoint joinPoint) {
+        return Stream.class.isAssignableFrom(
+            ((MethodSignature) joinPoint.getSignature()).getReturnType());
+    }
+
+    @Around("@within(io.micrometer.core.annotation.Timed)"
+        + " && execution(java.util.stream.Stream *(..))")
+    public Object timeUntilClosed(ProceedingJoinPoint joinPoint) throws Throwable {
+        Method method = ((MethodSignature) joinPoint.getSignature()).getMethod();
+        Timed timed = joinPoint.getTarget().getClass().getAnnotation(Timed.class);
+
+        if (timed == null) {
+            timed = method.getDeclaringClass().getAnnotation(Timed.class);
+        }
+
+        Timer.Sample sample = Timer.start(meterRegistry);
+        Stream<?> stream;
+
+        try {
+            stream = (Stream<?>) joinPoint.proceed();
+        } catch (Throwable exception) {
+            sample.stop(timer(timed, method, exception.getClass().getSimpleName()));
+            throw exception;
+        }
+
+        Timed streamTimed = timed;
+        return stream.onClose(() -> sample.stop(timer(streamTimed, method, "none")));
+    }
+
+    private Timer timer(Timed timed, Method method, String exception) {
+        return Timer.builder(timed.value())
+                    .tags("class", method.getDeclaringClass().getName(), "method",
+                        method.getName(), "exception", exception)
+                    .publishPercentileHistogram(timed.histogram()).register(meterRegistry);
+    }
+}
@@ -0,0 +1,150 @@
+package com.postitapplications.person.migration;
+
+import com.postitapplications.person.utility.DateOfBirthFormat;
+import java.util.List;
+import org.bson.Document;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.annotation.Profile;
+import org.springframework.context.event.EventListener;
+import org.springframework.data.domain.Sort;
+import org.springframework.data.domain.Sort.Direction;
+import org.springframework.data.mongodb.core.BulkOperations;
+import org.springframework.data.mongodb.core.BulkOperations.BulkMode;
+import org.springframework.data.mongodb.core.MongoTemplate;
+import org.springframework.data.mongodb.core.index.IndexOperations;
+import org.springframework.data.mongodb.core.query.Criteria;
+import org.springframework.data.mongodb.core.query.Query;
+import org.springframework.data.mongodb.core.query.Update;
+import org.springframework.stereotype.Component;
+
+/**
+ * Rewrites people stored with a dd/MM/yyyy dateOfBirth string into the epoch day birthDay field.
+ * Each document is updated on the condition that it still holds the string that was read, so
+ * concurrent writes win. Migrated documents no longer match the selection, so a restarted run
+ * resumes where the previous one stopped.
+ *
+ * <p>Until a run completes, people still holding the string are missed by birth day range searches.
+ * Once every document has been read, the index on the old dateOfBirth field is dropped, as nothing
+ * writes the field any more.
+ */
+@Profile("!reactive")
+@Component
+@ConditionalOnProperty(value = "person.migration.birth-day.enabled", havingValue = "true")
+public class BirthDayMigration {
+
+    private static final Logger LOGGER = LoggerFactory.getLogger(BirthDayMigration.class);
+    private static final String PEOPLE = "people";
+    private static final String LEGACY_DATE_OF_BIRTH_INDEX = "dateOfBirth";
+
+    private final MongoTemplate mongoTemplate;
+    private final int batchSize;
+    private final long pauseMillis;
+
+    @Autowired
+    public BirthDayMigration(MongoTemplate mongoTemplate,
+        @Value("${person.migration.birth-day.batch-size:1000}") int batchSize,
+        @Value("${person.migration.birth-day.pause-millis:100}") long pauseMillis) {
+        this.mongoTemplate = mongoTemplate;
+        this.batchSize = batchSize;
+        this.pauseMillis = pauseMillis;
+    }
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void startInBackground() {
+        Thread migrationThread = new Thread(this::migrate, "birth-day-migration");
+        migrationThread.setDaemon(true);
+        migrationThread.start();
+    }
+
+    public long migrate() {
+        long migrated = 0;
+        Object lastId = null;
+
+        while (!Thread.currentThread().isInterrupted()) {
+            List<Document> batch = mongoTemplate.find(nextBatch(lastId), Document.class, PEOPLE);
+
+            if (batch.isEmpty()) {
+                dropLegacyIndex();
+                break;
+            }
+
+            migrated += migrateBatch(batch);
+            lastId = batch.get(batch.size() - 1).get("_id");
+
+            if (!pause()) {
+                break;
+            }
+        }
+
+        LOGGER.info("Migrated {} people to epoch day dates of birth", migrated);
+        return migrated;
+    }
+
+    private Query nextBatch(Object lastId) {
+        Criteria criteria = Criteria.where("birthDay").exists(false).and("dateOfBirth")
+                                    .type(2);
+
+        if (lastId != null) {
+            criteria.and("_id").gt(lastId);
+        }
+
+        Query query = new Query(criteria).with(Sort.by(Direction.ASC, "_id")).limit(batchSize);
+        query.fields().include("_id").include("dateOfBirth");
+        return query;
+    }
+
+    private int migrateBatch(List<Document> batch) {
+        BulkOperations bulkOperations = mongoTemplate.bulkOps(BulkMode.UNORDERED, PEOPLE);
+        int updates = 0;
+
+        for (Document document : batch) {
+            String dateOfBirth = document.getString("dateOfBirth");
+
+            if (!DateOfBirthFormat.isValid(dateOfBirth)) {
+                LOGGER.warn("Skipping person {} with unparseable date of birth {}",
+                    document.get("_id"), dateOfBirth);
+                continue;
+            }
+
+            Query query = new Query(
+                Criteria.where("_id").is(document.get("_id")).and("dateOfBirth").is(dateOfBirth));
+            Update update = new Update().set("birthDay", DateOfBirthFormat.toEpochDay(dateOfBirth))
+                                        .unset("dateOfBirth");
+            bulkOperations.updateOne(query, update);
+            updates++;
+        }
+
+        return updates == 0 ? 0 : bulkOperations.execute().getModifiedCount();
+    }
+
+    private void dropLegacyIndex() {
+        IndexOperations indexOperations = mongoTemplate.indexOps(PEOPLE);
+        boolean legacyIndexExists = indexOperations.getIndexInfo().stream().anyMatch(
+            indexInfo -> LEGACY_DATE_OF_BIRTH_INDEX.equals(indexInfo.getName()));
+
+        if (legacyIndexExists) {
+            indexOperations.dropIndex(LEGACY_DATE_OF_BIRTH_INDEX);
+            LOGGER.info("Dropped the {} index now that every person has a birthDay",
+                LEGACY_DATE_OF_BIRTH_INDEX);
+        }
+    }
+
+    private boolean pause() {
+        if (pauseMillis <= 0) {
+            return true;
+        }
+
+        try {
+            Thread.sleep(pauseMillis);
+            return true;
+        } catch (InterruptedException exception) {
+            Thread.currentThread().interrupt();
+            return false;
+        }
+    }
+}
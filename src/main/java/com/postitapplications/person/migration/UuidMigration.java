@@ -0,0 +1,177 @@
+package com.postitapplications.person.migration;
+
+import com.mongodb.MongoBulkWriteException;
+import com.mongodb.bulk.BulkWriteError;
+import com.mongodb.client.MongoCollection;
+import com.mongodb.client.model.Filters;
+import com.mongodb.client.model.InsertManyOptions;
+import com.mongodb.client.model.Sorts;
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+import java.util.UUID;
+import org.bson.BsonBinary;
+import org.bson.BsonBinarySubType;
+import org.bson.BsonDocument;
+import org.bson.BsonValue;
+import org.bson.conversions.Bson;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.annotation.Profile;
+import org.springframework.context.event.EventListener;
+import org.springframework.data.mongodb.core.MongoTemplate;
+import org.springframework.stereotype.Component;
+
+/**
+ * Moves people stored under a java-legacy UUID id, binary subtype 3, to the same UUID stored as a
+ * standard one, subtype 4. Ids are looked up with the standard representation, so until a run
+ * completes the legacy people cannot be found, updated or deleted.
+ *
+ * <p>Each person is inserted under the new id before the legacy document is deleted. When the new
+ * id is already taken, by a write made since the switch or by a run that stopped between the two
+ * steps, that person wins and the legacy document is deleted. Legacy ids sort together in the
+ * {@code _id} index, so each batch is a range scan, and a restarted run resumes where the previous
+ * one stopped.
+ */
+@Profile("!reactive")
+@Component
+@ConditionalOnProperty(value = "person.migration.uuid.enabled", havingValue = "true")
+public class UuidMigration {
+
+    private static final Logger LOGGER = LoggerFactory.getLogger(UuidMigration.class);
+    private static final String PEOPLE = "people";
+    private static final int DUPLICATE_KEY = 11000;
+    private static final BsonBinary FIRST_LEGACY_ID =
+        new BsonBinary(BsonBinarySubType.UUID_LEGACY, new byte[16]);
+    private static final BsonBinary FIRST_STANDARD_ID =
+        new BsonBinary(BsonBinarySubType.UUID_STANDARD, new byte[16]);
+
+    private final MongoTemplate mongoTemplate;
+    private final int batchSize;
+    private final long pauseMillis;
+
+    @Autowired
+    public UuidMigration(MongoTemplate mongoTemplate,
+        @Value("${person.migration.uuid.batch-size:1000}") int batchSize,
+        @Value("${person.migration.uuid.pause-millis:100}") long pauseMillis) {
+        this.mongoTemplate = mongoTemplate;
+        this.batchSize = batchSize;
+        this.pauseMillis = pauseMillis;
+    }
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void startInBackground() {
+        Thread migrationThread = new Thread(this::migrate, "uuid-migration");
+        migrationThread.setDaemon(true);
+        migrationThread.start();
+    }
+
+    public long migrate() {
+        long migrated = 0;
+        BsonValue lastId = null;
+
+        while (!Thread.currentThread().isInterrupted()) {
+            Bson filter = nextBatch(lastId);
+            List<BsonDocument> batch = mongoTemplate.execute(PEOPLE,
+                collection -> collection.withDocumentClass(BsonDocument.class).find(filter)
+                                        .sort(Sorts.ascending("_id")).limit(batchSize)
+                                        .into(new ArrayList<>()));
+
+            if (batch.isEmpty()) {
+                break;
+            }
+
+            migrated += mongoTemplate.execute(PEOPLE,
+                collection -> migrateBatch(collection.withDocumentClass(BsonDocument.class),
+                    batch));
+            lastId = batch.get(batch.size() - 1).get("_id");
+
+            if (!pause()) {
+                break;
+            }
+        }
+
+        LOGGER.info("Migrated {} people to standard UUID ids", migrated);
+        return migrated;
+    }
+
+    /**
+     * Reads an id written with the java-legacy representation, which stores each half of the UUID
+     * least significant byte first.
+     */
+    static UUID fromLegacyId(byte[] legacyId) {
+        long mostSignificantBits = 0;
+        long leastSignificantBits = 0;
+
+        for (int i = 7; i >= 0; i--) {
+            mostSignificantBits = mostSignificantBits << 8 | (legacyId[i] & 0xff);
+            leastSignificantBits = leastSignificantBits << 8 | (legacyId[i + 8] & 0xff);
+        }
+
+        return new UUID(mostSignificantBits, leastSignificantBits);
+    }
+
+    private Bson nextBatch(BsonValue lastId) {
+        Bson from = lastId == null ? Filters.gte("_id", FIRST_LEGACY_ID)
+            : Filters.gt("_id", lastId);
+        return Filters.and(from, Filters.lt("_id", FIRST_STANDARD_ID));
+    }
+
+    private int migrateBatch(MongoCollection<BsonDocument> people, List<BsonDocument> batch) {
+        List<BsonDocument> migratedPeople = new ArrayList<>(batch.size());
+
+        for (BsonDocument legacyPerson : batch) {
+            BsonDocument person = legacyPerson.clone();
+            UUID id = fromLegacyId(legacyPerson.getBinary("_id").getData());
+            person.put("_id", new BsonBinary(id));
+            migratedPeople.add(person);
+        }
+
+        Set<Integer> failedIndexes = new HashSet<>();
+
+        try {
+            people.insertMany(migratedPeople, new InsertManyOptions().ordered(false));
+        } catch (MongoBulkWriteException exception) {
+            for (BulkWriteError error : exception.getWriteErrors()) {
+                if (error.getCode() != DUPLICATE_KEY) {
+                    failedIndexes.add(error.getIndex());
+                    LOGGER.warn("Skipping person {} that could not be moved to a standard id: {}",
+                        migratedPeople.get(error.getIndex()).get("_id"), error.getMessage());
+                }
+            }
+        }
+
+        List<BsonValue> legacyIds = new ArrayList<>(batch.size());
+
+        for (int i = 0; i < batch.size(); i++) {
+            if (!failedIndexes.contains(i)) {
+                legacyIds.add(batch.get(i).get("_id"));
+            }
+        }
+
+        if (!legacyIds.isEmpty()) {
+            people.deleteMany(Filters.in("_id", legacyIds));
+        }
+
+        return legacyIds.size();
+    }
+
+    private boolean pause() {
+        if (pauseMillis <= 0) {
+            return true;
+        }
+
+        try {
+            Thread.sleep(pauseMillis);
+            return true;
+        } catch (InterruptedException exception) {
+            Thread.currentThread().interrupt();
+            return false;
+        }
+    }
+}
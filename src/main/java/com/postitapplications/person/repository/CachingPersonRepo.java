@@ -0,0 +1,223 @@
+package com.postitapplications.person.repository;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.github.benmanes.caffeine.cache.stats.CacheStats;
+import com.mongodb.bulk.BulkWriteResult;
+import com.mongodb.client.result.DeleteResult;
+import com.mongodb.client.result.UpdateResult;
+import com.postitapplications.person.document.Person;
+import com.postitapplications.person.document.PersonChange;
+import com.postitapplications.person.document.PersonFields;
+import com.postitapplications.person.document.PersonSearch;
+import com.postitapplications.person.document.PersonStats;
+import java.time.Duration;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+import java.util.function.Function;
+import java.util.stream.Collectors;
+import java.util.stream.Stream;
+
+public class CachingPersonRepo implements PersonRepo {
+
+    private final PersonRepo delegate;
+    private final Cache<UUID, Person> cache;
+
+    public CachingPersonRepo(PersonRepo delegate, long maximumSize, Duration expireAfterWrite) {
+        this.delegate = delegate;
+        this.cache = Caffeine.newBuilder().maximumSize(maximumSize)
+                             .expireAfterWrite(expireAfterWrite).recordStats().build();
+    }
+
+    @Override
+    public Person save(UUID id, Person person) {
+        Person savedPerson = delegate.save(id, person);
+        cache.invalidate(id);
+        return savedPerson;
+    }
+
+    @Override
+    public UUID nextId() {
+        return delegate.nextId();
+    }
+
+    @Override
+    public BulkWriteResult insertAll(List<Person> people) {
+        try {
+            return delegate.insertAll(people);
+        } finally {
+            people.forEach(person -> cache.invalidate(person.getId()));
+        }
+    }
+
+    @Override
+    public List<Person> findAll() {
+        return delegate.findAll();
+    }
+
+    @Override
+    public List<Person> findAll(UUID after, int limit) {
+        return delegate.findAll(after, limit);
+    }
+
+    @Override
+    public List<Person> findAll(PersonFields fields) {
+        return delegate.findAll(fields);
+    }
+
+    @Override
+    public List<Person> findAll(UUID after, int limit, PersonFields fields) {
+        return delegate.findAll(after, limit, fields);
+    }
+
+    @Override
+    public Stream<Person> streamAll() {
+        return delegate.streamAll();
+    }
+
+    @Override
+    public List<Person> search(PersonSearch search) {
+        return delegate.search(search);
+    }
+
+    @Override
+    public PersonStats getPersonStats(LocalDate today, boolean allowDiskUse) {
+        return delegate.getPersonStats(today, allowDiskUse);
+    }
+
+    @Override
+    public Person findById(UUID id) {
+        if (id == null) {
+            return delegate.findById(null);
+        }
+
+        return cache.get(id, delegate::findById);
+    }
+
+    /**
+     * Serves a cached person whole, since it already holds every requested field, and otherwise
+     * reads only the requested fields without caching the partial result.
+     */
+    @Override
+    public Person findById(UUID id, PersonFields fields) {
+        Person cachedPerson = id == null ? null : cache.getIfPresent(id);
+        return cachedPerson != null ? cachedPerson : delegate.findById(id, fields);
+    }
+
+    /**
+     * Serves cached people directly and loads only the remaining ids, in one delegate call.
+     */
+    @Override
+    public List<Person> findAllByIds(Collection<UUID> ids) {
+        Map<UUID, Person> people = cache.getAll(ids, missingIds -> {
+            List<UUID> idsToLoad = new ArrayList<>();
+            missingIds.forEach(idsToLoad::add);
+            return delegate.findAllByIds(idsToLoad).stream()
+                           .collect(Collectors.toMap(Person::getId, Function.identity()));
+        });
+
+        return new ArrayList<>(people.values());
+    }
+
+    @Override
+    public UpdateResult update(Person person) {
+        try {
+            return delegate.update(person);
+        } finally {
+            if (person.getId() != null) {
+                cache.invalidate(person.getId());
+            }
+        }
+    }
+
+    @Override
+    public Person updateAndReturn(Person person) {
+        try {
+            return delegate.updateAndReturn(person);
+        } finally {
+            if (person.getId() != null) {
+                cache.invalidate(person.getId());
+            }
+        }
+    }
+
+    @Override
+    public PersonChange updateAndReturnChange(Person person) {
+        try {
+            return delegate.updateAndReturnChange(person);
+        } finally {
+            if (person.getId() != null) {
+                cache.invalidate(person.getId());
+            }
+        }
+    }
+
+    @Override
+    public Person patch(Person person) {
+        try {
+            return delegate.patch(person);
+        } finally {
+            if (person.getId() != null) {
+                cache.invalidate(person.getId());
+            }
+        }
+    }
+
+    @Override
+    public PersonChange patchAndReturnChange(Person person) {
+        try {
+            return delegate.patchAndReturnChange(person);
+        } finally {
+            if (person.getId() != null) {
+                cache.invalidate(person.getId());
+            }
+        }
+    }
+
+    @Override
+    public boolean existsById(UUID id) {
+        return delegate.existsById(id);
+    }
+
+    @Override
+    public DeleteResult removeById(UUID id) {
+        try {
+            return delegate.removeById(id);
+        } finally {
+            if (id != null) {
+                cache.invalidate(id);
+            }
+        }
+    }
+
+    @Override
+    public Person removeAndReturn(UUID id) {
+        try {
+            return delegate.removeAndReturn(id);
+        } finally {
+            if (id != null) {
+                cache.invalidate(id);
+            }
+        }
+    }
+
+    public void invalidate(UUID id) {
+        cache.invalidate(id);
+    }
+
+    public void invalidateAll() {
+        cache.invalidateAll();
+    }
+
+    public CacheStats getStats() {
+        return cache.stats();
+    }
+
+    public long getSize() {
+        return cache.estimatedSize();
+    }
+}
@@ -0,0 +1,314 @@
+package com.postitapplications.person.repository;
+
+import com.mongodb.bulk.BulkWriteResult;
+import com.mongodb.client.result.DeleteResult;
+import com.mongodb.client.result.UpdateResult;
+import com.postitapplications.person.document.Person;
+import com.postitapplications.person.document.PersonChange;
+import com.postitapplications.person.document.PersonFields;
+import com.postitapplications.person.document.PersonSearch;
+import com.postitapplications.person.document.PersonStats;
+import io.micrometer.core.instrument.FunctionCounter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import java.time.Duration;
+import java.time.LocalDate;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.concurrent.locks.Condition;
+import java.util.concurrent.locks.Lock;
+import java.util.concurrent.locks.ReentrantLock;
+import java.util.function.Function;
+import java.util.function.Supplier;
+import java.util.stream.Collectors;
+import java.util.stream.Stream;
+
+/**
+ * Coalesces concurrent findById calls. Callers asking for an id that is already being loaded wait
+ * for that load instead of starting their own (single flight). With a non-zero batch window, the
+ * first caller of a batch waits for the window to pass and then loads every id requested in the
+ * meantime with one findAllByIds query, so no extra threads are needed. A batch that reaches the
+ * maximum size is loaded straight away by the caller that filled it, but a caller with no one
+ * else asking always waits the full window, so the window adds to every lookup at low traffic.
+ * Waiting uses a {@link ReentrantLock} rather than a monitor so virtual threads are not pinned.
+ *
+ * <p>Writes drop any lookup in flight for the ids they change, before and after delegating, so a
+ * lookup made once a write has returned starts its own query rather than joining one that may
+ * have read the old person. All other calls go straight to the delegate.
+ */
+public class CoalescingPersonRepo implements PersonRepo {
+
+    private final PersonRepo delegate;
+    private final long batchWindowNanos;
+    private final int maxBatchSize;
+    private final Map<UUID, CompletableFuture<Person>> inFlight = new ConcurrentHashMap<>();
+    private final Lock batchLock = new ReentrantLock();
+    private final Condition batchTaken = batchLock.newCondition();
+    private final LongAdder lookups = new LongAdder();
+    private final LongAdder coalescedLookups = new LongAdder();
+    private final LongAdder queries = new LongAdder();
+    private Map<UUID, CompletableFuture<Person>> pendingBatch = new HashMap<>();
+
+    public CoalescingPersonRepo(PersonRepo delegate, Duration batchWindow, int maxBatchSize,
+        MeterRegistry meterRegistry) {
+        if (batchWindow.isNegative() || maxBatchSize <= 0) {
+            throw new IllegalArgumentException(
+                "Batch window cannot be negative and max batch size must be greater than zero");
+        }
+
+        this.delegate = delegate;
+        this.batchWindowNanos = batchWindow.toNanos();
+        this.maxBatchSize = maxBatchSize;
+
+        FunctionCounter.builder("person.lookups", lookups, LongAdder::sum)
+                       .description("findById calls received").register(meterRegistry);
+        FunctionCounter.builder("person.lookups.coalesced", coalescedLookups, LongAdder::sum)
+                       .description("findById calls that joined a lookup already in flight")
+                       .register(meterRegistry);
+        FunctionCounter.builder("person.lookups.queries", queries, LongAdder::sum)
+                       .description("Queries issued to serve findById calls")
+                       .register(meterRegistry);
+        Gauge.builder("person.lookups.coalescing.ratio", this,
+            CoalescingPersonRepo::getCoalescingRatio)
+             .description("Share of findById calls served without a query of their own")
+             .register(meterRegistry);
+    }
+
+    @Override
+    public Person save(UUID id, Person person) {
+        return writing(id, () -> delegate.save(id, person));
+    }
+
+    @Override
+    public UUID nextId() {
+        return delegate.nextId();
+    }
+
+    @Override
+    public BulkWriteResult insertAll(List<Person> people) {
+        people.forEach(person -> forget(person.getId()));
+
+        try {
+            return delegate.insertAll(people);
+        } finally {
+            people.forEach(person -> forget(person.getId()));
+        }
+    }
+
+    @Override
+    public List<Person> findAll() {
+        return delegate.findAll();
+    }
+
+    @Override
+    public List<Person> findAll(UUID after, int limit) {
+        return delegate.findAll(after, limit);
+    }
+
+    @Override
+    public List<Person> findAll(PersonFields fields) {
+        return delegate.findAll(fields);
+    }
+
+    @Override
+    public List<Person> findAll(UUID after, int limit, PersonFields fields) {
+        return delegate.findAll(after, limit, fields);
+    }
+
+    @Override
+    public Stream<Person> streamAll() {
+        return delegate.streamAll();
+    }
+
+    @Override
+    public List<Person> search(PersonSearch search) {
+        return delegate.search(search);
+    }
+
+    @Override
+    public PersonStats getPersonStats(LocalDate today, boolean allowDiskUse) {
+        return delegate.getPersonStats(today, allowDiskUse);
+    }
+
+    @Override
+    public Person findById(UUID id) {
+        if (id == null) {
+            return delegate.findById(null);
+        }
+
+        lookups.increment();
+        CompletableFuture<Person> lookup = new CompletableFuture<>();
+        CompletableFuture<Person> inFlightLookup = inFlight.putIfAbsent(id, lookup);
+
+        if (inFlightLookup != null) {
+            coalescedLookups.increment();
+            return await(inFlightLookup);
+        }
+
+        if (batchWindowNanos == 0) {
+            load(Map.of(id, lookup));
+        } else {
+            joinBatch(id, lookup);
+        }
+
+        return await(lookup);
+    }
+
+    @Override
+    public Person findById(UUID id, PersonFields fields) {
+        return delegate.findById(id, fields);
+    }
+
+    @Override
+    public List<Person> findAllByIds(Collection<UUID> ids) {
+        return delegate.findAllByIds(ids);
+    }
+
+    @Override
+    public UpdateResult update(Person person) {
+        return writing(person.getId(), () -> delegate.update(person));
+    }
+
+    @Override
+    public Person updateAndReturn(Person person) {
+        return writing(person.getId(), () -> delegate.updateAndReturn(person));
+    }
+
+    @Override
+    public PersonChange updateAndReturnChange(Person person) {
+        return writing(person.getId(), () -> delegate.updateAndReturnChange(person));
+    }
+
+    @Override
+    public Person patch(Person person) {
+        return writing(person.getId(), () -> delegate.patch(person));
+    }
+
+    @Override
+    public PersonChange patchAndReturnChange(Person person) {
+        return writing(person.getId(), () -> delegate.patchAndReturnChange(person));
+    }
+
+    @Override
+    public boolean existsById(UUID id) {
+        return delegate.existsById(id);
+    }
+
+    @Override
+    public DeleteResult removeById(UUID id) {
+        return writing(id, () -> delegate.removeById(id));
+    }
+
+    @Override
+    public Person removeAndReturn(UUID id) {
+        return writing(id, () -> delegate.removeAndReturn(id));
+    }
+
+    public double getCoalescingRatio() {
+        long lookupCount = lookups.sum();
+        return lookupCount == 0 ? 0 : 1 - (double) queries.sum() / lookupCount;
+    }
+
+    private <T> T writing(UUID id, Supplier<T> write) {
+        forget(id);
+
+        try {
+            return write.get();
+        } finally {
+            forget(id);
+        }
+    }
+
+    private void forget(UUID id) {
+        if (id != null) {
+            inFlight.remove(id);
+        }
+    }
+
+    private void joinBatch(UUID id, CompletableFuture<Person> lookup) {
+        Map<UUID, CompletableFuture<Person>> batch;
+        batchLock.lock();
+
+        try {
+            batch = pendingBatch;
+            boolean leader = batch.isEmpty();
+            batch.put(id, lookup);
+
+            if (batch.size() >= maxBatchSize) {
+                pendingBatch = new HashMap<>();
+                batchTaken.signalAll();
+            } else if (!leader || !awaitBatchWindow(batch)) {
+                return;
+            }
+        } finally {
+            batchLock.unlock();
+        }
+
+        load(batch);
+    }
+
+    /**
+     * Waits until the batch window has passed or another caller has taken the batch because it
+     * was full. Returns true if the batch is still pending, in which case it is taken for the
+     * caller to load. Must be called holding the batch lock.
+     */
+    private boolean awaitBatchWindow(Map<UUID, CompletableFuture<Person>> batch) {
+        long remainingNanos = batchWindowNanos;
+
+        try {
+            while (pendingBatch == batch && remainingNanos > 0) {
+                remainingNanos = batchTaken.awaitNanos(remainingNanos);
+            }
+        } catch (InterruptedException exception) {
+            Thread.currentThread().interrupt();
+        }
+
+        if (pendingBatch != batch) {
+            return false;
+        }
+
+        pendingBatch = new HashMap<>();
+        return true;
+    }
+
+    private void load(Map<UUID, CompletableFuture<Person>> batch) {
+        try {
+            queries.increment();
+            Map<UUID, Person> people;
+
+            if (batch.size() == 1) {
+                UUID id = batch.keySet().iterator().next();
+                Person person = delegate.findById(id);
+                people = person == null ? Map.of() : Map.of(id, person);
+            } else {
+                people = delegate.findAllByIds(batch.keySet()).stream()
+                                 .collect(Collectors.toMap(Person::getId, Function.identity()));
+            }
+
+            batch.forEach((id, lookup) -> lookup.complete(people.get(id)));
+        } catch (RuntimeException exception) {
+            batch.values().forEach(lookup -> lookup.completeExceptionally(exception));
+        } finally {
+            batch.forEach(inFlight::remove);
+        }
+    }
+
+    private static Person await(CompletableFuture<Person> lookup) {
+        try {
+            return lookup.join();
+        } catch (CompletionException exception) {
+            if (exception.getCause() instanceof RuntimeException) {
+                throw (RuntimeException) exception.getCause();
+            }
+
+            throw exception;
+        }
+    }
+}
@@ -0,0 +1,187 @@
+package com.postitapplications.person.repository;
+
+import com.mongodb.MongoBulkWriteException;
+import com.mongodb.bulk.BulkWriteResult;
+import com.mongodb.client.FindIterable;
+import com.mongodb.client.MongoCollection;
+import com.mongodb.client.MongoCursor;
+import com.mongodb.client.model.BulkWriteOptions;
+import com.mongodb.client.model.Filters;
+import com.mongodb.client.model.InsertOneModel;
+import com.mongodb.client.model.Projections;
+import com.mongodb.client.model.ReplaceOptions;
+import com.mongodb.client.model.Sorts;
+import com.postitapplications.person.converter.PersonCodec;
+import com.postitapplications.person.document.Person;
+import com.postitapplications.person.document.PersonFields;
+import com.postitapplications.person.document.PersonSearch;
+import com.postitapplications.person.id.PersonIdGenerator;
+import io.micrometer.core.annotation.Timed;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.List;
+import java.util.Spliterator;
+import java.util.Spliterators;
+import java.util.UUID;
+import java.util.function.Supplier;
+import java.util.stream.Collectors;
+import java.util.stream.Stream;
+import java.util.stream.StreamSupport;
+import org.bson.Document;
+import org.bson.conversions.Bson;
+import org.bson.codecs.configuration.CodecRegistries;
+import org.bson.codecs.configuration.CodecRegistry;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.context.annotation.Profile;
+import org.springframework.dao.DataAccessException;
+import org.springframework.dao.support.PersistenceExceptionTranslator;
+import org.springframework.data.mongodb.BulkOperationException;
+import org.springframework.data.mongodb.core.MongoTemplate;
+import org.springframework.data.mongodb.core.convert.QueryMapper;
+import org.springframework.data.mongodb.core.mapping.MongoPersistentEntity;
+import org.springframework.data.mongodb.core.query.Query;
+import org.springframework.stereotype.Repository;
+
+/**
+ * Serves saves and reads from the raw driver collection with {@link PersonCodec}, so documents
+ * are decoded straight into people. Updates, deletes and existence checks are unchanged and still
+ * go through {@link MongoTemplate}. Enabled with {@code person.repository.mode=codec}.
+ */
+@Profile("!reactive")
+@Repository("MongoDBRepo")
+@ConditionalOnProperty(value = "person.repository.mode", havingValue = "codec")
+@Timed(value = "person.repository", histogram = true)
+public class CodecPersonRepository extends PersonRepository {
+
+    private final MongoCollection<Person> collection;
+    private final QueryMapper queryMapper;
+    private final MongoPersistentEntity<?> personEntity;
+    private final PersistenceExceptionTranslator exceptionTranslator;
+
+    @Autowired
+    public CodecPersonRepository(MongoTemplate mongoTemplate,
+        PersonIdGenerator personIdGenerator) {
+        super(mongoTemplate, personIdGenerator);
+        MongoCollection<Document> documents = mongoTemplate.getCollection(
+            mongoTemplate.getCollectionName(Person.class));
+        CodecRegistry codecRegistry = CodecRegistries.fromRegistries(
+            CodecRegistries.fromCodecs(
+                new PersonCodec(documents.getCodecRegistry().get(UUID.class))),
+            documents.getCodecRegistry());
+        this.collection = documents.withCodecRegistry(codecRegistry)
+                                   .withDocumentClass(Person.class);
+        this.queryMapper = new QueryMapper(mongoTemplate.getConverter());
+        this.personEntity = mongoTemplate.getConverter().getMappingContext()
+                                         .getRequiredPersistentEntity(Person.class);
+        this.exceptionTranslator = mongoTemplate.getExceptionTranslator();
+    }
+
+    @Override
+    public Person save(UUID id, Person personToSave) {
+        Person person = new Person(id, personToSave.getName(), personToSave.getWeight(),
+            personToSave.getHeight(), personToSave.getDateOfBirth(), personToSave.getGender(),
+            0L);
+        execute(() -> collection.replaceOne(Filters.eq("_id", id), person,
+            new ReplaceOptions().upsert(true)));
+        return person;
+    }
+
+    @Override
+    public BulkWriteResult insertAll(List<Person> people) {
+        List<InsertOneModel<Person>> inserts = people.stream().map(InsertOneModel::new)
+                                                     .collect(Collectors.toList());
+
+        return execute(() -> {
+            try {
+                return collection.bulkWrite(inserts, new BulkWriteOptions().ordered(false));
+            } catch (MongoBulkWriteException exception) {
+                throw new BulkOperationException(exception.getMessage(), exception);
+            }
+        });
+    }
+
+    @Override
+    public List<Person> findAll() {
+        return execute(() -> collection.find().into(new ArrayList<>()));
+    }
+
+    @Override
+    public List<Person> findAll(UUID after, int limit) {
+        FindIterable<Person> people = after == null ? collection.find()
+            : collection.find(Filters.gt("_id", after));
+
+        return execute(() -> people.sort(Sorts.ascending("_id")).limit(limit)
+                                   .into(new ArrayList<>(limit)));
+    }
+
+    @Override
+    public List<Person> findAll(PersonFields fields) {
+        return execute(() -> collection.find().projection(projection(fields))
+                                       .into(new ArrayList<>()));
+    }
+
+    @Override
+    public List<Person> findAll(UUID after, int limit, PersonFields fields) {
+        FindIterable<Person> people = after == null ? collection.find()
+            : collection.find(Filters.gt("_id", after));
+
+        return execute(() -> people.projection(projection(fields)).sort(Sorts.ascending("_id"))
+                                   .limit(limit).into(new ArrayList<>(limit)));
+    }
+
+    @Override
+    public Stream<Person> streamAll() {
+        MongoCursor<Person> cursor = execute(() -> collection.find().iterator());
+
+        return StreamSupport.stream(
+            Spliterators.spliteratorUnknownSize(cursor, Spliterator.ORDERED | Spliterator.NONNULL),
+            false).onClose(cursor::close);
+    }
+
+    @Override
+    public List<Person> search(PersonSearch search) {
+        Query query = searchQuery(search);
+        FindIterable<Person> people = collection
+            .find(queryMapper.getMappedObject(query.getQueryObject(), personEntity))
+            .sort(queryMapper.getMappedSort(query.getSortObject(), personEntity))
+            .skip((int) query.getSkip()).limit(query.getLimit());
+
+        query.getCollation().ifPresent(collation -> people.collation(collation.toMongoCollation()));
+
+        return execute(() -> people.into(new ArrayList<>(query.getLimit())));
+    }
+
+    @Override
+    public Person findById(UUID id) {
+        return execute(() -> collection.find(Filters.eq("_id", id)).first());
+    }
+
+    @Override
+    public Person findById(UUID id, PersonFields fields) {
+        return execute(
+            () -> collection.find(Filters.eq("_id", id)).projection(projection(fields)).first());
+    }
+
+    @Override
+    public List<Person> findAllByIds(Collection<UUID> ids) {
+        return execute(
+            () -> collection.find(Filters.in("_id", ids)).into(new ArrayList<>(ids.size())));
+    }
+
+    private static Bson projection(PersonFields fields) {
+        return Projections.include(fields.getStoredNames());
+    }
+
+    private <T> T execute(Supplier<T> action) {
+        try {
+            return action.get();
+        } catch (DataAccessException exception) {
+            throw exception;
+        } catch (RuntimeException exception) {
+            DataAccessException translated = exceptionTranslator
+                .translateExceptionIfPossible(exception);
+            throw translated != null ? translated : exception;
+        }
+    }
+}
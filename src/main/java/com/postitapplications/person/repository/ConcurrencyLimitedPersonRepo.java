@@ -0,0 +1,172 @@
+package com.postitapplications.person.repository;
+
+import com.mongodb.bulk.BulkWriteResult;
+import com.mongodb.client.result.DeleteResult;
+import com.mongodb.client.result.UpdateResult;
+import com.postitapplications.person.document.Person;
+import com.postitapplications.person.document.PersonChange;
+import com.postitapplications.person.document.PersonFields;
+import com.postitapplications.person.document.PersonSearch;
+import com.postitapplications.person.document.PersonStats;
+import java.time.LocalDate;
+import java.util.Collection;
+import java.util.List;
+import java.util.UUID;
+import java.util.concurrent.Semaphore;
+import java.util.function.Supplier;
+import java.util.stream.Stream;
+
+/**
+ * Bounds the number of concurrent calls into the delegate. Used with virtual threads, where the
+ * number of in-flight requests is no longer capped by a worker pool, so that callers queue on a
+ * permit instead of on the driver's connection pool wait queue.
+ */
+public class ConcurrencyLimitedPersonRepo implements PersonRepo {
+
+    private final PersonRepo delegate;
+    private final Semaphore permits;
+
+    public ConcurrencyLimitedPersonRepo(PersonRepo delegate, int maxConcurrentQueries) {
+        if (maxConcurrentQueries <= 0) {
+            throw new IllegalArgumentException(
+                "Max concurrent queries must be greater than zero");
+        }
+
+        this.delegate = delegate;
+        this.permits = new Semaphore(maxConcurrentQueries, true);
+    }
+
+    @Override
+    public Person save(UUID id, Person person) {
+        return withPermit(() -> delegate.save(id, person));
+    }
+
+    @Override
+    public UUID nextId() {
+        return delegate.nextId();
+    }
+
+    @Override
+    public BulkWriteResult insertAll(List<Person> people) {
+        return withPermit(() -> delegate.insertAll(people));
+    }
+
+    @Override
+    public List<Person> findAll() {
+        return withPermit(delegate::findAll);
+    }
+
+    @Override
+    public List<Person> findAll(UUID after, int limit) {
+        return withPermit(() -> delegate.findAll(after, limit));
+    }
+
+    @Override
+    public List<Person> findAll(PersonFields fields) {
+        return withPermit(() -> delegate.findAll(fields));
+    }
+
+    @Override
+    public List<Person> findAll(UUID after, int limit, PersonFields fields) {
+        return withPermit(() -> delegate.findAll(after, limit, fields));
+    }
+
+    /**
+     * Holds a permit only while the cursor is opened. The stream is read at the pace of the
+     * client, so holding it until the stream closes would let a few slow clients take every
+     * permit.
+     */
+    @Override
+    public Stream<Person> streamAll() {
+        return withPermit(delegate::streamAll);
+    }
+
+    @Override
+    public List<Person> search(PersonSearch search) {
+        return withPermit(() -> delegate.search(search));
+    }
+
+    @Override
+    public PersonStats getPersonStats(LocalDate today, boolean allowDiskUse) {
+        return withPermit(() -> delegate.getPersonStats(today, allowDiskUse));
+    }
+
+    @Override
+    public Person findById(UUID id) {
+        return withPermit(() -> delegate.findById(id));
+    }
+
+    @Override
+    public Person findById(UUID id, PersonFields fields) {
+        return withPermit(() -> delegate.findById(id, fields));
+    }
+
+    @Override
+    public List<Person> findAllByIds(Collection<UUID> ids) {
+        return withPermit(() -> delegate.findAllByIds(ids));
+    }
+
+    @Override
+    public UpdateResult update(Person person) {
+        return withPermit(() -> delegate.update(person));
+    }
+
+    @Override
+    public Person updateAndReturn(Person person) {
+        return withPermit(() -> delegate.updateAndReturn(person));
+    }
+
+    @Override
+    public PersonChange updateAndReturnChange(Person person) {
+        return withPermit(() -> delegate.updateAndReturnChange(person));
+    }
+
+    @Override
+    public Person patch(Person person) {
+        return withPermit(() -> delegate.patch(person));
+    }
+
+    @Override
+    public PersonChange patchAndReturnChange(Person person) {
+        return withPermit(() -> delegate.patchAndReturnChange(person));
+    }
+
+    @Override
+    public boolean existsById(UUID id) {
+        return withPermit(() -> delegate.existsById(id));
+    }
+
+    @Override
+    public DeleteResult removeById(UUID id) {
+        return withPermit(() -> delegate.removeById(id));
+    }
+
+    @Override
+    public Person removeAndReturn(UUID id) {
+        return withPermit(() -> delegate.removeAndReturn(id));
+    }
+
+    public int getAvailablePermits() {
+        return permits.availablePermits();
+    }
+
+    private <T> T withPermit(Supplier<T> call) {
+        acquire();
+
+        try {
+            return call.get();
+        } finally {
+            permits.release();
+        }
+    }
+
+    private void acquire() {
+        try {
+            permits.acquire();
+        } catch (InterruptedException exception) {
+            Thread.currentThread().interrupt();
+            throw new IllegalStateException("Interrupted while waiting for a Mongo permit",
+                exception);
+        }
+    }
+}
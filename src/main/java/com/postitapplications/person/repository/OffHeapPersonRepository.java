@@ -0,0 +1,466 @@
+package com.postitapplications.person.repository;
+
+import com.mongodb.MongoBulkWriteException;
+import com.mongodb.ServerAddress;
+import com.mongodb.bulk.BulkWriteError;
+import com.mongodb.bulk.BulkWriteResult;
+import com.mongodb.client.result.DeleteResult;
+import com.mongodb.client.result.UpdateResult;
+import com.postitapplications.person.document.Person;
+import com.postitapplications.person.document.PersonChange;
+import com.postitapplications.person.document.PersonFields;
+import com.postitapplications.person.document.PersonSearch;
+import com.postitapplications.person.document.PersonStats;
+import com.postitapplications.person.document.PersonStatsAccumulator;
+import com.postitapplications.person.exception.PersonNameTooLongException;
+import com.postitapplications.person.id.PersonIdGenerator;
+import io.micrometer.core.annotation.Timed;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import java.nio.ByteBuffer;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Comparator;
+import java.util.List;
+import java.util.PriorityQueue;
+import java.util.UUID;
+import java.util.concurrent.atomic.AtomicReference;
+import java.util.function.Function;
+import java.util.stream.Stream;
+import org.bson.BsonDocument;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.context.annotation.Profile;
+import org.springframework.dao.InvalidDataAccessApiUsageException;
+import org.springframework.data.mongodb.BulkOperationException;
+import org.springframework.lang.Nullable;
+import org.springframework.stereotype.Repository;
+
+/**
+ * Keeps every person in an {@link OffHeapPersonStore} instead of Mongo, for read replicas where a
+ * round trip to the database is too slow. Lookups by id are a hash probe; listing, paging and
+ * search scan the whole store, filtering and ordering on the stored records so that only people
+ * who may make the page are read onto the heap. Pages are ordered by the id's bytes, as Mongo
+ * orders standard UUIDs. Enabled with {@code person.repository.mode=off-heap}.
+ *
+ * <p>The store lives only as long as the process does, unless a {@link PersonLog} is configured.
+ * Then every write is logged before it returns, and the log is replayed into the store on
+ * startup. If logging a change fails, the write throws but the store keeps the change, so the
+ * store may be ahead of the log until the next restart.
+ */
+@Profile("!reactive")
+@Repository("MongoDBRepo")
+@ConditionalOnProperty(value = "person.repository.mode", havingValue = "off-heap")
+@Timed(value = "person.repository", histogram = true)
+public class OffHeapPersonRepository implements PersonRepo {
+
+    private static final String SORT_BY_NAME = "name";
+    private static final String SORT_BY_DATE_OF_BIRTH = "dateOfBirth";
+    private static final int DUPLICATE_KEY = 11000;
+    private static final int BAD_VALUE = 2;
+    private static final RecordFilter EVERY_RECORD = (records, offset) -> true;
+    private static final Comparator<UUID> ID_ORDER = Comparator
+        .<UUID, Long>comparing(UUID::getMostSignificantBits, Long::compareUnsigned)
+        .thenComparing(UUID::getLeastSignificantBits, Long::compareUnsigned);
+    private static final Comparator<Person> BY_ID = Comparator.comparing(Person::getId, ID_ORDER);
+    private static final Comparator<Person> BY_NAME = Comparator
+        .comparing(Person::getName, Comparator.nullsFirst(String.CASE_INSENSITIVE_ORDER))
+        .thenComparing(BY_ID);
+    private static final Comparator<Person> BY_BIRTH_DAY = Comparator
+        .comparing(Person::getBirthDay, Comparator.nullsFirst(Comparator.naturalOrder()))
+        .thenComparing(BY_ID);
+
+    private final OffHeapPersonStore store;
+    private final PersonLog personLog;
+    private final PersonIdGenerator personIdGenerator;
+
+    /**
+     * @param personLog logs every write to local disk when person.log.enabled is true, or null
+     *                  to keep people in memory only
+     */
+    @Autowired
+    public OffHeapPersonRepository(@Value("${person.off-heap.stripes:16}") int stripes,
+        @Value("${person.off-heap.initial-capacity:100000}") int initialCapacity,
+        MeterRegistry meterRegistry, @Nullable PersonLog personLog,
+        PersonIdGenerator personIdGenerator) {
+        this(new OffHeapPersonStore(stripes, initialCapacity), personLog, personIdGenerator);
+        Gauge.builder("person.off-heap.people", store, OffHeapPersonStore::size)
+             .description("People held in the off-heap store").register(meterRegistry);
+        Gauge.builder("person.off-heap.reserved", store, OffHeapPersonStore::getReservedBytes)
+             .description("Off-heap bytes reserved for person records").baseUnit("bytes")
+             .register(meterRegistry);
+    }
+
+    public OffHeapPersonRepository(OffHeapPersonStore store) {
+        this(store, null);
+    }
+
+    public OffHeapPersonRepository(OffHeapPersonStore store, PersonLog personLog) {
+        this(store, personLog, PersonIdGenerator.random());
+    }
+
+    public OffHeapPersonRepository(OffHeapPersonStore store, PersonLog personLog,
+        PersonIdGenerator personIdGenerator) {
+        this.store = store;
+        this.personLog = personLog;
+        this.personIdGenerator = personIdGenerator;
+
+        if (personLog != null) {
+            personLog.open(store);
+        }
+    }
+
+    @Override
+    public UUID nextId() {
+        return personIdGenerator.nextId();
+    }
+
+    @Override
+    public Person save(UUID id, Person personToSave) {
+        requireId(id);
+        Person person = new Person(id, personToSave.getName(), personToSave.getWeight(),
+            personToSave.getHeight(), personToSave.getDateOfBirth(), personToSave.getGender(),
+            0L);
+        store.put(person);
+        sync();
+        return person;
+    }
+
+    /**
+     * Inserts every person who fits, then reports the ones who did not, like an unordered Mongo
+     * bulk insert: a {@link BulkOperationException} carries a write error for the index of each
+     * person whose id was taken or whose name was too long.
+     */
+    @Override
+    public BulkWriteResult insertAll(List<Person> people) {
+        List<BulkWriteError> writeErrors = new ArrayList<>();
+
+        for (int index = 0; index < people.size(); index++) {
+            Person person = people.get(index);
+            requireId(person.getId());
+            Person insertedPerson = person.getVersion() == null ? person.withVersion(0L) : person;
+
+            try {
+                if (!store.insert(insertedPerson)) {
+                    writeErrors.add(new BulkWriteError(DUPLICATE_KEY,
+                        String.format("Person with id %s already exists", person.getId()),
+                        new BsonDocument(), index));
+                }
+            } catch (PersonNameTooLongException exception) {
+                writeErrors.add(new BulkWriteError(BAD_VALUE, exception.getMessage(),
+                    new BsonDocument(), index));
+            }
+        }
+
+        sync();
+        BulkWriteResult result = BulkWriteResult
+            .acknowledged(people.size() - writeErrors.size(), 0, 0, 0, List.of());
+
+        if (!writeErrors.isEmpty()) {
+            throw new BulkOperationException(
+                String.format("%d of %d people were not inserted", writeErrors.size(),
+                    people.size()),
+                new MongoBulkWriteException(result, writeErrors, null, new ServerAddress()));
+        }
+
+        return result;
+    }
+
+    @Override
+    public List<Person> findAll() {
+        List<Person> people = new ArrayList<>();
+        store.forEach(people::add);
+        return people;
+    }
+
+    @Override
+    public List<Person> findAll(UUID after, int limit) {
+        return firstMatching(after == null ? EVERY_RECORD
+            : (records, offset) -> compareId(records, offset, after) > 0, PageOrder.ID, 0, limit);
+    }
+
+    /**
+     * Records are fixed-size, so reading fewer fields saves nothing; every field is returned.
+     */
+    @Override
+    public List<Person> findAll(PersonFields fields) {
+        return findAll();
+    }
+
+    @Override
+    public List<Person> findAll(UUID after, int limit, PersonFields fields) {
+        return findAll(after, limit);
+    }
+
+    @Override
+    public Stream<Person> streamAll() {
+        return store.stream();
+    }
+
+    @Override
+    public List<Person> search(PersonSearch search) {
+        PageOrder order = SORT_BY_NAME.equals(search.getSort()) ? PageOrder.NAME
+            : SORT_BY_DATE_OF_BIRTH.equals(search.getSort()) ? PageOrder.BIRTH_DAY : PageOrder.ID;
+
+        return firstMatching((records, offset) -> matches(records, offset, search), order,
+            (long) search.getPage() * search.getLimit(), search.getLimit());
+    }
+
+    /**
+     * Works the stats out in a single scan of the store. There is no disk to spill to, so
+     * allowDiskUse is ignored.
+     */
+    @Override
+    public PersonStats getPersonStats(LocalDate today, boolean allowDiskUse) {
+        PersonStatsAccumulator accumulator = new PersonStatsAccumulator(today);
+        store.forEach(accumulator::add);
+        return accumulator.toPersonStats();
+    }
+
+    @Override
+    public Person findById(UUID id) {
+        requireId(id);
+        return store.get(id);
+    }
+
+    @Override
+    public Person findById(UUID id, PersonFields fields) {
+        return findById(id);
+    }
+
+    @Override
+    public List<Person> findAllByIds(Collection<UUID> ids) {
+        List<Person> people = new ArrayList<>(ids.size());
+
+        for (UUID id : ids) {
+            Person person = store.get(id);
+
+            if (person != null) {
+                people.add(person);
+            }
+        }
+
+        return people;
+    }
+
+    @Override
+    public UpdateResult update(Person person) {
+        PersonChange change = change(person.getId(),
+            storedPerson -> PersonChange.updated(storedPerson, person));
+        long matchedCount = change == null ? 0 : 1;
+
+        return UpdateResult.acknowledged(matchedCount, matchedCount, null);
+    }
+
+    @Override
+    public Person updateAndReturn(Person person) {
+        return current(updateAndReturnChange(person));
+    }
+
+    @Override
+    public PersonChange updateAndReturnChange(Person person) {
+        return change(person.getId(), storedPerson -> isAtVersion(storedPerson, person)
+            ? PersonChange.updated(storedPerson, person) : null);
+    }
+
+    @Override
+    public Person patch(Person person) {
+        return current(patchAndReturnChange(person));
+    }
+
+    @Override
+    public PersonChange patchAndReturnChange(Person person) {
+        return change(person.getId(), storedPerson -> isAtVersion(storedPerson, person)
+            ? PersonChange.patched(storedPerson, person) : null);
+    }
+
+    @Override
+    public boolean existsById(UUID id) {
+        requireId(id);
+        return store.contains(id);
+    }
+
+    @Override
+    public DeleteResult removeById(UUID id) {
+        requireId(id);
+        boolean removed = store.remove(id);
+        sync();
+        return DeleteResult.acknowledged(removed ? 1 : 0);
+    }
+
+    @Override
+    public Person removeAndReturn(UUID id) {
+        requireId(id);
+        Person removedPerson = store.removeAndReturn(id);
+        sync();
+        return removedPerson;
+    }
+
+    /**
+     * Applies a change to the person stored under the id while their stripe is locked, so the
+     * previous state it reports is the one it replaced. The change may be null to leave the
+     * person as they are.
+     */
+    private PersonChange change(UUID id, Function<Person, PersonChange> change) {
+        requireId(id);
+        AtomicReference<PersonChange> appliedChange = new AtomicReference<>();
+        store.update(id, storedPerson -> {
+            PersonChange personChange = change.apply(storedPerson);
+            appliedChange.set(personChange);
+            return current(personChange);
+        });
+        sync();
+        return appliedChange.get();
+    }
+
+    /**
+     * Waits for the log to reach the disk, so a write is durable once it returns. Sharing one
+     * sync between concurrent writers is what keeps ingest fast with fsync enabled.
+     */
+    private void sync() {
+        if (personLog != null) {
+            personLog.sync();
+        }
+    }
+
+    /**
+     * Scans the store's records once, keeping only the people that can still make the requested
+     * page in a bounded heap rather than sorting every match. A record is only read into a person
+     * once it passes the filter and beats the last person kept so far.
+     */
+    private List<Person> firstMatching(RecordFilter filter, PageOrder order, long skip,
+        int limit) {
+        long keep = skip + limit;
+
+        if (keep == 0 || keep > Integer.MAX_VALUE) {
+            return List.of();
+        }
+
+        PriorityQueue<Person> firstPeople = new PriorityQueue<>((int) Math.min(keep, 1024),
+            order.comparator.reversed());
+        store.forEachRecord((records, offset) -> {
+            if (!filter.test(records, offset)) {
+                return;
+            }
+
+            if (firstPeople.size() == keep) {
+                if (order.compare(records, offset, firstPeople.peek()) >= 0) {
+                    return;
+                }
+
+                firstPeople.poll();
+            }
+
+            firstPeople.offer(OffHeapPersonStore.read(records, offset));
+        });
+
+        List<Person> people = new ArrayList<>(firstPeople);
+        people.sort(order.comparator);
+        return people.subList((int) Math.min(skip, people.size()), people.size());
+    }
+
+    /**
+     * Checks the fixed-width fields first, so the name is only decoded for records that match
+     * everything else.
+     */
+    private static boolean matches(ByteBuffer records, int offset, PersonSearch search) {
+        if (search.getGender() != null
+            && search.getGender() != OffHeapPersonStore.gender(records, offset)) {
+            return false;
+        }
+
+        int birthDay = OffHeapPersonStore.birthDay(records, offset);
+        boolean hasBirthDay = birthDay != OffHeapPersonStore.NO_BIRTH_DAY;
+
+        if (search.getBornFrom() != null && (!hasBirthDay || birthDay < search.getBornFrom())) {
+            return false;
+        }
+
+        if (search.getBornBefore() != null
+            && (!hasBirthDay || birthDay >= search.getBornBefore())) {
+            return false;
+        }
+
+        return search.getName() == null
+            || search.getName().equalsIgnoreCase(OffHeapPersonStore.name(records, offset));
+    }
+
+    /**
+     * Orders a record's id against an id the way {@link #ID_ORDER} orders two ids.
+     */
+    private static int compareId(ByteBuffer records, int offset, UUID id) {
+        int order = Long.compareUnsigned(OffHeapPersonStore.idMostSignificantBits(records, offset),
+            id.getMostSignificantBits());
+        return order != 0 ? order : Long.compareUnsigned(
+            OffHeapPersonStore.idLeastSignificantBits(records, offset),
+            id.getLeastSignificantBits());
+    }
+
+    private static boolean isAtVersion(Person storedPerson, Person person) {
+        return person.getVersion() == null || person.getVersion().equals(storedPerson.getVersion());
+    }
+
+    private static Person current(PersonChange change) {
+        return change == null ? null : change.getCurrent();
+    }
+
+    private static void requireId(UUID id) {
+        if (id == null) {
+            throw new InvalidDataAccessApiUsageException("Id must not be null");
+        }
+    }
+
+    @FunctionalInterface
+    private interface RecordFilter {
+
+        boolean test(ByteBuffer records, int offset);
+    }
+
+    /**
+     * The orders a page can be sorted in, each able to place a stored record against a person
+     * without reading the record into a person first.
+     */
+    private enum PageOrder {
+        ID(BY_ID) {
+            @Override
+            int compare(ByteBuffer records, int offset, Person person) {
+                return compareId(records, offset, person.getId());
+            }
+        },
+        NAME(BY_NAME) {
+            @Override
+            int compare(ByteBuffer records, int offset, Person person) {
+                int order = Comparator.nullsFirst(String.CASE_INSENSITIVE_ORDER)
+                                      .compare(OffHeapPersonStore.name(records, offset),
+                                          person.getName());
+                return order != 0 ? order : compareId(records, offset, person.getId());
+            }
+        },
+        BIRTH_DAY(BY_BIRTH_DAY) {
+            @Override
+            int compare(ByteBuffer records, int offset, Person person) {
+                int birthDay = OffHeapPersonStore.birthDay(records, offset);
+                int order;
+
+                if (birthDay == OffHeapPersonStore.NO_BIRTH_DAY) {
+                    order = person.getBirthDay() == null ? 0 : -1;
+                } else {
+                    order = person.getBirthDay() == null ? 1
+                        : Integer.compare(birthDay, person.getBirthDay());
+                }
+
+                return order != 0 ? order : compareId(records, offset, person.getId());
+            }
+        };
+
+        private final Comparator<Person> comparator;
+
+        PageOrder(Comparator<Person> comparator) {
+            this.comparator = comparator;
+        }
+
+        abstract int compare(ByteBuffer records, int offset, Person person);
+    }
+}
@@ -0,0 +1,674 @@
+package com.postitapplications.person.repository;
+
+import com.postitapplications.person.document.Person;
+import com.postitapplications.person.document.Person.Gender;
+import com.postitapplications.person.exception.PersonNameTooLongException;
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.UUID;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+import java.util.function.Consumer;
+import java.util.function.UnaryOperator;
+import java.util.stream.Stream;
+
+/**
+ * Holds people outside the Java heap as fixed-size records in direct buffers, so millions of them
+ * cost the garbage collector a handful of buffer objects rather than millions of people. People
+ * are only materialised on the way out.
+ *
+ * <p>The store is split into stripes by id hash. Each stripe has its own read-write lock, record
+ * buffer and open-addressing index from id (as its two longs) to record slot, so writers only
+ * block readers and writers of the same stripe. Freed slots are reused by later inserts.
+ *
+ * <p>Record layout, {@value #RECORD_SIZE} bytes:
+ * <pre>
+ *   0  id most significant bits   long
+ *   8  id least significant bits  long
+ *  16  version                    long, Long.MIN_VALUE when absent
+ *  24  weight                     float, NaN when absent
+ *  28  height                     float, NaN when absent
+ *  32  birthDay                   int, Integer.MIN_VALUE when absent
+ *  36  gender                     byte, ordinal or -1 when absent
+ *  38  name length                short, -1 when absent
+ *  40  name                       UTF-8, at most {@value #MAX_NAME_BYTES} bytes
+ * </pre>
+ */
+public final class OffHeapPersonStore {
+
+    public static final int RECORD_SIZE = 256;
+    public static final int MAX_NAME_BYTES = RECORD_SIZE - 40;
+    public static final int NO_BIRTH_DAY = Integer.MIN_VALUE;
+
+    private static final int ID_MOST_SIGNIFICANT_BITS = 0;
+    private static final int ID_LEAST_SIGNIFICANT_BITS = 8;
+    private static final int VERSION = 16;
+    private static final int WEIGHT = 24;
+    private static final int HEIGHT = 28;
+    private static final int BIRTH_DAY = 32;
+    private static final int GENDER = 36;
+    private static final int NAME_LENGTH = 38;
+    private static final int NAME = 40;
+    private static final Gender[] GENDERS = Gender.values();
+
+    private final Stripe[] stripes;
+    private final int stripeShift;
+    private volatile ChangeListener changeListener;
+
+    /**
+     * @param stripes         number of independently locked stripes, rounded up to a power of two
+     * @param initialCapacity number of people to make room for up front, spread over the stripes
+     */
+    public OffHeapPersonStore(int stripes, int initialCapacity) {
+        if (stripes <= 0 || initialCapacity < 0) {
+            throw new IllegalArgumentException(
+                "Stripes must be greater than zero and initial capacity cannot be negative");
+        }
+
+        int stripeCount = stripes == 1 ? 1 : Integer.highestOneBit(stripes - 1) << 1;
+        int stripeCapacity = Math.max(16, initialCapacity / stripeCount);
+        this.stripes = new Stripe[stripeCount];
+        this.stripeShift = 64 - Integer.numberOfTrailingZeros(stripeCount);
+
+        for (int i = 0; i < stripeCount; i++) {
+            this.stripes[i] = new Stripe(stripeCapacity);
+        }
+    }
+
+    /**
+     * Registers a listener told about every change from now on, or null to stop telling anyone.
+     */
+    public void setChangeListener(ChangeListener changeListener) {
+        this.changeListener = changeListener;
+    }
+
+    /**
+     * Stores the person under its id, replacing whoever was stored there before.
+     */
+    public void put(Person person) {
+        UUID id = person.getId();
+        long hash = hash(id);
+        Stripe stripe = stripeFor(hash);
+        stripe.lock.writeLock().lock();
+
+        try {
+            written(stripe, stripe
+                .put(id.getMostSignificantBits(), id.getLeastSignificantBits(), hash, person));
+        } finally {
+            stripe.lock.writeLock().unlock();
+        }
+    }
+
+    /**
+     * Stores the person unless someone is already stored under its id.
+     *
+     * @return false if the id was already taken
+     */
+    public boolean insert(Person person) {
+        UUID id = person.getId();
+        long hash = hash(id);
+        Stripe stripe = stripeFor(hash);
+        stripe.lock.writeLock().lock();
+
+        try {
+            if (stripe.find(id.getMostSignificantBits(), id.getLeastSignificantBits(), hash)
+                >= 0) {
+                return false;
+            }
+
+            written(stripe, stripe
+                .put(id.getMostSignificantBits(), id.getLeastSignificantBits(), hash, person));
+            return true;
+        } finally {
+            stripe.lock.writeLock().unlock();
+        }
+    }
+
+    /**
+     * Stores a record already in the layout above, replacing whoever was stored under its id.
+     */
+    public void putRecord(ByteBuffer source, int offset) {
+        long msb = source.getLong(offset + ID_MOST_SIGNIFICANT_BITS);
+        long lsb = source.getLong(offset + ID_LEAST_SIGNIFICANT_BITS);
+        long hash = hash(msb, lsb);
+        Stripe stripe = stripeFor(hash);
+        stripe.lock.writeLock().lock();
+
+        try {
+            int slot = stripe.slotFor(msb, lsb, hash);
+            stripe.records.put(slot * RECORD_SIZE, source, offset, RECORD_SIZE);
+            written(stripe, slot);
+        } finally {
+            stripe.lock.writeLock().unlock();
+        }
+    }
+
+    public Person get(UUID id) {
+        long hash = hash(id);
+        Stripe stripe = stripeFor(hash);
+        stripe.lock.readLock().lock();
+
+        try {
+            int slot = stripe.find(id.getMostSignificantBits(), id.getLeastSignificantBits(),
+                hash);
+            return slot < 0 ? null : stripe.read(slot);
+        } finally {
+            stripe.lock.readLock().unlock();
+        }
+    }
+
+    public boolean contains(UUID id) {
+        long hash = hash(id);
+        Stripe stripe = stripeFor(hash);
+        stripe.lock.readLock().lock();
+
+        try {
+            return stripe.find(id.getMostSignificantBits(), id.getLeastSignificantBits(), hash)
+                >= 0;
+        } finally {
+            stripe.lock.readLock().unlock();
+        }
+    }
+
+    /**
+     * Atomically replaces a stored person with the result of the given function. The function
+     * may return null to leave the person unchanged, and its result must keep the same id.
+     *
+     * @return the stored result, or null if nobody is stored under the id or the function
+     * returned null
+     */
+    public Person update(UUID id, UnaryOperator<Person> update) {
+        long hash = hash(id);
+        Stripe stripe = stripeFor(hash);
+        stripe.lock.writeLock().lock();
+
+        try {
+            int slot = stripe.find(id.getMostSignificantBits(), id.getLeastSignificantBits(),
+                hash);
+
+            if (slot < 0) {
+                return null;
+            }
+
+            Person updatedPerson = update.apply(stripe.read(slot));
+
+            if (updatedPerson != null) {
+                stripe.write(slot, updatedPerson, encodeName(updatedPerson));
+                written(stripe, slot);
+            }
+
+            return updatedPerson;
+        } finally {
+            stripe.lock.writeLock().unlock();
+        }
+    }
+
+    public boolean remove(UUID id) {
+        long hash = hash(id);
+        Stripe stripe = stripeFor(hash);
+        stripe.lock.writeLock().lock();
+
+        try {
+            if (!stripe.remove(id.getMostSignificantBits(), id.getLeastSignificantBits(), hash)) {
+                return false;
+            }
+
+            removed(id);
+            return true;
+        } finally {
+            stripe.lock.writeLock().unlock();
+        }
+    }
+
+    /**
+     * Removes a person like {@link #remove(UUID)}, reading them before their slot is released.
+     *
+     * @return the person as they were stored, or null if nobody is stored under the id
+     */
+    public Person removeAndReturn(UUID id) {
+        long hash = hash(id);
+        Stripe stripe = stripeFor(hash);
+        stripe.lock.writeLock().lock();
+
+        try {
+            int slot = stripe.find(id.getMostSignificantBits(), id.getLeastSignificantBits(),
+                hash);
+
+            if (slot < 0) {
+                return null;
+            }
+
+            Person removedPerson = stripe.read(slot);
+            stripe.remove(id.getMostSignificantBits(), id.getLeastSignificantBits(), hash);
+            removed(id);
+            return removedPerson;
+        } finally {
+            stripe.lock.writeLock().unlock();
+        }
+    }
+
+    /**
+     * Passes every stored person to the consumer, one stripe at a time. Each stripe is read
+     * consistently, but writes to other stripes may land while the scan is in progress.
+     */
+    public void forEach(Consumer<Person> consumer) {
+        for (Stripe stripe : stripes) {
+            stripe.lock.readLock().lock();
+
+            try {
+                for (int slot : stripe.slots) {
+                    if (slot >= 0) {
+                        consumer.accept(stripe.read(slot));
+                    }
+                }
+            } finally {
+                stripe.lock.readLock().unlock();
+            }
+        }
+    }
+
+    /**
+     * Streams every stored person, reading one stripe at a time as the stream is consumed, so only
+     * one stripe's people are on the heap at once. Each stripe is read consistently, but writes
+     * to stripes not read yet show up in the stream.
+     */
+    public Stream<Person> stream() {
+        return Arrays.stream(stripes).flatMap(stripe -> stripe.readAll().stream());
+    }
+
+    /**
+     * Passes every stored record to the consumer without materialising people, with the same
+     * consistency as {@link #forEach}. The buffer must not be modified or kept. Use the static
+     * accessors below to read a record's fields.
+     */
+    public void forEachRecord(RecordConsumer consumer) {
+        for (Stripe stripe : stripes) {
+            stripe.lock.readLock().lock();
+
+            try {
+                for (int slot : stripe.slots) {
+                    if (slot >= 0) {
+                        consumer.accept(stripe.records, slot * RECORD_SIZE);
+                    }
+                }
+            } finally {
+                stripe.lock.readLock().unlock();
+            }
+        }
+    }
+
+    public int size() {
+        int size = 0;
+
+        for (Stripe stripe : stripes) {
+            stripe.lock.readLock().lock();
+
+            try {
+                size += stripe.size;
+            } finally {
+                stripe.lock.readLock().unlock();
+            }
+        }
+
+        return size;
+    }
+
+    /**
+     * Returns the number of off-heap bytes reserved for records, used or not.
+     */
+    public long getReservedBytes() {
+        long reservedBytes = 0;
+
+        for (Stripe stripe : stripes) {
+            stripe.lock.readLock().lock();
+
+            try {
+                reservedBytes += stripe.records.capacity();
+            } finally {
+                stripe.lock.readLock().unlock();
+            }
+        }
+
+        return reservedBytes;
+    }
+
+    public static long idMostSignificantBits(ByteBuffer records, int offset) {
+        return records.getLong(offset + ID_MOST_SIGNIFICANT_BITS);
+    }
+
+    public static long idLeastSignificantBits(ByteBuffer records, int offset) {
+        return records.getLong(offset + ID_LEAST_SIGNIFICANT_BITS);
+    }
+
+    /**
+     * @return the record's epoch day, or {@link #NO_BIRTH_DAY} when it has none
+     */
+    public static int birthDay(ByteBuffer records, int offset) {
+        return records.getInt(offset + BIRTH_DAY);
+    }
+
+    public static Gender gender(ByteBuffer records, int offset) {
+        byte gender = records.get(offset + GENDER);
+        return gender < 0 ? null : GENDERS[gender];
+    }
+
+    public static String name(ByteBuffer records, int offset) {
+        short nameLength = records.getShort(offset + NAME_LENGTH);
+
+        if (nameLength < 0) {
+            return null;
+        }
+
+        byte[] nameBytes = new byte[nameLength];
+        records.get(offset + NAME, nameBytes);
+        return new String(nameBytes, StandardCharsets.UTF_8);
+    }
+
+    /**
+     * Materialises the person held in a record.
+     */
+    public static Person read(ByteBuffer records, int offset) {
+        UUID id = new UUID(idMostSignificantBits(records, offset),
+            idLeastSignificantBits(records, offset));
+        long version = records.getLong(offset + VERSION);
+        int birthDay = birthDay(records, offset);
+
+        return Person.fromStorage(id, name(records, offset), records.getFloat(offset + WEIGHT),
+            records.getFloat(offset + HEIGHT), birthDay == NO_BIRTH_DAY ? null : birthDay, null,
+            gender(records, offset), version == Long.MIN_VALUE ? null : version);
+    }
+
+    private void written(Stripe stripe, int slot) {
+        ChangeListener listener = changeListener;
+
+        if (listener != null) {
+            listener.recordWritten(stripe.records, slot * RECORD_SIZE);
+        }
+    }
+
+    private void removed(UUID id) {
+        ChangeListener listener = changeListener;
+
+        if (listener != null) {
+            listener.recordRemoved(id);
+        }
+    }
+
+    private Stripe stripeFor(long hash) {
+        return stripes.length == 1 ? stripes[0] : stripes[(int) (hash >>> stripeShift)];
+    }
+
+    private static long hash(UUID id) {
+        return hash(id.getMostSignificantBits(), id.getLeastSignificantBits());
+    }
+
+    private static long hash(long msb, long lsb) {
+        long hash = msb * 0x9E3779B97F4A7C15L ^ lsb;
+        hash ^= hash >>> 33;
+        hash *= 0xFF51AFD7ED558CCDL;
+        hash ^= hash >>> 33;
+        hash *= 0xC4CEB9FE1A85EC53L;
+        return hash ^ hash >>> 33;
+    }
+
+    private static byte[] encodeName(Person person) {
+        if (person.getName() == null) {
+            return null;
+        }
+
+        byte[] nameBytes = person.getName().getBytes(StandardCharsets.UTF_8);
+
+        if (nameBytes.length > MAX_NAME_BYTES) {
+            throw new PersonNameTooLongException(String
+                .format("Person's name cannot be longer than %d bytes", MAX_NAME_BYTES));
+        }
+
+        return nameBytes;
+    }
+
+    /**
+     * Told about every change while the stripe holding the person is still locked, so changes to
+     * one person arrive in the order they were made. Implementations must be quick and must not
+     * call back into the store.
+     */
+    public interface ChangeListener {
+
+        /**
+         * @param records the stripe's record buffer, which must not be modified or kept
+         * @param offset  where the written record starts
+         */
+        void recordWritten(ByteBuffer records, int offset);
+
+        void recordRemoved(UUID id);
+    }
+
+    @FunctionalInterface
+    public interface RecordConsumer {
+
+        void accept(ByteBuffer records, int offset);
+    }
+
+    private static final class Stripe {
+
+        private static final int EMPTY = -1;
+        private static final int DELETED = -2;
+
+        private final ReentrantReadWriteLock lock = new ReentrantReadWriteLock();
+        private ByteBuffer records;
+        private int recordCount;
+        private int[] freeSlots = new int[16];
+        private int freeSlotCount;
+        private long[] mostSignificantBits;
+        private long[] leastSignificantBits;
+        private int[] slots;
+        private int size;
+        private int usedBuckets;
+
+        private Stripe(int capacity) {
+            records = ByteBuffer.allocateDirect(capacity * RECORD_SIZE);
+            allocateIndex(Integer.highestOneBit(capacity * 2 - 1) << 1);
+        }
+
+        private int find(long msb, long lsb, long hash) {
+            int mask = slots.length - 1;
+
+            for (int bucket = (int) hash & mask; ; bucket = (bucket + 1) & mask) {
+                int slot = slots[bucket];
+
+                if (slot == EMPTY) {
+                    return -1;
+                }
+
+                if (slot != DELETED && mostSignificantBits[bucket] == msb
+                    && leastSignificantBits[bucket] == lsb) {
+                    return slot;
+                }
+            }
+        }
+
+        private int put(long msb, long lsb, long hash, Person person) {
+            byte[] name = encodeName(person);
+            int slot = slotFor(msb, lsb, hash);
+            write(slot, person, name);
+            return slot;
+        }
+
+        /**
+         * Returns the slot holding the id, taking a free one if the id is not stored yet.
+         */
+        private int slotFor(long msb, long lsb, long hash) {
+            int mask = slots.length - 1;
+            int firstDeleted = -1;
+            int bucket = (int) hash & mask;
+
+            for (; ; bucket = (bucket + 1) & mask) {
+                int slot = slots[bucket];
+
+                if (slot == EMPTY) {
+                    break;
+                }
+
+                if (slot == DELETED) {
+                    if (firstDeleted < 0) {
+                        firstDeleted = bucket;
+                    }
+                } else if (mostSignificantBits[bucket] == msb
+                    && leastSignificantBits[bucket] == lsb) {
+                    return slot;
+                }
+            }
+
+            int slot = allocateSlot();
+
+            if (firstDeleted >= 0) {
+                bucket = firstDeleted;
+            } else {
+                usedBuckets++;
+            }
+
+            mostSignificantBits[bucket] = msb;
+            leastSignificantBits[bucket] = lsb;
+            slots[bucket] = slot;
+            size++;
+
+            if (usedBuckets * 2 > slots.length) {
+                rehash(size * 4 > slots.length ? slots.length * 2 : slots.length);
+            }
+
+            return slot;
+        }
+
+        private boolean remove(long msb, long lsb, long hash) {
+            int mask = slots.length - 1;
+
+            for (int bucket = (int) hash & mask; ; bucket = (bucket + 1) & mask) {
+                int slot = slots[bucket];
+
+                if (slot == EMPTY) {
+                    return false;
+                }
+
+                if (slot != DELETED && mostSignificantBits[bucket] == msb
+                    && leastSignificantBits[bucket] == lsb) {
+                    slots[bucket] = DELETED;
+                    releaseSlot(slot);
+                    size--;
+                    return true;
+                }
+            }
+        }
+
+        private Person read(int slot) {
+            return OffHeapPersonStore.read(records, slot * RECORD_SIZE);
+        }
+
+        private List<Person> readAll() {
+            lock.readLock().lock();
+
+            try {
+                List<Person> people = new ArrayList<>(size);
+
+                for (int slot : slots) {
+                    if (slot >= 0) {
+                        people.add(read(slot));
+                    }
+                }
+
+                return people;
+            } finally {
+                lock.readLock().unlock();
+            }
+        }
+
+        private void write(int slot, Person person, byte[] nameBytes) {
+            int offset = slot * RECORD_SIZE;
+            records.putLong(offset + ID_MOST_SIGNIFICANT_BITS,
+                person.getId().getMostSignificantBits());
+            records.putLong(offset + ID_LEAST_SIGNIFICANT_BITS,
+                person.getId().getLeastSignificantBits());
+            records.putLong(offset + VERSION,
+                person.getVersion() == null ? Long.MIN_VALUE : person.getVersion());
+            records.putFloat(offset + WEIGHT, person.getWeight());
+            records.putFloat(offset + HEIGHT, person.getHeight());
+            records.putInt(offset + BIRTH_DAY,
+                person.getBirthDay() == null ? NO_BIRTH_DAY : person.getBirthDay());
+            records.put(offset + GENDER,
+                person.getGender() == null ? -1 : (byte) person.getGender().ordinal());
+            records.putShort(offset + NAME_LENGTH,
+                nameBytes == null ? -1 : (short) nameBytes.length);
+
+            if (nameBytes != null) {
+                records.put(offset + NAME, nameBytes);
+            }
+        }
+
+        private int allocateSlot() {
+            if (freeSlotCount > 0) {
+                return freeSlots[--freeSlotCount];
+            }
+
+            if ((recordCount + 1) * RECORD_SIZE > records.capacity()) {
+                long newCapacity = Math.min((long) records.capacity() * 2,
+                    Integer.MAX_VALUE / RECORD_SIZE * RECORD_SIZE);
+
+                if (newCapacity <= records.capacity()) {
+                    throw new IllegalStateException("Off-heap person stripe is full");
+                }
+
+                ByteBuffer grownRecords = ByteBuffer.allocateDirect((int) newCapacity);
+                grownRecords.put(0, records, 0, recordCount * RECORD_SIZE);
+                records = grownRecords;
+            }
+
+            return recordCount++;
+        }
+
+        private void releaseSlot(int slot) {
+            if (freeSlotCount == freeSlots.length) {
+                freeSlots = Arrays.copyOf(freeSlots, freeSlots.length * 2);
+            }
+
+            freeSlots[freeSlotCount++] = slot;
+        }
+
+        private void allocateIndex(int buckets) {
+            mostSignificantBits = new long[buckets];
+            leastSignificantBits = new long[buckets];
+            slots = new int[buckets];
+            Arrays.fill(slots, EMPTY);
+            usedBuckets = 0;
+        }
+
+        /**
+         * Rebuilds the index without tombstones, growing it if it is more than a quarter full.
+         */
+        private void rehash(int buckets) {
+            long[] oldMostSignificantBits = mostSignificantBits;
+            long[] oldLeastSignificantBits = leastSignificantBits;
+            int[] oldSlots = slots;
+            allocateIndex(buckets);
+            int mask = buckets - 1;
+
+            for (int i = 0; i < oldSlots.length; i++) {
+                if (oldSlots[i] < 0) {
+                    continue;
+                }
+
+                long msb = oldMostSignificantBits[i];
+                long lsb = oldLeastSignificantBits[i];
+                int bucket = (int) hash(msb, lsb) & mask;
+
+                while (slots[bucket] != EMPTY) {
+                    bucket = (bucket + 1) & mask;
+                }
+
+                mostSignificantBits[bucket] = msb;
+                leastSignificantBits[bucket] = lsb;
+                slots[bucket] = oldSlots[i];
+                usedBuckets++;
+            }
+        }
+    }
+}
@@ -0,0 +1,787 @@
+package com.postitapplications.person.repository;
+
+import static com.postitapplications.person.repository.OffHeapPersonStore.RECORD_SIZE;
+
+import java.io.Closeable;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.ByteBuffer;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.channels.FileChannel.MapMode;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.TreeMap;
+import java.util.UUID;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.locks.Condition;
+import java.util.concurrent.locks.LockSupport;
+import java.util.concurrent.locks.ReentrantLock;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+import java.util.stream.Stream;
+import java.util.zip.CRC32C;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.dao.DataAccessResourceFailureException;
+
+/**
+ * Makes an {@link OffHeapPersonStore} durable without a database by appending every change it
+ * makes to a checksummed log on local disk, and replaying the log into the store on startup.
+ *
+ * <p>The log is a sequence of memory-mapped segment files, each preallocated to the segment size
+ * so that appends are plain memory writes. The next segment is preallocated in the background
+ * while the current one fills, so rolling over only has to switch buffers. A change is a record
+ * holding its type, a CRC32C of the type and payload, and the payload: the whole off-heap record
+ * for a put, or the id for a remove. Because a put carries the person's full state, replaying a
+ * record twice is harmless.
+ *
+ * <p>With fsync enabled, {@link #sync} returns once everything appended before it was called is
+ * on disk. Callers arriving while a sync is in flight wait for it and are then covered by the
+ * next one, and the syncing caller first waits out the group-commit window so that more changes
+ * share each fsync. With fsync disabled, changes reach the disk when the operating system writes
+ * them back, which survives a process crash but not a machine crash.
+ *
+ * <p>Compaction periodically rolls to a new segment, writes a snapshot of the whole store
+ * alongside it, and then deletes every older segment and snapshot. Startup loads the newest
+ * complete snapshot and replays the segments from it onwards, copying records into the store
+ * without materialising people. Replay stops at the first torn or corrupt record, which is where
+ * a crash interrupted the log, and appending carries on from there. A finished segment is forced
+ * before the next one is written to, so a crash can only tear the last segment holding changes.
+ * If a later segment holds changes too, the log is corrupt, and opening it fails rather than
+ * dropping them.
+ */
+public class PersonLog implements OffHeapPersonStore.ChangeListener, Closeable {
+
+    private static final Logger LOGGER = LoggerFactory.getLogger(PersonLog.class);
+    private static final int SEGMENT_MAGIC = 0x504C4F47;
+    private static final int SNAPSHOT_MAGIC = 0x50534E50;
+    private static final int FORMAT_VERSION = 1;
+    private static final int HEADER_SIZE = 16;
+    private static final byte END = 0;
+    private static final byte PUT = 1;
+    private static final byte REMOVE = 2;
+    private static final byte ROLL = 3;
+    private static final byte SNAPSHOT_END = 4;
+    private static final int RECORD_HEADER_SIZE = 5;
+    private static final int PUT_SIZE = RECORD_HEADER_SIZE + RECORD_SIZE;
+    private static final int REMOVE_SIZE = RECORD_HEADER_SIZE + 16;
+    private static final int ROLL_SIZE = RECORD_HEADER_SIZE + 8;
+    private static final int IO_BUFFER_SIZE = 1 << 20;
+    private static final Pattern SEGMENT_NAME = Pattern.compile("segment-(\\d{20})\\.log");
+    private static final Pattern SNAPSHOT_NAME = Pattern.compile("snapshot-(\\d{20})\\.snap");
+
+    private final Path directory;
+    private final int segmentSize;
+    private final boolean fsync;
+    private final long groupCommitWindowNanos;
+    private final Duration compactionInterval;
+    private final int compactionMinSegments;
+    private final ReentrantLock lock = new ReentrantLock();
+    private final Condition syncCompleted = lock.newCondition();
+    private final CRC32C checksum = new CRC32C();
+    private OffHeapPersonStore store;
+    private MappedByteBuffer segment;
+    private ByteBuffer checksumView;
+    private long segmentNumber;
+    private long firstSegmentNumber;
+    private int position;
+    private long synced;
+    private boolean syncing;
+    private boolean closed;
+    private ScheduledExecutorService compactionExecutor;
+    private ExecutorService preparationExecutor;
+    private Future<MappedByteBuffer> nextSegment;
+
+    /**
+     * @param segmentSize           bytes to preallocate for each segment
+     * @param fsync                 whether {@link #sync} waits for changes to reach the disk
+     * @param groupCommitWindow     how long a sync waits for more changes to share it with
+     * @param compactionInterval    how often to check whether to compact, or zero never to
+     * @param compactionMinSegments how many full segments there must be before compacting
+     */
+    public PersonLog(Path directory, int segmentSize, boolean fsync, Duration groupCommitWindow,
+        Duration compactionInterval, int compactionMinSegments) {
+        if (segmentSize < HEADER_SIZE + PUT_SIZE + ROLL_SIZE) {
+            throw new IllegalArgumentException(String.format(
+                "Segment size must be at least %d bytes", HEADER_SIZE + PUT_SIZE + ROLL_SIZE));
+        }
+
+        this.directory = directory;
+        this.segmentSize = segmentSize;
+        this.fsync = fsync;
+        this.groupCommitWindowNanos = groupCommitWindow.toNanos();
+        this.compactionInterval = compactionInterval;
+        this.compactionMinSegments = Math.max(1, compactionMinSegments);
+    }
+
+    /**
+     * Loads everything logged so far into the store, then logs every change the store makes from
+     * now on. The store should be empty.
+     */
+    public void open(OffHeapPersonStore store) {
+        lock.lock();
+
+        try {
+            if (this.store != null) {
+                throw new IllegalStateException("The person log is already open");
+            }
+
+            this.store = store;
+            Files.createDirectories(directory);
+            deleteTemporaryFiles();
+            recover(store);
+            synced = logicalPosition();
+            preparationExecutor = Executors.newSingleThreadExecutor(runnable -> {
+                Thread thread = new Thread(runnable, "person-log-preparation");
+                thread.setDaemon(true);
+                return thread;
+            });
+            prepareNextSegment();
+            store.setChangeListener(this);
+        } catch (IOException e) {
+            throw new DataAccessResourceFailureException(
+                String.format("Could not open the person log in %s", directory), e);
+        } finally {
+            lock.unlock();
+        }
+
+        if (!compactionInterval.isZero()) {
+            compactionExecutor = Executors.newSingleThreadScheduledExecutor(runnable -> {
+                Thread thread = new Thread(runnable, "person-log-compaction");
+                thread.setDaemon(true);
+                return thread;
+            });
+            compactionExecutor.scheduleWithFixedDelay(this::compactQuietly,
+                compactionInterval.toMillis(), compactionInterval.toMillis(),
+                TimeUnit.MILLISECONDS);
+        }
+    }
+
+    @Override
+    public void recordWritten(ByteBuffer records, int offset) {
+        lock.lock();
+
+        try {
+            makeRoom(PUT_SIZE);
+            segment.put(position + RECORD_HEADER_SIZE, records, offset, RECORD_SIZE);
+            finishRecord(PUT, RECORD_SIZE);
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    @Override
+    public void recordRemoved(UUID id) {
+        lock.lock();
+
+        try {
+            makeRoom(REMOVE_SIZE);
+            segment.putLong(position + RECORD_HEADER_SIZE, id.getMostSignificantBits());
+            segment.putLong(position + RECORD_HEADER_SIZE + 8, id.getLeastSignificantBits());
+            finishRecord(REMOVE, 16);
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    /**
+     * Waits until every change appended before the call is on disk, sharing the fsync with every
+     * other caller waiting at the same time. Does nothing when fsync is disabled.
+     */
+    public void sync() {
+        if (!fsync) {
+            return;
+        }
+
+        lock.lock();
+
+        try {
+            long target = logicalPosition();
+
+            while (synced < target) {
+                if (!syncing) {
+                    syncing = true;
+                    break;
+                }
+
+                syncCompleted.awaitUninterruptibly();
+            }
+
+            if (synced >= target) {
+                return;
+            }
+        } finally {
+            lock.unlock();
+        }
+
+        long forcedTo = Long.MIN_VALUE;
+
+        try {
+            if (groupCommitWindowNanos > 0) {
+                LockSupport.parkNanos(groupCommitWindowNanos);
+            }
+
+            MappedByteBuffer syncedSegment;
+            long syncedTo;
+            int from;
+
+            lock.lock();
+
+            try {
+                syncedSegment = segment;
+                syncedTo = logicalPosition();
+                from = synced >>> 32 == segmentNumber ? (int) synced : 0;
+            } finally {
+                lock.unlock();
+            }
+
+            syncedSegment.force(from, (int) syncedTo - from);
+            forcedTo = syncedTo;
+        } catch (UncheckedIOException e) {
+            throw new DataAccessResourceFailureException("Could not sync the person log", e);
+        } finally {
+            lock.lock();
+
+            try {
+                synced = Math.max(synced, forcedTo);
+                syncing = false;
+                syncCompleted.signalAll();
+            } finally {
+                lock.unlock();
+            }
+        }
+    }
+
+    /**
+     * Snapshots the store and deletes the segments the snapshot replaces, if there are at least
+     * the minimum number of full segments.
+     *
+     * @return whether a snapshot was written
+     */
+    public boolean compact() {
+        long snapshotNumber;
+
+        lock.lock();
+
+        try {
+            if (closed || segmentNumber - firstSegmentNumber < compactionMinSegments) {
+                return false;
+            }
+
+            roll();
+            snapshotNumber = segmentNumber;
+        } finally {
+            lock.unlock();
+        }
+
+        try {
+            writeSnapshot(snapshotNumber);
+            deleteFilesBefore(snapshotNumber);
+        } catch (IOException | UncheckedIOException e) {
+            throw new DataAccessResourceFailureException("Could not compact the person log", e);
+        }
+
+        lock.lock();
+
+        try {
+            firstSegmentNumber = snapshotNumber;
+        } finally {
+            lock.unlock();
+        }
+
+        return true;
+    }
+
+    /**
+     * Stops compacting and forces the current segment to disk. Changes made to the store after
+     * this throw, since they could no longer be logged. A next segment still being prepared is
+     * left half-written, which the next {@link #open} tidies up.
+     */
+    @Override
+    public void close() {
+        if (compactionExecutor != null) {
+            compactionExecutor.shutdownNow();
+        }
+
+        lock.lock();
+
+        try {
+            if (!closed && segment != null) {
+                segment.force();
+            }
+
+            closed = true;
+
+            if (preparationExecutor != null) {
+                preparationExecutor.shutdownNow();
+            }
+        } finally {
+            lock.unlock();
+        }
+
+        if (preparationExecutor != null) {
+            try {
+                preparationExecutor.awaitTermination(1, TimeUnit.SECONDS);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+        }
+    }
+
+    private void compactQuietly() {
+        try {
+            compact();
+        } catch (RuntimeException e) {
+            LOGGER.warn("Could not compact the person log, retrying at the next interval", e);
+        }
+    }
+
+    private long logicalPosition() {
+        return segmentNumber << 32 | position;
+    }
+
+    private void makeRoom(int recordSize) {
+        if (closed) {
+            throw new DataAccessResourceFailureException("The person log is closed");
+        }
+
+        if (position + recordSize + ROLL_SIZE > segment.capacity()) {
+            roll();
+        }
+    }
+
+    private void finishRecord(byte type, int payloadSize) {
+        segment.put(position, type);
+        segment.putInt(position + 1,
+            checksum(checksumView, type, position + RECORD_HEADER_SIZE, payloadSize));
+        position += RECORD_HEADER_SIZE + payloadSize;
+    }
+
+    /**
+     * Moves appending to the prepared next segment, marking the end of the current one so replay
+     * can tell a finished segment from a torn one. Whatever a sync has not yet forced of the
+     * finished segment is forced now, so a sync only ever has the current segment to force.
+     */
+    private void roll() {
+        MappedByteBuffer preparedSegment = takeNextSegment();
+        segment.putLong(position + RECORD_HEADER_SIZE, segmentNumber + 1);
+        finishRecord(ROLL, 8);
+        int from = synced >>> 32 == segmentNumber ? (int) synced : 0;
+        segment.force(from, position - from);
+        useSegment(preparedSegment, segmentNumber + 1, HEADER_SIZE);
+        synced = Math.max(synced, segmentNumber << 32);
+        prepareNextSegment();
+    }
+
+    private void prepareNextSegment() {
+        long number = segmentNumber + 1;
+        nextSegment = preparationExecutor.submit(() -> {
+            MappedByteBuffer preparedSegment = mapSegment(number);
+            writeHeader(preparedSegment, number);
+            return preparedSegment;
+        });
+    }
+
+    /**
+     * Waits for the next segment if appends have outrun its preparation, and falls back to
+     * preparing it here if that failed.
+     */
+    private MappedByteBuffer takeNextSegment() {
+        long number = segmentNumber + 1;
+
+        try {
+            return nextSegment.get();
+        } catch (ExecutionException e) {
+            LOGGER.warn("Could not prepare person log segment {} in the background", number,
+                e.getCause());
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+
+        try {
+            MappedByteBuffer preparedSegment = mapSegment(number);
+            writeHeader(preparedSegment, number);
+            return preparedSegment;
+        } catch (IOException e) {
+            throw new DataAccessResourceFailureException(
+                "Could not create the next person log segment", e);
+        }
+    }
+
+    private void useSegment(MappedByteBuffer segment, long number, int position) {
+        this.segment = segment;
+        this.checksumView = segment.duplicate();
+        this.segmentNumber = number;
+        this.position = position;
+    }
+
+    private void recover(OffHeapPersonStore store) throws IOException {
+        TreeMap<Long, Path> segments = listFiles(SEGMENT_NAME);
+        TreeMap<Long, Path> snapshots = listFiles(SNAPSHOT_NAME);
+        long number = segments.isEmpty() ? 0 : segments.firstKey();
+
+        for (Long snapshotNumber : snapshots.descendingKeySet()) {
+            Path snapshot = snapshots.get(snapshotNumber);
+
+            if (readSnapshot(snapshot, snapshotNumber, null)) {
+                readSnapshot(snapshot, snapshotNumber, store);
+                number = snapshotNumber;
+                break;
+            }
+
+            LOGGER.warn("Ignoring incomplete person log snapshot {}", snapshot);
+        }
+
+        firstSegmentNumber = number;
+        boolean headerIntact;
+
+        while (true) {
+            MappedByteBuffer replayedSegment = mapSegment(number);
+            headerIntact = hasHeader(replayedSegment, number);
+            useSegment(replayedSegment, number, HEADER_SIZE);
+
+            if (!headerIntact || !replay(store)) {
+                break;
+            }
+
+            number++;
+        }
+
+        TreeMap<Long, Path> laterSegments = new TreeMap<>(segments.tailMap(segmentNumber, false));
+
+        for (Long laterSegmentNumber : laterSegments.keySet()) {
+            if (hasChanges(laterSegments.get(laterSegmentNumber), laterSegmentNumber)) {
+                throw new DataAccessResourceFailureException(String.format(
+                    "Person log segment %d is corrupt at offset %d but segment %d holds later "
+                        + "changes. Restore %s from a backup, or delete the segments after %d to "
+                        + "accept losing those changes", segmentNumber, position,
+                    laterSegmentNumber, directory, segmentNumber));
+            }
+        }
+
+        for (Path laterSegment : laterSegments.values()) {
+            Files.delete(laterSegment);
+        }
+
+        if (!headerIntact) {
+            writeHeader(segment, segmentNumber);
+        }
+
+        clearFrom(position);
+    }
+
+    /**
+     * Tells a segment holding changes from one that was only preallocated, or was being
+     * preallocated when the process stopped.
+     */
+    private static boolean hasChanges(Path segment, long number) throws IOException {
+        ByteBuffer start = ByteBuffer.allocate(HEADER_SIZE + 1);
+
+        try (FileChannel channel = FileChannel.open(segment, StandardOpenOption.READ)) {
+            while (start.hasRemaining()) {
+                if (channel.read(start) < 0) {
+                    return false;
+                }
+            }
+        }
+
+        return hasHeader(start, number) && start.get(HEADER_SIZE) != END;
+    }
+
+    /**
+     * Replays the current segment from its start, leaving the position after the last intact
+     * record.
+     *
+     * @return whether the segment ends in a roll to the next one, rather than at the end of the
+     * log or at a torn or corrupt record
+     */
+    private boolean replay(OffHeapPersonStore store) {
+        while (true) {
+            byte type = segment.get(position);
+            int payloadSize = type == PUT ? RECORD_SIZE : type == REMOVE ? 16 : type == ROLL
+                ? 8 : -1;
+
+            if (payloadSize < 0 || position + RECORD_HEADER_SIZE + payloadSize
+                > segment.capacity() || segment.getInt(position + 1) != checksum(checksumView,
+                type, position + RECORD_HEADER_SIZE, payloadSize)) {
+                if (type != END) {
+                    LOGGER.warn("Person log segment {} is torn at offset {}", segmentNumber,
+                        position);
+                }
+
+                return false;
+            }
+
+            if (type == ROLL) {
+                return segment.getLong(position + RECORD_HEADER_SIZE) == segmentNumber + 1;
+            }
+
+            if (type == PUT) {
+                store.putRecord(segment, position + RECORD_HEADER_SIZE);
+            } else {
+                store.remove(new UUID(segment.getLong(position + RECORD_HEADER_SIZE),
+                    segment.getLong(position + RECORD_HEADER_SIZE + 8)));
+            }
+
+            position += RECORD_HEADER_SIZE + payloadSize;
+        }
+    }
+
+    /**
+     * Zeroes the rest of the current segment, so whatever a crash left after the last intact
+     * record cannot be mistaken for records appended later.
+     */
+    private void clearFrom(int offset) {
+        int i = offset;
+
+        for (; i < segment.capacity() && (i & 7) != 0; i++) {
+            segment.put(i, (byte) 0);
+        }
+
+        for (; i + 8 <= segment.capacity(); i += 8) {
+            if (segment.getLong(i) != 0) {
+                segment.putLong(i, 0);
+            }
+        }
+
+        for (; i < segment.capacity(); i++) {
+            segment.put(i, (byte) 0);
+        }
+    }
+
+    private MappedByteBuffer mapSegment(long number) throws IOException {
+        Path path = directory.resolve(String.format("segment-%020d.log", number));
+
+        try (FileChannel channel = FileChannel.open(path, StandardOpenOption.CREATE,
+            StandardOpenOption.READ, StandardOpenOption.WRITE)) {
+            long size = channel.size();
+
+            if (size < segmentSize) {
+                ByteBuffer zeros = ByteBuffer.allocateDirect(IO_BUFFER_SIZE);
+
+                for (long offset = size; offset < segmentSize; offset += zeros.capacity()) {
+                    zeros.clear().limit((int) Math.min(zeros.capacity(), segmentSize - offset));
+
+                    while (zeros.hasRemaining()) {
+                        channel.write(zeros, offset + zeros.position());
+                    }
+                }
+            }
+
+            return channel.map(MapMode.READ_WRITE, 0, Math.max(size, segmentSize));
+        }
+    }
+
+    private static boolean hasHeader(ByteBuffer segment, long number) {
+        return segment.getInt(0) == SEGMENT_MAGIC && segment.getInt(4) == FORMAT_VERSION
+            && segment.getLong(8) == number;
+    }
+
+    private static void writeHeader(ByteBuffer segment, long number) {
+        segment.putInt(0, SEGMENT_MAGIC);
+        segment.putInt(4, FORMAT_VERSION);
+        segment.putLong(8, number);
+    }
+
+    /**
+     * Writes every stored record to a temporary file, forces it, and only then renames it into
+     * place, so a snapshot that exists under its final name is always complete.
+     */
+    private void writeSnapshot(long number) throws IOException {
+        Path temporary = directory.resolve(String.format("snapshot-%020d.tmp", number));
+        Path snapshot = directory.resolve(String.format("snapshot-%020d.snap", number));
+        ByteBuffer buffer = ByteBuffer.allocateDirect(IO_BUFFER_SIZE);
+        ByteBuffer bufferView = buffer.duplicate();
+        CRC32C snapshotChecksum = new CRC32C();
+        long[] count = new long[1];
+
+        try (FileChannel channel = FileChannel.open(temporary, StandardOpenOption.CREATE,
+            StandardOpenOption.TRUNCATE_EXISTING, StandardOpenOption.WRITE)) {
+            buffer.putInt(SNAPSHOT_MAGIC).putInt(FORMAT_VERSION).putLong(number);
+            store.forEachRecord((records, offset) -> {
+                if (buffer.remaining() < PUT_SIZE) {
+                    flush(channel, buffer);
+                }
+
+                int start = buffer.position();
+                buffer.put(start + RECORD_HEADER_SIZE, records, offset, RECORD_SIZE);
+                buffer.put(start, PUT).putInt(start + 1, checksum(snapshotChecksum, bufferView,
+                    PUT, start + RECORD_HEADER_SIZE, RECORD_SIZE));
+                buffer.position(start + PUT_SIZE);
+                count[0]++;
+            });
+
+            if (buffer.remaining() < 9) {
+                flush(channel, buffer);
+            }
+
+            buffer.put(SNAPSHOT_END).putLong(count[0]);
+            flush(channel, buffer);
+            channel.force(true);
+        }
+
+        Files.move(temporary, snapshot, StandardCopyOption.ATOMIC_MOVE);
+        syncDirectory();
+    }
+
+    /**
+     * Reads a snapshot, copying its records into the store if one is given.
+     *
+     * @return whether the snapshot is complete and intact
+     */
+    private static boolean readSnapshot(Path snapshot, long number, OffHeapPersonStore store)
+        throws IOException {
+        ByteBuffer buffer = ByteBuffer.allocateDirect(IO_BUFFER_SIZE).limit(0);
+        ByteBuffer bufferView = buffer.duplicate();
+        CRC32C snapshotChecksum = new CRC32C();
+        long count = 0;
+
+        try (FileChannel channel = FileChannel.open(snapshot, StandardOpenOption.READ)) {
+            if (!fill(channel, buffer, HEADER_SIZE) || buffer.getInt() != SNAPSHOT_MAGIC
+                || buffer.getInt() != FORMAT_VERSION || buffer.getLong() != number) {
+                return false;
+            }
+
+            while (fill(channel, buffer, 1)) {
+                int start = buffer.position();
+                byte type = buffer.get(start);
+
+                if (type == SNAPSHOT_END) {
+                    return fill(channel, buffer, 9) && buffer.get() == SNAPSHOT_END
+                        && buffer.getLong() == count && !fill(channel, buffer, 1);
+                }
+
+                if (type != PUT || !fill(channel, buffer, PUT_SIZE)) {
+                    return false;
+                }
+
+                start = buffer.position();
+
+                if (buffer.getInt(start + 1) != checksum(snapshotChecksum, bufferView, PUT,
+                    start + RECORD_HEADER_SIZE, RECORD_SIZE)) {
+                    return false;
+                }
+
+                if (store != null) {
+                    store.putRecord(buffer, start + RECORD_HEADER_SIZE);
+                }
+
+                buffer.position(start + PUT_SIZE);
+                count++;
+            }
+
+            return false;
+        }
+    }
+
+    /**
+     * Makes sure at least the given number of bytes are left in the buffer, reading more if
+     * needed.
+     *
+     * @return false if the file ends first
+     */
+    private static boolean fill(FileChannel channel, ByteBuffer buffer, int bytes)
+        throws IOException {
+        if (buffer.remaining() >= bytes) {
+            return true;
+        }
+
+        buffer.compact();
+
+        while (buffer.position() < bytes) {
+            if (channel.read(buffer) < 0) {
+                buffer.flip();
+                return false;
+            }
+        }
+
+        buffer.flip();
+        return true;
+    }
+
+    private static void flush(FileChannel channel, ByteBuffer buffer) {
+        buffer.flip();
+
+        try {
+            while (buffer.hasRemaining()) {
+                channel.write(buffer);
+            }
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+
+        buffer.clear();
+    }
+
+    private int checksum(ByteBuffer view, byte type, int payloadOffset, int payloadSize) {
+        return checksum(checksum, view, type, payloadOffset, payloadSize);
+    }
+
+    private static int checksum(CRC32C checksum, ByteBuffer view, byte type, int payloadOffset,
+        int payloadSize) {
+        checksum.reset();
+        checksum.update(type);
+        view.clear().limit(payloadOffset + payloadSize).position(payloadOffset);
+        checksum.update(view);
+        return (int) checksum.getValue();
+    }
+
+    private void deleteFilesBefore(long number) throws IOException {
+        List<Path> obsoleteFiles = new ArrayList<>();
+        obsoleteFiles.addAll(listFiles(SEGMENT_NAME).headMap(number).values());
+        obsoleteFiles.addAll(listFiles(SNAPSHOT_NAME).headMap(number).values());
+
+        for (Path obsoleteFile : obsoleteFiles) {
+            Files.deleteIfExists(obsoleteFile);
+        }
+    }
+
+    private void deleteTemporaryFiles() throws IOException {
+        try (Stream<Path> files = Files.list(directory)) {
+            for (Path file : (Iterable<Path>) files::iterator) {
+                if (file.getFileName().toString().endsWith(".tmp")) {
+                    Files.delete(file);
+                }
+            }
+        }
+    }
+
+    private TreeMap<Long, Path> listFiles(Pattern name) throws IOException {
+        TreeMap<Long, Path> files = new TreeMap<>();
+
+        try (Stream<Path> paths = Files.list(directory)) {
+            for (Path path : (Iterable<Path>) paths::iterator) {
+                Matcher matcher = name.matcher(path.getFileName().toString());
+
+                if (matcher.matches()) {
+                    files.put(Long.parseLong(matcher.group(1)), path);
+                }
+            }
+        }
+
+        return files;
+    }
+
+    /**
+     * Forces the directory entry for a renamed snapshot to disk. Not every platform can open a
+     * directory, and those that cannot keep renames durable some other way.
+     */
+    private void syncDirectory() {
+        try (FileChannel channel = FileChannel.open(directory, StandardOpenOption.READ)) {
+            channel.force(true);
+        } catch (IOException e) {
+            LOGGER.debug("Could not sync the person log directory", e);
+        }
+    }
+}
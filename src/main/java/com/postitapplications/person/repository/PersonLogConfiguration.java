@@ -0,0 +1,32 @@
+package com.postitapplications.person.repository;
+
+import java.nio.file.Path;
+import java.time.Duration;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.context.annotation.Profile;
+import org.springframework.util.unit.DataSize;
+
+@Profile("!reactive")
+@Configuration
+@ConditionalOnProperty(value = "person.log.enabled", havingValue = "true")
+public class PersonLogConfiguration {
+
+    /**
+     * Only the off-heap repository logs its writes, since Mongo is already durable.
+     */
+    @Bean
+    @ConditionalOnProperty(value = "person.repository.mode", havingValue = "off-heap")
+    public PersonLog personLog(
+        @Value("${person.log.directory:./data/person-log}") Path directory,
+        @Value("${person.log.segment-size:64MB}") DataSize segmentSize,
+        @Value("${person.log.fsync:true}") boolean fsync,
+        @Value("${person.log.group-commit-window:1ms}") Duration groupCommitWindow,
+        @Value("${person.log.compaction-interval:10m}") Duration compactionInterval,
+        @Value("${person.log.compaction-min-segments:4}") int compactionMinSegments) {
+        return new PersonLog(directory, Math.toIntExact(segmentSize.toBytes()), fsync,
+            groupCommitWindow, compactionInterval, compactionMinSegments);
+    }
+}
@@ -1,25 +1,97 @@
 package com.postitapplications.person.repository;
 
+import com.mongodb.bulk.BulkWriteResult;
 import com.mongodb.client.result.DeleteResult;
 import com.mongodb.client.result.UpdateResult;
 import com.postitapplications.person.document.Person;
+import com.postitapplications.person.document.PersonChange;
+import com.postitapplications.person.document.PersonFields;
+import com.postitapplications.person.document.PersonSearch;
+import com.postitapplications.person.document.PersonStats;
+import java.time.LocalDate;
+import java.util.Collection;
 import java.util.List;
 import java.util.UUID;
+import java.util.stream.Stream;
 
 public interface PersonRepo {
 
     Person save(UUID id, Person person);
 
     default Person save(Person person) {
-        UUID id = UUID.randomUUID();
+        UUID id = nextId();
         return save(id, person);
     }
 
+    /**
+     * Returns the id {@link #save(Person)} gives a new person.
+     */
+    default UUID nextId() {
+        return UUID.randomUUID();
+    }
+
+    BulkWriteResult insertAll(List<Person> people);
+
     List<Person> findAll();
 
+    List<Person> findAll(UUID after, int limit);
+
+    /**
+     * Finds every person, reading at least the given fields. Fields that were not asked for may
+     * be absent.
+     */
+    List<Person> findAll(PersonFields fields);
+
+    List<Person> findAll(UUID after, int limit, PersonFields fields);
+
+    Stream<Person> streamAll();
+
+    List<Person> search(PersonSearch search);
+
+    /**
+     * Summarises every person, working out ages as of the given day.
+     *
+     * @param allowDiskUse whether the database may spill to disk rather than fail when summarising
+     *                     needs more memory than it allows
+     */
+    PersonStats getPersonStats(LocalDate today, boolean allowDiskUse);
+
     Person findById(UUID id);
 
+    Person findById(UUID id, PersonFields fields);
+
+    /**
+     * Finds every person whose id is in the given ids with a single query. Ids with no match are
+     * left out, and the result is in no particular order.
+     */
+    List<Person> findAllByIds(Collection<UUID> ids);
+
     UpdateResult update(Person person);
 
+    Person updateAndReturn(Person person);
+
+    /**
+     * Updates a person like {@link #updateAndReturn(Person)}, returning them as they were both
+     * before and after the update. The previous state is read atomically with the write, or null
+     * is returned when no person matched.
+     */
+    PersonChange updateAndReturnChange(Person person);
+
+    Person patch(Person person);
+
+    /**
+     * Patches a person like {@link #patch(Person)}, returning them as they were both before and
+     * after the patch, or null when no person matched.
+     */
+    PersonChange patchAndReturnChange(Person person);
+
+    boolean existsById(UUID id);
+
     DeleteResult removeById(UUID id);
+
+    /**
+     * Removes a person, returning them as they were when removed, or null when there was no such
+     * person.
+     */
+    Person removeAndReturn(UUID id);
 }
\ No newline at end of file
@@ -0,0 +1,57 @@
+package com.postitapplications.person.repository;
+
+import com.postitapplications.person.changestream.PersonChangedEvent;
+import com.postitapplications.person.changestream.PersonChangedEvent.Type;
+import java.time.Duration;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.context.annotation.Profile;
+import org.springframework.context.event.EventListener;
+
+@Profile("!reactive")
+@Configuration
+@ConditionalOnProperty(value = "person.cache.enabled", havingValue = "true")
+public class PersonRepoCacheConfiguration {
+
+    public static final int CACHE_ORDER = 100;
+
+    private final ObjectProvider<PersonRepo> personRepoProvider;
+
+    public PersonRepoCacheConfiguration(
+        @Qualifier("MongoDBRepo") ObjectProvider<PersonRepo> personRepoProvider) {
+        this.personRepoProvider = personRepoProvider;
+    }
+
+    @Bean
+    public static PersonRepoDecoratingPostProcessor cachingPersonRepoPostProcessor(
+        @Value("${person.cache.maximum-size:100000}") long maximumSize,
+        @Value("${person.cache.expire-after-write:5m}") Duration expireAfterWrite) {
+        return new PersonRepoDecoratingPostProcessor(CACHE_ORDER,
+            personRepo -> new CachingPersonRepo(personRepo, maximumSize, expireAfterWrite));
+    }
+
+    /**
+     * Drops cached people changed by any instance, as reported by the change stream, so the cache
+     * does not have to rely on expiry to pick up writes made elsewhere.
+     */
+    @EventListener
+    public void invalidateChangedPerson(PersonChangedEvent event) {
+        PersonRepo personRepo = personRepoProvider.getIfAvailable();
+
+        if (!(personRepo instanceof CachingPersonRepo)) {
+            return;
+        }
+
+        CachingPersonRepo cachingPersonRepo = (CachingPersonRepo) personRepo;
+
+        if (event.getType() == Type.INVALIDATE) {
+            cachingPersonRepo.invalidateAll();
+        } else {
+            cachingPersonRepo.invalidate(event.getId());
+        }
+    }
+}
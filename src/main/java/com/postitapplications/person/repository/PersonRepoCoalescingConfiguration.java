@@ -0,0 +1,36 @@
+package com.postitapplications.person.repository;
+
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import java.time.Duration;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+@Configuration
+@ConditionalOnProperty(value = "person.coalescing.enabled", havingValue = "true")
+public class PersonRepoCoalescingConfiguration {
+
+    /**
+     * Between the concurrency limit and the cache, so only cache misses are coalesced and each
+     * batched query takes a single permit.
+     */
+    public static final int COALESCING_ORDER = 50;
+
+    /**
+     * The batch window defaults to 2ms. The first caller of a batch waits out the whole window even
+     * when no other lookup arrives, so set it to 0 to keep single flight without batching where
+     * lookups are rarely concurrent.
+     */
+    @Bean
+    public static PersonRepoDecoratingPostProcessor coalescingPersonRepoPostProcessor(
+        @Value("${person.coalescing.batch-window:2ms}") Duration batchWindow,
+        @Value("${person.coalescing.max-batch-size:100}") int maxBatchSize,
+        ObjectProvider<MeterRegistry> meterRegistry) {
+        return new PersonRepoDecoratingPostProcessor(COALESCING_ORDER,
+            personRepo -> new CoalescingPersonRepo(personRepo, batchWindow, maxBatchSize,
+                meterRegistry.getIfAvailable(SimpleMeterRegistry::new)));
+    }
+}
@@ -0,0 +1,36 @@
+package com.postitapplications.person.repository;
+
+import java.util.function.UnaryOperator;
+import org.springframework.beans.factory.config.BeanPostProcessor;
+import org.springframework.core.Ordered;
+
+/**
+ * Wraps the MongoDBRepo bean with a decorator, so PersonService picks it up through its existing
+ * qualifier. Decorators with a lower order are applied first and therefore sit closer to Mongo.
+ */
+public class PersonRepoDecoratingPostProcessor implements BeanPostProcessor, Ordered {
+
+    private static final String MONGO_DB_REPO = "MongoDBRepo";
+
+    private final int order;
+    private final UnaryOperator<PersonRepo> decorator;
+
+    public PersonRepoDecoratingPostProcessor(int order, UnaryOperator<PersonRepo> decorator) {
+        this.order = order;
+        this.decorator = decorator;
+    }
+
+    @Override
+    public Object postProcessAfterInitialization(Object bean, String beanName) {
+        if (MONGO_DB_REPO.equals(beanName) && bean instanceof PersonRepo) {
+            return decorator.apply((PersonRepo) bean);
+        }
+
+        return bean;
+    }
+
+    @Override
+    public int getOrder() {
+        return order;
+    }
+}
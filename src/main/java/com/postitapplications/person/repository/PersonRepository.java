@@ -1,25 +1,88 @@
 package com.postitapplications.person.repository;
 
+import com.mongodb.bulk.BulkWriteResult;
 import com.mongodb.client.result.DeleteResult;
 import com.mongodb.client.result.UpdateResult;
 import com.postitapplications.person.document.Person;
+import com.postitapplications.person.document.Person.Gender;
+import com.postitapplications.person.document.PersonChange;
+import com.postitapplications.person.document.PersonFields;
+import com.postitapplications.person.document.PersonSearch;
+import com.postitapplications.person.document.PersonStats;
+import com.postitapplications.person.id.PersonIdGenerator;
+import io.micrometer.core.annotation.Timed;
+import java.time.LocalDate;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.EnumMap;
 import java.util.List;
+import java.util.Map;
 import java.util.UUID;
+import java.util.stream.Stream;
+import javax.annotation.PostConstruct;
+import org.bson.Document;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.context.annotation.Profile;
+import org.springframework.data.domain.Sort;
+import org.springframework.data.domain.Sort.Direction;
+import org.springframework.data.mongodb.core.BulkOperations.BulkMode;
+import org.springframework.data.mongodb.core.FindAndModifyOptions;
 import org.springframework.data.mongodb.core.MongoTemplate;
+import org.springframework.data.mongodb.core.aggregation.Aggregation;
+import org.springframework.data.mongodb.core.aggregation.AggregationExpression;
+import org.springframework.data.mongodb.core.aggregation.AggregationOptions;
+import org.springframework.data.mongodb.core.index.Index;
+import org.springframework.data.mongodb.core.index.IndexOperations;
+import org.springframework.data.mongodb.core.query.Collation;
+import org.springframework.data.mongodb.core.query.Collation.ComparisonLevel;
 import org.springframework.data.mongodb.core.query.Criteria;
 import org.springframework.data.mongodb.core.query.Query;
 import org.springframework.data.mongodb.core.query.Update;
+import org.springframework.data.util.StreamUtils;
 import org.springframework.stereotype.Repository;
 
+@Profile("!reactive")
 @Repository("MongoDBRepo")
+@ConditionalOnProperty(value = "person.repository.mode", havingValue = "template",
+    matchIfMissing = true)
+@Timed(value = "person.repository", histogram = true)
 public class PersonRepository implements PersonRepo {
 
+    private static final String SORT_BY_NAME = "name";
+    private static final String SORT_BY_DATE_OF_BIRTH = "dateOfBirth";
+    private static final Collation CASE_INSENSITIVE = Collation.of("en")
+        .strength(ComparisonLevel.secondary());
+    private static final AggregationExpression BMI = context -> new Document("$divide", List.of(
+        new Document("$multiply", List.of("$weight", 10_000)),
+        new Document("$multiply", List.of("$height", "$height"))));
+
     private final MongoTemplate mongoTemplate;
+    private final PersonIdGenerator personIdGenerator;
 
     @Autowired
-    public PersonRepository(MongoTemplate mongoTemplate) {
+    public PersonRepository(MongoTemplate mongoTemplate, PersonIdGenerator personIdGenerator) {
         this.mongoTemplate = mongoTemplate;
+        this.personIdGenerator = personIdGenerator;
+    }
+
+    /**
+     * Creates the indexes behind case-insensitive name searches and sorts. They share the
+     * collation those queries run with, which index annotations cannot declare.
+     */
+    @PostConstruct
+    public void ensureIndexes() {
+        IndexOperations indexOperations = mongoTemplate.indexOps(Person.class);
+        indexOperations.ensureIndex(new Index().on("name", Direction.ASC).on("_id", Direction.ASC)
+                                               .named("name_ci_id").collation(CASE_INSENSITIVE));
+        indexOperations.ensureIndex(new Index().on("gender", Direction.ASC)
+                                               .on("name", Direction.ASC).named("gender_name_ci")
+                                               .collation(CASE_INSENSITIVE));
+    }
+
+    @Override
+    public UUID nextId() {
+        return personIdGenerator.nextId();
     }
 
     @Override
@@ -30,31 +93,309 @@ public class PersonRepository implements PersonRepo {
         return mongoTemplate.save(person);
     }
 
+    @Override
+    public BulkWriteResult insertAll(List<Person> people) {
+        return mongoTemplate.bulkOps(BulkMode.UNORDERED, Person.class).insert(people).execute();
+    }
+
     @Override
     public List<Person> findAll() {
         return mongoTemplate.findAll(Person.class);
     }
 
+    @Override
+    public List<Person> findAll(UUID after, int limit) {
+        return mongoTemplate.find(pageQuery(after, limit), Person.class);
+    }
+
+    @Override
+    public List<Person> findAll(PersonFields fields) {
+        return mongoTemplate.find(project(new Query(), fields), Person.class);
+    }
+
+    @Override
+    public List<Person> findAll(UUID after, int limit, PersonFields fields) {
+        return mongoTemplate.find(project(pageQuery(after, limit), fields), Person.class);
+    }
+
+    private static Query pageQuery(UUID after, int limit) {
+        Query query = new Query().with(Sort.by(Direction.ASC, "id")).limit(limit);
+
+        if (after != null) {
+            query.addCriteria(Criteria.where("id").gt(after));
+        }
+
+        return query;
+    }
+
+    @Override
+    public Stream<Person> streamAll() {
+        return StreamUtils.createStreamFromIterator(
+            mongoTemplate.stream(new Query(), Person.class));
+    }
+
+    /**
+     * Birth day ranges and the dateOfBirth sort read the birthDay field, so people whose legacy
+     * dateOfBirth string has not been migrated yet never match a range and sort first.
+     */
+    @Override
+    public List<Person> search(PersonSearch search) {
+        return mongoTemplate.find(searchQuery(search), Person.class);
+    }
+
+    /**
+     * Works the stats out with three aggregations, so only the summaries leave the database. The
+     * weight and height totals and BMI distribution share one collection scan through $facet,
+     * while the gender counts and age histogram only need one indexed field each, so they are
+     * answered by walking the gender and birthDay indexes. People whose date of birth has not been
+     * migrated to birthDay yet are left out of the age histogram.
+     */
+    @Override
+    public PersonStats getPersonStats(LocalDate today, boolean allowDiskUse) {
+        AggregationOptions options = AggregationOptions.builder().allowDiskUse(allowDiskUse)
+                                                       .build();
+        Document totals = mongoTemplate.aggregate(Aggregation.newAggregation(Aggregation
+            .facet(Aggregation.group().count().as("count").sum(isPresent("weight"))
+                              .as("weightCount").sum("weight").as("weightSum")
+                              .sum(square("weight")).as("weightSumOfSquares")
+                              .sum(isPresent("height")).as("heightCount").sum("height")
+                              .as("heightSum").sum(square("height")).as("heightSumOfSquares"))
+            .as("summary")
+            .and(Aggregation.match(Criteria.where("weight").gt(0).and("height").gt(0)),
+                Aggregation.project().and(BMI).as("bmi"), Aggregation.bucket("bmi")
+                    .withBoundaries(Arrays.stream(PersonStats.BMI_BOUNDARIES).boxed().toArray())
+                    .withDefaultBucket(
+                        PersonStats.BMI_BOUNDARIES[PersonStats.BMI_BOUNDARIES.length - 1]))
+            .as("bmi")).withOptions(options), Person.class, Document.class)
+                                       .getUniqueMappedResult();
+
+        List<Document> summaries = totals.getList("summary", Document.class);
+        Document summary = summaries.isEmpty() ? new Document() : summaries.get(0);
+        long[] bmiCounts = new long[PersonStats.BMI_BOUNDARIES.length];
+
+        for (Document bucket : totals.getList("bmi", Document.class)) {
+            bmiCounts[PersonStats.bmiBucket(bucket.get("_id", Number.class).doubleValue())] =
+                bucket.get("count", Number.class).longValue();
+        }
+
+        return new PersonStats(longValue(summary, "count"), longValue(summary, "weightCount"),
+            doubleValue(summary, "weightSum"), doubleValue(summary, "weightSumOfSquares"),
+            longValue(summary, "heightCount"), doubleValue(summary, "heightSum"),
+            doubleValue(summary, "heightSumOfSquares"), countByGender(options), bmiCounts,
+            ageCounts(today, options));
+    }
+
+    private Map<Gender, Long> countByGender(AggregationOptions options) {
+        Map<Gender, Long> countByGender = new EnumMap<>(Gender.class);
+
+        for (Document group : mongoTemplate.aggregate(Aggregation.newAggregation(
+            Aggregation.sort(Direction.ASC, "gender"),
+            Aggregation.group("gender").count().as("count")).withOptions(options), Person.class,
+            Document.class)) {
+            Object gender = group.get("_id");
+
+            if (gender instanceof String) {
+                countByGender.put(Gender.valueOf((String) gender),
+                    group.get("count", Number.class).longValue());
+            }
+        }
+
+        return countByGender;
+    }
+
+    private long[] ageCounts(LocalDate today, AggregationOptions options) {
+        int[] birthDayBoundaries = PersonStats.birthDayBoundaries(today);
+        long[] ageCounts = new long[PersonStats.AGE_BOUNDARIES.length];
+
+        for (Document bucket : mongoTemplate.aggregate(Aggregation.newAggregation(
+            Aggregation.match(Criteria.where("birthDay")
+                                      .lt(birthDayBoundaries[birthDayBoundaries.length - 1])),
+            Aggregation.bucket("birthDay")
+                       .withBoundaries(Arrays.stream(birthDayBoundaries).boxed().toArray())
+                       .withDefaultBucket(birthDayBoundaries[0] - 1)).withOptions(options),
+            Person.class, Document.class)) {
+            ageCounts[PersonStats.ageBucket(bucket.get("_id", Number.class).intValue(),
+                birthDayBoundaries)] = bucket.get("count", Number.class).longValue();
+        }
+
+        return ageCounts;
+    }
+
+    private static AggregationExpression isPresent(String field) {
+        return context -> new Document("$cond",
+            List.of(new Document("$gt", Arrays.asList("$" + field, null)), 1, 0));
+    }
+
+    private static AggregationExpression square(String field) {
+        return context -> new Document("$multiply", List.of("$" + field, "$" + field));
+    }
+
+    private static long longValue(Document summary, String field) {
+        Number value = summary.get(field, Number.class);
+        return value == null ? 0 : value.longValue();
+    }
+
+    private static double doubleValue(Document summary, String field) {
+        Number value = summary.get(field, Number.class);
+        return value == null ? 0 : value.doubleValue();
+    }
+
+    Query searchQuery(PersonSearch search) {
+        Query query = new Query();
+
+        if (search.getName() != null) {
+            query.addCriteria(Criteria.where("name").is(search.getName()))
+                 .collation(CASE_INSENSITIVE);
+        }
+
+        if (search.getGender() != null) {
+            query.addCriteria(Criteria.where("gender").is(search.getGender().name()));
+        }
+
+        if (search.getBornFrom() != null || search.getBornBefore() != null) {
+            Criteria birthDay = Criteria.where("birthDay");
+
+            if (search.getBornFrom() != null) {
+                birthDay.gte(search.getBornFrom());
+            }
+
+            if (search.getBornBefore() != null) {
+                birthDay.lt(search.getBornBefore());
+            }
+
+            query.addCriteria(birthDay);
+        }
+
+        if (SORT_BY_NAME.equals(search.getSort())) {
+            query.with(Sort.by(Direction.ASC, "name")).collation(CASE_INSENSITIVE);
+        } else if (SORT_BY_DATE_OF_BIRTH.equals(search.getSort())) {
+            query.with(Sort.by(Direction.ASC, "birthDay"));
+        } else {
+            query.with(Sort.by(Direction.ASC, "id"));
+        }
+
+        return query.skip((long) search.getPage() * search.getLimit()).limit(search.getLimit());
+    }
+
     @Override
     public Person findById(UUID id) {
         return mongoTemplate.findById(id, Person.class);
     }
 
+    @Override
+    public Person findById(UUID id, PersonFields fields) {
+        return mongoTemplate
+            .findOne(project(new Query(Criteria.where("id").is(id)), fields), Person.class);
+    }
+
+    @Override
+    public List<Person> findAllByIds(Collection<UUID> ids) {
+        return mongoTemplate.find(new Query(Criteria.where("id").in(ids)), Person.class);
+    }
+
     @Override
     public UpdateResult update(Person person) {
-        Update update = new Update();
-        update.set("name", person.getName());
-        update.set("weight", person.getWeight());
-        update.set("height", person.getHeight());
-        update.set("dateOfBirth", person.getDateOfBirth());
-        update.set("gender", person.getGender());
+        Update update = replacement(person);
+        update.inc("version", 1);
 
         return mongoTemplate
             .updateFirst(new Query(Criteria.where("id").is(person.getId())), update, Person.class);
     }
 
+    @Override
+    public Person updateAndReturn(Person person) {
+        return findAndModify(person, replacement(person), true);
+    }
+
+    /**
+     * Reads the person as they were before the update in the same findAndModify that applies it,
+     * and works out what it stored from the update itself.
+     */
+    @Override
+    public PersonChange updateAndReturnChange(Person person) {
+        Person previousPerson = findAndModify(person, replacement(person), false);
+        return previousPerson == null ? null : PersonChange.updated(previousPerson, person);
+    }
+
+    @Override
+    public Person patch(Person person) {
+        return findAndModify(person, patchUpdate(person), true);
+    }
+
+    @Override
+    public PersonChange patchAndReturnChange(Person person) {
+        Person previousPerson = findAndModify(person, patchUpdate(person), false);
+        return previousPerson == null ? null : PersonChange.patched(previousPerson, person);
+    }
+
+    @Override
+    public boolean existsById(UUID id) {
+        return mongoTemplate.exists(new Query(Criteria.where("id").is(id)), Person.class);
+    }
+
     @Override
     public DeleteResult removeById(UUID id) {
         return mongoTemplate.remove(new Query(Criteria.where("id").is(id)), Person.class);
     }
+
+    @Override
+    public Person removeAndReturn(UUID id) {
+        return mongoTemplate.findAndRemove(new Query(Criteria.where("id").is(id)), Person.class);
+    }
+
+    private Person findAndModify(Person person, Update update, boolean returnNew) {
+        Criteria criteria = Criteria.where("id").is(person.getId());
+
+        if (person.getVersion() != null) {
+            criteria.and("version").is(person.getVersion());
+        }
+
+        update.inc("version", 1);
+
+        return mongoTemplate.findAndModify(new Query(criteria), update,
+            FindAndModifyOptions.options().returnNew(returnNew), Person.class);
+    }
+
+    private static Update replacement(Person person) {
+        Update update = new Update();
+        update.set("name", person.getName());
+        update.set("weight", person.getWeight());
+        update.set("height", person.getHeight());
+        update.set("birthDay", person.getBirthDay());
+        update.unset("dateOfBirth");
+        update.set("gender", person.getGender());
+        return update;
+    }
+
+    private static Update patchUpdate(Person person) {
+        Update update = new Update();
+        setIfPresent(update, "name", person.getName());
+
+        if (person.hasWeight()) {
+            update.set("weight", person.getWeight());
+        }
+
+        if (person.hasHeight()) {
+            update.set("height", person.getHeight());
+        }
+
+        if (person.getBirthDay() != null) {
+            update.set("birthDay", person.getBirthDay());
+            update.unset("dateOfBirth");
+        }
+
+        setIfPresent(update, "gender", person.getGender());
+        return update;
+    }
+
+    private static Query project(Query query, PersonFields fields) {
+        query.fields().include(fields.getStoredNames());
+        return query;
+    }
+
+    private static void setIfPresent(Update update, String field, Object value) {
+        if (value != null) {
+            update.set(field, value);
+        }
+    }
 }
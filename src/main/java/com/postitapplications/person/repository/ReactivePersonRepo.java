@@ -0,0 +1,35 @@
+package com.postitapplications.person.repository;
+
+import com.mongodb.client.result.DeleteResult;
+import com.mongodb.client.result.UpdateResult;
+import com.postitapplications.person.document.Person;
+import java.util.UUID;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+
+public interface ReactivePersonRepo {
+
+    Mono<Person> save(UUID id, Person person);
+
+    default Mono<Person> save(Person person) {
+        UUID id = nextId();
+        return save(id, person);
+    }
+
+    /**
+     * Returns the id {@link #save(Person)} gives a new person.
+     */
+    default UUID nextId() {
+        return UUID.randomUUID();
+    }
+
+    Flux<Person> findAll();
+
+    Flux<Person> findAll(UUID after, int limit);
+
+    Mono<Person> findById(UUID id);
+
+    Mono<UpdateResult> update(Person person);
+
+    Mono<DeleteResult> removeById(UUID id);
+}
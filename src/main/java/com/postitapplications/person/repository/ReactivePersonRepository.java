@@ -0,0 +1,91 @@
+package com.postitapplications.person.repository;
+
+import com.mongodb.client.result.DeleteResult;
+import com.mongodb.client.result.UpdateResult;
+import com.postitapplications.person.document.Person;
+import com.postitapplications.person.id.PersonIdGenerator;
+import java.util.UUID;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.context.annotation.Profile;
+import org.springframework.data.domain.Sort;
+import org.springframework.data.domain.Sort.Direction;
+import org.springframework.data.mongodb.core.ReactiveMongoTemplate;
+import org.springframework.data.mongodb.core.query.Criteria;
+import org.springframework.data.mongodb.core.query.Query;
+import org.springframework.data.mongodb.core.query.Update;
+import org.springframework.stereotype.Repository;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+
+@Profile("reactive")
+@Repository("ReactiveMongoDBRepo")
+public class ReactivePersonRepository implements ReactivePersonRepo {
+
+    private final ReactiveMongoTemplate reactiveMongoTemplate;
+    private final PersonIdGenerator personIdGenerator;
+
+    public ReactivePersonRepository(ReactiveMongoTemplate reactiveMongoTemplate) {
+        this(reactiveMongoTemplate, PersonIdGenerator.random());
+    }
+
+    @Autowired
+    public ReactivePersonRepository(ReactiveMongoTemplate reactiveMongoTemplate,
+        PersonIdGenerator personIdGenerator) {
+        this.reactiveMongoTemplate = reactiveMongoTemplate;
+        this.personIdGenerator = personIdGenerator;
+    }
+
+    @Override
+    public UUID nextId() {
+        return personIdGenerator.nextId();
+    }
+
+    @Override
+    public Mono<Person> save(UUID id, Person personToSave) {
+        Person person = new Person(id, personToSave.getName(), personToSave.getWeight(),
+            personToSave.getHeight(), personToSave.getDateOfBirth(),
+            personToSave.getGender());
+        return reactiveMongoTemplate.save(person);
+    }
+
+    @Override
+    public Flux<Person> findAll() {
+        return reactiveMongoTemplate.findAll(Person.class);
+    }
+
+    @Override
+    public Flux<Person> findAll(UUID after, int limit) {
+        Query query = new Query().with(Sort.by(Direction.ASC, "id")).limit(limit);
+
+        if (after != null) {
+            query.addCriteria(Criteria.where("id").gt(after));
+        }
+
+        return reactiveMongoTemplate.find(query, Person.class);
+    }
+
+    @Override
+    public Mono<Person> findById(UUID id) {
+        return reactiveMongoTemplate.findById(id, Person.class);
+    }
+
+    @Override
+    public Mono<UpdateResult> update(Person person) {
+        Update update = new Update();
+        update.set("name", person.getName());
+        update.set("weight", person.getWeight());
+        update.set("height", person.getHeight());
+        update.set("birthDay", person.getBirthDay());
+        update.unset("dateOfBirth");
+        update.set("gender", person.getGender());
+        update.inc("version", 1);
+
+        return reactiveMongoTemplate
+            .updateFirst(new Query(Criteria.where("id").is(person.getId())), update, Person.class);
+    }
+
+    @Override
+    public Mono<DeleteResult> removeById(UUID id) {
+        return reactiveMongoTemplate.remove(new Query(Criteria.where("id").is(id)), Person.class);
+    }
+}
@@ -0,0 +1,123 @@
+package com.postitapplications.person.service;
+
+import com.mongodb.bulk.BulkWriteError;
+import com.postitapplications.person.document.Person;
+import com.postitapplications.person.document.PersonBatchResult;
+import com.postitapplications.person.id.PersonIdGenerator;
+import com.postitapplications.person.repository.PersonRepo;
+import com.postitapplications.person.utility.PersonValidator;
+import io.micrometer.core.annotation.Timed;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Map;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.annotation.Profile;
+import org.springframework.data.mongodb.BulkOperationException;
+import org.springframework.stereotype.Service;
+
+@Profile("!reactive")
+@Service
+@Timed(value = "person.service", histogram = true)
+public class PersonBatchService {
+
+    private final PersonRepo personRepo;
+    private final int chunkSize;
+    private final PersonIdGenerator personIdGenerator;
+
+    @Autowired
+    public PersonBatchService(@Qualifier("MongoDBRepo") PersonRepo personRepo,
+        @Value("${person.batch.chunk-size:500}") int chunkSize,
+        PersonIdGenerator personIdGenerator) {
+        if (chunkSize <= 0) {
+            throw new IllegalArgumentException("Batch chunk size must be greater than zero");
+        }
+
+        this.personRepo = personRepo;
+        this.chunkSize = chunkSize;
+        this.personIdGenerator = personIdGenerator;
+    }
+
+    public PersonBatchResult savePeople(Iterator<Person> people) {
+        PersonBatchResult batchResult = new PersonBatchResult();
+        List<Person> chunk = new ArrayList<>(chunkSize);
+        List<Integer> chunkIndexes = new ArrayList<>(chunkSize);
+        int index = 0;
+
+        while (hasNext(people, index, batchResult)) {
+            try {
+                Person person = people.next();
+                PersonValidator.validatePerson(person);
+                chunk.add(new Person(personIdGenerator.nextId(), person.getName(),
+                    person.getWeight(), person.getHeight(), person.getDateOfBirth(),
+                    person.getGender()));
+                chunkIndexes.add(index);
+            } catch (RuntimeException exception) {
+                batchResult.addFailed(index, exception.getMessage());
+            }
+
+            index++;
+
+            if (chunk.size() == chunkSize) {
+                flushChunk(chunk, chunkIndexes, batchResult);
+            }
+        }
+
+        flushChunk(chunk, chunkIndexes, batchResult);
+
+        return batchResult;
+    }
+
+    /**
+     * Reading the next person can fail when the input is malformed. A line that parses but does
+     * not map to a person fails in {@code next()} and is reported against its own index, while
+     * input that cannot be parsed at all fails here and ends the batch, as nothing after it can be
+     * told apart.
+     */
+    private static boolean hasNext(Iterator<Person> people, int index,
+        PersonBatchResult batchResult) {
+        try {
+            return people.hasNext();
+        } catch (RuntimeException exception) {
+            batchResult.addFailed(index, exception.getMessage());
+            return false;
+        }
+    }
+
+    private void flushChunk(List<Person> chunk, List<Integer> chunkIndexes,
+        PersonBatchResult batchResult) {
+        if (chunk.isEmpty()) {
+            return;
+        }
+
+        Map<Integer, String> writeErrors = new HashMap<>();
+
+        try {
+            personRepo.insertAll(chunk);
+        } catch (BulkOperationException exception) {
+            for (BulkWriteError writeError : exception.getErrors()) {
+                writeErrors.put(writeError.getIndex(), writeError.getMessage());
+            }
+        } catch (RuntimeException exception) {
+            for (int i = 0; i < chunk.size(); i++) {
+                writeErrors.put(i, exception.getMessage());
+            }
+        }
+
+        for (int i = 0; i < chunk.size(); i++) {
+            String writeError = writeErrors.get(i);
+
+            if (writeError == null) {
+                batchResult.addSaved(chunkIndexes.get(i), chunk.get(i).getId());
+            } else {
+                batchResult.addFailed(chunkIndexes.get(i), writeError);
+            }
+        }
+
+        chunk.clear();
+        chunkIndexes.clear();
+    }
+}
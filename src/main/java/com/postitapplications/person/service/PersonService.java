@@ -3,46 +3,271 @@ package com.postitapplications.person.service;
 import com.mongodb.client.result.DeleteResult;
 import com.mongodb.client.result.UpdateResult;
 import com.postitapplications.person.document.Person;
+import com.postitapplications.person.document.Person.Gender;
+import com.postitapplications.person.document.PersonChange;
+import com.postitapplications.person.document.PersonFields;
+import com.postitapplications.person.document.PersonLookupResult;
+import com.postitapplications.person.document.PersonSearch;
+import com.postitapplications.person.document.PersonStats;
 import com.postitapplications.person.repository.PersonRepo;
+import com.postitapplications.person.utility.DateOfBirthFormat;
 import com.postitapplications.person.utility.PersonValidator;
+import io.micrometer.core.annotation.Timed;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.LinkedHashSet;
 import java.util.List;
+import java.util.Map;
 import java.util.UUID;
+import java.util.stream.Stream;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.context.annotation.Profile;
+import org.springframework.dao.OptimisticLockingFailureException;
+import org.springframework.lang.Nullable;
 import org.springframework.stereotype.Service;
 
+@Profile("!reactive")
 @Service
+@Timed(value = "person.service", histogram = true)
 public class PersonService {
 
     private final PersonRepo personRepo;
+    private final PersonWriteBehindService personWriteBehindService;
+    private final PersonStatsService personStatsService;
 
+    public PersonService(PersonRepo personRepo) {
+        this(personRepo, null, null);
+    }
+
+    /**
+     * @param personWriteBehindService queues saves for background writing when write-behind is
+     *                                 enabled, or null to save synchronously
+     * @param personStatsService       keeps running stats when they are enabled, or null to
+     *                                 aggregate them from the repository on every request
+     */
     @Autowired
-    public PersonService(@Qualifier("MongoDBRepo") PersonRepo personRepo) {
+    public PersonService(@Qualifier("MongoDBRepo") PersonRepo personRepo,
+        @Nullable PersonWriteBehindService personWriteBehindService,
+        @Nullable PersonStatsService personStatsService) {
         this.personRepo = personRepo;
+        this.personWriteBehindService = personWriteBehindService;
+        this.personStatsService = personStatsService;
     }
 
+    /**
+     * Saves a person, or with write-behind enabled queues them to be saved, in which case the
+     * writer adds them to the running stats once they are stored.
+     */
     public Person savePerson(Person person) {
         PersonValidator.validatePerson(person);
-        return personRepo.save(person);
+
+        if (personWriteBehindService != null) {
+            return personWriteBehindService.enqueue(person);
+        }
+
+        Person savedPerson = personRepo.save(person);
+
+        if (personStatsService != null) {
+            personStatsService.personAdded(savedPerson);
+        }
+
+        return savedPerson;
+    }
+
+    /**
+     * Whether {@link #savePerson(Person)} only queues people, so they may not be readable yet
+     * when it returns.
+     */
+    public boolean isSaveDeferred() {
+        return personWriteBehindService != null;
     }
 
     public List<Person> getAllPeople() {
         return personRepo.findAll();
     }
 
+    public List<Person> getPeople(UUID after, int limit) {
+        PersonValidator.validatePageLimit(limit);
+        return personRepo.findAll(after, limit);
+    }
+
+    public List<Person> getPeople(UUID after, int limit, List<String> fields) {
+        PersonValidator.validatePageLimit(limit);
+        PersonValidator.validateFields(fields);
+        return personRepo.findAll(after, limit, new PersonFields(fields));
+    }
+
+    public Stream<Person> streamAllPeople() {
+        return personRepo.streamAll();
+    }
+
+    public List<Person> searchPeople(String name, Gender gender, String dateOfBirth,
+        Integer birthYear, Integer minAge, Integer maxAge, String sort, int page, int limit) {
+        PersonValidator
+            .validateSearch(dateOfBirth, birthYear, minAge, maxAge, sort, page, limit);
+        Integer bornFrom = null;
+        Integer bornBefore = null;
+
+        if (dateOfBirth != null) {
+            int birthDay = DateOfBirthFormat.toEpochDay(dateOfBirth);
+            bornFrom = birthDay;
+            bornBefore = birthDay + 1;
+        }
+
+        if (birthYear != null) {
+            bornFrom = max(bornFrom, (int) LocalDate.of(birthYear, 1, 1).toEpochDay());
+            bornBefore = min(bornBefore, (int) LocalDate.of(birthYear + 1, 1, 1).toEpochDay());
+        }
+
+        LocalDate today = LocalDate.now();
+
+        if (minAge != null) {
+            bornBefore = min(bornBefore, (int) today.minusYears(minAge).toEpochDay() + 1);
+        }
+
+        if (maxAge != null) {
+            bornFrom = max(bornFrom, (int) today.minusYears(maxAge + 1).toEpochDay() + 1);
+        }
+
+        return personRepo
+            .search(new PersonSearch(name, gender, bornFrom, bornBefore, sort, page, limit));
+    }
+
+    public PersonStats getPersonStats(boolean allowDiskUse) {
+        if (personStatsService != null) {
+            return personStatsService.getPersonStats();
+        }
+
+        return personRepo.getPersonStats(LocalDate.now(), allowDiskUse);
+    }
+
     public Person getPersonById(UUID id) {
         PersonValidator.validatePersonId(id);
         return personRepo.findById(id);
     }
 
+    public Person getPersonById(UUID id, List<String> fields) {
+        PersonValidator.validatePersonId(id);
+        PersonValidator.validateFields(fields);
+        return personRepo.findById(id, new PersonFields(fields));
+    }
+
+    public PersonLookupResult getPeopleByIds(List<UUID> ids) {
+        PersonValidator.validateLookupIds(ids);
+        Map<UUID, Person> peopleById = new HashMap<>();
+
+        for (Person person : personRepo.findAllByIds(new LinkedHashSet<>(ids))) {
+            peopleById.put(person.getId(), person);
+        }
+
+        List<Person> people = new ArrayList<>(ids.size());
+        List<UUID> missingIds = new ArrayList<>();
+
+        for (UUID id : ids) {
+            Person person = peopleById.get(id);
+
+            if (person == null) {
+                missingIds.add(id);
+            } else {
+                people.add(person);
+            }
+        }
+
+        return new PersonLookupResult(people, missingIds);
+    }
+
+    /**
+     * Updates a person whatever their version. With running stats enabled, the previous state is
+     * read in the same write so it can be taken out of the stats.
+     */
     public UpdateResult updatePerson(Person person) {
         PersonValidator.validatePerson(person);
         PersonValidator.validatePersonId(person.getId());
-        return personRepo.update(person);
+
+        if (personStatsService == null) {
+            return personRepo.update(person);
+        }
+
+        Person unversionedPerson = new Person(person.getId(), person.getName(),
+            person.getWeight(), person.getHeight(), person.getDateOfBirth(), person.getGender());
+        long matchedCount =
+            recordChange(personRepo.updateAndReturnChange(unversionedPerson)) == null ? 0 : 1;
+
+        return UpdateResult.acknowledged(matchedCount, matchedCount, null);
+    }
+
+    public Person updatePersonAndReturn(Person person) {
+        PersonValidator.validatePerson(person);
+        PersonValidator.validatePersonId(person.getId());
+
+        if (personStatsService == null) {
+            return checkVersion(person, personRepo.updateAndReturn(person));
+        }
+
+        return checkVersion(person, recordChange(personRepo.updateAndReturnChange(person)));
+    }
+
+    public Person patchPerson(UUID id, Person person) {
+        PersonValidator.validatePersonId(id);
+        PersonValidator.validatePersonPatch(person);
+        Person patch = new Person(id, person.getName(), person.getWeight(), person.getHeight(),
+            person.getDateOfBirth(), person.getGender(), person.getVersion());
+
+        if (personStatsService == null) {
+            return checkVersion(patch, personRepo.patch(patch));
+        }
+
+        return checkVersion(patch, recordChange(personRepo.patchAndReturnChange(patch)));
     }
 
     public DeleteResult deletePersonById(UUID id) {
         PersonValidator.validatePersonId(id);
-        return personRepo.removeById(id);
+
+        if (personStatsService == null) {
+            return personRepo.removeById(id);
+        }
+
+        Person removedPerson = personRepo.removeAndReturn(id);
+
+        if (removedPerson == null) {
+            return DeleteResult.acknowledged(0);
+        }
+
+        personStatsService.personRemoved(removedPerson);
+        return DeleteResult.acknowledged(1);
+    }
+
+    /**
+     * Moves a changed person's contribution to the running stats, returning them as stored after
+     * the change, or null when there was no change.
+     */
+    private Person recordChange(PersonChange change) {
+        if (change == null) {
+            return null;
+        }
+
+        personStatsService.personReplaced(change.getPrevious(), change.getCurrent());
+        return change.getCurrent();
+    }
+
+    private Person checkVersion(Person requested, Person stored) {
+        if (stored == null && requested.getVersion() != null && personRepo
+            .existsById(requested.getId())) {
+            throw new OptimisticLockingFailureException(String
+                .format("Person with id: %s is no longer at version %d", requested.getId(),
+                    requested.getVersion()));
+        }
+
+        return stored;
+    }
+
+    private static Integer max(Integer current, int bound) {
+        return current == null ? bound : Math.max(current, bound);
+    }
+
+    private static Integer min(Integer current, int bound) {
+        return current == null ? bound : Math.min(current, bound);
     }
-}
\ No newline at end of file
+}
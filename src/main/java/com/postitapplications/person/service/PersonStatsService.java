@@ -0,0 +1,153 @@
+package com.postitapplications.person.service;
+
+import com.postitapplications.person.document.Person;
+import com.postitapplications.person.document.PersonStats;
+import com.postitapplications.person.document.PersonStatsAccumulator;
+import com.postitapplications.person.repository.PersonRepo;
+import java.time.Clock;
+import java.time.Duration;
+import java.time.LocalDate;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import javax.annotation.PreDestroy;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.annotation.Profile;
+import org.springframework.context.event.EventListener;
+import org.springframework.lang.Nullable;
+import org.springframework.stereotype.Service;
+
+/**
+ * Keeps running person stats in memory so they are served without asking the repository.
+ * {@link PersonService} reports each person it saves, updates or deletes, and the stats are
+ * rebuilt from the repository's aggregation once the application is ready and again on every
+ * reconciliation.
+ *
+ * <p>Reconciliation corrects drift from writes this instance never sees, such as those made by
+ * other instances or batch imports, and from writes racing the rebuild itself. It also moves ages
+ * on, as they are bucketed as of the day of the last rebuild. Until the first rebuild finishes,
+ * stats are read from the repository.
+ */
+@Profile("!reactive")
+@Service
+@ConditionalOnProperty(value = "person.stats.enabled", havingValue = "true")
+public class PersonStatsService {
+
+    private static final Logger LOGGER = LoggerFactory.getLogger(PersonStatsService.class);
+
+    private final PersonRepo personRepo;
+    private final Duration reconciliationInterval;
+    private final Clock clock;
+    private volatile PersonStatsAccumulator accumulator;
+    private ScheduledExecutorService reconciliationExecutor;
+
+    public PersonStatsService(PersonRepo personRepo, Duration reconciliationInterval,
+        Clock clock) {
+        this.personRepo = personRepo;
+        this.reconciliationInterval = reconciliationInterval;
+        this.clock = clock;
+    }
+
+    @Autowired
+    public PersonStatsService(@Qualifier("MongoDBRepo") PersonRepo personRepo,
+        @Value("${person.stats.reconciliation-interval:5m}") Duration reconciliationInterval) {
+        this(personRepo, reconciliationInterval, Clock.systemDefaultZone());
+    }
+
+    /**
+     * Builds the stats in the background, then keeps reconciling them at the configured interval.
+     * A failed build is logged and tried again at the next reconciliation.
+     */
+    @EventListener(ApplicationReadyEvent.class)
+    public void start() {
+        reconciliationExecutor = Executors.newSingleThreadScheduledExecutor(runnable -> {
+            Thread thread = new Thread(runnable, "person-stats-reconciliation");
+            thread.setDaemon(true);
+            return thread;
+        });
+
+        if (reconciliationInterval.isZero()) {
+            reconciliationExecutor.execute(this::reconcileQuietly);
+        } else {
+            reconciliationExecutor.scheduleWithFixedDelay(this::reconcileQuietly, 0,
+                reconciliationInterval.toMillis(), TimeUnit.MILLISECONDS);
+        }
+    }
+
+    /**
+     * Replaces the running stats with ones aggregated from the repository. Changes reported while
+     * the aggregation runs go to the stats being replaced, so they are only kept if the
+     * aggregation saw them.
+     */
+    public void reconcile() {
+        LocalDate today = LocalDate.now(clock);
+        PersonStatsAccumulator rebuilt = new PersonStatsAccumulator(today,
+            personRepo.getPersonStats(today, true));
+        PersonStatsAccumulator previous = accumulator;
+        accumulator = rebuilt;
+
+        if (previous != null) {
+            long drift = rebuilt.toPersonStats().getCount() - previous.toPersonStats().getCount();
+
+            if (drift != 0) {
+                LOGGER.info("Corrected the running person count by {}", drift);
+            }
+        }
+    }
+
+    public PersonStats getPersonStats() {
+        PersonStatsAccumulator current = accumulator;
+        return current == null ? personRepo.getPersonStats(LocalDate.now(clock), false)
+            : current.toPersonStats();
+    }
+
+    public void personAdded(Person person) {
+        personReplaced(null, person);
+    }
+
+    public void personRemoved(Person person) {
+        personReplaced(person, null);
+    }
+
+    /**
+     * Moves a person's contribution from their previous state to their current one. Either may be
+     * null when the person did not exist before or no longer exists.
+     */
+    public void personReplaced(@Nullable Person previous, @Nullable Person current) {
+        PersonStatsAccumulator runningStats = accumulator;
+
+        if (runningStats == null) {
+            return;
+        }
+
+        if (previous != null) {
+            runningStats.remove(previous);
+        }
+
+        if (current != null) {
+            runningStats.add(current);
+        }
+    }
+
+    @PreDestroy
+    public void stop() {
+        if (reconciliationExecutor != null) {
+            reconciliationExecutor.shutdownNow();
+        }
+    }
+
+    private void reconcileQuietly() {
+        try {
+            reconcile();
+        } catch (RuntimeException exception) {
+            LOGGER.warn("Could not rebuild the person stats, retrying in {}",
+                reconciliationInterval, exception);
+        }
+    }
+}
@@ -0,0 +1,252 @@
+package com.postitapplications.person.service;
+
+import com.mongodb.bulk.BulkWriteError;
+import com.postitapplications.person.document.Person;
+import com.postitapplications.person.exception.PersonWriteQueueFullException;
+import com.postitapplications.person.id.PersonIdGenerator;
+import com.postitapplications.person.repository.PersonRepo;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Queue;
+import java.util.Set;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.locks.LockSupport;
+import javax.annotation.PostConstruct;
+import javax.annotation.PreDestroy;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.context.annotation.Profile;
+import org.springframework.data.mongodb.BulkOperationException;
+import org.springframework.lang.Nullable;
+import org.springframework.stereotype.Service;
+
+/**
+ * Accepts validated people onto a bounded, lock-free queue and writes them to Mongo from a single
+ * background thread as unordered bulk inserts. A flush happens when a full batch is queued or when
+ * the flush interval has passed, whichever comes first. Callers get the generated id immediately,
+ * but the person is only accepted, not yet stored: reads may not find them until the next flush,
+ * and a write that later fails is not reported back. Once the queue holds its capacity further
+ * saves are rejected with {@link PersonWriteQueueFullException}.
+ *
+ * <p>Failures cannot be returned to the caller, so they are counted and logged with the ids
+ * involved. Records rejected by Mongo, such as duplicate keys, are dropped. Any other failure
+ * retries the whole batch up to the configured number of times. Only people that were written
+ * are added to the running stats. On shutdown the queue stops accepting writes and is drained
+ * before the repository is closed.
+ */
+@Profile("!reactive")
+@Service
+@ConditionalOnProperty(value = "person.write-behind.enabled", havingValue = "true")
+public class PersonWriteBehindService {
+
+    private static final Logger LOGGER = LoggerFactory.getLogger(PersonWriteBehindService.class);
+
+    private final PersonRepo personRepo;
+    private final int capacity;
+    private final int batchSize;
+    private final long flushIntervalNanos;
+    private final int maxRetries;
+    private final Duration shutdownTimeout;
+    private final PersonIdGenerator personIdGenerator;
+    private final PersonStatsService personStatsService;
+    private final Queue<Person> queue = new ConcurrentLinkedQueue<>();
+    private final AtomicInteger queueSize = new AtomicInteger();
+    private final Counter queuedCounter;
+    private final Counter writtenCounter;
+    private final Counter failedCounter;
+    private final Counter rejectedCounter;
+    private volatile boolean accepting = true;
+    private Thread writer;
+
+    /**
+     * @param personStatsService keeps running stats when they are enabled, or null
+     */
+    @Autowired
+    public PersonWriteBehindService(@Qualifier("MongoDBRepo") PersonRepo personRepo,
+        @Value("${person.write-behind.capacity:10000}") int capacity,
+        @Value("${person.write-behind.batch-size:500}") int batchSize,
+        @Value("${person.write-behind.flush-interval:50ms}") Duration flushInterval,
+        @Value("${person.write-behind.max-retries:3}") int maxRetries,
+        @Value("${person.write-behind.shutdown-timeout:30s}") Duration shutdownTimeout,
+        MeterRegistry meterRegistry, PersonIdGenerator personIdGenerator,
+        @Nullable PersonStatsService personStatsService) {
+        if (capacity <= 0 || batchSize <= 0) {
+            throw new IllegalArgumentException(
+                "Write-behind capacity and batch size must be greater than zero");
+        }
+
+        this.personRepo = personRepo;
+        this.capacity = capacity;
+        this.batchSize = batchSize;
+        this.flushIntervalNanos = flushInterval.toNanos();
+        this.maxRetries = maxRetries;
+        this.shutdownTimeout = shutdownTimeout;
+        this.personIdGenerator = personIdGenerator;
+        this.personStatsService = personStatsService;
+        this.queuedCounter = meterRegistry.counter("person.write-behind.queued");
+        this.writtenCounter = meterRegistry.counter("person.write-behind.written");
+        this.failedCounter = meterRegistry.counter("person.write-behind.failed");
+        this.rejectedCounter = meterRegistry.counter("person.write-behind.rejected");
+        Gauge.builder("person.write-behind.queue.size", queueSize, AtomicInteger::get)
+             .register(meterRegistry);
+    }
+
+    @PostConstruct
+    public void start() {
+        writer = new Thread(this::writeLoop, "person-write-behind");
+        writer.start();
+    }
+
+    /**
+     * Queues a validated person for writing and returns it with its generated id and initial
+     * version, as a synchronous save would.
+     */
+    public Person enqueue(Person person) {
+        if (!accepting) {
+            throw new IllegalStateException(
+                "Person writes are no longer accepted during shutdown");
+        }
+
+        if (queueSize.incrementAndGet() > capacity) {
+            queueSize.decrementAndGet();
+            rejectedCounter.increment();
+            throw new PersonWriteQueueFullException(
+                String.format("Person write queue is full at %d people, retry later", capacity));
+        }
+
+        Person queuedPerson = new Person(personIdGenerator.nextId(), person.getName(),
+            person.getWeight(), person.getHeight(), person.getDateOfBirth(), person.getGender(),
+            0L);
+        queue.offer(queuedPerson);
+        queuedCounter.increment();
+
+        if (queueSize.get() >= batchSize) {
+            LockSupport.unpark(writer);
+        }
+
+        return queuedPerson;
+    }
+
+    public int getQueueSize() {
+        return queueSize.get();
+    }
+
+    @PreDestroy
+    public void drain() throws InterruptedException {
+        accepting = false;
+        LockSupport.unpark(writer);
+        writer.join(shutdownTimeout.toMillis());
+
+        if (writer.isAlive()) {
+            LOGGER.error("Gave up draining the person write queue with {} people still queued",
+                queueSize.get());
+            writer.interrupt();
+            return;
+        }
+
+        // Picks up saves that passed the accepting check just before it was cleared.
+        flushQueued();
+    }
+
+    private void writeLoop() {
+        while (accepting || !queue.isEmpty()) {
+            if (accepting && queueSize.get() < batchSize) {
+                LockSupport.parkNanos(this, flushIntervalNanos);
+            }
+
+            flushQueued();
+        }
+    }
+
+    private void flushQueued() {
+        List<Person> batch = new ArrayList<>(batchSize);
+        Person person;
+
+        while ((person = queue.poll()) != null) {
+            queueSize.decrementAndGet();
+            batch.add(person);
+
+            if (batch.size() == batchSize) {
+                write(batch);
+                batch = new ArrayList<>(batchSize);
+            }
+        }
+
+        if (!batch.isEmpty()) {
+            write(batch);
+        }
+    }
+
+    private void write(List<Person> batch) {
+        for (int attempt = 0; ; attempt++) {
+            try {
+                personRepo.insertAll(batch);
+                writtenCounter.increment(batch.size());
+                recordWritten(batch, Set.of());
+                return;
+            } catch (BulkOperationException exception) {
+                reportRejected(batch, exception);
+                return;
+            } catch (RuntimeException exception) {
+                if (attempt >= maxRetries || Thread.currentThread().isInterrupted()) {
+                    failedCounter.increment(batch.size());
+                    LOGGER.error("Dropped {} queued people after {} attempts, ids: {}",
+                        batch.size(), attempt + 1, ids(batch), exception);
+                    return;
+                }
+
+                LOGGER.warn("Writing {} queued people failed, retrying", batch.size(), exception);
+                LockSupport.parkNanos(TimeUnit.MILLISECONDS.toNanos(100) << attempt);
+            }
+        }
+    }
+
+    private void reportRejected(List<Person> batch, BulkOperationException exception) {
+        List<BulkWriteError> errors = exception.getErrors();
+        writtenCounter.increment(batch.size() - errors.size());
+        failedCounter.increment(errors.size());
+        Set<Integer> rejectedIndexes = new HashSet<>();
+
+        for (BulkWriteError error : errors) {
+            rejectedIndexes.add(error.getIndex());
+            LOGGER.error("Dropped queued person with id {}: {}", batch.get(error.getIndex())
+                .getId(), error.getMessage());
+        }
+
+        recordWritten(batch, rejectedIndexes);
+    }
+
+    private void recordWritten(List<Person> batch, Set<Integer> rejectedIndexes) {
+        if (personStatsService == null) {
+            return;
+        }
+
+        for (int i = 0; i < batch.size(); i++) {
+            if (!rejectedIndexes.contains(i)) {
+                personStatsService.personAdded(batch.get(i));
+            }
+        }
+    }
+
+    private static List<UUID> ids(List<Person> batch) {
+        List<UUID> ids = new ArrayList<>(batch.size());
+
+        for (Person person : batch) {
+            ids.add(person.getId());
+        }
+
+        return ids;
+    }
+}
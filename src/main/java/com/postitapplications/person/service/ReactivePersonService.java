@@ -0,0 +1,57 @@
+package com.postitapplications.person.service;
+
+import com.mongodb.client.result.DeleteResult;
+import com.mongodb.client.result.UpdateResult;
+import com.postitapplications.person.document.Person;
+import com.postitapplications.person.repository.ReactivePersonRepo;
+import com.postitapplications.person.utility.PersonValidator;
+import java.util.UUID;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.context.annotation.Profile;
+import org.springframework.stereotype.Service;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+
+@Profile("reactive")
+@Service
+public class ReactivePersonService {
+
+    private final ReactivePersonRepo personRepo;
+
+    @Autowired
+    public ReactivePersonService(@Qualifier("ReactiveMongoDBRepo") ReactivePersonRepo personRepo) {
+        this.personRepo = personRepo;
+    }
+
+    public Mono<Person> savePerson(Person person) {
+        return Mono.fromRunnable(() -> PersonValidator.validatePerson(person))
+                   .then(Mono.defer(() -> personRepo.save(person)));
+    }
+
+    public Flux<Person> getAllPeople() {
+        return personRepo.findAll();
+    }
+
+    public Flux<Person> getPeople(UUID after, int limit) {
+        return Mono.fromRunnable(() -> PersonValidator.validatePageLimit(limit))
+                   .thenMany(Flux.defer(() -> personRepo.findAll(after, limit)));
+    }
+
+    public Mono<Person> getPersonById(UUID id) {
+        return Mono.fromRunnable(() -> PersonValidator.validatePersonId(id))
+                   .then(Mono.defer(() -> personRepo.findById(id)));
+    }
+
+    public Mono<UpdateResult> updatePerson(Person person) {
+        return Mono.fromRunnable(() -> {
+            PersonValidator.validatePerson(person);
+            PersonValidator.validatePersonId(person.getId());
+        }).then(Mono.defer(() -> personRepo.update(person)));
+    }
+
+    public Mono<DeleteResult> deletePersonById(UUID id) {
+        return Mono.fromRunnable(() -> PersonValidator.validatePersonId(id))
+                   .then(Mono.defer(() -> personRepo.removeById(id)));
+    }
+}
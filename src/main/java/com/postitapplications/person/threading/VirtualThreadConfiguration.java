@@ -0,0 +1,77 @@
+package com.postitapplications.person.threading;
+
+import com.mongodb.MongoClientSettings;
+import com.postitapplications.person.repository.ConcurrencyLimitedPersonRepo;
+import com.postitapplications.person.repository.PersonRepoDecoratingPostProcessor;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnWebApplication;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnWebApplication.Type;
+import org.springframework.boot.autoconfigure.mongo.MongoClientSettingsBuilderCustomizer;
+import org.springframework.boot.web.embedded.tomcat.TomcatProtocolHandlerCustomizer;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.core.task.support.TaskExecutorAdapter;
+import org.springframework.web.servlet.config.annotation.AsyncSupportConfigurer;
+import org.springframework.web.servlet.config.annotation.WebMvcConfigurer;
+
+@Configuration
+@ConditionalOnWebApplication(type = Type.SERVLET)
+@ConditionalOnProperty(value = "person.virtual-threads.enabled", havingValue = "true")
+public class VirtualThreadConfiguration {
+
+    public static final int CONCURRENCY_LIMIT_ORDER = 0;
+
+    @Bean(destroyMethod = "close")
+    public ExecutorService virtualThreadExecutor() {
+        return Executors.newVirtualThreadPerTaskExecutor();
+    }
+
+    @Bean
+    public TomcatProtocolHandlerCustomizer<?> virtualThreadProtocolHandlerCustomizer(
+        ExecutorService virtualThreadExecutor) {
+        return protocolHandler -> protocolHandler.setExecutor(virtualThreadExecutor);
+    }
+
+    @Bean
+    public WebMvcConfigurer virtualThreadAsyncSupportConfigurer(
+        ExecutorService virtualThreadExecutor) {
+        return new WebMvcConfigurer() {
+            @Override
+            public void configureAsyncSupport(AsyncSupportConfigurer configurer) {
+                configurer.setTaskExecutor(new TaskExecutorAdapter(virtualThreadExecutor));
+            }
+        };
+    }
+
+    /**
+     * Lets as many queries run at once as the driver has pooled connections, so virtual threads
+     * wait on the semaphore rather than in the driver's pool wait queue. The pool size is worked
+     * out the way Spring Boot builds the client, so a maxPoolSize in the connection string counts.
+     * Setting person.virtual-threads.max-concurrent-queries overrides it.
+     */
+    @Bean
+    public static PersonRepoDecoratingPostProcessor concurrencyLimitedPersonRepoPostProcessor(
+        @Value("${person.virtual-threads.max-concurrent-queries:0}") int maxConcurrentQueries,
+        ObjectProvider<MongoClientSettings> mongoClientSettings,
+        ObjectProvider<MongoClientSettingsBuilderCustomizer> mongoClientSettingsCustomizers) {
+        return new PersonRepoDecoratingPostProcessor(CONCURRENCY_LIMIT_ORDER,
+            personRepo -> new ConcurrencyLimitedPersonRepo(personRepo,
+                maxConcurrentQueries > 0 ? maxConcurrentQueries
+                    : connectionPoolMaxSize(mongoClientSettings, mongoClientSettingsCustomizers)));
+    }
+
+    private static int connectionPoolMaxSize(
+        ObjectProvider<MongoClientSettings> mongoClientSettings,
+        ObjectProvider<MongoClientSettingsBuilderCustomizer> mongoClientSettingsCustomizers) {
+        MongoClientSettings settings = mongoClientSettings
+            .getIfAvailable(() -> MongoClientSettings.builder().build());
+        MongoClientSettings.Builder builder = MongoClientSettings.builder(settings);
+        mongoClientSettingsCustomizers.orderedStream()
+                                      .forEach(customizer -> customizer.customize(builder));
+        return builder.build().getConnectionPoolSettings().getMaxSize();
+    }
+}
@@ -0,0 +1,94 @@
+package com.postitapplications.person.utility;
+
+import java.time.LocalDate;
+
+public final class DateOfBirthFormat {
+
+    private final static int LENGTH = 10;
+    private final static int[] DAYS_IN_MONTH = {31, 28, 31, 30, 31, 30, 31, 31, 30, 31, 30, 31};
+
+    private DateOfBirthFormat() {
+    }
+
+    /**
+     * Checks that a date is a real calendar date in dd/MM/yyyy format without allocating or
+     * throwing. Uses the proleptic Gregorian calendar, so leap years follow the 4/100/400 rule.
+     */
+    public static boolean isValid(String date) {
+        if (date == null || date.length() != LENGTH || date.charAt(2) != '/'
+            || date.charAt(5) != '/') {
+            return false;
+        }
+
+        int day = parseDigits(date, 0, 2);
+        int month = parseDigits(date, 3, 5);
+        int year = parseDigits(date, 6, 10);
+
+        if (day < 1 || month < 1 || month > 12 || year < 1) {
+            return false;
+        }
+
+        return day <= daysInMonth(month, year);
+    }
+
+    /**
+     * Converts a date that has passed {@link #isValid(String)} to days since 1970-01-01, which is
+     * how dates of birth are stored.
+     */
+    public static int toEpochDay(String date) {
+        if (!isValid(date)) {
+            throw new IllegalArgumentException(
+                String.format("%s is not a valid dd/MM/yyyy date", date));
+        }
+
+        return (int) LocalDate.of(parseDigits(date, 6, 10), parseDigits(date, 3, 5),
+            parseDigits(date, 0, 2)).toEpochDay();
+    }
+
+    public static String fromEpochDay(int epochDay) {
+        LocalDate date = LocalDate.ofEpochDay(epochDay);
+        char[] chars = new char[LENGTH];
+        writeDigits(chars, 0, 2, date.getDayOfMonth());
+        chars[2] = '/';
+        writeDigits(chars, 3, 5, date.getMonthValue());
+        chars[5] = '/';
+        writeDigits(chars, 6, 10, date.getYear());
+
+        return new String(chars);
+    }
+
+    private static void writeDigits(char[] chars, int start, int end, int value) {
+        for (int i = end - 1; i >= start; i--) {
+            chars[i] = (char) ('0' + value % 10);
+            value /= 10;
+        }
+    }
+
+    private static int parseDigits(String date, int start, int end) {
+        int value = 0;
+
+        for (int i = start; i < end; i++) {
+            int digit = date.charAt(i) - '0';
+
+            if (digit < 0 || digit > 9) {
+                return -1;
+            }
+
+            value = value * 10 + digit;
+        }
+
+        return value;
+    }
+
+    private static int daysInMonth(int month, int year) {
+        if (month == 2 && isLeapYear(year)) {
+            return 29;
+        }
+
+        return DAYS_IN_MONTH[month - 1];
+    }
+
+    private static boolean isLeapYear(int year) {
+        return (year % 4 == 0 && year % 100 != 0) || year % 400 == 0;
+    }
+}
@@ -5,13 +5,17 @@ import com.postitapplications.exception.exceptions.NullOrEmptyException;
 import com.postitapplications.exception.exceptions.ValidationException;
 import com.postitapplications.person.document.Person;
 import com.postitapplications.person.document.Person.Gender;
-import java.text.ParseException;
-import java.text.SimpleDateFormat;
+import com.postitapplications.person.document.PersonFields;
+import java.util.List;
 import java.util.UUID;
 
 public class PersonValidator {
 
-    private final static String DATE_FORMAT = "dd/MM/yyyy";
+    private final static int MAX_PAGE_LIMIT = 1000;
+    private final static int MAX_BIRTH_YEAR = 9999;
+    private final static int MAX_AGE = 150;
+    private final static int MAX_SEARCH_OFFSET = 10000;
+    private final static List<String> SEARCH_SORTS = List.of("id", "name", "dateOfBirth");
 
     public static void validatePerson(Person person) {
         if (person == null) {
@@ -19,35 +23,57 @@ public class PersonValidator {
         }
 
         validateName(person.getName());
-        validateWeight(person.getWeight());
-        validateHeight(person.getHeight());
+        validateWeight(person);
+        validateHeight(person);
         validateDateOfBirth(person.getDateOfBirth());
         validateGender(person.getGender());
     }
 
+    public static void validatePersonPatch(Person person) {
+        if (person == null) {
+            throw new ValidationException("Person cannot be null");
+        }
+
+        if (person.getName() != null) {
+            validateName(person.getName());
+        }
+
+        if (person.hasWeight()) {
+            validateWeight(person);
+        }
+
+        if (person.hasHeight()) {
+            validateHeight(person);
+        }
+
+        if (person.getDateOfBirth() != null) {
+            validateDateOfBirth(person.getDateOfBirth());
+        }
+    }
+
     private static void validateName(String personName) {
         if (personName == null || personName.isEmpty()) {
             throw new NullOrEmptyException("Person's name cannot be null or empty");
         }
     }
 
-    private static void validateWeight(Float personWeight) {
-        if (personWeight == null) {
+    private static void validateWeight(Person person) {
+        if (!person.hasWeight()) {
             throw new ValidationException("Person's weight cannot be null");
         }
 
-        if (personWeight <= 0) {
+        if (person.getWeight() <= 0) {
             throw new IllegalArgumentException(
                 "Person's weight cannot be less than or equal to zero");
         }
     }
 
-    private static void validateHeight(Float personHeight) {
-        if (personHeight == null) {
+    private static void validateHeight(Person person) {
+        if (!person.hasHeight()) {
             throw new ValidationException("Person's height cannot be null");
         }
 
-        if (personHeight <= 0) {
+        if (person.getHeight() <= 0) {
             throw new BusinessLogicException(
                 "Person's height cannot be less than or equal to zero");
         }
@@ -58,12 +84,7 @@ public class PersonValidator {
             throw new NullOrEmptyException("Person's date of birth cannot be null or empty");
         }
 
-        SimpleDateFormat simpleDateFormat = new SimpleDateFormat(DATE_FORMAT);
-        simpleDateFormat.setLenient(false);
-
-        try {
-            simpleDateFormat.parse(dateOfBirth);
-        } catch (ParseException exception) {
+        if (!DateOfBirthFormat.isValid(dateOfBirth)) {
             throw new BusinessLogicException("Person's date of birth must be in dd/MM/yyyy format");
         }
     }
@@ -79,4 +100,77 @@ public class PersonValidator {
             throw new ValidationException("Id cannot be null");
         }
     }
+
+    public static void validateLookupIds(List<UUID> ids) {
+        if (ids == null || ids.isEmpty()) {
+            throw new NullOrEmptyException("Ids cannot be null or empty");
+        }
+
+        if (ids.size() > MAX_PAGE_LIMIT) {
+            throw new BusinessLogicException(
+                String.format("Cannot look up more than %d ids at once", MAX_PAGE_LIMIT));
+        }
+
+        for (UUID id : ids) {
+            validatePersonId(id);
+        }
+    }
+
+    public static void validateFields(List<String> fields) {
+        if (fields == null || fields.isEmpty()) {
+            throw new NullOrEmptyException("Fields cannot be null or empty");
+        }
+
+        for (String field : fields) {
+            if (!PersonFields.NAMES.contains(field)) {
+                throw new BusinessLogicException(String
+                    .format("Fields must be any of: %s", String.join(", ", PersonFields.NAMES)));
+            }
+        }
+    }
+
+    public static void validatePageLimit(int limit) {
+        if (limit <= 0 || limit > MAX_PAGE_LIMIT) {
+            throw new BusinessLogicException(
+                String.format("Page limit must be between 1 and %d", MAX_PAGE_LIMIT));
+        }
+    }
+
+    public static void validateSearch(String dateOfBirth, Integer birthYear, Integer minAge,
+        Integer maxAge, String sort, int page, int limit) {
+        if (dateOfBirth != null) {
+            validateDateOfBirth(dateOfBirth);
+        }
+
+        if (birthYear != null && (birthYear < 1 || birthYear > MAX_BIRTH_YEAR)) {
+            throw new BusinessLogicException(
+                String.format("Birth year must be between 1 and %d", MAX_BIRTH_YEAR));
+        }
+
+        if (isOutOfAgeRange(minAge) || isOutOfAgeRange(maxAge)) {
+            throw new BusinessLogicException(
+                String.format("Age must be between 0 and %d", MAX_AGE));
+        }
+
+        if (!SEARCH_SORTS.contains(sort)) {
+            throw new BusinessLogicException(
+                String.format("Sort must be one of: %s", String.join(", ", SEARCH_SORTS)));
+        }
+
+        if (page < 0) {
+            throw new BusinessLogicException("Page cannot be negative");
+        }
+
+        validatePageLimit(limit);
+
+        if ((long) page * limit > MAX_SEARCH_OFFSET) {
+            throw new BusinessLogicException(String.format(
+                "Search pages cannot start after the first %d people, narrow the search instead",
+                MAX_SEARCH_OFFSET));
+        }
+    }
+
+    private static boolean isOutOfAgeRange(Integer age) {
+        return age != null && (age < 0 || age > MAX_AGE);
+    }
 }
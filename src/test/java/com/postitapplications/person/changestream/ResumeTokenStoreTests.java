@@ -0,0 +1,69 @@
+package com.postitapplications.person.changestream;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import org.bson.BsonDocument;
+import org.bson.BsonString;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.data.mongo.DataMongoTest;
+import org.springframework.data.mongodb.core.MongoTemplate;
+import org.springframework.test.context.junit.jupiter.SpringExtension;
+
+@DataMongoTest
+@ExtendWith(SpringExtension.class)
+public class ResumeTokenStoreTests {
+
+    @Autowired
+    private MongoTemplate mongoTemplate;
+    private ResumeTokenStore resumeTokenStore;
+
+    @BeforeEach
+    public void setUp() {
+        resumeTokenStore = new ResumeTokenStore(mongoTemplate);
+    }
+
+    @AfterEach
+    public void tearDown() {
+        mongoTemplate.dropCollection(ResumeTokenStore.RESUME_TOKENS);
+    }
+
+    @Test
+    public void loadShouldReturnNullWhenNoTokenHasBeenSaved() {
+        assertThat(resumeTokenStore.load("person-service")).isNull();
+    }
+
+    @Test
+    public void loadShouldReturnTheLastSavedToken() {
+        resumeTokenStore.save("person-service", token("first"));
+        resumeTokenStore.save("person-service", token("second"));
+
+        assertThat(resumeTokenStore.load("person-service")).isEqualTo(token("second"));
+        assertThat(mongoTemplate.getCollection(ResumeTokenStore.RESUME_TOKENS)
+                                .countDocuments()).isEqualTo(1);
+    }
+
+    @Test
+    public void saveShouldKeepTokensSeparatePerConsumer() {
+        resumeTokenStore.save("person-service", token("first"));
+        resumeTokenStore.save("person-report", token("second"));
+
+        assertThat(resumeTokenStore.load("person-service")).isEqualTo(token("first"));
+        assertThat(resumeTokenStore.load("person-report")).isEqualTo(token("second"));
+    }
+
+    @Test
+    public void clearShouldRemoveTheSavedToken() {
+        resumeTokenStore.save("person-service", token("first"));
+        resumeTokenStore.clear("person-service");
+
+        assertThat(resumeTokenStore.load("person-service")).isNull();
+    }
+
+    private static BsonDocument token(String data) {
+        return new BsonDocument("_data", new BsonString(data));
+    }
+}
@@ -1,6 +1,9 @@
 package com.postitapplications.person.controller;
 
+import static org.assertj.core.api.Assertions.assertThat;
 import static org.hamcrest.Matchers.containsString;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.eq;
 import static org.mockito.Mockito.when;
 import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.delete;
 import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
@@ -8,14 +11,25 @@ import static org.springframework.test.web.servlet.request.MockMvcRequestBuilder
 import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.put;
 import static org.springframework.test.web.servlet.result.MockMvcResultHandlers.print;
 import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.content;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.header;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.jsonPath;
 import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
 
+import com.fasterxml.jackson.databind.JsonNode;
 import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.dataformat.cbor.CBORFactory;
+import com.fasterxml.jackson.dataformat.smile.SmileFactory;
 import com.mongodb.client.result.DeleteResult;
 import com.mongodb.client.result.UpdateResult;
 import com.postitapplications.person.document.Person;
 import com.postitapplications.person.document.Person.Gender;
+import com.postitapplications.person.document.PersonFields;
+import com.postitapplications.person.exception.PersonNameTooLongException;
+import com.postitapplications.person.json.PersonBinaryFormatConfiguration;
 import com.postitapplications.person.repository.PersonRepository;
+import io.micrometer.core.instrument.MeterRegistry;
+import java.util.ArrayList;
+import java.util.List;
 import java.util.UUID;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
@@ -24,6 +38,7 @@ import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
 import org.springframework.boot.test.context.SpringBootTest;
 import org.springframework.boot.test.mock.mockito.MockBean;
+import org.springframework.http.HttpHeaders;
 import org.springframework.http.MediaType;
 import org.springframework.test.web.servlet.MockMvc;
 
@@ -33,6 +48,8 @@ public class PersonControllerTests {
 
     @Autowired
     private MockMvc mockMvc;
+    @Autowired
+    private MeterRegistry meterRegistry;
     @MockBean
     private PersonRepository personRepository;
     private ObjectMapper objectMapper;
@@ -64,6 +81,19 @@ public class PersonControllerTests {
             content().string(containsString("Person's name cannot be null or empty")));
     }
 
+    @Test
+    public void savePersonShouldReturnBadRequestWhenTheNameDoesNotFitTheStore() throws Exception {
+        Person personToSave = new Person(null, "John Smith", 1f, 1f, "10/10/2000", Gender.MALE);
+        when(personRepository.save(any(Person.class)))
+            .thenThrow(new PersonNameTooLongException("Person's name is too long"));
+
+        mockMvc.perform(post("/person").contentType(MediaType.APPLICATION_JSON)
+                                       .content(objectMapper.writeValueAsString(personToSave))
+                                       .accept(MediaType.APPLICATION_JSON)).andDo(print())
+               .andExpect(status().isBadRequest())
+               .andExpect(content().string(containsString("Person's name is too long")));
+    }
+
     @Test
     public void savePersonShouldReturnExpectedErrorMessageWhenPersonWeightIsNull()
         throws Exception {
@@ -186,6 +216,14 @@ public class PersonControllerTests {
             .string(containsString("Person with id: " + nonExistingPersonId + " was not found")));
     }
 
+    @Test
+    public void getPersonByIdShouldReturnExpectedErrorMessageWhenIdIsNotAUuid()
+        throws Exception {
+        mockMvc.perform(get("/person/not-a-uuid").accept(MediaType.APPLICATION_JSON))
+               .andDo(print()).andExpect(status().isBadRequest())
+               .andExpect(content().string(containsString("not-a-uuid is not a valid UUID")));
+    }
+
     @Test
     public void updatePersonShouldReturnExpectedErrorMessageWhenPersonIsNotFound()
         throws Exception {
@@ -373,4 +411,166 @@ public class PersonControllerTests {
                .andDo(print()).andExpect(status().isNotFound()).andExpect(content()
             .string(containsString("Person with id: " + nonExistingPersonId + " was not found")));
     }
+
+    @Test
+    public void savePersonShouldCountValidationFailuresByExceptionType() throws Exception {
+        Person personToSave = new Person(null, "John Smith", 1f, 1f, "10/10/2000", null);
+        double failuresBefore = meterRegistry.counter("person.validation.failures", "exception",
+            "ValidationException").count();
+
+        mockMvc.perform(post("/person").contentType(MediaType.APPLICATION_JSON)
+                                       .content(objectMapper.writeValueAsString(personToSave))
+                                       .accept(MediaType.APPLICATION_JSON)).andDo(print())
+               .andExpect(status().isBadRequest());
+
+        assertThat(meterRegistry.counter("person.validation.failures", "exception",
+            "ValidationException").count()).isEqualTo(failuresBefore + 1);
+    }
+
+    @Test
+    public void getPeopleShouldReturnTheFirstPageAsAJsonArray() throws Exception {
+        UUID personId = UUID.randomUUID();
+
+        when(personRepository.findAll(null, 100)).thenReturn(List.of(
+            new Person(personId, "John Smith", 1f, null, "10/10/2000", Gender.MALE)));
+
+        mockMvc.perform(get("/person").accept(MediaType.APPLICATION_JSON)).andDo(print())
+               .andExpect(status().isOk())
+               .andExpect(content().contentTypeCompatibleWith(MediaType.APPLICATION_JSON))
+               .andExpect(header().doesNotExist(HttpHeaders.LINK))
+               .andExpect(content().json("[{'id':'" + personId + "','name':'John Smith',"
+                   + "'weight':1.0,'height':null,'dateOfBirth':'10/10/2000','gender':'MALE'}]"));
+    }
+
+    @Test
+    public void getPeopleShouldLinkToTheNextPageWhenTheFirstPageIsFull() throws Exception {
+        List<Person> people = new ArrayList<>();
+
+        for (int i = 0; i < 100; i++) {
+            people.add(
+                new Person(UUID.randomUUID(), "John Smith", 1f, 1f, "10/10/2000", Gender.MALE));
+        }
+
+        when(personRepository.findAll(null, 100)).thenReturn(people);
+
+        mockMvc.perform(get("/person").accept(MediaType.APPLICATION_JSON)).andDo(print())
+               .andExpect(status().isOk()).andExpect(header().string(HttpHeaders.LINK,
+            "<http://localhost/person?limit=100&after=" + people.get(99).getId()
+                + ">; rel=\"next\""));
+    }
+
+    @Test
+    public void getPeopleShouldReturnAnEmptyJsonArrayWhenThereAreNoPeople() throws Exception {
+        when(personRepository.findAll(null, 100)).thenReturn(List.of());
+
+        mockMvc.perform(get("/person").accept(MediaType.APPLICATION_JSON)).andDo(print())
+               .andExpect(status().isOk()).andExpect(content().string("[]"));
+    }
+
+    @Test
+    public void getPersonByIdShouldReturnSmileWhenSmileIsAccepted() throws Exception {
+        UUID personId = UUID.randomUUID();
+        ObjectMapper smileMapper = new ObjectMapper(new SmileFactory());
+
+        when(personRepository.findById(personId)).thenReturn(
+            new Person(personId, "John Smith", 1f, 1f, "10/10/2000", Gender.MALE));
+
+        byte[] body = mockMvc.perform(get("/person/" + personId)
+            .accept(PersonBinaryFormatConfiguration.APPLICATION_SMILE)).andExpect(status().isOk())
+                             .andExpect(content().contentTypeCompatibleWith(
+                                 PersonBinaryFormatConfiguration.APPLICATION_SMILE))
+                             .andReturn().getResponse().getContentAsByteArray();
+
+        assertThat(smileMapper.readValue(body, Person.class).getName()).isEqualTo("John Smith");
+    }
+
+    @Test
+    public void getPersonByIdShouldReturnSmileErrorBodyWhenSmileIsAccepted() throws Exception {
+        UUID nonExistingPersonId = UUID.randomUUID();
+        ObjectMapper smileMapper = new ObjectMapper(new SmileFactory());
+
+        when(personRepository.findById(nonExistingPersonId)).thenReturn(null);
+
+        byte[] body = mockMvc.perform(get("/person/" + nonExistingPersonId)
+            .accept(PersonBinaryFormatConfiguration.APPLICATION_SMILE))
+                             .andExpect(status().isNotFound()).andReturn().getResponse()
+                             .getContentAsByteArray();
+
+        assertThat(smileMapper.readTree(body).toString())
+            .contains("Person with id: " + nonExistingPersonId + " was not found");
+    }
+
+    @Test
+    public void savePeopleShouldAcceptAndReturnCbor() throws Exception {
+        ObjectMapper cborMapper = new ObjectMapper(new CBORFactory());
+        byte[] people = cborMapper.writeValueAsBytes(
+            List.of(new Person(null, "John Smith", 1f, 1f, "10/10/2000", Gender.MALE)));
+
+        byte[] body = mockMvc.perform(post("/person/batch").contentType(MediaType.APPLICATION_CBOR)
+                                                           .content(people)
+                                                           .accept(MediaType.APPLICATION_CBOR))
+                             .andExpect(status().isOk()).andReturn().getResponse()
+                             .getContentAsByteArray();
+        JsonNode batchResult = cborMapper.readTree(body);
+
+        assertThat(batchResult.get("savedCount").asInt()).isEqualTo(1);
+    }
+
+    @Test
+    public void savePeopleShouldReadAJsonArrayOnePersonAtATime() throws Exception {
+        String people = "[" + objectMapper.writeValueAsString(
+            new Person(null, "John Smith", 1f, 1f, "10/10/2000", Gender.MALE))
+            + ",{\"name\": }]";
+
+        mockMvc.perform(post("/person/batch").contentType(MediaType.APPLICATION_JSON)
+                                             .content(people).accept(MediaType.APPLICATION_JSON))
+               .andDo(print()).andExpect(status().isOk())
+               .andExpect(jsonPath("$.savedCount").value(1))
+               .andExpect(jsonPath("$.failedCount").value(1));
+    }
+
+    @Test
+    public void savePeopleShouldReturnBadRequestWhenTheBodyIsNotAnArray() throws Exception {
+        Person person = new Person(null, "John Smith", 1f, 1f, "10/10/2000", Gender.MALE);
+
+        mockMvc.perform(post("/person/batch").contentType(MediaType.APPLICATION_JSON)
+                                             .content(objectMapper.writeValueAsString(person))
+                                             .accept(MediaType.APPLICATION_JSON))
+               .andDo(print()).andExpect(status().isBadRequest())
+               .andExpect(content().string(containsString("People must be sent as an array")));
+    }
+
+    @Test
+    public void getPersonByIdShouldOnlyReturnTheRequestedFields() throws Exception {
+        UUID personId = UUID.randomUUID();
+
+        when(personRepository.findById(eq(personId), any(PersonFields.class))).thenReturn(
+            new Person(personId, "John Smith", null, null, null, null));
+
+        mockMvc.perform(get("/person/" + personId).param("fields", "name")
+                                                  .accept(MediaType.APPLICATION_JSON))
+               .andDo(print()).andExpect(status().isOk())
+               .andExpect(content().json("{'id':'" + personId + "','name':'John Smith'}", true));
+    }
+
+    @Test
+    public void getPeopleShouldOnlyReturnTheRequestedFields() throws Exception {
+        UUID personId = UUID.randomUUID();
+
+        when(personRepository.findAll(eq(null), eq(10), any(PersonFields.class))).thenReturn(
+            List.of(new Person(personId, "John Smith", null, null, null, Gender.MALE)));
+
+        mockMvc.perform(get("/person").param("fields", "name,gender").param("limit", "10")
+                                      .accept(MediaType.APPLICATION_JSON)).andDo(print())
+               .andExpect(status().isOk()).andExpect(content().json(
+            "[{'id':'" + personId + "','name':'John Smith','gender':'MALE'}]", true));
+    }
+
+    @Test
+    public void getPeopleShouldReturnExpectedErrorMessageWhenAFieldIsUnknown() throws Exception {
+        mockMvc.perform(get("/person").param("fields", "address")
+                                      .accept(MediaType.APPLICATION_JSON)).andDo(print())
+               .andExpect(status().isBadRequest())
+               .andExpect(content().string(containsString("Fields must be any of")));
+    }
 }
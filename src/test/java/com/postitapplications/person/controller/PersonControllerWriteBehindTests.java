@@ -0,0 +1,38 @@
+package com.postitapplications.person.controller;
+
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.post;
+import static org.springframework.test.web.servlet.result.MockMvcResultHandlers.print;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.jsonPath;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.postitapplications.person.document.Person;
+import com.postitapplications.person.document.Person.Gender;
+import com.postitapplications.person.repository.PersonRepository;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.boot.test.mock.mockito.MockBean;
+import org.springframework.http.MediaType;
+import org.springframework.test.web.servlet.MockMvc;
+
+@SpringBootTest(properties = "person.write-behind.enabled=true")
+@AutoConfigureMockMvc
+public class PersonControllerWriteBehindTests {
+
+    @Autowired
+    private MockMvc mockMvc;
+    @MockBean
+    private PersonRepository personRepository;
+
+    @Test
+    public void savePersonShouldReturnAcceptedWhenTheSaveIsQueued() throws Exception {
+        Person personToSave = new Person(null, "John Smith", 1f, 1f, "10/10/2000", Gender.MALE);
+
+        mockMvc.perform(post("/person").contentType(MediaType.APPLICATION_JSON)
+                                       .content(new ObjectMapper().writeValueAsString(personToSave))
+                                       .accept(MediaType.APPLICATION_JSON)).andDo(print())
+               .andExpect(status().isAccepted()).andExpect(jsonPath("$.id").isNotEmpty());
+    }
+}
@@ -0,0 +1,74 @@
+package com.postitapplications.person.controller;
+
+import static org.hamcrest.Matchers.containsString;
+import static org.mockito.Mockito.when;
+
+import com.postitapplications.person.document.Person;
+import com.postitapplications.person.document.Person.Gender;
+import com.postitapplications.person.repository.ReactivePersonRepository;
+import java.util.UUID;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.reactive.AutoConfigureWebTestClient;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.boot.test.mock.mockito.MockBean;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.MediaType;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.test.web.reactive.server.WebTestClient;
+import reactor.core.publisher.Mono;
+
+@SpringBootTest
+@ActiveProfiles("reactive")
+@AutoConfigureWebTestClient
+public class ReactivePersonControllerTests {
+
+    @Autowired
+    private WebTestClient webTestClient;
+    @MockBean
+    private ReactivePersonRepository personRepository;
+
+    @Test
+    public void getPersonByIdShouldReturnNotFoundBodyWhenPersonDoesNotExist() {
+        UUID nonExistingPersonId = UUID.randomUUID();
+
+        when(personRepository.findById(nonExistingPersonId)).thenReturn(Mono.empty());
+
+        webTestClient.get().uri("/person/{id}", nonExistingPersonId)
+                     .accept(MediaType.APPLICATION_JSON).exchange().expectStatus().isNotFound()
+                     .expectBody(String.class).value(containsString(
+            String.format("Person with id: %s was not found", nonExistingPersonId)));
+    }
+
+    @Test
+    public void getPersonByIdShouldReturnBadRequestBodyWhenIdIsNotAUuid() {
+        webTestClient.get().uri("/person/not-a-uuid").accept(MediaType.APPLICATION_JSON)
+                     .exchange().expectStatus().isBadRequest().expectBody(String.class)
+                     .value(containsString("not-a-uuid is not a valid UUID"));
+    }
+
+    @Test
+    public void deletePersonByIdShouldReturnBadRequestBodyWhenIdIsNotAUuid() {
+        webTestClient.delete().uri("/person/not-a-uuid").accept(MediaType.APPLICATION_JSON)
+                     .exchange().expectStatus().isBadRequest().expectBody(String.class)
+                     .value(containsString("not-a-uuid is not a valid UUID"));
+    }
+
+    @Test
+    public void savePersonShouldReturnBadRequestBodyWhenPersonNameIsEmpty() {
+        Person personToSave = new Person(null, "", 1f, 1f, "10/10/2000", Gender.MALE);
+
+        webTestClient.post().uri("/person").contentType(MediaType.APPLICATION_JSON)
+                     .bodyValue(personToSave).accept(MediaType.APPLICATION_JSON).exchange()
+                     .expectStatus().isBadRequest().expectBody(String.class)
+                     .value(containsString("Person's name cannot be null or empty"));
+    }
+
+    @Test
+    public void preflightRequestShouldAllowTheFrontEndOrigin() {
+        webTestClient.options().uri("/person").header(HttpHeaders.ORIGIN, "http://localhost:8081")
+                     .header(HttpHeaders.ACCESS_CONTROL_REQUEST_METHOD, "GET").exchange()
+                     .expectStatus().isOk().expectHeader()
+                     .valueEquals(HttpHeaders.ACCESS_CONTROL_ALLOW_ORIGIN, "http://localhost:8081");
+    }
+}
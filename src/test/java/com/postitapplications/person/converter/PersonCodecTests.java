@@ -0,0 +1,71 @@
+package com.postitapplications.person.converter;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import com.postitapplications.person.document.Person;
+import com.postitapplications.person.document.Person.Gender;
+import java.util.UUID;
+import org.bson.BsonDocument;
+import org.bson.BsonDocumentReader;
+import org.bson.BsonDocumentWriter;
+import org.bson.UuidRepresentation;
+import org.bson.codecs.DecoderContext;
+import org.bson.codecs.EncoderContext;
+import org.bson.codecs.UuidCodec;
+import org.junit.jupiter.api.Test;
+
+public class PersonCodecTests {
+
+    private final PersonCodec personCodec = new PersonCodec(
+        new UuidCodec(UuidRepresentation.STANDARD));
+
+    @Test
+    public void codecShouldRoundTripAPerson() {
+        UUID personId = UUID.randomUUID();
+        Person person = new Person(personId, "John Smith", 70.5f, 180f, "10/10/2000", Gender.MALE,
+            3L);
+
+        Person decodedPerson = decode(encode(person));
+
+        assertThat(decodedPerson.getId()).isEqualTo(personId);
+        assertThat(decodedPerson.getName()).isEqualTo("John Smith");
+        assertThat(decodedPerson.getWeight()).isEqualTo(70.5f);
+        assertThat(decodedPerson.getHeight()).isEqualTo(180f);
+        assertThat(decodedPerson.getDateOfBirth()).isEqualTo("10/10/2000");
+        assertThat(decodedPerson.getGender()).isEqualTo(Gender.MALE);
+        assertThat(decodedPerson.getVersion()).isEqualTo(3L);
+    }
+
+    @Test
+    public void codecShouldOmitAbsentFields() {
+        BsonDocument document = encode(
+            new Person(null, "John Smith", null, null, null, Gender.MALE));
+
+        assertThat(document.keySet()).containsExactly("name", "gender");
+        assertThat(decode(document).hasWeight()).isFalse();
+    }
+
+    @Test
+    public void codecShouldReadLegacyStringDateOfBirthAndSkipUnknownFields() {
+        BsonDocument document = BsonDocument.parse(
+            "{ 'dateOfBirth': '10/10/1990', 'weight': 70, '_class': 'Person' }");
+
+        Person person = decode(document);
+
+        assertThat(person.getDateOfBirth()).isEqualTo("10/10/1990");
+        assertThat(person.getBirthDay()).isNotNull();
+        assertThat(person.getWeight()).isEqualTo(70f);
+    }
+
+    private BsonDocument encode(Person person) {
+        BsonDocument document = new BsonDocument();
+        personCodec.encode(new BsonDocumentWriter(document), person,
+            EncoderContext.builder().build());
+        return document;
+    }
+
+    private Person decode(BsonDocument document) {
+        return personCodec.decode(new BsonDocumentReader(document),
+            DecoderContext.builder().build());
+    }
+}
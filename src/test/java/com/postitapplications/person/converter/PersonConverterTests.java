@@ -0,0 +1,61 @@
+package com.postitapplications.person.converter;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import com.postitapplications.person.document.Person;
+import com.postitapplications.person.document.Person.Gender;
+import java.util.UUID;
+import org.bson.Document;
+import org.junit.jupiter.api.Test;
+
+public class PersonConverterTests {
+
+    private final PersonReadConverter personReadConverter = new PersonReadConverter();
+    private final PersonWriteConverter personWriteConverter = new PersonWriteConverter();
+
+    @Test
+    public void convertersShouldRoundTripAPerson() {
+        UUID personId = UUID.randomUUID();
+        Person person = new Person(personId, "John Smith", 70.5f, 180f, "10/10/2000", Gender.MALE,
+            3L);
+
+        Person readPerson = personReadConverter.convert(personWriteConverter.convert(person));
+
+        assertThat(readPerson.getId()).isEqualTo(personId);
+        assertThat(readPerson.getName()).isEqualTo("John Smith");
+        assertThat(readPerson.getWeight()).isEqualTo(70.5f);
+        assertThat(readPerson.getHeight()).isEqualTo(180f);
+        assertThat(readPerson.getDateOfBirth()).isEqualTo("10/10/2000");
+        assertThat(readPerson.getGender()).isEqualTo(Gender.MALE);
+        assertThat(readPerson.getVersion()).isEqualTo(3L);
+    }
+
+    @Test
+    public void writeConverterShouldOmitAbsentWeightAndHeight() {
+        Document document = personWriteConverter
+            .convert(new Person(null, "John Smith", null, null, "10/10/2000", Gender.MALE));
+
+        assertThat(document.containsKey("weight")).isFalse();
+        assertThat(document.containsKey("height")).isFalse();
+        assertThat(document.containsKey("_id")).isFalse();
+    }
+
+    @Test
+    public void readConverterShouldTrackMissingWeightAndHeightAsAbsent() {
+        Person person = personReadConverter.convert(
+            new Document("_id", UUID.randomUUID()).append("name", "John Smith")
+                                                  .append("gender", "MALE"));
+
+        assertThat(person.hasWeight()).isFalse();
+        assertThat(person.hasHeight()).isFalse();
+    }
+
+    @Test
+    public void readConverterShouldReadLegacyStringDateOfBirth() {
+        Person person = personReadConverter.convert(
+            new Document("_id", UUID.randomUUID()).append("dateOfBirth", "10/10/1990"));
+
+        assertThat(person.getDateOfBirth()).isEqualTo("10/10/1990");
+        assertThat(person.getBirthDay()).isNotNull();
+    }
+}
@@ -0,0 +1,95 @@
+package com.postitapplications.person.id;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+import java.util.UUID;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.atomic.AtomicLong;
+import org.junit.jupiter.api.Test;
+
+public class TimeOrderedPersonIdGeneratorTests {
+
+    @Test
+    public void nextIdShouldReturnAVersion7IdWithTheCurrentTime() {
+        UUID id = new TimeOrderedPersonIdGenerator(() -> 1_700_000_000_000L).nextId();
+
+        assertThat(id.version()).isEqualTo(7);
+        assertThat(id.variant()).isEqualTo(2);
+        assertThat(TimeOrderedPersonIdGenerator.getTimestamp(id)).isEqualTo(1_700_000_000_000L);
+    }
+
+    @Test
+    public void nextIdShouldIncreaseWithinTheSameMillisecond() {
+        TimeOrderedPersonIdGenerator generator = new TimeOrderedPersonIdGenerator(() -> 1000L);
+        String previousId = generator.nextId().toString();
+
+        for (int i = 0; i < 10_000; i++) {
+            String id = generator.nextId().toString();
+
+            assertThat(id).isGreaterThan(previousId);
+            previousId = id;
+        }
+    }
+
+    @Test
+    public void nextIdShouldKeepIncreasingWhenTheClockGoesBackwards() {
+        AtomicLong clock = new AtomicLong(5000L);
+        TimeOrderedPersonIdGenerator generator = new TimeOrderedPersonIdGenerator(clock::get);
+        UUID firstId = generator.nextId();
+        clock.set(4000L);
+        UUID secondId = generator.nextId();
+
+        assertThat(secondId.toString()).isGreaterThan(firstId.toString());
+        assertThat(TimeOrderedPersonIdGenerator.getTimestamp(secondId)).isEqualTo(5000L);
+    }
+
+    @Test
+    public void nextIdShouldMoveToTheNextMillisecondWhenTheCounterRunsOut() {
+        TimeOrderedPersonIdGenerator generator = new TimeOrderedPersonIdGenerator(() -> 1000L);
+        UUID id = null;
+
+        for (int i = 0; i < 4097; i++) {
+            id = generator.nextId();
+        }
+
+        assertThat(TimeOrderedPersonIdGenerator.getTimestamp(id)).isEqualTo(1001L);
+        assertThat(id.version()).isEqualTo(7);
+    }
+
+    @Test
+    public void concurrentCallersShouldNeverShareAnId() throws Exception {
+        TimeOrderedPersonIdGenerator generator = new TimeOrderedPersonIdGenerator();
+        ExecutorService executorService = Executors.newFixedThreadPool(8);
+        List<Future<List<UUID>>> callers = new ArrayList<>();
+
+        try {
+            for (int caller = 0; caller < 8; caller++) {
+                callers.add(executorService.submit(() -> {
+                    List<UUID> ids = new ArrayList<>();
+
+                    for (int i = 0; i < 10_000; i++) {
+                        ids.add(generator.nextId());
+                    }
+
+                    return ids;
+                }));
+            }
+
+            Set<UUID> ids = new HashSet<>();
+
+            for (Future<List<UUID>> caller : callers) {
+                ids.addAll(caller.get());
+            }
+
+            assertThat(ids).hasSize(80_000);
+        } finally {
+            executorService.shutdownNow();
+        }
+    }
+}
@@ -0,0 +1,87 @@
+package com.postitapplications.person.migration;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import com.postitapplications.person.converter.PersonConversionConfiguration;
+import com.postitapplications.person.document.Person;
+import com.postitapplications.person.utility.DateOfBirthFormat;
+import java.util.UUID;
+import org.bson.Document;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.data.mongo.DataMongoTest;
+import org.springframework.context.annotation.Import;
+import org.springframework.data.domain.Sort.Direction;
+import org.springframework.data.mongodb.core.MongoTemplate;
+import org.springframework.data.mongodb.core.index.Index;
+import org.springframework.data.mongodb.core.index.IndexInfo;
+import org.springframework.test.context.junit.jupiter.SpringExtension;
+
+@DataMongoTest
+@Import(PersonConversionConfiguration.class)
+@ExtendWith(SpringExtension.class)
+public class BirthDayMigrationTests {
+
+    @Autowired
+    private MongoTemplate mongoTemplate;
+    private BirthDayMigration birthDayMigration;
+
+    @BeforeEach
+    public void setUp() {
+        for (int i = 0; i < 5; i++) {
+            mongoTemplate.insert(legacyPerson(UUID.randomUUID(), "10/10/2000"), "people");
+        }
+
+        birthDayMigration = new BirthDayMigration(mongoTemplate, 2, 0);
+    }
+
+    @AfterEach
+    public void tearDown() {
+        mongoTemplate.dropCollection(Person.class);
+    }
+
+    @Test
+    public void migrateShouldRewriteEveryLegacyDateOfBirthInBatches() {
+        assertThat(birthDayMigration.migrate()).isEqualTo(5);
+
+        for (Document document : mongoTemplate.findAll(Document.class, "people")) {
+            assertThat(document.containsKey("dateOfBirth")).isFalse();
+            assertThat(document.getInteger("birthDay"))
+                .isEqualTo(DateOfBirthFormat.toEpochDay("10/10/2000"));
+        }
+    }
+
+    @Test
+    public void migrateShouldBeResumable() {
+        birthDayMigration.migrate();
+
+        assertThat(birthDayMigration.migrate()).isEqualTo(0);
+    }
+
+    @Test
+    public void migrateShouldSkipUnparseableDatesOfBirth() {
+        mongoTemplate.insert(legacyPerson(UUID.randomUUID(), "not a date"), "people");
+
+        assertThat(birthDayMigration.migrate()).isEqualTo(5);
+    }
+
+    @Test
+    public void migrateShouldDropTheLegacyDateOfBirthIndexOnceEveryoneIsMigrated() {
+        mongoTemplate.indexOps("people")
+                     .ensureIndex(new Index("dateOfBirth", Direction.ASC).named("dateOfBirth"));
+
+        birthDayMigration.migrate();
+
+        assertThat(mongoTemplate.indexOps("people").getIndexInfo()).extracting(IndexInfo::getName)
+                                                                    .doesNotContain("dateOfBirth");
+    }
+
+    private Document legacyPerson(UUID id, String dateOfBirth) {
+        return new Document("_id", id).append("name", "John Smith").append("weight", 1f)
+                                      .append("height", 1f).append("dateOfBirth", dateOfBirth)
+                                      .append("gender", "MALE");
+    }
+}
@@ -0,0 +1,116 @@
+package com.postitapplications.person.migration;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import com.postitapplications.person.converter.PersonConversionConfiguration;
+import com.postitapplications.person.document.Person;
+import com.postitapplications.person.document.Person.Gender;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.UUID;
+import org.bson.BsonBinary;
+import org.bson.BsonBinarySubType;
+import org.bson.BsonDocument;
+import org.bson.BsonDouble;
+import org.bson.BsonInt32;
+import org.bson.BsonString;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.data.mongo.DataMongoTest;
+import org.springframework.context.annotation.Import;
+import org.springframework.data.mongodb.core.MongoTemplate;
+import org.springframework.test.context.junit.jupiter.SpringExtension;
+
+@DataMongoTest
+@Import(PersonConversionConfiguration.class)
+@ExtendWith(SpringExtension.class)
+public class UuidMigrationTests {
+
+    @Autowired
+    private MongoTemplate mongoTemplate;
+    private UuidMigration uuidMigration;
+    private List<UUID> ids;
+
+    @BeforeEach
+    public void setUp() {
+        ids = new ArrayList<>();
+
+        for (int i = 0; i < 5; i++) {
+            UUID id = UUID.randomUUID();
+            ids.add(id);
+            mongoTemplate.getCollection("people").withDocumentClass(BsonDocument.class)
+                         .insertOne(legacyPerson(id));
+        }
+
+        uuidMigration = new UuidMigration(mongoTemplate, 2, 0);
+    }
+
+    @AfterEach
+    public void tearDown() {
+        mongoTemplate.dropCollection(Person.class);
+    }
+
+    @Test
+    public void migrateShouldMoveEveryLegacyIdToAStandardIdInBatches() {
+        assertThat(uuidMigration.migrate()).isEqualTo(5);
+
+        assertThat(mongoTemplate.getCollection("people").countDocuments()).isEqualTo(5);
+
+        for (UUID id : ids) {
+            Person person = mongoTemplate.findById(id, Person.class);
+
+            assertThat(person).isNotNull();
+            assertThat(person.getName()).isEqualTo("John Smith");
+            assertThat(person.getGender()).isEqualTo(Gender.MALE);
+        }
+    }
+
+    @Test
+    public void migrateShouldBeResumable() {
+        uuidMigration.migrate();
+
+        assertThat(uuidMigration.migrate()).isEqualTo(0);
+    }
+
+    @Test
+    public void migrateShouldKeepAPersonAlreadyWrittenUnderTheStandardId() {
+        mongoTemplate.save(
+            new Person(ids.get(0), "Jane Doe", 60f, 170f, "11/11/1990", Gender.FEMALE));
+
+        assertThat(uuidMigration.migrate()).isEqualTo(5);
+
+        assertThat(mongoTemplate.getCollection("people").countDocuments()).isEqualTo(5);
+        assertThat(mongoTemplate.findById(ids.get(0), Person.class).getName())
+            .isEqualTo("Jane Doe");
+    }
+
+    @Test
+    public void fromLegacyIdShouldReverseEachHalfOfTheId() {
+        UUID id = UUID.fromString("00112233-4455-6677-8899-aabbccddeeff");
+
+        assertThat(UuidMigration.fromLegacyId(legacyId(id))).isEqualTo(id);
+    }
+
+    private static BsonDocument legacyPerson(UUID id) {
+        return new BsonDocument("_id", new BsonBinary(BsonBinarySubType.UUID_LEGACY, legacyId(id)))
+            .append("name", new BsonString("John Smith"))
+            .append("weight", new BsonDouble(60))
+            .append("height", new BsonDouble(170))
+            .append("birthDay", new BsonInt32(11240))
+            .append("gender", new BsonString("MALE"));
+    }
+
+    private static byte[] legacyId(UUID id) {
+        byte[] legacyId = new byte[16];
+
+        for (int i = 0; i < 8; i++) {
+            legacyId[i] = (byte) (id.getMostSignificantBits() >>> (8 * i));
+            legacyId[i + 8] = (byte) (id.getLeastSignificantBits() >>> (8 * i));
+        }
+
+        return legacyId;
+    }
+}
@@ -0,0 +1,103 @@
+package com.postitapplications.person.repository;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+import com.postitapplications.person.document.Person;
+import com.postitapplications.person.document.Person.Gender;
+import java.time.Duration;
+import java.util.List;
+import java.util.UUID;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+public class CachingPersonRepoTests {
+
+    private PersonRepo mockPersonRepo;
+    private CachingPersonRepo cachingPersonRepo;
+    private UUID personId;
+    private Person person;
+
+    @BeforeEach
+    public void setUp() {
+        mockPersonRepo = mock(PersonRepo.class);
+        cachingPersonRepo = new CachingPersonRepo(mockPersonRepo, 10, Duration.ofMinutes(5));
+        personId = UUID.randomUUID();
+        person = new Person(personId, "John Smith", 1f, 1f, "10/10/2000", Gender.MALE);
+
+        when(mockPersonRepo.findById(personId)).thenReturn(person);
+    }
+
+    @Test
+    public void findByIdShouldOnlyQueryDelegateOnceForRepeatedLookups() {
+        cachingPersonRepo.findById(personId);
+        Person personFound = cachingPersonRepo.findById(personId);
+
+        assertThat(personFound).isEqualTo(person);
+        verify(mockPersonRepo, times(1)).findById(personId);
+        assertThat(cachingPersonRepo.getStats().hitCount()).isEqualTo(1);
+        assertThat(cachingPersonRepo.getStats().missCount()).isEqualTo(1);
+    }
+
+    @Test
+    public void findByIdShouldNotCacheMissingPeople() {
+        UUID missingId = UUID.randomUUID();
+
+        assertThat(cachingPersonRepo.findById(missingId)).isNull();
+        assertThat(cachingPersonRepo.findById(missingId)).isNull();
+        verify(mockPersonRepo, times(2)).findById(missingId);
+    }
+
+    @Test
+    public void updateShouldInvalidateCachedPerson() {
+        cachingPersonRepo.findById(personId);
+        cachingPersonRepo.update(person);
+        cachingPersonRepo.findById(personId);
+
+        verify(mockPersonRepo, times(2)).findById(personId);
+    }
+
+    @Test
+    public void removeByIdShouldInvalidateCachedPerson() {
+        cachingPersonRepo.findById(personId);
+        cachingPersonRepo.removeById(personId);
+        cachingPersonRepo.findById(personId);
+
+        verify(mockPersonRepo, times(2)).findById(personId);
+    }
+
+    @Test
+    public void saveShouldInvalidateCachedPerson() {
+        cachingPersonRepo.findById(personId);
+        cachingPersonRepo.save(personId, person);
+        cachingPersonRepo.findById(personId);
+
+        verify(mockPersonRepo, times(2)).findById(personId);
+    }
+
+    @Test
+    public void findAllByIdsShouldOnlyLoadPeopleMissingFromTheCache() {
+        UUID otherId = UUID.randomUUID();
+        Person otherPerson = new Person(otherId, "Jane Doe", 1f, 1f, "10/10/2000",
+            Gender.FEMALE);
+
+        when(mockPersonRepo.findAllByIds(List.of(otherId))).thenReturn(List.of(otherPerson));
+        cachingPersonRepo.findById(personId);
+        List<Person> people = cachingPersonRepo.findAllByIds(List.of(personId, otherId));
+
+        assertThat(people).containsExactlyInAnyOrder(person, otherPerson);
+        verify(mockPersonRepo, times(1)).findAllByIds(List.of(otherId));
+    }
+
+    @Test
+    public void invalidateAllShouldEmptyTheCache() {
+        cachingPersonRepo.findById(personId);
+        cachingPersonRepo.invalidateAll();
+        cachingPersonRepo.findById(personId);
+
+        verify(mockPersonRepo, times(2)).findById(personId);
+    }
+}
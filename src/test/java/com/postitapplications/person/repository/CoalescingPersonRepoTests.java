@@ -0,0 +1,178 @@
+package com.postitapplications.person.repository;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTimeoutPreemptively;
+import static org.mockito.ArgumentMatchers.anyCollection;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+import com.postitapplications.person.document.Person;
+import com.postitapplications.person.document.Person.Gender;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.UUID;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+public class CoalescingPersonRepoTests {
+
+    private PersonRepo mockPersonRepo;
+    private SimpleMeterRegistry meterRegistry;
+    private ExecutorService executorService;
+    private Person person;
+    private Person otherPerson;
+
+    @BeforeEach
+    public void setUp() {
+        mockPersonRepo = mock(PersonRepo.class);
+        meterRegistry = new SimpleMeterRegistry();
+        executorService = Executors.newCachedThreadPool();
+        person = new Person(UUID.randomUUID(), "John Smith", 1f, 1f, "10/10/2000", Gender.MALE);
+        otherPerson = new Person(UUID.randomUUID(), "Jane Doe", 1f, 1f, "10/10/2000",
+            Gender.FEMALE);
+    }
+
+    @AfterEach
+    public void tearDown() {
+        executorService.shutdownNow();
+    }
+
+    @Test
+    public void constructorShouldThrowIllegalArgumentExceptionWhenMaxBatchSizeIsZero() {
+        Exception exception = assertThrows(IllegalArgumentException.class, () -> {
+            new CoalescingPersonRepo(mockPersonRepo, Duration.ZERO, 0, meterRegistry);
+        });
+
+        assertThat(exception.getMessage()).isEqualTo(
+            "Batch window cannot be negative and max batch size must be greater than zero");
+    }
+
+    @Test
+    public void findByIdShouldShareOneQueryBetweenConcurrentLookupsOfTheSameId()
+        throws Exception {
+        CoalescingPersonRepo coalescingPersonRepo = new CoalescingPersonRepo(mockPersonRepo,
+            Duration.ZERO, 100, meterRegistry);
+        CountDownLatch queryStarted = new CountDownLatch(1);
+        CountDownLatch releaseQuery = new CountDownLatch(1);
+
+        when(mockPersonRepo.findById(person.getId())).thenAnswer(invocation -> {
+            queryStarted.countDown();
+            releaseQuery.await();
+            return person;
+        });
+
+        List<Future<Person>> lookups = new ArrayList<>();
+        lookups.add(executorService.submit(() -> coalescingPersonRepo.findById(person.getId())));
+        queryStarted.await();
+
+        for (int i = 0; i < 4; i++) {
+            lookups.add(
+                executorService.submit(() -> coalescingPersonRepo.findById(person.getId())));
+        }
+
+        while (meterRegistry.get("person.lookups.coalesced").functionCounter().count() < 4) {
+            Thread.sleep(1);
+        }
+
+        releaseQuery.countDown();
+
+        for (Future<Person> lookup : lookups) {
+            assertThat(lookup.get()).isEqualTo(person);
+        }
+
+        verify(mockPersonRepo, times(1)).findById(person.getId());
+        assertThat(coalescingPersonRepo.getCoalescingRatio()).isEqualTo(0.8);
+    }
+
+    @Test
+    public void findByIdShouldBatchLookupsArrivingWithinTheWindow() throws Exception {
+        CoalescingPersonRepo coalescingPersonRepo = new CoalescingPersonRepo(mockPersonRepo,
+            Duration.ofMillis(500), 100, meterRegistry);
+
+        when(mockPersonRepo.findAllByIds(anyCollection())).thenReturn(List.of(person));
+
+        Future<Person> firstLookup = executorService
+            .submit(() -> coalescingPersonRepo.findById(person.getId()));
+        Future<Person> secondLookup = executorService
+            .submit(() -> coalescingPersonRepo.findById(otherPerson.getId()));
+
+        assertThat(firstLookup.get()).isEqualTo(person);
+        assertThat(secondLookup.get()).isNull();
+        verify(mockPersonRepo, times(1)).findAllByIds(anyCollection());
+        verify(mockPersonRepo, never()).findById(person.getId());
+    }
+
+    @Test
+    public void findByIdShouldLoadAFullBatchWithoutWaitingForTheWindow() {
+        CoalescingPersonRepo coalescingPersonRepo = new CoalescingPersonRepo(mockPersonRepo,
+            Duration.ofMinutes(1), 2, meterRegistry);
+
+        when(mockPersonRepo.findAllByIds(anyCollection()))
+            .thenReturn(List.of(person, otherPerson));
+
+        assertTimeoutPreemptively(Duration.ofSeconds(10), () -> {
+            Future<Person> firstLookup = executorService
+                .submit(() -> coalescingPersonRepo.findById(person.getId()));
+
+            while (meterRegistry.get("person.lookups").functionCounter().count() < 1) {
+                Thread.sleep(1);
+            }
+
+            assertThat(coalescingPersonRepo.findById(otherPerson.getId())).isEqualTo(otherPerson);
+            assertThat(firstLookup.get()).isEqualTo(person);
+        });
+    }
+
+    @Test
+    public void findByIdShouldNotJoinALookupStartedBeforeACompletedUpdate() throws Exception {
+        CoalescingPersonRepo coalescingPersonRepo = new CoalescingPersonRepo(mockPersonRepo,
+            Duration.ZERO, 100, meterRegistry);
+        Person updatedPerson = new Person(person.getId(), "Jeff Smith", 2f, 2f, "10/10/2000",
+            Gender.MALE);
+        CountDownLatch staleQueryStarted = new CountDownLatch(1);
+        CountDownLatch releaseStaleQuery = new CountDownLatch(1);
+
+        when(mockPersonRepo.findById(person.getId())).thenAnswer(invocation -> {
+            staleQueryStarted.countDown();
+            releaseStaleQuery.await();
+            return person;
+        }).thenReturn(updatedPerson);
+
+        Future<Person> staleLookup = executorService
+            .submit(() -> coalescingPersonRepo.findById(person.getId()));
+        staleQueryStarted.await();
+        coalescingPersonRepo.update(updatedPerson);
+
+        assertThat(assertTimeoutPreemptively(Duration.ofSeconds(10),
+            () -> coalescingPersonRepo.findById(person.getId()))).isEqualTo(updatedPerson);
+        releaseStaleQuery.countDown();
+        assertThat(staleLookup.get()).isEqualTo(person);
+        verify(mockPersonRepo, times(2)).findById(person.getId());
+    }
+
+    @Test
+    public void findByIdShouldRethrowQueryFailures() {
+        CoalescingPersonRepo coalescingPersonRepo = new CoalescingPersonRepo(mockPersonRepo,
+            Duration.ZERO, 100, meterRegistry);
+
+        when(mockPersonRepo.findById(person.getId()))
+            .thenThrow(new IllegalStateException("Mongo is down"));
+
+        Exception exception = assertThrows(IllegalStateException.class, () -> {
+            coalescingPersonRepo.findById(person.getId());
+        });
+
+        assertThat(exception.getMessage()).isEqualTo("Mongo is down");
+    }
+}
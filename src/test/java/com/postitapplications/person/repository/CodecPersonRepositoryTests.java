@@ -0,0 +1,136 @@
+package com.postitapplications.person.repository;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import com.postitapplications.person.converter.PersonConversionConfiguration;
+import com.postitapplications.person.document.Person;
+import com.postitapplications.person.document.Person.Gender;
+import com.postitapplications.person.document.PersonSearch;
+import com.postitapplications.person.id.PersonIdGenerator;
+import java.util.List;
+import java.util.UUID;
+import java.util.stream.Collectors;
+import java.util.stream.Stream;
+import org.bson.Document;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.data.mongo.DataMongoTest;
+import org.springframework.context.annotation.Import;
+import org.springframework.data.mongodb.core.MongoTemplate;
+import org.springframework.test.context.junit.jupiter.SpringExtension;
+
+@DataMongoTest
+@Import(PersonConversionConfiguration.class)
+@ExtendWith(SpringExtension.class)
+public class CodecPersonRepositoryTests {
+
+    @Autowired
+    private MongoTemplate mongoTemplate;
+    private CodecPersonRepository codecPersonRepository;
+
+    @BeforeEach
+    public void setUp() {
+        codecPersonRepository = new CodecPersonRepository(mongoTemplate,
+            PersonIdGenerator.random());
+    }
+
+    @AfterEach
+    public void tearDown() {
+        mongoTemplate.dropCollection(Person.class);
+    }
+
+    @Test
+    public void saveShouldStoreAPersonReadableThroughTheTemplate() {
+        UUID personId = UUID.randomUUID();
+        codecPersonRepository.save(personId,
+            new Person(null, "John Smith", 70f, 180f, "10/10/2000", Gender.MALE));
+
+        Person storedPerson = mongoTemplate.findById(personId, Person.class);
+
+        assertThat(storedPerson.getName()).isEqualTo("John Smith");
+        assertThat(storedPerson.getWeight()).isEqualTo(70f);
+        assertThat(storedPerson.getDateOfBirth()).isEqualTo("10/10/2000");
+        assertThat(storedPerson.getVersion()).isEqualTo(0L);
+    }
+
+    @Test
+    public void saveShouldReplaceThePersonStoredUnderAnExistingId() {
+        UUID personId = UUID.randomUUID();
+        codecPersonRepository.save(personId,
+            new Person(null, "John Smith", 70f, 180f, "10/10/2000", Gender.MALE));
+
+        codecPersonRepository.save(personId,
+            new Person(null, "Jane Smith", 60f, 170f, "11/11/1990", Gender.FEMALE));
+
+        assertThat(mongoTemplate.findAll(Person.class)).singleElement()
+                                                       .extracting(Person::getName)
+                                                       .isEqualTo("Jane Smith");
+    }
+
+    @Test
+    public void findByIdShouldReadAPersonSavedThroughTheTemplate() {
+        UUID personId = UUID.randomUUID();
+        mongoTemplate.save(new Person(personId, "John Smith", 70f, 180f, "10/10/2000",
+            Gender.MALE));
+
+        Person personFound = codecPersonRepository.findById(personId);
+
+        assertThat(personFound.getName()).isEqualTo("John Smith");
+        assertThat(personFound.getHeight()).isEqualTo(180f);
+        assertThat(personFound.getGender()).isEqualTo(Gender.MALE);
+        assertThat(codecPersonRepository.findById(UUID.randomUUID())).isNull();
+    }
+
+    @Test
+    public void findByIdShouldReadLegacyStringDateOfBirth() {
+        UUID personId = UUID.randomUUID();
+        mongoTemplate.getCollection("people").insertOne(
+            new Document("_id", personId).append("name", "Jane Doe")
+                                         .append("dateOfBirth", "01/02/1990"));
+
+        assertThat(codecPersonRepository.findById(personId).getDateOfBirth())
+            .isEqualTo("01/02/1990");
+    }
+
+    @Test
+    public void findAllWithAfterShouldPageInIdOrder() {
+        codecPersonRepository.insertAll(List.of(person("A"), person("B"), person("C")));
+
+        List<Person> firstPage = codecPersonRepository.findAll(null, 2);
+        List<Person> secondPage = codecPersonRepository.findAll(firstPage.get(1).getId(), 2);
+
+        assertThat(firstPage).hasSize(2);
+        assertThat(secondPage).hasSize(1);
+        assertThat(codecPersonRepository.findAll()).hasSize(3);
+    }
+
+    @Test
+    public void streamAllShouldReturnEveryPerson() {
+        codecPersonRepository.insertAll(List.of(person("A"), person("B")));
+
+        try (Stream<Person> people = codecPersonRepository.streamAll()) {
+            assertThat(people.map(Person::getName).collect(Collectors.toList()))
+                .containsExactlyInAnyOrder("A", "B");
+        }
+    }
+
+    @Test
+    public void searchShouldMatchNameCaseInsensitivelyAndSortByName() {
+        codecPersonRepository.insertAll(List.of(person("bob"), person("Alice"), person("BOB")));
+
+        List<Person> people = codecPersonRepository
+            .search(new PersonSearch(null, Gender.MALE, null, null, "name", 0, 10));
+        List<Person> bobs = codecPersonRepository
+            .search(new PersonSearch("Bob", null, null, null, "id", 0, 10));
+
+        assertThat(people.get(0).getName()).isEqualTo("Alice");
+        assertThat(bobs).hasSize(2);
+    }
+
+    private static Person person(String name) {
+        return new Person(UUID.randomUUID(), name, 70f, 180f, "10/10/2000", Gender.MALE);
+    }
+}
@@ -0,0 +1,64 @@
+package com.postitapplications.person.repository;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+import com.postitapplications.person.document.Person;
+import com.postitapplications.person.document.Person.Gender;
+import java.util.UUID;
+import java.util.stream.Stream;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+public class ConcurrencyLimitedPersonRepoTests {
+
+    private PersonRepo mockPersonRepo;
+    private ConcurrencyLimitedPersonRepo concurrencyLimitedPersonRepo;
+
+    @BeforeEach
+    public void setUp() {
+        mockPersonRepo = mock(PersonRepo.class);
+        concurrencyLimitedPersonRepo = new ConcurrencyLimitedPersonRepo(mockPersonRepo, 2);
+    }
+
+    @Test
+    public void constructorShouldThrowIllegalArgumentExceptionWhenLimitIsZero() {
+        Exception exception = assertThrows(IllegalArgumentException.class, () -> {
+            new ConcurrencyLimitedPersonRepo(mockPersonRepo, 0);
+        });
+
+        assertThat(exception.getMessage())
+            .isEqualTo("Max concurrent queries must be greater than zero");
+    }
+
+    @Test
+    public void findByIdShouldReleasePermitAfterCall() {
+        UUID personId = UUID.randomUUID();
+        Person person = new Person(personId, "John Smith", 1f, 1f, "10/10/2000", Gender.MALE);
+
+        when(mockPersonRepo.findById(personId)).thenReturn(person);
+
+        assertThat(concurrencyLimitedPersonRepo.findById(personId)).isEqualTo(person);
+        assertThat(concurrencyLimitedPersonRepo.getAvailablePermits()).isEqualTo(2);
+    }
+
+    @Test
+    public void findByIdShouldReleasePermitWhenDelegateThrows() {
+        when(mockPersonRepo.findById(null)).thenThrow(new IllegalArgumentException());
+
+        assertThrows(IllegalArgumentException.class,
+            () -> concurrencyLimitedPersonRepo.findById(null));
+        assertThat(concurrencyLimitedPersonRepo.getAvailablePermits()).isEqualTo(2);
+    }
+
+    @Test
+    public void streamAllShouldReleasePermitOnceTheCursorIsOpen() {
+        when(mockPersonRepo.streamAll()).thenReturn(Stream.empty());
+
+        try (Stream<Person> people = concurrencyLimitedPersonRepo.streamAll()) {
+            assertThat(concurrencyLimitedPersonRepo.getAvailablePermits()).isEqualTo(2);
+        }
+    }
+}
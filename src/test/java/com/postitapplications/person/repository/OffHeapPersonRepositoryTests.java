@@ -0,0 +1,233 @@
+package com.postitapplications.person.repository;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+import com.mongodb.bulk.BulkWriteError;
+import com.postitapplications.person.document.Person;
+import com.postitapplications.person.document.Person.Gender;
+import com.postitapplications.person.document.PersonChange;
+import com.postitapplications.person.document.PersonSearch;
+import com.postitapplications.person.document.PersonStats;
+import com.postitapplications.person.id.TimeOrderedPersonIdGenerator;
+import com.postitapplications.person.utility.DateOfBirthFormat;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+import java.util.UUID;
+import java.util.stream.Collectors;
+import java.util.stream.Stream;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.data.mongodb.BulkOperationException;
+
+public class OffHeapPersonRepositoryTests {
+
+    private OffHeapPersonRepository offHeapPersonRepository;
+    private Person savedPerson;
+
+    @BeforeEach
+    public void setUp() {
+        offHeapPersonRepository = new OffHeapPersonRepository(new OffHeapPersonStore(4, 16));
+        savedPerson = offHeapPersonRepository
+            .save(new Person(null, "John Smith", 1f, 1f, "10/10/2000", Gender.MALE));
+    }
+
+    @Test
+    public void saveShouldStoreThePersonAtVersionZero() {
+        Person personFound = offHeapPersonRepository.findById(savedPerson.getId());
+
+        assertThat(personFound.getName()).isEqualTo("John Smith");
+        assertThat(personFound.getVersion()).isEqualTo(0L);
+    }
+
+    @Test
+    public void updateShouldReturnMatchedCount0WithInvalidId() {
+        Person person = new Person(UUID.randomUUID(), "Jane Doe", 1f, 1f, "10/10/2000",
+            Gender.FEMALE);
+
+        assertThat(offHeapPersonRepository.update(person).getMatchedCount()).isEqualTo(0);
+    }
+
+    @Test
+    public void updateAndReturnShouldReturnStoredPersonWithIncrementedVersion() {
+        Person updatedPerson = offHeapPersonRepository.updateAndReturn(
+            new Person(savedPerson.getId(), "Jeff Smith", 2f, 2f, "11/11/2001", Gender.MALE,
+                0L));
+
+        assertThat(updatedPerson.getName()).isEqualTo("Jeff Smith");
+        assertThat(updatedPerson.getVersion()).isEqualTo(1L);
+        assertThat(offHeapPersonRepository.findById(savedPerson.getId()))
+            .usingRecursiveComparison().isEqualTo(updatedPerson);
+    }
+
+    @Test
+    public void updateAndReturnShouldReturnNullWhenVersionDoesNotMatch() {
+        assertThat(offHeapPersonRepository.updateAndReturn(
+            new Person(savedPerson.getId(), "Jeff Smith", 2f, 2f, "11/11/2001", Gender.MALE,
+                5L))).isNull();
+        assertThat(offHeapPersonRepository.findById(savedPerson.getId()).getName())
+            .isEqualTo("John Smith");
+    }
+
+    @Test
+    public void patchShouldOnlySetProvidedFields() {
+        Person patchedPerson = offHeapPersonRepository
+            .patch(new Person(savedPerson.getId(), null, 3f, null, null, null, null));
+
+        assertThat(patchedPerson.getName()).isEqualTo("John Smith");
+        assertThat(patchedPerson.getWeight()).isEqualTo(3f);
+        assertThat(patchedPerson.getHeight()).isEqualTo(1f);
+        assertThat(patchedPerson.getVersion()).isEqualTo(1L);
+    }
+
+    @Test
+    public void patchAndReturnChangeShouldReturnThePersonBeforeAndAfterThePatch() {
+        PersonChange change = offHeapPersonRepository
+            .patchAndReturnChange(new Person(savedPerson.getId(), null, 3f, null, null, null, 0L));
+
+        assertThat(change.getPrevious()).usingRecursiveComparison().isEqualTo(savedPerson);
+        assertThat(change.getCurrent().getWeight()).isEqualTo(3f);
+        assertThat(offHeapPersonRepository.findById(savedPerson.getId()))
+            .usingRecursiveComparison().isEqualTo(change.getCurrent());
+    }
+
+    @Test
+    public void removeAndReturnShouldReturnTheRemovedPerson() {
+        assertThat(offHeapPersonRepository.removeAndReturn(savedPerson.getId()))
+            .usingRecursiveComparison().isEqualTo(savedPerson);
+        assertThat(offHeapPersonRepository.removeAndReturn(savedPerson.getId())).isNull();
+        assertThat(offHeapPersonRepository.existsById(savedPerson.getId())).isFalse();
+    }
+
+    @Test
+    public void removeByIdShouldRemoveSavedPerson() {
+        assertThat(offHeapPersonRepository.removeById(savedPerson.getId()).getDeletedCount())
+            .isEqualTo(1);
+        assertThat(offHeapPersonRepository.existsById(savedPerson.getId())).isFalse();
+        assertThat(offHeapPersonRepository.findAll()).isEmpty();
+    }
+
+    @Test
+    public void insertAllShouldInsertFreeIdsAndReportDuplicatesByIndex() {
+        Person newPerson = new Person(UUID.randomUUID(), "Jane Doe", 1f, 1f, "10/10/2000",
+            Gender.FEMALE);
+
+        BulkOperationException exception = assertThrows(BulkOperationException.class,
+            () -> offHeapPersonRepository.insertAll(List.of(newPerson, savedPerson)));
+
+        assertThat(exception.getErrors()).extracting(BulkWriteError::getIndex).containsExactly(1);
+        assertThat(exception.getResult().getInsertedCount()).isEqualTo(1);
+        assertThat(offHeapPersonRepository.findById(newPerson.getId())).isNotNull();
+    }
+
+    @Test
+    public void insertAllShouldReportNamesThatDoNotFitByIndex() {
+        Person longNamedPerson = new Person(UUID.randomUUID(),
+            "J".repeat(OffHeapPersonStore.MAX_NAME_BYTES + 1), 1f, 1f, "10/10/2000", Gender.MALE);
+        Person newPerson = new Person(UUID.randomUUID(), "Jane Doe", 1f, 1f, "10/10/2000",
+            Gender.FEMALE);
+
+        BulkOperationException exception = assertThrows(BulkOperationException.class,
+            () -> offHeapPersonRepository.insertAll(List.of(longNamedPerson, newPerson)));
+
+        assertThat(exception.getErrors()).extracting(BulkWriteError::getIndex).containsExactly(0);
+        assertThat(offHeapPersonRepository.existsById(longNamedPerson.getId())).isFalse();
+        assertThat(offHeapPersonRepository.existsById(newPerson.getId())).isTrue();
+    }
+
+    @Test
+    public void streamAllShouldReturnEveryPerson() {
+        offHeapPersonRepository
+            .save(new Person(null, "Jane Doe", 1f, 1f, "10/10/2000", Gender.FEMALE));
+
+        try (Stream<Person> people = offHeapPersonRepository.streamAll()) {
+            assertThat(people.map(Person::getName)).containsExactlyInAnyOrder("John Smith",
+                "Jane Doe");
+        }
+    }
+
+    @Test
+    public void findAllWithAfterShouldReturnPagesInIdOrder() {
+        for (int i = 0; i < 4; i++) {
+            offHeapPersonRepository
+                .save(new Person(null, "Jane Doe", 1f, 1f, "10/10/2000", Gender.FEMALE));
+        }
+
+        List<Person> firstPage = offHeapPersonRepository.findAll(null, 3);
+        List<Person> secondPage = offHeapPersonRepository
+            .findAll(firstPage.get(2).getId(), 3);
+        List<UUID> ids = offHeapPersonRepository.findAll().stream().map(Person::getId)
+                                                .sorted(Comparator.comparing(UUID::toString))
+                                                .collect(Collectors.toList());
+
+        assertThat(firstPage).extracting(Person::getId).isEqualTo(ids.subList(0, 3));
+        assertThat(secondPage).extracting(Person::getId).isEqualTo(ids.subList(3, 5));
+    }
+
+    @Test
+    public void findAllWithAfterShouldReturnIdsFromTheSameMillisecondInInsertionOrder() {
+        OffHeapPersonRepository timeOrderedRepository = new OffHeapPersonRepository(
+            new OffHeapPersonStore(4, 16), null,
+            new TimeOrderedPersonIdGenerator(() -> 1_700_000_000_000L));
+        List<UUID> insertedIds = new ArrayList<>();
+
+        for (int i = 0; i < 20; i++) {
+            insertedIds.add(timeOrderedRepository
+                .save(new Person(null, "Jane Doe", 1f, 1f, "10/10/2000", Gender.FEMALE))
+                .getId());
+        }
+
+        List<Person> firstPage = timeOrderedRepository.findAll(null, 10);
+        List<Person> secondPage = timeOrderedRepository.findAll(firstPage.get(9).getId(), 10);
+
+        assertThat(firstPage).extracting(Person::getId).isEqualTo(insertedIds.subList(0, 10));
+        assertThat(secondPage).extracting(Person::getId).isEqualTo(insertedIds.subList(10, 20));
+    }
+
+    @Test
+    public void searchShouldFilterAndSortLikeTheMongoRepository() {
+        offHeapPersonRepository
+            .save(new Person(null, "alice smith", 1f, 1f, "01/01/1990", Gender.FEMALE));
+        offHeapPersonRepository
+            .save(new Person(null, "Bob Smith", 1f, 1f, "01/01/1995", Gender.MALE));
+        offHeapPersonRepository
+            .save(new Person(null, "Carol Smith", 1f, 1f, "01/01/2005", Gender.FEMALE));
+
+        List<Person> people = offHeapPersonRepository.search(new PersonSearch(null, null,
+            DateOfBirthFormat.toEpochDay("01/01/1990"), DateOfBirthFormat.toEpochDay("01/01/2001"),
+            "name", 0, 10));
+        List<Person> women = offHeapPersonRepository
+            .search(new PersonSearch(null, Gender.FEMALE, null, null, "dateOfBirth", 1, 1));
+
+        assertThat(people).extracting(Person::getName)
+                          .containsExactly("alice smith", "Bob Smith", "John Smith");
+        assertThat(women).extracting(Person::getName).containsExactly("Carol Smith");
+        assertThat(offHeapPersonRepository
+            .search(new PersonSearch("ALICE SMITH", null, null, null, "id", 0, 10)))
+            .hasSize(1);
+    }
+
+    @Test
+    public void getPersonStatsShouldSummariseEveryone() {
+        offHeapPersonRepository
+            .save(new Person(null, "Jane Doe", 60f, 170f, "11/11/1990", Gender.FEMALE));
+
+        PersonStats personStats = offHeapPersonRepository
+            .getPersonStats(LocalDate.of(2024, 1, 1), false);
+
+        assertThat(personStats.getCount()).isEqualTo(2);
+        assertThat(personStats.getAverageWeight()).isEqualTo(30.5);
+        assertThat(personStats.getAverageHeight()).isEqualTo(85.5);
+        assertThat(personStats.getWeightStandardDeviation()).isEqualTo(29.5);
+        assertThat(personStats.getHeightStandardDeviation()).isEqualTo(84.5);
+        assertThat(personStats.getCountByGender())
+            .containsEntry(Gender.MALE, 1L).containsEntry(Gender.FEMALE, 1L);
+        assertThat(personStats.getBmiDistribution()).extracting(PersonStats.Bucket::getCount)
+                                                    .containsExactly(0L, 1L, 0L, 1L);
+        assertThat(personStats.getAgeDistribution()).extracting(PersonStats.Bucket::getCount)
+                                                    .containsExactly(0L, 0L, 1L, 1L, 0L, 0L, 0L,
+                                                        0L, 0L, 0L, 0L);
+    }
+}
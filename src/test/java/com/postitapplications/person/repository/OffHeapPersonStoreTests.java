@@ -0,0 +1,150 @@
+package com.postitapplications.person.repository;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+import com.postitapplications.person.document.Person;
+import com.postitapplications.person.document.Person.Gender;
+import com.postitapplications.person.exception.PersonNameTooLongException;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.UUID;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+public class OffHeapPersonStoreTests {
+
+    private OffHeapPersonStore store;
+
+    @BeforeEach
+    public void setUp() {
+        store = new OffHeapPersonStore(4, 0);
+    }
+
+    @Test
+    public void getShouldReturnEveryStoredField() {
+        UUID id = UUID.randomUUID();
+        store.put(new Person(id, "Zoë Smith", 70.5f, null, "10/10/2000", Gender.FEMALE, 3L));
+
+        Person storedPerson = store.get(id);
+
+        assertThat(storedPerson.getId()).isEqualTo(id);
+        assertThat(storedPerson.getName()).isEqualTo("Zoë Smith");
+        assertThat(storedPerson.getWeight()).isEqualTo(70.5f);
+        assertThat(storedPerson.hasHeight()).isFalse();
+        assertThat(storedPerson.getDateOfBirth()).isEqualTo("10/10/2000");
+        assertThat(storedPerson.getGender()).isEqualTo(Gender.FEMALE);
+        assertThat(storedPerson.getVersion()).isEqualTo(3L);
+    }
+
+    @Test
+    public void getShouldReturnNullWhenNobodyIsStoredUnderTheId() {
+        assertThat(store.get(UUID.randomUUID())).isNull();
+    }
+
+    @Test
+    public void insertShouldNotReplaceAStoredPerson() {
+        UUID id = UUID.randomUUID();
+
+        assertThat(store.insert(person(id, "John Smith"))).isTrue();
+        assertThat(store.insert(person(id, "Jane Doe"))).isFalse();
+        assertThat(store.get(id).getName()).isEqualTo("John Smith");
+    }
+
+    @Test
+    public void removeShouldFreeTheSlotForReuse() {
+        UUID id = UUID.randomUUID();
+        store.put(person(id, "John Smith"));
+        long reservedBytes = store.getReservedBytes();
+
+        assertThat(store.remove(id)).isTrue();
+        assertThat(store.remove(id)).isFalse();
+        assertThat(store.get(id)).isNull();
+
+        for (int i = 0; i < 1000; i++) {
+            UUID otherId = UUID.randomUUID();
+            store.put(person(otherId, "Jane Doe"));
+            store.remove(otherId);
+        }
+
+        assertThat(store.size()).isEqualTo(0);
+        assertThat(store.getReservedBytes()).isEqualTo(reservedBytes);
+    }
+
+    @Test
+    public void putShouldGrowPastTheInitialCapacity() {
+        List<UUID> ids = new ArrayList<>();
+
+        for (int i = 0; i < 10_000; i++) {
+            UUID id = UUID.randomUUID();
+            ids.add(id);
+            store.put(person(id, "Person " + i));
+        }
+
+        assertThat(store.size()).isEqualTo(10_000);
+
+        for (int i = 0; i < ids.size(); i++) {
+            assertThat(store.get(ids.get(i)).getName()).isEqualTo("Person " + i);
+        }
+    }
+
+    @Test
+    public void updateShouldLeaveThePersonUnchangedWhenTheFunctionReturnsNull() {
+        UUID id = UUID.randomUUID();
+        store.put(person(id, "John Smith"));
+
+        assertThat(store.update(id, storedPerson -> null)).isNull();
+        assertThat(store.get(id).getName()).isEqualTo("John Smith");
+    }
+
+    @Test
+    public void putShouldThrowPersonNameTooLongExceptionWhenNameIsTooLong() {
+        Exception exception = assertThrows(PersonNameTooLongException.class, () -> {
+            store.put(person(UUID.randomUUID(),
+                "J".repeat(OffHeapPersonStore.MAX_NAME_BYTES + 1)));
+        });
+
+        assertThat(exception.getMessage())
+            .isEqualTo("Person's name cannot be longer than 216 bytes");
+        assertThat(store.size()).isEqualTo(0);
+    }
+
+    @Test
+    public void concurrentWritersShouldNotLoseUpdates() throws Exception {
+        ExecutorService executorService = Executors.newFixedThreadPool(8);
+        List<Future<List<UUID>>> writers = new ArrayList<>();
+
+        try {
+            for (int writer = 0; writer < 8; writer++) {
+                writers.add(executorService.submit(() -> {
+                    List<UUID> ids = new ArrayList<>();
+
+                    for (int i = 0; i < 2000; i++) {
+                        UUID id = UUID.randomUUID();
+                        store.put(person(id, "John Smith"));
+                        ids.add(id);
+                    }
+
+                    return ids;
+                }));
+            }
+
+            for (Future<List<UUID>> writer : writers) {
+                for (UUID id : writer.get()) {
+                    assertThat(store.contains(id)).isTrue();
+                }
+            }
+        } finally {
+            executorService.shutdownNow();
+        }
+
+        assertThat(store.size()).isEqualTo(16_000);
+    }
+
+    private static Person person(UUID id, String name) {
+        return new Person(id, name, 1f, 1f, "10/10/2000", Gender.MALE, 0L);
+    }
+}
@@ -0,0 +1,405 @@
+package com.postitapplications.person.repository;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+import com.postitapplications.person.document.Person;
+import com.postitapplications.person.document.Person.Gender;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Random;
+import java.util.UUID;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.stream.Collectors;
+import java.util.stream.Stream;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import org.springframework.dao.DataAccessResourceFailureException;
+
+public class PersonLogTests {
+
+    private static final int SEGMENT_SIZE = 4096;
+    private static final int OPERATIONS = 300;
+    private static final int HEADER_SIZE = 16;
+
+    @TempDir
+    public Path directory;
+
+    private final List<PersonLog> openLogs = new ArrayList<>();
+
+    @AfterEach
+    public void tearDown() {
+        openLogs.forEach(PersonLog::close);
+    }
+
+    @Test
+    public void openShouldReplayEveryLoggedChange() {
+        List<Operation> operations = operations(new Random(1), OPERATIONS, new ArrayList<>());
+        OffHeapPersonStore store = open();
+        apply(store, operations);
+        closeAll();
+
+        assertThat(contents(open())).isEqualTo(expected(operations, operations.size()));
+    }
+
+    @Test
+    public void openShouldRecoverAPrefixWhenTheLogIsTruncatedAtARandomOffset() throws Exception {
+        for (int seed = 0; seed < 50; seed++) {
+            Random random = new Random(seed);
+            List<Operation> operations = logOperations(random);
+            List<Path> segments = segments();
+            int truncated = random.nextInt(segments.size());
+
+            try (FileChannel channel = FileChannel
+                .open(segments.get(truncated), StandardOpenOption.WRITE)) {
+                channel.truncate(random.nextInt(SEGMENT_SIZE));
+            }
+
+            deleteAll(segments.subList(truncated + 1, segments.size()));
+
+            assertRecoversPrefix(operations, random);
+            deleteAll(segments());
+        }
+    }
+
+    @Test
+    public void openShouldRecoverAPrefixWhenTheEndOfTheLogIsZeroed() throws Exception {
+        for (int seed = 0; seed < 50; seed++) {
+            Random random = new Random(seed);
+            List<Operation> operations = logOperations(random);
+            List<Path> segments = segments();
+            int torn = random.nextInt(segments.size());
+            int offset = random.nextInt(SEGMENT_SIZE);
+
+            try (FileChannel channel = FileChannel
+                .open(segments.get(torn), StandardOpenOption.WRITE)) {
+                channel.write(ByteBuffer.allocate(SEGMENT_SIZE - offset), offset);
+            }
+
+            deleteAll(segments.subList(torn + 1, segments.size()));
+
+            assertRecoversPrefix(operations, random);
+            deleteAll(segments());
+        }
+    }
+
+    @Test
+    public void openShouldRecoverAPrefixWhenAByteInTheLastSegmentIsCorrupted() throws Exception {
+        for (int seed = 0; seed < 50; seed++) {
+            Random random = new Random(seed);
+            List<Operation> operations = logOperations(random);
+            List<Path> segments = segments();
+
+            corruptByte(segments.get(lastSegmentWithChanges(segments)),
+                random.nextInt(SEGMENT_SIZE), random);
+
+            assertRecoversPrefix(operations, random);
+            deleteAll(segments());
+        }
+    }
+
+    @Test
+    public void openShouldFailWhenAByteBeforeTheLastSegmentIsCorrupted() throws Exception {
+        for (int seed = 0; seed < 20; seed++) {
+            Random random = new Random(seed);
+            logOperations(random);
+            List<Path> segments = segments();
+
+            corruptByte(segments.get(random.nextInt(lastSegmentWithChanges(segments))),
+                HEADER_SIZE + random.nextInt(SEGMENT_SIZE / 2), random);
+
+            Exception exception = assertThrows(DataAccessResourceFailureException.class,
+                this::open);
+
+            assertThat(exception.getMessage()).contains("is corrupt at offset");
+            closeAll();
+            deleteAll(segments());
+        }
+    }
+
+    @Test
+    public void compactShouldReplaceOldSegmentsWithASnapshot() throws Exception {
+        List<Operation> operations = operations(new Random(2), OPERATIONS, new ArrayList<>());
+        PersonLog personLog = new PersonLog(directory, SEGMENT_SIZE, false, Duration.ZERO,
+            Duration.ZERO, 4);
+        openLogs.add(personLog);
+        OffHeapPersonStore store = new OffHeapPersonStore(4, 0);
+        personLog.open(store);
+        apply(store, operations.subList(0, 200));
+        int segmentsBeforeCompaction = segments().size();
+
+        assertThat(personLog.compact()).isTrue();
+        assertThat(snapshots()).hasSize(1);
+        long snapshotNumber = number(snapshots().get(0));
+        assertThat(segments()).allMatch(segment -> number(segment) >= snapshotNumber);
+        assertThat(segments().size()).isLessThan(segmentsBeforeCompaction);
+
+        apply(store, operations.subList(200, operations.size()));
+        closeAll();
+
+        assertThat(contents(open())).isEqualTo(expected(operations, operations.size()));
+    }
+
+    @Test
+    public void compactShouldDoNothingUntilThereAreEnoughFullSegments() throws Exception {
+        PersonLog personLog = new PersonLog(directory, SEGMENT_SIZE, false, Duration.ZERO,
+            Duration.ZERO, 4);
+        openLogs.add(personLog);
+        OffHeapPersonStore store = new OffHeapPersonStore(4, 0);
+        personLog.open(store);
+        store.put(person(UUID.randomUUID(), "John Smith"));
+
+        assertThat(personLog.compact()).isFalse();
+        assertThat(snapshots()).isEmpty();
+    }
+
+    @Test
+    public void openShouldIgnoreAnUnfinishedSnapshot() throws Exception {
+        List<Operation> operations = operations(new Random(3), OPERATIONS, new ArrayList<>());
+        apply(open(), operations);
+        closeAll();
+        Files.write(directory.resolve(String.format("snapshot-%020d.tmp", 5)), new byte[100]);
+        Files.write(directory.resolve(String.format("snapshot-%020d.snap", 1000)),
+            new byte[100]);
+
+        assertThat(contents(open())).isEqualTo(expected(operations, operations.size()));
+        assertThat(Files.exists(directory.resolve(String.format("snapshot-%020d.tmp", 5))))
+            .isFalse();
+    }
+
+    @Test
+    public void syncShouldLetConcurrentWritersShareAnFsync() throws Exception {
+        PersonLog personLog = new PersonLog(directory, 1 << 20, true, Duration.ofMillis(1),
+            Duration.ZERO, 4);
+        openLogs.add(personLog);
+        OffHeapPersonRepository offHeapPersonRepository = new OffHeapPersonRepository(
+            new OffHeapPersonStore(4, 0), personLog);
+        ExecutorService executorService = Executors.newFixedThreadPool(8);
+        List<Future<List<UUID>>> writers = new ArrayList<>();
+
+        try {
+            for (int writer = 0; writer < 8; writer++) {
+                writers.add(executorService.submit(() -> {
+                    List<UUID> ids = new ArrayList<>();
+
+                    for (int i = 0; i < 200; i++) {
+                        ids.add(offHeapPersonRepository.save(UUID.randomUUID(),
+                            person(null, "John Smith")).getId());
+                    }
+
+                    return ids;
+                }));
+            }
+
+            List<UUID> ids = new ArrayList<>();
+
+            for (Future<List<UUID>> writer : writers) {
+                ids.addAll(writer.get());
+            }
+
+            closeAll();
+            OffHeapPersonStore recoveredStore = open();
+
+            assertThat(recoveredStore.size()).isEqualTo(1600);
+            ids.forEach(id -> assertThat(recoveredStore.contains(id)).isTrue());
+        } finally {
+            executorService.shutdownNow();
+        }
+    }
+
+    @Test
+    public void writesAfterCloseShouldThrowDataAccessResourceFailureException() {
+        OffHeapPersonStore store = open();
+        closeAll();
+
+        Exception exception = assertThrows(DataAccessResourceFailureException.class, () -> {
+            store.put(person(UUID.randomUUID(), "John Smith"));
+        });
+
+        assertThat(exception.getMessage()).isEqualTo("The person log is closed");
+    }
+
+    /**
+     * Logs a random run of operations and closes the log, leaving its files to be damaged.
+     */
+    private List<Operation> logOperations(Random random) {
+        List<Operation> operations = operations(random, OPERATIONS, new ArrayList<>());
+        apply(open(), operations);
+        closeAll();
+        return operations;
+    }
+
+    /**
+     * Checks the damaged log recovers the state after some prefix of the operations, and that
+     * the log carries on from there across another restart.
+     */
+    private void assertRecoversPrefix(List<Operation> operations, Random random) {
+        OffHeapPersonStore recoveredStore = open();
+        Map<UUID, String> recovered = contents(recoveredStore);
+        int prefix = -1;
+
+        for (int i = operations.size(); i >= 0 && prefix < 0; i--) {
+            if (expected(operations, i).equals(recovered)) {
+                prefix = i;
+            }
+        }
+
+        assertThat(prefix).isGreaterThanOrEqualTo(0);
+
+        List<Operation> survivingOperations = new ArrayList<>(operations.subList(0, prefix));
+        List<Operation> laterOperations = operations(random, 50,
+            new ArrayList<>(recovered.keySet()));
+        apply(recoveredStore, laterOperations);
+        survivingOperations.addAll(laterOperations);
+        closeAll();
+
+        assertThat(contents(open()))
+            .isEqualTo(expected(survivingOperations, survivingOperations.size()));
+        closeAll();
+    }
+
+    private OffHeapPersonStore open() {
+        PersonLog personLog = new PersonLog(directory, SEGMENT_SIZE, false, Duration.ZERO,
+            Duration.ZERO, 4);
+        openLogs.add(personLog);
+        OffHeapPersonStore store = new OffHeapPersonStore(4, 0);
+        personLog.open(store);
+        return store;
+    }
+
+    private void closeAll() {
+        openLogs.forEach(PersonLog::close);
+        openLogs.clear();
+    }
+
+    private List<Path> segments() throws IOException {
+        return files(".log");
+    }
+
+    private List<Path> snapshots() throws IOException {
+        return files(".snap");
+    }
+
+    private List<Path> files(String extension) throws IOException {
+        try (Stream<Path> files = Files.list(directory)) {
+            return files.filter(file -> file.toString().endsWith(extension)).sorted()
+                        .collect(Collectors.toList());
+        }
+    }
+
+    /**
+     * Finds the last segment holding a change, skipping a next segment that was only prepared.
+     */
+    private static int lastSegmentWithChanges(List<Path> segments) throws IOException {
+        for (int i = segments.size() - 1; i > 0; i--) {
+            try (FileChannel channel = FileChannel.open(segments.get(i), StandardOpenOption.READ)) {
+                ByteBuffer type = ByteBuffer.allocate(1);
+
+                if (channel.read(type, HEADER_SIZE) == 1 && type.get(0) != 0) {
+                    return i;
+                }
+            }
+        }
+
+        return 0;
+    }
+
+    private static void corruptByte(Path segment, long offset, Random random) throws IOException {
+        try (FileChannel channel = FileChannel
+            .open(segment, StandardOpenOption.READ, StandardOpenOption.WRITE)) {
+            ByteBuffer corruptByte = ByteBuffer.allocate(1);
+            channel.read(corruptByte, offset);
+            corruptByte.put(0, (byte) (corruptByte.get(0) ^ (1 + random.nextInt(255))));
+            channel.write(corruptByte.flip(), offset);
+        }
+    }
+
+    private static long number(Path file) {
+        String name = file.getFileName().toString();
+        return Long.parseLong(name.substring(name.indexOf('-') + 1, name.indexOf('.')));
+    }
+
+    private static void deleteAll(List<Path> files) throws IOException {
+        for (Path file : files) {
+            Files.delete(file);
+        }
+    }
+
+    private static List<Operation> operations(Random random, int count, List<UUID> ids) {
+        List<Operation> operations = new ArrayList<>();
+
+        for (int i = 0; i < count; i++) {
+            int choice = random.nextInt(100);
+
+            if (ids.isEmpty() || choice < 60) {
+                UUID id = new UUID(random.nextLong(), random.nextLong());
+                ids.add(id);
+                operations.add(new Operation(id, "Person " + i));
+            } else if (choice < 85) {
+                operations.add(new Operation(ids.get(random.nextInt(ids.size())),
+                    "Updated person " + i));
+            } else {
+                operations.add(new Operation(ids.remove(random.nextInt(ids.size())), null));
+            }
+        }
+
+        return operations;
+    }
+
+    private static void apply(OffHeapPersonStore store, List<Operation> operations) {
+        for (Operation operation : operations) {
+            if (operation.name == null) {
+                store.remove(operation.id);
+            } else {
+                store.put(person(operation.id, operation.name));
+            }
+        }
+    }
+
+    private static Map<UUID, String> expected(List<Operation> operations, int count) {
+        Map<UUID, String> people = new HashMap<>();
+
+        for (Operation operation : operations.subList(0, count)) {
+            if (operation.name == null) {
+                people.remove(operation.id);
+            } else {
+                people.put(operation.id, operation.name);
+            }
+        }
+
+        return people;
+    }
+
+    private static Map<UUID, String> contents(OffHeapPersonStore store) {
+        Map<UUID, String> people = new HashMap<>();
+        store.forEach(person -> people.put(person.getId(), person.getName()));
+        return people;
+    }
+
+    private static Person person(UUID id, String name) {
+        return new Person(id, name, 1f, 1f, "10/10/2000", Gender.MALE, 0L);
+    }
+
+    private static final class Operation {
+
+        private final UUID id;
+        private final String name;
+
+        private Operation(UUID id, String name) {
+            this.id = id;
+            this.name = name;
+        }
+    }
+}
@@ -3,21 +3,40 @@ package com.postitapplications.person.repository;
 import static org.assertj.core.api.Assertions.assertThat;
 import static org.junit.jupiter.api.Assertions.assertThrows;
 
+import com.postitapplications.person.converter.PersonConversionConfiguration;
 import com.postitapplications.person.document.Person;
 import com.postitapplications.person.document.Person.Gender;
+import com.postitapplications.person.document.PersonChange;
+import com.postitapplications.person.document.PersonFields;
+import com.postitapplications.person.document.PersonSearch;
+import com.postitapplications.person.document.PersonStats;
+import com.postitapplications.person.id.PersonIdGenerator;
+import com.postitapplications.person.utility.DateOfBirthFormat;
+import java.time.LocalDate;
 import java.util.ArrayList;
+import java.util.List;
 import java.util.UUID;
+import java.util.stream.Collectors;
+import java.util.stream.Stream;
+import org.bson.Document;
 import org.junit.jupiter.api.AfterEach;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
 import org.junit.jupiter.api.extension.ExtendWith;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.boot.test.autoconfigure.data.mongo.DataMongoTest;
+import org.springframework.context.annotation.Import;
 import org.springframework.dao.InvalidDataAccessApiUsageException;
 import org.springframework.data.mongodb.core.MongoTemplate;
+import org.springframework.data.mongodb.core.convert.QueryMapper;
+import org.springframework.data.mongodb.core.index.IndexOperations;
+import org.springframework.data.mongodb.core.index.MongoPersistentEntityIndexResolver;
+import org.springframework.data.mongodb.core.mapping.MongoPersistentEntity;
+import org.springframework.data.mongodb.core.query.Query;
 import org.springframework.test.context.junit.jupiter.SpringExtension;
 
 @DataMongoTest
+@Import(PersonConversionConfiguration.class)
 @ExtendWith(SpringExtension.class)
 public class PersonRepositoryTests {
 
@@ -27,9 +46,13 @@ public class PersonRepositoryTests {
 
     @BeforeEach
     public void setUp() {
+        IndexOperations indexOperations = mongoTemplate.indexOps(Person.class);
+        new MongoPersistentEntityIndexResolver(mongoTemplate.getConverter().getMappingContext())
+            .resolveIndexFor(Person.class).forEach(indexOperations::ensureIndex);
         mongoTemplate
             .save(new Person(UUID.randomUUID(), "John Smith", 1f, 1f, "10/10/2000", Gender.MALE));
-        personRepository = new PersonRepository(mongoTemplate);
+        personRepository = new PersonRepository(mongoTemplate, PersonIdGenerator.random());
+        personRepository.ensureIndexes();
     }
 
     @AfterEach
@@ -166,4 +189,326 @@ public class PersonRepositoryTests {
 
         assertThat(exception.getMessage()).contains("Cannot autogenerate id");
     }
+
+    @Test
+    public void findAllWithLimitShouldReturnAtMostLimitPeople() {
+        personRepository.save(new Person(null, "Jeff Smith", 1f, 1f, "10/10/2000", Gender.MALE));
+        personRepository.save(new Person(null, "Jane Smith", 1f, 1f, "10/10/2000", Gender.FEMALE));
+
+        assertThat(personRepository.findAll(null, 2).size()).isEqualTo(2);
+    }
+
+    @Test
+    public void findAllWithAfterShouldReturnTheNextPageOfPeople() {
+        personRepository.save(new Person(null, "Jeff Smith", 1f, 1f, "10/10/2000", Gender.MALE));
+        personRepository.save(new Person(null, "Jane Smith", 1f, 1f, "10/10/2000", Gender.FEMALE));
+
+        List<Person> firstPage = personRepository.findAll(null, 2);
+        List<Person> secondPage = personRepository.findAll(firstPage.get(1).getId(), 2);
+
+        assertThat(secondPage.size()).isEqualTo(1);
+        assertThat(firstPage).extracting(Person::getId)
+                             .doesNotContain(secondPage.get(0).getId());
+    }
+
+    @Test
+    public void streamAllShouldReturnEveryPerson() {
+        personRepository.save(new Person(null, "Jeff Smith", 1f, 1f, "10/10/2000", Gender.MALE));
+
+        try (Stream<Person> people = personRepository.streamAll()) {
+            assertThat(people.collect(Collectors.toList()).size()).isEqualTo(2);
+        }
+    }
+
+    @Test
+    public void insertAllShouldAddEveryPersonToThePersonDatabase() {
+        List<Person> people = new ArrayList<>();
+        people.add(new Person(UUID.randomUUID(), "Jeff Smith", 1f, 1f, "10/10/2000", Gender.MALE));
+        people.add(
+            new Person(UUID.randomUUID(), "Jane Smith", 1f, 1f, "10/10/2000", Gender.FEMALE));
+
+        assertThat(personRepository.insertAll(people).getInsertedCount()).isEqualTo(2);
+        assertThat(mongoTemplate.findAll(Person.class).size()).isEqualTo(3);
+    }
+
+    @Test
+    public void updateAndReturnShouldReturnStoredPersonWithIncrementedVersion() {
+        UUID savedPersonId = mongoTemplate.findAll(Person.class).get(0).getId();
+        Person updatedPerson = new Person(savedPersonId, "Joanne Smith", 2f, 2f, "10/10/2010",
+            Gender.FEMALE);
+
+        Person storedPerson = personRepository.updateAndReturn(updatedPerson);
+
+        assertThat(storedPerson.getName()).isEqualTo("Joanne Smith");
+        assertThat(storedPerson.getGender()).isEqualTo(Gender.FEMALE);
+        assertThat(storedPerson.getVersion()).isEqualTo(1);
+    }
+
+    @Test
+    public void updateAndReturnShouldReturnNullWhenVersionDoesNotMatch() {
+        UUID savedPersonId = mongoTemplate.findAll(Person.class).get(0).getId();
+        Person updatedPerson = new Person(savedPersonId, "Joanne Smith", 2f, 2f, "10/10/2010",
+            Gender.FEMALE, 5L);
+
+        assertThat(personRepository.updateAndReturn(updatedPerson)).isNull();
+    }
+
+    @Test
+    public void patchShouldOnlySetProvidedFields() {
+        UUID savedPersonId = mongoTemplate.findAll(Person.class).get(0).getId();
+
+        Person storedPerson = personRepository
+            .patch(new Person(savedPersonId, "Joanne Smith", null, null, null, null));
+
+        assertThat(storedPerson.getName()).isEqualTo("Joanne Smith");
+        assertThat(storedPerson.getWeight()).isEqualTo(1);
+        assertThat(storedPerson.getDateOfBirth()).isEqualTo("10/10/2000");
+        assertThat(storedPerson.getGender()).isEqualTo(Gender.MALE);
+    }
+
+    @Test
+    public void updateAndReturnChangeShouldReturnThePersonBeforeAndAfterTheUpdate() {
+        Person savedPerson = mongoTemplate.findAll(Person.class).get(0);
+        Person updatedPerson = new Person(savedPerson.getId(), "Joanne Smith", 2f, 2f,
+            "10/10/2010", Gender.FEMALE);
+
+        PersonChange change = personRepository.updateAndReturnChange(updatedPerson);
+
+        assertThat(change.getPrevious()).usingRecursiveComparison().isEqualTo(savedPerson);
+        assertThat(change.getCurrent()).usingRecursiveComparison()
+                                       .isEqualTo(personRepository.findById(savedPerson.getId()));
+    }
+
+    @Test
+    public void patchAndReturnChangeShouldReturnThePersonBeforeAndAfterThePatch() {
+        Person savedPerson = mongoTemplate.findAll(Person.class).get(0);
+
+        PersonChange change = personRepository.patchAndReturnChange(
+            new Person(savedPerson.getId(), "Joanne Smith", null, null, null, null));
+
+        assertThat(change.getPrevious()).usingRecursiveComparison().isEqualTo(savedPerson);
+        assertThat(change.getCurrent()).usingRecursiveComparison()
+                                       .isEqualTo(personRepository.findById(savedPerson.getId()));
+    }
+
+    @Test
+    public void removeAndReturnShouldReturnTheRemovedPerson() {
+        Person savedPerson = mongoTemplate.findAll(Person.class).get(0);
+
+        assertThat(personRepository.removeAndReturn(savedPerson.getId()))
+            .usingRecursiveComparison().isEqualTo(savedPerson);
+        assertThat(personRepository.removeAndReturn(savedPerson.getId())).isNull();
+    }
+
+    @Test
+    public void patchShouldReturnNullWithInvalidId() {
+        assertThat(personRepository
+            .patch(new Person(UUID.randomUUID(), "Joanne Smith", null, null, null, null)))
+            .isNull();
+    }
+
+    @Test
+    public void searchShouldMatchNameCaseInsensitively() {
+        assertThat(personRepository.search(search("JOHN SMITH", null, null, null, "id")).size())
+            .isEqualTo(1);
+    }
+
+    @Test
+    public void searchShouldFilterByGender() {
+        personRepository.save(new Person(null, "Jane Smith", 1f, 1f, "11/11/2001", Gender.FEMALE));
+
+        assertThat(personRepository.search(search(null, Gender.FEMALE, null, null, "id")).get(0)
+                                   .getName()).isEqualTo("Jane Smith");
+    }
+
+    @Test
+    public void searchShouldFilterByBirthDayRange() {
+        personRepository.save(new Person(null, "Jane Smith", 1f, 1f, "11/11/2001", Gender.FEMALE));
+        int bornFrom = DateOfBirthFormat.toEpochDay("01/01/2000");
+        int bornBefore = DateOfBirthFormat.toEpochDay("01/01/2001");
+
+        List<Person> people = personRepository
+            .search(search(null, null, bornFrom, bornBefore, "id"));
+
+        assertThat(people.size()).isEqualTo(1);
+        assertThat(people.get(0).getName()).isEqualTo("John Smith");
+    }
+
+    @Test
+    public void searchShouldSortByNameAndPaginate() {
+        personRepository.save(new Person(null, "adam Smith", 1f, 1f, "10/10/2000", Gender.MALE));
+
+        assertThat(personRepository.search(new PersonSearch(null, null, null, null, "name", 0, 1))
+                                   .get(0).getName()).isEqualTo("adam Smith");
+        assertThat(personRepository.search(new PersonSearch(null, null, null, null, "name", 1, 1))
+                                   .get(0).getName()).isEqualTo("John Smith");
+    }
+
+    @Test
+    public void searchShouldSortByDateOfBirth() {
+        personRepository.save(new Person(null, "Jane Smith", 1f, 1f, "31/12/1999", Gender.FEMALE));
+
+        assertThat(personRepository.search(search(null, null, null, null, "dateOfBirth")).get(0)
+                                   .getName()).isEqualTo("Jane Smith");
+    }
+
+    @Test
+    public void searchByNameShouldUseTheCaseInsensitiveNameIndex() {
+        assertThat(explain(personRepository.searchQuery(search("john smith", null, null, null,
+            "id")))).contains("IXSCAN").contains("name_ci_id").doesNotContain("\"SORT\"");
+    }
+
+    @Test
+    public void searchByGenderShouldUseTheGenderIndex() {
+        assertThat(explain(personRepository.searchQuery(search(null, Gender.MALE, null, null,
+            "id")))).contains("IXSCAN").contains("gender_id").doesNotContain("\"SORT\"");
+    }
+
+    @Test
+    public void searchByBirthDayRangeShouldUseTheBirthDayIndex() {
+        assertThat(explain(personRepository.searchQuery(search(null, null, 0, 20000,
+            "dateOfBirth")))).contains("IXSCAN").contains("\"birthDay\"")
+                             .doesNotContain("\"SORT\"");
+    }
+
+    @Test
+    public void searchSortedByNameShouldReadThePageInIndexOrder() {
+        assertThat(explain(personRepository.searchQuery(new PersonSearch(null, null, null, null,
+            "name", 2, 10)))).contains("IXSCAN").contains("\"SKIP\"")
+                             .doesNotContain("\"SORT\"");
+    }
+
+    @Test
+    public void searchByGenderSortedByNameShouldUseTheGenderAndNameIndex() {
+        assertThat(explain(personRepository.searchQuery(search(null, Gender.MALE, null, null,
+            "name")))).contains("IXSCAN").contains("gender_name_ci").doesNotContain("\"SORT\"");
+    }
+
+    @Test
+    public void searchByGenderSortedByDateOfBirthShouldUseTheGenderAndBirthDayIndex() {
+        assertThat(explain(personRepository.searchQuery(search(null, Gender.MALE, null, null,
+            "dateOfBirth")))).contains("IXSCAN").contains("gender_birthDay")
+                             .doesNotContain("\"SORT\"");
+    }
+
+    @Test
+    public void findByIdShouldReadLegacyStringDateOfBirth() {
+        UUID legacyPersonId = UUID.randomUUID();
+        mongoTemplate.insert(new Document("_id", legacyPersonId).append("name", "Legacy Smith")
+                                                                .append("weight", 1f)
+                                                                .append("height", 1f)
+                                                                .append("dateOfBirth",
+                                                                    "10/10/1990")
+                                                                .append("gender", "MALE"),
+            "people");
+
+        Person personFound = personRepository.findById(legacyPersonId);
+
+        assertThat(personFound.getDateOfBirth()).isEqualTo("10/10/1990");
+        assertThat(personFound.getBirthDay()).isEqualTo(DateOfBirthFormat.toEpochDay("10/10/1990"));
+    }
+
+    private PersonSearch search(String name, Gender gender, Integer bornFrom, Integer bornBefore,
+        String sort) {
+        return new PersonSearch(name, gender, bornFrom, bornBefore, sort, 0, 10);
+    }
+
+    private String explain(Query query) {
+        QueryMapper queryMapper = new QueryMapper(mongoTemplate.getConverter());
+        MongoPersistentEntity<?> entity = mongoTemplate.getConverter().getMappingContext()
+                                                       .getRequiredPersistentEntity(Person.class);
+        Document find = new Document("find", "people")
+            .append("filter", queryMapper.getMappedObject(query.getQueryObject(), entity))
+            .append("sort", queryMapper.getMappedSort(query.getSortObject(), entity))
+            .append("skip", query.getSkip()).append("limit", query.getLimit());
+        query.getCollation()
+             .ifPresent(collation -> find.append("collation", collation.toDocument()));
+        Document explain = new Document("explain", find).append("verbosity", "queryPlanner");
+
+        return mongoTemplate.getDb().runCommand(explain).get("queryPlanner", Document.class)
+                            .get("winningPlan", Document.class).toJson();
+    }
+
+    @Test
+    public void findAllByIdsShouldReturnOnlyExistingPeople() {
+        UUID savedPersonId = mongoTemplate.findAll(Person.class).get(0).getId();
+        Person otherPerson = personRepository
+            .save(new Person(null, "Jane Doe", 1f, 1f, "10/10/2000", Gender.FEMALE));
+
+        List<Person> people = personRepository
+            .findAllByIds(List.of(savedPersonId, otherPerson.getId(), UUID.randomUUID()));
+
+        assertThat(people.stream().map(Person::getId).collect(Collectors.toList()))
+            .containsExactlyInAnyOrder(savedPersonId, otherPerson.getId());
+    }
+
+    @Test
+    public void findByIdWithFieldsShouldOnlyReadTheRequestedFields() {
+        UUID savedPersonId = mongoTemplate.findAll(Person.class).get(0).getId();
+        Person personFound = personRepository
+            .findById(savedPersonId, new PersonFields(List.of("name")));
+
+        assertThat(personFound.getId()).isEqualTo(savedPersonId);
+        assertThat(personFound.getName()).isEqualTo("John Smith");
+        assertThat(personFound.hasWeight()).isFalse();
+        assertThat(personFound.getDateOfBirth()).isNull();
+        assertThat(personFound.getGender()).isNull();
+    }
+
+    @Test
+    public void findAllWithFieldsShouldReadTheDateOfBirthFromEitherStoredForm() {
+        UUID legacyPersonId = UUID.randomUUID();
+        mongoTemplate.insert(new Document("_id", legacyPersonId).append("name", "Jane Doe")
+                                                                .append("dateOfBirth",
+                                                                    "11/11/2001"), "people");
+
+        List<Person> people = personRepository.findAll(null, 10,
+            new PersonFields(List.of("dateOfBirth")));
+
+        assertThat(people).extracting(Person::getDateOfBirth)
+                          .containsExactlyInAnyOrder("10/10/2000", "11/11/2001");
+        assertThat(people).extracting(Person::getName).containsOnlyNulls();
+    }
+
+    @Test
+    public void getPersonStatsShouldSummariseEveryone() {
+        personRepository
+            .save(new Person(null, "Jane Doe", 60f, 170f, "11/11/1990", Gender.FEMALE));
+
+        PersonStats personStats = personRepository
+            .getPersonStats(LocalDate.of(2024, 1, 1), false);
+
+        assertThat(personStats.getCount()).isEqualTo(2);
+        assertThat(personStats.getAverageWeight()).isEqualTo(30.5);
+        assertThat(personStats.getAverageHeight()).isEqualTo(85.5);
+        assertThat(personStats.getWeightStandardDeviation()).isEqualTo(29.5);
+        assertThat(personStats.getHeightStandardDeviation()).isEqualTo(84.5);
+        assertThat(personStats.getCountByGender())
+            .containsEntry(Gender.MALE, 1L).containsEntry(Gender.FEMALE, 1L);
+        assertThat(personStats.getBmiDistribution()).extracting(PersonStats.Bucket::getCount)
+                                                    .containsExactly(0L, 1L, 0L, 1L);
+        assertThat(personStats.getAgeDistribution()).extracting(PersonStats.Bucket::getCount)
+                                                    .containsExactly(0L, 0L, 1L, 1L, 0L, 0L, 0L,
+                                                        0L, 0L, 0L, 0L);
+    }
+
+    @Test
+    public void getPersonStatsShouldBucketEveryoneWithAWeightAndHeightByBmi() {
+        personRepository
+            .save(new Person(null, "Jane Doe", 50f, 172f, "11/11/1990", Gender.FEMALE));
+        personRepository
+            .save(new Person(null, "Jeff Smith", 80f, 172f, "11/11/1990", Gender.MALE));
+        personRepository
+            .save(new Person(null, "Joe Bloggs", 100f, 169f, "11/11/1990", Gender.MALE));
+        personRepository
+            .save(new Person(null, "Jill Bloggs", null, 160f, "11/11/1990", Gender.FEMALE));
+
+        PersonStats personStats = personRepository
+            .getPersonStats(LocalDate.of(2024, 1, 1), false);
+
+        assertThat(personStats.getBmiDistribution()).extracting(PersonStats.Bucket::getFrom)
+                                                    .containsExactly(0.0, 18.5, 25.0, 30.0);
+        assertThat(personStats.getBmiDistribution()).extracting(PersonStats.Bucket::getCount)
+                                                    .containsExactly(1L, 0L, 1L, 2L);
+    }
 }
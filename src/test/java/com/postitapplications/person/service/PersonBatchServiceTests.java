@@ -0,0 +1,168 @@
+package com.postitapplications.person.service;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.mockito.ArgumentMatchers.anyList;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+import com.fasterxml.jackson.databind.MappingIterator;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.mongodb.MongoBulkWriteException;
+import com.mongodb.ServerAddress;
+import com.mongodb.bulk.BulkWriteError;
+import com.mongodb.bulk.BulkWriteResult;
+import com.postitapplications.person.document.Person;
+import com.postitapplications.person.document.Person.Gender;
+import com.postitapplications.person.document.PersonBatchResult;
+import com.postitapplications.person.document.PersonBatchResult.Status;
+import com.postitapplications.person.id.PersonIdGenerator;
+import com.postitapplications.person.repository.PersonRepository;
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import org.bson.BsonDocument;
+import org.junit.jupiter.api.Test;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.boot.test.mock.mockito.MockBean;
+import org.springframework.dao.DataAccessResourceFailureException;
+import org.springframework.data.mongodb.BulkOperationException;
+
+@SpringBootTest
+public class PersonBatchServiceTests {
+
+    private final PersonIdGenerator personIdGenerator = PersonIdGenerator.random();
+    private PersonBatchService personBatchService;
+
+    @MockBean
+    private PersonRepository mockPersonRepository;
+
+    @Test
+    public void constructorShouldThrowIllegalArgumentExceptionWhenChunkSizeIsZero() {
+        Exception exception = assertThrows(IllegalArgumentException.class, () -> {
+            new PersonBatchService(mockPersonRepository, 0, personIdGenerator);
+        });
+
+        assertThat(exception.getMessage()).isEqualTo("Batch chunk size must be greater than zero");
+    }
+
+    @Test
+    public void savePeopleShouldReportEveryValidPersonAsSaved() {
+        List<Person> people = new ArrayList<>();
+        people.add(new Person(null, "John Smith", 1f, 1f, "10/10/2000", Gender.MALE));
+        people.add(new Person(null, "Jane Smith", 1f, 1f, "10/10/2000", Gender.FEMALE));
+
+        personBatchService = new PersonBatchService(mockPersonRepository, 10, personIdGenerator);
+        PersonBatchResult batchResult = personBatchService.savePeople(people.iterator());
+
+        assertThat(batchResult.getSavedCount()).isEqualTo(2);
+        assertThat(batchResult.getFailedCount()).isEqualTo(0);
+        assertThat(batchResult.getItems()).allMatch(item -> item.getId() != null);
+    }
+
+    @Test
+    public void savePeopleShouldReportInvalidPersonAsFailedWithoutFailingTheBatch() {
+        List<Person> people = new ArrayList<>();
+        people.add(new Person(null, "John Smith", 1f, 1f, "10/10/2000", Gender.MALE));
+        people.add(new Person(null, "", 1f, 1f, "10/10/2000", Gender.FEMALE));
+
+        personBatchService = new PersonBatchService(mockPersonRepository, 10, personIdGenerator);
+        PersonBatchResult batchResult = personBatchService.savePeople(people.iterator());
+
+        assertThat(batchResult.getSavedCount()).isEqualTo(1);
+        assertThat(batchResult.getFailedCount()).isEqualTo(1);
+        assertThat(batchResult.getItems()).anyMatch(
+            item -> item.getIndex() == 1 && item.getStatus() == Status.FAILED && item.getError()
+                .equals("Person's name cannot be null or empty"));
+    }
+
+    @Test
+    public void savePeopleShouldFlushInChunksOfTheConfiguredSize() {
+        List<Person> people = new ArrayList<>();
+
+        for (int i = 0; i < 5; i++) {
+            people.add(new Person(null, "John Smith", 1f, 1f, "10/10/2000", Gender.MALE));
+        }
+
+        personBatchService = new PersonBatchService(mockPersonRepository, 2, personIdGenerator);
+        personBatchService.savePeople(people.iterator());
+
+        verify(mockPersonRepository, times(3)).insertAll(anyList());
+    }
+
+    @Test
+    public void savePeopleShouldReportWriteErrorsAgainstTheOriginalIndex() {
+        List<Person> people = new ArrayList<>();
+        people.add(new Person(null, "", 1f, 1f, "10/10/2000", Gender.MALE));
+        people.add(new Person(null, "John Smith", 1f, 1f, "10/10/2000", Gender.MALE));
+        people.add(new Person(null, "Jane Smith", 1f, 1f, "10/10/2000", Gender.FEMALE));
+        BulkWriteError writeError = new BulkWriteError(11000, "duplicate key", new BsonDocument(),
+            1);
+        MongoBulkWriteException bulkWriteException = new MongoBulkWriteException(
+            BulkWriteResult.unacknowledged(), Collections.singletonList(writeError), null,
+            new ServerAddress());
+
+        when(mockPersonRepository.insertAll(anyList()))
+            .thenThrow(new BulkOperationException("duplicate key", bulkWriteException));
+        personBatchService = new PersonBatchService(mockPersonRepository, 10, personIdGenerator);
+        PersonBatchResult batchResult = personBatchService.savePeople(people.iterator());
+
+        assertThat(batchResult.getSavedCount()).isEqualTo(1);
+        assertThat(batchResult.getFailedCount()).isEqualTo(2);
+        assertThat(batchResult.getItems()).anyMatch(
+            item -> item.getIndex() == 2 && item.getStatus() == Status.FAILED && item.getError()
+                .equals("duplicate key"));
+    }
+
+    @Test
+    public void savePeopleShouldReportUnreadableLinesAsFailedAndCarryOn() throws IOException {
+        String people = String.join("\n", personJson("John Smith", "1"),
+            personJson("Jane Smith", "\"heavy\""), personJson("Jeff Smith", "1"));
+
+        personBatchService = new PersonBatchService(mockPersonRepository, 10, personIdGenerator);
+        PersonBatchResult batchResult;
+
+        try (MappingIterator<Person> iterator = new ObjectMapper().readerFor(Person.class)
+                                                                  .readValues(people)) {
+            batchResult = personBatchService.savePeople(iterator);
+        }
+
+        assertThat(batchResult.getSavedCount()).isEqualTo(2);
+        assertThat(batchResult.getFailedCount()).isEqualTo(1);
+        assertThat(batchResult.getItems()).anyMatch(
+            item -> item.getIndex() == 1 && item.getStatus() == Status.FAILED);
+        assertThat(batchResult.getItems()).anyMatch(
+            item -> item.getIndex() == 2 && item.getStatus() == Status.SAVED);
+    }
+
+    @Test
+    public void savePeopleShouldReportAChunkAsFailedWhenItsInsertFails() {
+        List<Person> people = new ArrayList<>();
+
+        for (int i = 0; i < 3; i++) {
+            people.add(new Person(null, "John Smith", 1f, 1f, "10/10/2000", Gender.MALE));
+        }
+
+        when(mockPersonRepository.insertAll(anyList()))
+            .thenThrow(new DataAccessResourceFailureException("Mongo is unavailable"))
+            .thenReturn(null);
+        personBatchService = new PersonBatchService(mockPersonRepository, 2, personIdGenerator);
+        PersonBatchResult batchResult = personBatchService.savePeople(people.iterator());
+
+        assertThat(batchResult.getSavedCount()).isEqualTo(1);
+        assertThat(batchResult.getFailedCount()).isEqualTo(2);
+        assertThat(batchResult.getItems()).filteredOn(item -> item.getStatus() == Status.FAILED)
+                                          .extracting(PersonBatchResult.ItemResult::getIndex)
+                                          .containsExactly(0, 1);
+        assertThat(batchResult.getItems()).filteredOn(item -> item.getStatus() == Status.FAILED)
+                                          .allMatch(item -> item.getError()
+                                              .equals("Mongo is unavailable"));
+    }
+
+    private static String personJson(String name, String weight) {
+        return String.format("{\"name\":\"%s\",\"weight\":%s,\"height\":1,"
+            + "\"dateOfBirth\":\"10/10/2000\",\"gender\":\"MALE\"}", name, weight);
+    }
+}
@@ -2,6 +2,8 @@ package com.postitapplications.person.service;
 
 import static org.assertj.core.api.Assertions.assertThat;
 import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.eq;
 import static org.mockito.Mockito.when;
 
 import com.mongodb.client.result.DeleteResult;
@@ -11,7 +13,13 @@ import com.postitapplications.exception.exceptions.ValidationException;
 import com.postitapplications.exception.exceptions.BusinessLogicException;
 import com.postitapplications.person.document.Person;
 import com.postitapplications.person.document.Person.Gender;
+import com.postitapplications.person.document.PersonChange;
+import com.postitapplications.person.document.PersonLookupResult;
+import com.postitapplications.person.document.PersonStats;
+import com.postitapplications.person.document.PersonStatsAccumulator;
 import com.postitapplications.person.repository.PersonRepository;
+import java.time.Duration;
+import java.time.LocalDate;
 import java.util.ArrayList;
 import java.util.List;
 import java.util.UUID;
@@ -19,6 +27,7 @@ import org.junit.jupiter.api.Test;
 import org.mockito.Mockito;
 import org.springframework.boot.test.context.SpringBootTest;
 import org.springframework.boot.test.mock.mockito.MockBean;
+import org.springframework.dao.OptimisticLockingFailureException;
 
 @SpringBootTest
 public class PersonServiceTests {
@@ -231,6 +240,52 @@ public class PersonServiceTests {
         assertThat(personService.getAllPeople()).isEqualTo(new ArrayList<>());
     }
 
+    @Test
+    public void getPeopleShouldReturnPageOfPeopleFromRepository() {
+        UUID after = UUID.randomUUID();
+        List<Person> people = new ArrayList<>();
+        people.add(new Person(UUID.randomUUID(), "John Smith", 1f, 1f, "10/10/2000", Gender.MALE));
+
+        when(mockPersonRepository.findAll(after, 1)).thenReturn(people);
+        personService = new PersonService(mockPersonRepository);
+
+        assertThat(personService.getPeople(after, 1)).isEqualTo(people);
+    }
+
+    @Test
+    public void getPeopleShouldThrowBusinessLogicExceptionWhenLimitIsZero() {
+        personService = new PersonService(mockPersonRepository);
+
+        Exception exception = assertThrows(BusinessLogicException.class, () -> {
+            personService.getPeople(null, 0);
+        });
+
+        assertThat(exception.getMessage()).isEqualTo("Page limit must be between 1 and 1000");
+    }
+
+    @Test
+    public void getPeopleShouldThrowBusinessLogicExceptionWhenLimitIsTooLarge() {
+        personService = new PersonService(mockPersonRepository);
+
+        Exception exception = assertThrows(BusinessLogicException.class, () -> {
+            personService.getPeople(null, 1001);
+        });
+
+        assertThat(exception.getMessage()).isEqualTo("Page limit must be between 1 and 1000");
+    }
+
+    @Test
+    public void searchPeopleShouldThrowBusinessLogicExceptionWhenThePageStartsTooDeep() {
+        personService = new PersonService(mockPersonRepository);
+
+        Exception exception = assertThrows(BusinessLogicException.class, () -> {
+            personService.searchPeople(null, null, null, null, null, null, "id", 101, 100);
+        });
+
+        assertThat(exception.getMessage()).isEqualTo(
+            "Search pages cannot start after the first 10000 people, narrow the search instead");
+    }
+
     @Test
     public void getPersonByIdShouldReturnAPersonWhenPersonExists() {
         UUID savedPersonId = UUID.randomUUID();
@@ -468,4 +523,168 @@ public class PersonServiceTests {
 
         assertThat(exception.getMessage()).isEqualTo("Id cannot be null");
     }
+
+    @Test
+    public void patchPersonShouldReturnStoredPersonOnSuccessfulPatch() {
+        UUID personId = UUID.randomUUID();
+        Person storedPerson = new Person(personId, "Jane Smith", 1f, 1f, "10/10/2000",
+            Gender.FEMALE, 2L);
+
+        when(mockPersonRepository.patch(Mockito.any())).thenReturn(storedPerson);
+        personService = new PersonService(mockPersonRepository);
+
+        assertThat(personService.patchPerson(personId,
+            new Person(null, "Jane Smith", null, null, null, null))).isEqualTo(storedPerson);
+    }
+
+    @Test
+    public void patchPersonShouldThrowBusinessLogicExceptionWhenProvidedHeightIsZero() {
+        personService = new PersonService(mockPersonRepository);
+
+        Exception exception = assertThrows(BusinessLogicException.class, () -> {
+            personService
+                .patchPerson(UUID.randomUUID(), new Person(null, null, null, 0f, null, null));
+        });
+
+        assertThat(exception.getMessage())
+            .isEqualTo("Person's height cannot be less than or equal to zero");
+    }
+
+    @Test
+    public void updatePersonAndReturnShouldThrowOptimisticLockingFailureExceptionOnStaleVersion() {
+        UUID personId = UUID.randomUUID();
+        Person stalePerson = new Person(personId, "John Smith", 1f, 1f, "10/10/2000", Gender.MALE,
+            1L);
+
+        when(mockPersonRepository.updateAndReturn(stalePerson)).thenReturn(null);
+        when(mockPersonRepository.existsById(personId)).thenReturn(true);
+        personService = new PersonService(mockPersonRepository);
+
+        assertThrows(OptimisticLockingFailureException.class, () -> {
+            personService.updatePersonAndReturn(stalePerson);
+        });
+    }
+
+    @Test
+    public void updatePersonAndReturnShouldReturnNullWhenPersonDoesNotExist() {
+        Person missingPerson = new Person(UUID.randomUUID(), "John Smith", 1f, 1f, "10/10/2000",
+            Gender.MALE, 1L);
+
+        when(mockPersonRepository.updateAndReturn(missingPerson)).thenReturn(null);
+        when(mockPersonRepository.existsById(missingPerson.getId())).thenReturn(false);
+        personService = new PersonService(mockPersonRepository);
+
+        assertThat(personService.updatePersonAndReturn(missingPerson)).isNull();
+    }
+
+    @Test
+    public void getPeopleByIdsShouldKeepRequestedOrderAndReportMissingIds() {
+        Person firstPerson = new Person(UUID.randomUUID(), "John Smith", 1f, 1f, "10/10/2000",
+            Gender.MALE);
+        Person secondPerson = new Person(UUID.randomUUID(), "Jane Doe", 1f, 1f, "10/10/2000",
+            Gender.FEMALE);
+        UUID missingId = UUID.randomUUID();
+
+        when(mockPersonRepository.findAllByIds(Mockito.any()))
+            .thenReturn(List.of(firstPerson, secondPerson));
+        personService = new PersonService(mockPersonRepository);
+        PersonLookupResult lookupResult = personService
+            .getPeopleByIds(List.of(secondPerson.getId(), missingId, firstPerson.getId()));
+
+        assertThat(lookupResult.getPeople()).containsExactly(secondPerson, firstPerson);
+        assertThat(lookupResult.getMissingIds()).containsExactly(missingId);
+    }
+
+    @Test
+    public void getPeopleByIdsShouldThrowNullOrEmptyExceptionWhenIdsAreEmpty() {
+        personService = new PersonService(mockPersonRepository);
+
+        Exception exception = assertThrows(NullOrEmptyException.class, () -> {
+            personService.getPeopleByIds(List.of());
+        });
+
+        assertThat(exception.getMessage()).isEqualTo("Ids cannot be null or empty");
+    }
+
+    @Test
+    public void updatePersonShouldReplaceThePersonInTheRunningStats() {
+        Person storedPerson = new Person(UUID.randomUUID(), "Jeff Smith", 1f, 1f, "10/10/2000",
+            Gender.MALE);
+        Person updatedPerson = new Person(storedPerson.getId(), "Jeff Smith", 1f, 1f,
+            "10/10/2000", Gender.FEMALE);
+
+        when(mockPersonRepository.updateAndReturnChange(any(Person.class)))
+            .thenReturn(PersonChange.updated(storedPerson, updatedPerson));
+        personService = new PersonService(mockPersonRepository, null,
+            runningStats(storedPerson));
+
+        assertThat(personService.updatePerson(updatedPerson).getMatchedCount()).isEqualTo(1);
+
+        PersonStats personStats = personService.getPersonStats(false);
+
+        assertThat(personStats.getCount()).isEqualTo(1);
+        assertThat(personStats.getCountByGender()).containsEntry(Gender.MALE, 0L)
+                                                  .containsEntry(Gender.FEMALE, 1L);
+    }
+
+    @Test
+    public void patchPersonShouldReplaceThePersonInTheRunningStats() {
+        Person storedPerson = new Person(UUID.randomUUID(), "Jeff Smith", 1f, 1f, "10/10/2000",
+            Gender.MALE);
+        Person patch = new Person(storedPerson.getId(), null, null, null, null, Gender.FEMALE);
+
+        when(mockPersonRepository.patchAndReturnChange(any(Person.class)))
+            .thenReturn(PersonChange.patched(storedPerson, patch));
+        personService = new PersonService(mockPersonRepository, null,
+            runningStats(storedPerson));
+
+        assertThat(personService.patchPerson(storedPerson.getId(), patch).getName())
+            .isEqualTo("Jeff Smith");
+        assertThat(personService.getPersonStats(false).getCountByGender())
+            .containsEntry(Gender.MALE, 0L).containsEntry(Gender.FEMALE, 1L);
+    }
+
+    @Test
+    public void updatePersonShouldLeaveTheRunningStatsWhenNoPersonMatched() {
+        Person storedPerson = new Person(UUID.randomUUID(), "Jeff Smith", 1f, 1f, "10/10/2000",
+            Gender.MALE);
+
+        when(mockPersonRepository.updateAndReturnChange(any(Person.class))).thenReturn(null);
+        personService = new PersonService(mockPersonRepository, null,
+            runningStats(storedPerson));
+
+        assertThat(personService.updatePerson(new Person(UUID.randomUUID(), "Jeff Smith", 1f, 1f,
+            "10/10/2000", Gender.FEMALE)).getMatchedCount()).isEqualTo(0);
+        assertThat(personService.getPersonStats(false).getCountByGender())
+            .containsEntry(Gender.MALE, 1L);
+    }
+
+    @Test
+    public void deletePersonByIdShouldRemoveThePersonFromTheRunningStats() {
+        Person storedPerson = new Person(UUID.randomUUID(), "Jeff Smith", 1f, 1f, "10/10/2000",
+            Gender.MALE);
+
+        when(mockPersonRepository.removeAndReturn(storedPerson.getId())).thenReturn(storedPerson);
+        personService = new PersonService(mockPersonRepository, null,
+            runningStats(storedPerson));
+
+        assertThat(personService.deletePersonById(storedPerson.getId()).getDeletedCount())
+            .isEqualTo(1);
+        assertThat(personService.getPersonStats(false).getCount()).isEqualTo(0);
+    }
+
+    private PersonStatsService runningStats(Person... people) {
+        PersonStatsAccumulator accumulator = new PersonStatsAccumulator(LocalDate.now());
+
+        for (Person person : people) {
+            accumulator.add(person);
+        }
+
+        when(mockPersonRepository.getPersonStats(any(), eq(true)))
+            .thenReturn(accumulator.toPersonStats());
+        PersonStatsService personStatsService = new PersonStatsService(mockPersonRepository,
+            Duration.ZERO);
+        personStatsService.reconcile();
+        return personStatsService;
+    }
 }
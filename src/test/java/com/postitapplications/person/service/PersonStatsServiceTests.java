@@ -0,0 +1,149 @@
+package com.postitapplications.person.service;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+import com.postitapplications.person.document.Person;
+import com.postitapplications.person.document.Person.Gender;
+import com.postitapplications.person.document.PersonStats;
+import com.postitapplications.person.document.PersonStatsAccumulator;
+import com.postitapplications.person.repository.PersonRepo;
+import java.time.Clock;
+import java.time.Duration;
+import java.time.LocalDate;
+import java.time.ZoneOffset;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.UUID;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+public class PersonStatsServiceTests {
+
+    private static final LocalDate TODAY = LocalDate.of(2024, 1, 1);
+
+    private PersonRepo mockPersonRepo;
+    private PersonStatsService personStatsService;
+
+    @BeforeEach
+    public void setUp() {
+        mockPersonRepo = mock(PersonRepo.class);
+        personStatsService = new PersonStatsService(mockPersonRepo, Duration.ZERO,
+            Clock.fixed(TODAY.atStartOfDay().toInstant(ZoneOffset.UTC), ZoneOffset.UTC));
+    }
+
+    @Test
+    public void getPersonStatsShouldAggregateFromTheRepositoryUntilTheFirstReconcile() {
+        PersonStats repositoryStats = stats(john());
+        when(mockPersonRepo.getPersonStats(TODAY, false)).thenReturn(repositoryStats);
+
+        personStatsService.personAdded(jane());
+
+        assertThat(personStatsService.getPersonStats()).isSameAs(repositoryStats);
+    }
+
+    @Test
+    public void getPersonStatsShouldIncludeChangesReportedSinceTheLastReconcile() {
+        when(mockPersonRepo.getPersonStats(eq(TODAY), eq(true))).thenReturn(stats(john()));
+        personStatsService.reconcile();
+
+        personStatsService.personAdded(jane());
+        personStatsService.personReplaced(john(),
+            new Person(null, "John Smith", 80f, 180f, "10/10/1960", Gender.MALE));
+
+        PersonStats personStats = personStatsService.getPersonStats();
+
+        assertThat(personStats.getCount()).isEqualTo(2);
+        assertThat(personStats.getAverageWeight()).isEqualTo(70.0);
+        assertThat(personStats.getWeightStandardDeviation()).isEqualTo(10.0);
+        assertThat(personStats.getCountByGender())
+            .containsEntry(Gender.MALE, 1L).containsEntry(Gender.FEMALE, 1L);
+        assertThat(personStats.getAgeDistribution()).extracting(PersonStats.Bucket::getCount)
+                                                    .containsExactly(0L, 0L, 0L, 1L, 0L, 0L, 1L,
+                                                        0L, 0L, 0L, 0L);
+    }
+
+    @Test
+    public void personRemovedShouldTakeThePersonOutOfTheStats() {
+        when(mockPersonRepo.getPersonStats(eq(TODAY), eq(true))).thenReturn(stats(john(), jane()));
+        personStatsService.reconcile();
+
+        personStatsService.personRemoved(jane());
+
+        PersonStats personStats = personStatsService.getPersonStats();
+
+        assertThat(personStats.getCount()).isEqualTo(1);
+        assertThat(personStats.getCountByGender()).containsEntry(Gender.FEMALE, 0L);
+        assertThat(personStats.getAverageHeight()).isEqualTo(170.0);
+    }
+
+    @Test
+    public void reconcileShouldReplaceDriftedStatsWithTheRepositoryStats() {
+        when(mockPersonRepo.getPersonStats(eq(TODAY), eq(true))).thenReturn(stats(john()))
+                                                                 .thenReturn(stats(jane()));
+        personStatsService.reconcile();
+        personStatsService.personAdded(john());
+
+        personStatsService.reconcile();
+
+        PersonStats personStats = personStatsService.getPersonStats();
+
+        assertThat(personStats.getCount()).isEqualTo(1);
+        assertThat(personStats.getCountByGender()).containsEntry(Gender.MALE, 0L)
+                                                  .containsEntry(Gender.FEMALE, 1L);
+    }
+
+    @Test
+    public void personAddedShouldCountEveryPersonAddedConcurrently() throws Exception {
+        when(mockPersonRepo.getPersonStats(eq(TODAY), eq(true))).thenReturn(stats());
+        personStatsService.reconcile();
+        ExecutorService executorService = Executors.newFixedThreadPool(8);
+        List<Future<?>> writers = new ArrayList<>();
+
+        try {
+            for (int writer = 0; writer < 8; writer++) {
+                writers.add(executorService.submit(() -> {
+                    for (int i = 0; i < 1000; i++) {
+                        personStatsService.personAdded(john());
+                    }
+                }));
+            }
+
+            for (Future<?> writer : writers) {
+                writer.get();
+            }
+        } finally {
+            executorService.shutdownNow();
+        }
+
+        PersonStats personStats = personStatsService.getPersonStats();
+
+        assertThat(personStats.getCount()).isEqualTo(8000);
+        assertThat(personStats.getCountByGender()).containsEntry(Gender.MALE, 8000L);
+        assertThat(personStats.getAverageWeight()).isEqualTo(60.0);
+    }
+
+    private static PersonStats stats(Person... people) {
+        PersonStatsAccumulator accumulator = new PersonStatsAccumulator(TODAY);
+
+        for (Person person : people) {
+            accumulator.add(person);
+        }
+
+        return accumulator.toPersonStats();
+    }
+
+    private static Person john() {
+        return new Person(UUID.randomUUID(), "John Smith", 60f, 170f, "10/10/2000", Gender.MALE);
+    }
+
+    private static Person jane() {
+        return new Person(UUID.randomUUID(), "Jane Doe", 60f, 170f, "11/11/1990",
+            Gender.FEMALE);
+    }
+}
@@ -0,0 +1,179 @@
+package com.postitapplications.person.service;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyList;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.timeout;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+import com.postitapplications.person.document.Person;
+import com.postitapplications.person.document.Person.Gender;
+import com.postitapplications.person.exception.PersonWriteQueueFullException;
+import com.postitapplications.person.id.PersonIdGenerator;
+import com.postitapplications.person.repository.PersonRepo;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import java.time.Duration;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.mockito.ArgumentCaptor;
+import org.springframework.dao.DataAccessResourceFailureException;
+
+public class PersonWriteBehindServiceTests {
+
+    private PersonRepo mockPersonRepo;
+    private SimpleMeterRegistry meterRegistry;
+    private PersonWriteBehindService personWriteBehindService;
+    private Person person;
+
+    @BeforeEach
+    public void setUp() {
+        mockPersonRepo = mock(PersonRepo.class);
+        meterRegistry = new SimpleMeterRegistry();
+        person = new Person(null, "John Smith", 1f, 1f, "10/10/2000", Gender.MALE);
+    }
+
+    @AfterEach
+    public void tearDown() throws InterruptedException {
+        if (personWriteBehindService != null) {
+            personWriteBehindService.drain();
+        }
+    }
+
+    @Test
+    public void enqueueShouldReturnPersonWithGeneratedIdBeforeItIsWritten() {
+        personWriteBehindService = start(10, 10, Duration.ofMinutes(1));
+
+        Person queuedPerson = personWriteBehindService.enqueue(person);
+
+        assertThat(queuedPerson.getId()).isNotNull();
+        assertThat(queuedPerson.getName()).isEqualTo("John Smith");
+        assertThat(queuedPerson.getVersion()).isEqualTo(0L);
+        assertThat(personWriteBehindService.getQueueSize()).isEqualTo(1);
+    }
+
+    @Test
+    @SuppressWarnings("unchecked")
+    public void enqueueShouldFlushAFullBatchAsOneBulkInsert() {
+        personWriteBehindService = start(10, 2, Duration.ofMinutes(1));
+
+        Person firstPerson = personWriteBehindService.enqueue(person);
+        Person secondPerson = personWriteBehindService.enqueue(person);
+
+        ArgumentCaptor<List<Person>> batch = ArgumentCaptor.forClass(List.class);
+        verify(mockPersonRepo, timeout(5000)).insertAll(batch.capture());
+        assertThat(batch.getValue()).containsExactly(firstPerson, secondPerson);
+    }
+
+    @Test
+    public void writerShouldFlushPartialBatchesAfterTheFlushInterval() {
+        personWriteBehindService = start(10, 100, Duration.ofMillis(10));
+
+        personWriteBehindService.enqueue(person);
+
+        verify(mockPersonRepo, timeout(5000)).insertAll(anyList());
+    }
+
+    @Test
+    public void enqueueShouldThrowPersonWriteQueueFullExceptionWhenQueueIsFull() throws Exception {
+        CountDownLatch releaseWrite = new CountDownLatch(1);
+        when(mockPersonRepo.insertAll(anyList())).thenAnswer(invocation -> {
+            releaseWrite.await();
+            return null;
+        });
+        personWriteBehindService = start(1, 1, Duration.ofMinutes(1));
+
+        personWriteBehindService.enqueue(person);
+        verify(mockPersonRepo, timeout(5000)).insertAll(anyList());
+        personWriteBehindService.enqueue(person);
+
+        Exception exception = assertThrows(PersonWriteQueueFullException.class, () -> {
+            personWriteBehindService.enqueue(person);
+        });
+
+        releaseWrite.countDown();
+        assertThat(exception.getMessage())
+            .isEqualTo("Person write queue is full at 1 people, retry later");
+        assertThat(meterRegistry.counter("person.write-behind.rejected").count()).isEqualTo(1);
+    }
+
+    @Test
+    public void drainShouldWriteEverythingQueuedAndStopAcceptingWrites() throws Exception {
+        personWriteBehindService = start(10, 100, Duration.ofMinutes(1));
+
+        personWriteBehindService.enqueue(person);
+        personWriteBehindService.enqueue(person);
+        personWriteBehindService.drain();
+
+        verify(mockPersonRepo, times(1)).insertAll(anyList());
+        assertThat(meterRegistry.counter("person.write-behind.written").count()).isEqualTo(2);
+        assertThrows(IllegalStateException.class, () -> personWriteBehindService.enqueue(person));
+        personWriteBehindService = null;
+    }
+
+    @Test
+    public void writerShouldCountBatchesThatStillFailAfterRetries() throws Exception {
+        when(mockPersonRepo.insertAll(anyList()))
+            .thenThrow(new DataAccessResourceFailureException("Mongo is down"));
+        personWriteBehindService = new PersonWriteBehindService(mockPersonRepo, 10, 100,
+            Duration.ofMinutes(1), 1, Duration.ofSeconds(5), meterRegistry,
+            PersonIdGenerator.random(), null);
+        personWriteBehindService.start();
+
+        personWriteBehindService.enqueue(person);
+        personWriteBehindService.drain();
+
+        verify(mockPersonRepo, times(2)).insertAll(anyList());
+        assertThat(meterRegistry.counter("person.write-behind.failed").count()).isEqualTo(1);
+        personWriteBehindService = null;
+    }
+
+    @Test
+    public void writerShouldAddPeopleToTheStatsOnlyOnceTheyAreWritten() throws Exception {
+        PersonStatsService mockPersonStatsService = mock(PersonStatsService.class);
+        personWriteBehindService = new PersonWriteBehindService(mockPersonRepo, 10, 100,
+            Duration.ofMinutes(1), 0, Duration.ofSeconds(5), meterRegistry,
+            PersonIdGenerator.random(), mockPersonStatsService);
+        personWriteBehindService.start();
+
+        Person queuedPerson = personWriteBehindService.enqueue(person);
+
+        verify(mockPersonStatsService, never()).personAdded(queuedPerson);
+        personWriteBehindService.drain();
+
+        verify(mockPersonStatsService, times(1)).personAdded(queuedPerson);
+        personWriteBehindService = null;
+    }
+
+    @Test
+    public void writerShouldNotAddPeopleToTheStatsWhenTheirBatchFails() throws Exception {
+        PersonStatsService mockPersonStatsService = mock(PersonStatsService.class);
+        when(mockPersonRepo.insertAll(anyList()))
+            .thenThrow(new DataAccessResourceFailureException("Mongo is down"));
+        personWriteBehindService = new PersonWriteBehindService(mockPersonRepo, 10, 100,
+            Duration.ofMinutes(1), 0, Duration.ofSeconds(5), meterRegistry,
+            PersonIdGenerator.random(), mockPersonStatsService);
+        personWriteBehindService.start();
+
+        personWriteBehindService.enqueue(person);
+        personWriteBehindService.drain();
+
+        verify(mockPersonStatsService, never()).personAdded(any());
+        personWriteBehindService = null;
+    }
+
+    private PersonWriteBehindService start(int capacity, int batchSize, Duration flushInterval) {
+        PersonWriteBehindService service = new PersonWriteBehindService(mockPersonRepo, capacity,
+            batchSize, flushInterval, 0, Duration.ofSeconds(5), meterRegistry,
+            PersonIdGenerator.random(), null);
+        service.start();
+        return service;
+    }
+}
@@ -0,0 +1,75 @@
+package com.postitapplications.person.service;
+
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+import com.postitapplications.exception.exceptions.BusinessLogicException;
+import com.postitapplications.exception.exceptions.ValidationException;
+import com.postitapplications.person.document.Person;
+import com.postitapplications.person.document.Person.Gender;
+import com.postitapplications.person.repository.ReactivePersonRepo;
+import java.util.UUID;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+import reactor.test.StepVerifier;
+
+public class ReactivePersonServiceTests {
+
+    private ReactivePersonRepo mockPersonRepo;
+    private ReactivePersonService personService;
+
+    @BeforeEach
+    public void setUp() {
+        mockPersonRepo = mock(ReactivePersonRepo.class);
+        personService = new ReactivePersonService(mockPersonRepo);
+    }
+
+    @Test
+    public void savePersonShouldEmitSavedPersonOnSuccessfulSave() {
+        Person person = new Person(UUID.randomUUID(), "John Smith", 1f, 1f, "10/10/2000",
+            Gender.MALE);
+
+        when(mockPersonRepo.save(person)).thenReturn(Mono.just(person));
+
+        StepVerifier.create(personService.savePerson(person)).expectNext(person).verifyComplete();
+    }
+
+    @Test
+    public void savePersonShouldEmitValidationExceptionWhenPersonIsNull() {
+        StepVerifier.create(personService.savePerson(null))
+                    .expectErrorMessage("Person cannot be null").verify();
+    }
+
+    @Test
+    public void getPeopleShouldEmitBusinessLogicExceptionWhenLimitIsZero() {
+        StepVerifier.create(personService.getPeople(null, 0))
+                    .expectError(BusinessLogicException.class).verify();
+    }
+
+    @Test
+    public void getAllPeopleShouldEmitEveryPersonFromRepository() {
+        Person person = new Person(UUID.randomUUID(), "John Smith", 1f, 1f, "10/10/2000",
+            Gender.MALE);
+
+        when(mockPersonRepo.findAll()).thenReturn(Flux.just(person));
+
+        StepVerifier.create(personService.getAllPeople()).expectNext(person).verifyComplete();
+    }
+
+    @Test
+    public void getPersonByIdShouldEmitValidationExceptionWhenIdIsNull() {
+        StepVerifier.create(personService.getPersonById(null))
+                    .expectError(ValidationException.class).verify();
+    }
+
+    @Test
+    public void getPersonByIdShouldCompleteEmptyWhenPersonDoesNotExist() {
+        UUID personId = UUID.randomUUID();
+
+        when(mockPersonRepo.findById(personId)).thenReturn(Mono.empty());
+
+        StepVerifier.create(personService.getPersonById(personId)).verifyComplete();
+    }
+}
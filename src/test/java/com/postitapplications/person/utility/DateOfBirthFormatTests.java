@@ -0,0 +1,47 @@
+package com.postitapplications.person.utility;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import org.junit.jupiter.api.Test;
+
+public class DateOfBirthFormatTests {
+
+    @Test
+    public void isValidShouldReturnTrueForValidDate() {
+        assertThat(DateOfBirthFormat.isValid("10/10/2000")).isTrue();
+    }
+
+    @Test
+    public void isValidShouldReturnTrueForLeapDayInLeapYear() {
+        assertThat(DateOfBirthFormat.isValid("29/02/2000")).isTrue();
+        assertThat(DateOfBirthFormat.isValid("29/02/2004")).isTrue();
+    }
+
+    @Test
+    public void isValidShouldReturnFalseForLeapDayInNonLeapYear() {
+        assertThat(DateOfBirthFormat.isValid("29/02/1900")).isFalse();
+        assertThat(DateOfBirthFormat.isValid("29/02/2001")).isFalse();
+    }
+
+    @Test
+    public void isValidShouldReturnFalseForDayPastEndOfMonth() {
+        assertThat(DateOfBirthFormat.isValid("31/04/2000")).isFalse();
+        assertThat(DateOfBirthFormat.isValid("32/01/2000")).isFalse();
+    }
+
+    @Test
+    public void isValidShouldReturnFalseForOutOfRangeFields() {
+        assertThat(DateOfBirthFormat.isValid("00/10/2000")).isFalse();
+        assertThat(DateOfBirthFormat.isValid("10/13/2000")).isFalse();
+        assertThat(DateOfBirthFormat.isValid("10/10/0000")).isFalse();
+    }
+
+    @Test
+    public void isValidShouldReturnFalseForWrongFormat() {
+        assertThat(DateOfBirthFormat.isValid(null)).isFalse();
+        assertThat(DateOfBirthFormat.isValid("10/30/12")).isFalse();
+        assertThat(DateOfBirthFormat.isValid("2000-10-10")).isFalse();
+        assertThat(DateOfBirthFormat.isValid("1a/10/2000")).isFalse();
+        assertThat(DateOfBirthFormat.isValid("10/10/2000 ")).isFalse();
+    }
+}
@@ -9,6 +9,7 @@ import com.postitapplications.exception.exceptions.NullOrEmptyException;
 import com.postitapplications.exception.exceptions.ValidationException;
 import com.postitapplications.person.document.Person;
 import com.postitapplications.person.document.Person.Gender;
+import java.util.List;
 import java.util.UUID;
 import org.junit.jupiter.api.Test;
 import org.springframework.boot.test.context.SpringBootTest;
@@ -171,4 +172,28 @@ public class PersonValidatorTests {
     public void validatePersonIdShouldNotThrowAnExceptionWithValidId() {
         assertDoesNotThrow(() -> PersonValidator.validatePersonId(UUID.randomUUID()));
     }
+
+    @Test
+    public void validateFieldsShouldThrowNullOrEmptyExceptionWhenFieldsAreEmpty() {
+        Exception exception = assertThrows(NullOrEmptyException.class, () -> {
+            PersonValidator.validateFields(List.of());
+        });
+
+        assertThat(exception.getMessage()).isEqualTo("Fields cannot be null or empty");
+    }
+
+    @Test
+    public void validateFieldsShouldThrowBusinessLogicExceptionWhenAFieldIsUnknown() {
+        Exception exception = assertThrows(BusinessLogicException.class, () -> {
+            PersonValidator.validateFields(List.of("name", "address"));
+        });
+
+        assertThat(exception.getMessage()).isEqualTo(
+            "Fields must be any of: id, name, weight, height, dateOfBirth, gender, version");
+    }
+
+    @Test
+    public void validateFieldsShouldNotThrowAnExceptionWithKnownFields() {
+        assertDoesNotThrow(() -> PersonValidator.validateFields(List.of("id", "name")));
+    }
 }